@@ -0,0 +1,115 @@
+package com.salesmanager.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JSON result files written by {@link BenchmarkRunner}, for
+ * example the results of the previous release with the current ones.
+ * Benchmarks slower by more than the threshold (10% by default) are reported
+ * as regressions and make the comparison exit with status 1
+ *
+ * java -cp benchmarks.jar com.salesmanager.benchmarks.BenchmarkComparison
+ * baseline.json current.json [threshold %]
+ */
+public final class BenchmarkComparison {
+
+	static final double DEFAULT_THRESHOLD = 10;
+
+	private static final String THROUGHPUT = "thrpt";
+
+	private BenchmarkComparison() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BenchmarkComparison baseline.json current.json [threshold %]");
+			System.exit(2);
+		}
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+		Map<String, Score> baseline = read(new File(args[0]));
+		Map<String, Score> current = read(new File(args[1]));
+
+		int regressions = 0;
+		System.out.println(String.format("%-80s %14s %14s %-8s %9s", "Benchmark", "Baseline", "Current", "Unit", "Change"));
+		for (Map.Entry<String, Score> entry : current.entrySet()) {
+			Score score = entry.getValue();
+			Score previous = baseline.get(entry.getKey());
+			if (previous == null) {
+				System.out.println(String.format("%-80s %14s %14.3f %-8s %9s", entry.getKey(), "-", score.value,
+						score.unit, "new"));
+				continue;
+			}
+			double change = score.improvement(previous);
+			boolean regression = change < -threshold;
+			if (regression) {
+				regressions++;
+			}
+			System.out.println(String.format("%-80s %14.3f %14.3f %-8s %+8.1f%%%s", entry.getKey(),
+					previous.value, score.value, score.unit, change, regression ? " REGRESSION" : ""));
+		}
+		System.out.println(String.format("%d regression(s) over %.1f%%", regressions, threshold));
+		if (regressions > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Scores by benchmark name and parameters
+	 */
+	static Map<String, Score> read(File file) throws IOException {
+		Map<String, Score> scores = new LinkedHashMap<String, Score>();
+		for (JsonNode result : new ObjectMapper().readTree(file)) {
+			StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+			JsonNode params = result.path("params");
+			if (params.size() > 0) {
+				Map<String, String> sorted = new TreeMap<String, String>();
+				Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+				while (fields.hasNext()) {
+					Map.Entry<String, JsonNode> field = fields.next();
+					sorted.put(field.getKey(), field.getValue().asText());
+				}
+				name.append(sorted);
+			}
+			JsonNode metric = result.path("primaryMetric");
+			scores.put(name.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+					metric.path("scoreUnit").asText()));
+		}
+		return scores;
+	}
+
+	static class Score {
+
+		final String mode;
+		final double value;
+		final String unit;
+
+		Score(String mode, double value, String unit) {
+			this.mode = mode;
+			this.value = value;
+			this.unit = unit;
+		}
+
+		/**
+		 * Improvement over a previous score in %, negative when slower. A higher
+		 * score is better in throughput mode, a lower one in time modes
+		 */
+		double improvement(Score previous) {
+			if (previous.value == 0) {
+				return 0;
+			}
+			double change = (value - previous.value) / previous.value * 100;
+			return THROUGHPUT.equals(mode) ? change : -change;
+		}
+
+	}
+
+}
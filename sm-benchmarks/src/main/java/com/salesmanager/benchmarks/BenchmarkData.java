@@ -0,0 +1,288 @@
+package com.salesmanager.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.salesmanager.core.model.catalog.category.Category;
+import com.salesmanager.core.model.catalog.category.CategoryDescription;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
+import com.salesmanager.core.model.catalog.product.description.ProductDescription;
+import com.salesmanager.core.model.catalog.product.image.ProductImage;
+import com.salesmanager.core.model.catalog.product.price.ProductPrice;
+import com.salesmanager.core.model.catalog.product.price.ProductPriceDescription;
+import com.salesmanager.core.model.common.Billing;
+import com.salesmanager.core.model.common.Delivery;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.currency.Currency;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.core.model.shoppingcart.ShoppingCart;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+import com.salesmanager.core.model.tax.taxclass.TaxClass;
+
+/**
+ * Synthetic store, catalog, customer and carts shared by the benchmarks.
+ *
+ * Catalogs are generated from a fixed seed so that a given size always
+ * produces the same products, which keeps results comparable between runs
+ */
+public final class BenchmarkData {
+
+	private static final long SEED = 20220101L;
+	private static final int CATEGORIES = 20;
+
+	private BenchmarkData() {
+	}
+
+	public static Language language() {
+		Language language = new Language("en");
+		language.setId(1);
+		return language;
+	}
+
+	public static MerchantStore store(Language language) {
+		MerchantStore store = new MerchantStore();
+		store.setId(1);
+		store.setCode("DEFAULT");
+		store.setStorename("Shopizer Store");
+		store.setStoreaddress("1 Main Street");
+		store.setStorecity("Montreal");
+		store.setStorepostalcode("H2X 1Y4");
+		store.setStorephone("514-555-0100");
+		store.setCurrencyFormatNational(true);
+		store.setSeizeunitcode("CM");
+		store.setWeightunitcode("KG");
+		store.setDefaultLanguage(language);
+		Currency currency = new Currency();
+		currency.setCurrency(java.util.Currency.getInstance("CAD"));
+		store.setCurrency(currency);
+		Country country = country();
+		store.setCountry(country);
+		store.setZone(zone(country));
+		return store;
+	}
+
+	public static TaxClass taxClass() {
+		TaxClass taxClass = new TaxClass(TaxClass.DEFAULT_TAX_CLASS);
+		taxClass.setId(1L);
+		return taxClass;
+	}
+
+	/**
+	 * Customer shipping and billing in the store province
+	 */
+	public static Customer customer(MerchantStore store) {
+		Customer customer = new Customer();
+		customer.setId(1L);
+		customer.setEmailAddress("jane.doe@example.com");
+		customer.setMerchantStore(store);
+
+		Billing billing = new Billing();
+		billing.setFirstName("Jane");
+		billing.setLastName("Doe");
+		billing.setAddress("2 Second Street");
+		billing.setCity("Quebec");
+		billing.setPostalCode("G1R 4S9");
+		billing.setCountry(store.getCountry());
+		billing.setZone(store.getZone());
+		customer.setBilling(billing);
+
+		Delivery delivery = new Delivery();
+		delivery.setFirstName("Jane");
+		delivery.setLastName("Doe");
+		delivery.setAddress("2 Second Street");
+		delivery.setCity("Quebec");
+		delivery.setPostalCode("G1R 4S9");
+		delivery.setCountry(store.getCountry());
+		delivery.setZone(store.getZone());
+		customer.setDelivery(delivery);
+		return customer;
+	}
+
+	/**
+	 * Products with one availability and a default price. One product out of
+	 * 4 has a special price, one out of 3 has images and every product is in
+	 * one of 20 categories
+	 */
+	public static List<Product> catalog(int size, MerchantStore store, Language language) {
+		Random random = new Random(SEED);
+		TaxClass taxClass = taxClass();
+
+		List<Category> categories = new ArrayList<Category>();
+		for (int i = 0; i < CATEGORIES; i++) {
+			categories.add(category(i + 1L, store, language));
+		}
+
+		List<Product> catalog = new ArrayList<Product>(size);
+		for (int i = 0; i < size; i++) {
+			long id = i + 1L;
+			Product product = new Product();
+			product.setId(id);
+			product.setSku("SKU-" + id);
+			product.setMerchantStore(store);
+			product.setAvailable(true);
+			product.setProductShipeable(true);
+			product.setSortOrder(i);
+			product.setTaxClass(taxClass);
+			product.setProductWeight(new BigDecimal(random.nextInt(40) + 1).movePointLeft(1));
+			product.setProductHeight(new BigDecimal(random.nextInt(30) + 1));
+			product.setProductLength(new BigDecimal(random.nextInt(30) + 1));
+			product.setProductWidth(new BigDecimal(random.nextInt(30) + 1));
+
+			ProductDescription description = new ProductDescription();
+			description.setId(id);
+			description.setLanguage(language);
+			description.setName("Product " + id);
+			description.setSeUrl("product-" + id);
+			description.setDescription("<p>Description of product " + id + "</p>");
+			description.setProduct(product);
+			Set<ProductDescription> descriptions = new HashSet<ProductDescription>();
+			descriptions.add(description);
+			product.setDescriptions(descriptions);
+
+			ProductAvailability availability = new ProductAvailability(product, store);
+			availability.setId(id);
+			availability.setRegion("*");
+			availability.setProductQuantity(random.nextInt(100) + 1);
+			ProductPrice price = new ProductPrice();
+			price.setId(id);
+			price.setCode(ProductPrice.DEFAULT_PRICE_CODE);
+			price.setDefaultPrice(true);
+			price.setProductPriceAmount(new BigDecimal(random.nextInt(20000) + 100).movePointLeft(2));
+			if (i % 4 == 0) {
+				price.setProductPriceSpecialAmount(price.getProductPriceAmount().multiply(new BigDecimal("0.8")));
+			}
+			price.setProductAvailability(availability);
+			ProductPriceDescription priceDescription = new ProductPriceDescription();
+			priceDescription.setLanguage(language);
+			priceDescription.setName("Price");
+			priceDescription.setProductPrice(price);
+			Set<ProductPriceDescription> priceDescriptions = new HashSet<ProductPriceDescription>();
+			priceDescriptions.add(priceDescription);
+			price.setDescriptions(priceDescriptions);
+			Set<ProductPrice> prices = new HashSet<ProductPrice>();
+			prices.add(price);
+			availability.setPrices(prices);
+			Set<ProductAvailability> availabilities = new HashSet<ProductAvailability>();
+			availabilities.add(availability);
+			product.setAvailabilities(availabilities);
+
+			if (i % 3 == 0) {
+				Set<ProductImage> images = new HashSet<ProductImage>();
+				for (int j = 0; j < 2; j++) {
+					ProductImage image = new ProductImage();
+					image.setId(id * 10 + j);
+					image.setProductImage("product-" + id + "-" + j + ".jpg");
+					image.setDefaultImage(j == 0);
+					image.setProduct(product);
+					images.add(image);
+				}
+				product.setImages(images);
+			}
+
+			Set<Category> productCategories = new HashSet<Category>();
+			productCategories.add(categories.get(i % CATEGORIES));
+			product.setCategories(productCategories);
+
+			catalog.add(product);
+		}
+		return catalog;
+	}
+
+	/**
+	 * Cart made of the first products of the catalog, quantities 1 to 3
+	 */
+	public static ShoppingCart cart(List<Product> catalog, int items, MerchantStore store) {
+		ShoppingCart cart = new ShoppingCart();
+		cart.setId(1L);
+		cart.setShoppingCartCode("BENCHMARK");
+		cart.setMerchantStore(store);
+		Set<ShoppingCartItem> lineItems = new HashSet<ShoppingCartItem>();
+		for (int i = 0; i < items; i++) {
+			Product product = catalog.get(i % catalog.size());
+			ShoppingCartItem item = new ShoppingCartItem(cart, product);
+			item.setId(i + 1L);
+			item.setQuantity(i % 3 + 1);
+			item.setItemPrice(product.getAvailabilities().iterator().next().getPrices().iterator().next()
+					.getProductPriceAmount());
+			lineItems.add(item);
+		}
+		cart.setLineItems(lineItems);
+		return cart;
+	}
+
+	/**
+	 * Service answering method calls from a map of method name to result.
+	 * Other methods return an empty map or list, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T service(Class<T> type, Map<String, Object> answers) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return type.getSimpleName();
+			default:
+				if (answers.containsKey(method.getName())) {
+					return answers.get(method.getName());
+				}
+				if (method.getReturnType().isAssignableFrom(Map.class)) {
+					return Collections.emptyMap();
+				}
+				if (method.getReturnType().isAssignableFrom(List.class)) {
+					return Collections.emptyList();
+				}
+				return null;
+			}
+		});
+	}
+
+	private static Country country() {
+		Country country = new Country();
+		country.setId(1);
+		country.setIsoCode("CA");
+		return country;
+	}
+
+	private static Zone zone(Country country) {
+		Zone zone = new Zone();
+		zone.setId(1L);
+		zone.setCountry(country);
+		zone.setCode("QC");
+		zone.setName("Quebec");
+		return zone;
+	}
+
+	private static Category category(Long id, MerchantStore store, Language language) {
+		Category category = new Category(store);
+		category.setId(id);
+		category.setCode("category-" + id);
+		category.setDepth(0);
+		category.setLineage("/" + id + "/");
+		category.setSortOrder(id.intValue());
+		category.setVisible(true);
+		CategoryDescription description = new CategoryDescription();
+		description.setLanguage(language);
+		description.setName("Category " + id);
+		description.setSeUrl("category-" + id);
+		description.setCategory(category);
+		Set<CategoryDescription> descriptions = new HashSet<CategoryDescription>();
+		descriptions.add(description);
+		category.setDescriptions(descriptions);
+		return category;
+	}
+
+}
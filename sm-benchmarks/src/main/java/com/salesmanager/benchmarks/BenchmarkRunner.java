@@ -0,0 +1,44 @@
+package com.salesmanager.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the JMH command line options and, unless a result
+ * format or file is given, writes the results as JSON to
+ * benchmarks-[version].json so that they can be compared between releases
+ * with {@link BenchmarkComparison}
+ *
+ * java -jar benchmarks.jar [jmh options] [benchmark regex]
+ */
+public final class BenchmarkRunner {
+
+	static final String VERSION_PROPERTY = "benchmark.version";
+	static final String DEFAULT_VERSION = "dev";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+		if (!arguments.contains("-rf") && !arguments.contains("-rff")) {
+			arguments.addAll(0, Arrays.asList("-rf", "json", "-rff", "benchmarks-" + version() + ".json"));
+		}
+		Main.main(arguments.toArray(new String[arguments.size()]));
+	}
+
+	/**
+	 * -Dbenchmark.version, or the version of the jar
+	 */
+	static String version() {
+		String version = System.getProperty(VERSION_PROPERTY);
+		if (version == null) {
+			version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+		}
+		return version != null ? version : DEFAULT_VERSION;
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.salesmanager.benchmarks.catalog;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.salesmanager.benchmarks.BenchmarkData;
+import com.salesmanager.core.business.utils.ProductPriceUtils;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.price.FinalPrice;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Final price of every product of a catalog page or listing, with and
+ * without the store formatted amount displayed next to it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int catalogSize;
+
+	private ProductPriceUtils priceUtil;
+	private MerchantStore store;
+	private List<Product> catalog;
+
+	@Setup
+	public void setUp() {
+		priceUtil = new ProductPriceUtils();
+		Language language = BenchmarkData.language();
+		store = BenchmarkData.store(language);
+		catalog = BenchmarkData.catalog(catalogSize, store, language);
+	}
+
+	@Benchmark
+	public void finalPrice(Blackhole blackhole) throws Exception {
+		for (Product product : catalog) {
+			blackhole.consume(priceUtil.getFinalPrice(product));
+		}
+	}
+
+	@Benchmark
+	public void formattedFinalPrice(Blackhole blackhole) throws Exception {
+		for (Product product : catalog) {
+			FinalPrice price = priceUtil.getFinalPrice(product);
+			blackhole.consume(priceUtil.getStoreFormatedAmountWithCurrency(store, price.getFinalPrice()));
+		}
+	}
+
+}
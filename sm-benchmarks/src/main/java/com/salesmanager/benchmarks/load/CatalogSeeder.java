@@ -0,0 +1,430 @@
+package com.salesmanager.benchmarks.load;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.salesmanager.core.constants.SchemaConstant;
+
+/**
+ * Loads large catalogs in the shop database with jdbc batches, the way
+ * InitializationDatabaseImpl loads the reference data but without going
+ * through the entities so that hundreds of thousands of rows are loaded in
+ * seconds.
+ *
+ * Stores other than DEFAULT are copies of the DEFAULT store (LOAD1,
+ * LOAD2...). A store already holding seeded products is left as is, seeding
+ * the same database twice does not duplicate the catalog.
+ *
+ * Identifiers are reserved in SM_SEQUENCER before the rows are inserted, the
+ * shop keeps generating identifiers above the seeded ones
+ */
+public class CatalogSeeder {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogSeeder.class);
+
+	public static final String DEFAULT_STORE = "DEFAULT";
+	public static final String SKU_PREFIX = "LOAD-";
+
+	private static final String STORE_PREFIX = "LOAD";
+	private static final int BATCH_SIZE = 500;
+	private static final long SEED = 20220101L;
+
+	/**
+	 * Identifier blocks of the table generators, the jpa default except for
+	 * descriptions
+	 */
+	private static final int ALLOCATION_SIZE = 50;
+	private static final int DESCRIPTION_ALLOCATION_SIZE = SchemaConstant.DESCRIPTION_ID_ALLOCATION_SIZE;
+
+	private final JdbcTemplate jdbc;
+	private final String schema;
+	private final LoadOptions options;
+
+	public CatalogSeeder(DataSource dataSource, String schema, LoadOptions options) {
+		this.jdbc = new JdbcTemplate(dataSource);
+		this.schema = schema;
+		this.options = options;
+	}
+
+	/**
+	 * Seeds every store unless already seeded
+	 *
+	 * @return catalog by store code
+	 */
+	public Map<String, StoreCatalog> seed() {
+		Map<String, StoreCatalog> catalogs = new LinkedHashMap<String, StoreCatalog>();
+		for (int i = 0; i < options.getStores(); i++) {
+			String code = storeCode(i);
+			int merchantId = store(code);
+			Integer count = jdbc.queryForObject(
+					"select count(*) from " + table("PRODUCT") + " where MERCHANT_ID = ? and SKU like ?",
+					Integer.class, merchantId, SKU_PREFIX + "%");
+			if (count == 0) {
+				long start = System.currentTimeMillis();
+				seed(merchantId);
+				LOGGER.info("Seeded store " + code + " in " + (System.currentTimeMillis() - start) + " ms");
+			} else {
+				LOGGER.info("Store " + code + " already seeded with " + count + " products");
+			}
+			catalogs.put(code, read(code));
+		}
+		return catalogs;
+	}
+
+	/**
+	 * Code of the store by index, DEFAULT then LOAD1, LOAD2...
+	 */
+	public static String storeCode(int index) {
+		return index == 0 ? DEFAULT_STORE : STORE_PREFIX + index;
+	}
+
+	/**
+	 * Catalog of a store as found in the database
+	 */
+	public StoreCatalog read(String code) {
+		int merchantId = merchantId(code);
+		int languageId = languageId(merchantId);
+		StoreCatalog catalog = new StoreCatalog(code);
+		jdbc.query("select d.SEF_URL from " + table("CATEGORY") + " c join " + table("CATEGORY_DESCRIPTION")
+				+ " d on d.CATEGORY_ID = c.CATEGORY_ID where c.MERCHANT_ID = ? and d.LANGUAGE_ID = ?"
+				+ " and d.SEF_URL is not null order by c.CATEGORY_ID", rs -> {
+					catalog.categoryUrls.add(rs.getString(1));
+				}, merchantId, languageId);
+		jdbc.query("select p.PRODUCT_ID, p.SKU, d.SEF_URL from " + table("PRODUCT") + " p join "
+				+ table("PRODUCT_DESCRIPTION") + " d on d.PRODUCT_ID = p.PRODUCT_ID where p.MERCHANT_ID = ?"
+				+ " and d.LANGUAGE_ID = ? and p.AVAILABLE = ? order by p.PRODUCT_ID", rs -> {
+					catalog.productIds.add(rs.getLong(1));
+					catalog.skus.add(rs.getString(2));
+					catalog.productUrls.add(rs.getString(3));
+				}, merchantId, languageId, true);
+		return catalog;
+	}
+
+	/**
+	 * Merchant id of a store, created as a copy of the DEFAULT store when
+	 * missing
+	 */
+	private int store(String code) {
+		List<Integer> ids = jdbc.queryForList(
+				"select MERCHANT_ID from " + table("MERCHANT_STORE") + " where STORE_CODE = ?", Integer.class, code);
+		if (!ids.isEmpty()) {
+			return ids.get(0);
+		}
+		int merchantId = (int) allocate("MERCHANT_STORE", "MERCHANT_ID", "STORE_SEQ_NEXT_VAL", ALLOCATION_SIZE, 1);
+		jdbc.update("insert into " + table("MERCHANT_STORE")
+				+ " (MERCHANT_ID, DATE_CREATED, STORE_CODE, STORE_NAME, STORE_EMAIL, CONTINUESHOPPINGURL,"
+				+ " CURRENCY_FORMAT_NATIONAL, DOMAIN_NAME, IN_BUSINESS_SINCE, INVOICE_TEMPLATE, IS_RETAILER,"
+				+ " SEIZEUNITCODE, STORE_TEMPLATE, STORE_ADDRESS, STORE_CITY, STORE_PHONE, STORE_POSTAL_CODE,"
+				+ " STORE_STATE_PROV, USE_CACHE, WEIGHTUNITCODE, COUNTRY_ID, CURRENCY_ID, LANGUAGE_ID, ZONE_ID)"
+				+ " select ?, ?, ?, ?, STORE_EMAIL, CONTINUESHOPPINGURL, CURRENCY_FORMAT_NATIONAL, DOMAIN_NAME,"
+				+ " IN_BUSINESS_SINCE, INVOICE_TEMPLATE, IS_RETAILER, SEIZEUNITCODE, STORE_TEMPLATE, STORE_ADDRESS,"
+				+ " STORE_CITY, STORE_PHONE, STORE_POSTAL_CODE, STORE_STATE_PROV, USE_CACHE, WEIGHTUNITCODE,"
+				+ " COUNTRY_ID, CURRENCY_ID, LANGUAGE_ID, ZONE_ID from " + table("MERCHANT_STORE")
+				+ " where STORE_CODE = ?", merchantId, now(), code, "Load store " + code, DEFAULT_STORE);
+		jdbc.update("insert into " + table("MERCHANT_LANGUAGE") + " (stores_MERCHANT_ID, languages_LANGUAGE_ID)"
+				+ " select ?, languages_LANGUAGE_ID from " + table("MERCHANT_LANGUAGE") + " where stores_MERCHANT_ID = ?",
+				merchantId, merchantId(DEFAULT_STORE));
+		return merchantId;
+	}
+
+	private void seed(int merchantId) {
+		Random random = new Random(SEED + merchantId);
+		Timestamp now = now();
+		int languageId = languageId(merchantId);
+		Long taxClassId = first(jdbc.queryForList("select TAX_CLASS_ID from " + table("TAX_CLASS")
+				+ " where MERCHANT_ID = ? and TAX_CLASS_CODE = ?", Long.class, merchantId, "DEFAULT"));
+		Long typeId = first(jdbc.queryForList(
+				"select PRODUCT_TYPE_ID from " + table("PRODUCT_TYPE") + " where PRD_TYPE_CODE = ?", Long.class,
+				"GENERAL"));
+
+		int optionCount = options.getOptions();
+		int valueCount = Math.max(1, options.getOptionValues());
+		int variantCount = options.getVariants();
+		int imageCount = options.getImages();
+		int categoryCount = Math.max(1, options.getCategories());
+		int productCount = options.getProducts();
+
+		Batches batches = new Batches();
+
+		// options, their values and the variations of the first option
+		long optionId = allocate("PRODUCT_OPTION", "PRODUCT_OPTION_ID",
+				"PRODUCT_OPTION_SEQ_NEXT_VAL", ALLOCATION_SIZE, optionCount);
+		long optionDescriptionId = allocate("PRODUCT_OPTION_DESC", "DESCRIPTION_ID",
+				"product_option_description_seq", DESCRIPTION_ALLOCATION_SIZE, optionCount);
+		long valueId = allocate("PRODUCT_OPTION_VALUE", "PRODUCT_OPTION_VALUE_ID",
+				"PRODUCT_OPT_VAL_SEQ_NEXT_VAL", ALLOCATION_SIZE, optionCount * valueCount);
+		long valueDescriptionId = allocate("PRODUCT_OPTION_VALUE_DESCRIPTION", "DESCRIPTION_ID",
+				"product_option_value_description_seq", DESCRIPTION_ALLOCATION_SIZE, optionCount * valueCount);
+		int variationCount = optionCount > 0 && variantCount > 0 ? valueCount : 0;
+		long variationId = allocate("PRODUCT_VARIATION", "PRODUCT_VARIATION_ID",
+				"PRODUCT_VARIN_SEQ_NEXT_VAL", ALLOCATION_SIZE, variationCount);
+
+		for (int o = 0; o < optionCount; o++) {
+			batches.add("insert into " + table("PRODUCT_OPTION") + " (PRODUCT_OPTION_ID, PRODUCT_OPTION_CODE,"
+					+ " PRODUCT_OPTION_SORT_ORD, PRODUCT_OPTION_TYPE, PRODUCT_OPTION_READ, MERCHANT_ID)"
+					+ " values (?, ?, ?, ?, ?, ?)", optionId + o, "load-option-" + o, o, "select", false, merchantId);
+			batches.add("insert into " + table("PRODUCT_OPTION_DESC") + " (DESCRIPTION_ID, DATE_CREATED, NAME,"
+					+ " LANGUAGE_ID, PRODUCT_OPTION_ID) values (?, ?, ?, ?, ?)", optionDescriptionId + o, now,
+					"Option " + o, languageId, optionId + o);
+			for (int v = 0; v < valueCount; v++) {
+				int index = o * valueCount + v;
+				batches.add("insert into " + table("PRODUCT_OPTION_VALUE") + " (PRODUCT_OPTION_VALUE_ID,"
+						+ " PRODUCT_OPTION_VAL_CODE, PRODUCT_OPT_FOR_DISP, PRODUCT_OPT_VAL_SORT_ORD, MERCHANT_ID)"
+						+ " values (?, ?, ?, ?, ?)", valueId + index, "load-value-" + o + "-" + v, false, v,
+						merchantId);
+				batches.add("insert into " + table("PRODUCT_OPTION_VALUE_DESCRIPTION") + " (DESCRIPTION_ID,"
+						+ " DATE_CREATED, NAME, LANGUAGE_ID, PRODUCT_OPTION_VALUE_ID) values (?, ?, ?, ?, ?)",
+						valueDescriptionId + index, now, "Value " + o + "-" + v, languageId, valueId + index);
+			}
+		}
+		for (int v = 0; v < variationCount; v++) {
+			batches.add("insert into " + table("PRODUCT_VARIATION") + " (PRODUCT_VARIATION_ID, DATE_CREATED, CODE,"
+					+ " SORT_ORDER, VARIANT_DEFAULT, MERCHANT_ID, PRODUCT_OPTION_ID, OPTION_VALUE_ID)"
+					+ " values (?, ?, ?, ?, ?, ?, ?, ?)", variationId + v, now, "load-variation-" + v, v, v == 0,
+					merchantId, optionId, valueId + v);
+		}
+		batches.flush();
+
+		// a fifth of the categories are roots, the others their children
+		long categoryId = allocate("CATEGORY", "CATEGORY_ID", "CATEGORY_SEQ_NEXT_VAL", ALLOCATION_SIZE, categoryCount);
+		long categoryDescriptionId = allocate("CATEGORY_DESCRIPTION", "DESCRIPTION_ID",
+				"category_description_seq", DESCRIPTION_ALLOCATION_SIZE, categoryCount);
+		int roots = Math.max(1, categoryCount / 5);
+		for (int c = 0; c < categoryCount; c++) {
+			long id = categoryId + c;
+			Long parentId = c < roots ? null : categoryId + c % roots;
+			String lineage = parentId == null ? "/" + id + "/" : "/" + parentId + "/" + id + "/";
+			batches.add("insert into " + table("CATEGORY") + " (CATEGORY_ID, DATE_CREATED, CATEGORY_STATUS, CODE,"
+					+ " DEPTH, FEATURED, LINEAGE, SORT_ORDER, VISIBLE, MERCHANT_ID, PARENT_ID)"
+					+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", id, now, true, "load-" + c,
+					parentId == null ? 0 : 1, false, lineage, c, true, merchantId, parentId);
+			batches.add("insert into " + table("CATEGORY_DESCRIPTION") + " (DESCRIPTION_ID, DATE_CREATED, NAME,"
+					+ " TITLE, SEF_URL, LANGUAGE_ID, CATEGORY_ID) values (?, ?, ?, ?, ?, ?, ?)",
+					categoryDescriptionId + c, now, "Category " + c, "Category " + c, "load-category-" + c,
+					languageId, id);
+			if (c == roots - 1 || c == categoryCount - 1) {
+				// children reference their parent
+				batches.flush();
+			}
+		}
+
+		// products with their description, category, images, attributes,
+		// variants, availabilities and prices
+		int attributeOptions = Math.max(0, optionCount - 1);
+		long productId = allocate("PRODUCT", "PRODUCT_ID", "PRODUCT_SEQ_NEXT_VAL", ALLOCATION_SIZE, productCount);
+		long descriptionId = allocate("PRODUCT_DESCRIPTION", "DESCRIPTION_ID",
+				"product_description_seq", DESCRIPTION_ALLOCATION_SIZE, productCount);
+		long imageId = allocate("PRODUCT_IMAGE", "PRODUCT_IMAGE_ID",
+				"PRODUCT_IMG_SEQ_NEXT_VAL", ALLOCATION_SIZE, (long) productCount * imageCount);
+		long attributeId = allocate("PRODUCT_ATTRIBUTE", "PRODUCT_ATTRIBUTE_ID",
+				"PRODUCT_ATTR_SEQ_NEXT_VAL", ALLOCATION_SIZE, (long) productCount * attributeOptions * valueCount);
+		long variantId = allocate("PRODUCT_VARIANT", "PRODUCT_VARIANT_ID",
+				"PRODUCT_VAR_SEQ_NEXT_VAL", ALLOCATION_SIZE, (long) productCount * variantCount);
+		long availabilityId = allocate("PRODUCT_AVAILABILITY", "PRODUCT_AVAIL_ID",
+				"PRODUCT_AVAIL_SEQ_NEXT_VAL", ALLOCATION_SIZE, (long) productCount * (variantCount + 1));
+		long priceId = allocate("PRODUCT_PRICE", "PRODUCT_PRICE_ID",
+				"PRODUCT_PRICE_SEQ_NEXT_VAL", ALLOCATION_SIZE, (long) productCount * (variantCount + 1));
+		long priceDescriptionId = allocate("PRODUCT_PRICE_DESCRIPTION", "DESCRIPTION_ID",
+				"product_price_description_seq", DESCRIPTION_ALLOCATION_SIZE, (long) productCount * (variantCount + 1));
+
+		for (int p = 0; p < productCount; p++) {
+			long id = productId + p;
+			String sku = SKU_PREFIX + p;
+			BigDecimal price = BigDecimal.valueOf(500 + random.nextInt(19500), 2);
+			BigDecimal weight = BigDecimal.valueOf(10 + random.nextInt(490), 2);
+			BigDecimal size = BigDecimal.valueOf(1 + random.nextInt(40));
+
+			batches.add("insert into " + table("PRODUCT") + " (PRODUCT_ID, DATE_CREATED, AVAILABLE, DATE_AVAILABLE,"
+					+ " PREORDER, PRODUCT_HEIGHT, PRODUCT_FREE, PRODUCT_LENGTH, PRODUCT_SHIP, PRODUCT_VIRTUAL,"
+					+ " PRODUCT_WEIGHT, PRODUCT_WIDTH, SKU, SORT_ORDER, MERCHANT_ID, TAX_CLASS_ID, PRODUCT_TYPE_ID)"
+					+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", id, now, true, now, false, size,
+					false, size, true, false, weight, size, sku, p, merchantId, taxClassId, typeId);
+			batches.add("insert into " + table("PRODUCT_DESCRIPTION") + " (DESCRIPTION_ID, DATE_CREATED, NAME,"
+					+ " TITLE, DESCRIPTION, META_TITLE, SEF_URL, LANGUAGE_ID, PRODUCT_ID)"
+					+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?)", descriptionId + p, now, "Product " + p, "Product " + p,
+					"<p>Load test product " + p + "</p>", "Product " + p, "load-product-" + p, languageId, id);
+			batches.add("insert into " + table("PRODUCT_CATEGORY") + " (PRODUCT_ID, CATEGORY_ID) values (?, ?)", id,
+					categoryId + p % categoryCount);
+			for (int i = 0; i < imageCount; i++) {
+				batches.add("insert into " + table("PRODUCT_IMAGE") + " (PRODUCT_IMAGE_ID, DEFAULT_IMAGE, IMAGE_CROP,"
+						+ " IMAGE_TYPE, PRODUCT_IMAGE, SORT_ORDER, PRODUCT_ID) values (?, ?, ?, ?, ?, ?, ?)",
+						imageId + (long) p * imageCount + i, i == 0, false, 0, "load-" + p + "-" + i + ".jpg", i, id);
+			}
+			for (int o = 0; o < attributeOptions; o++) {
+				for (int v = 0; v < valueCount; v++) {
+					long index = ((long) p * attributeOptions + o) * valueCount + v;
+					batches.add("insert into " + table("PRODUCT_ATTRIBUTE") + " (PRODUCT_ATTRIBUTE_ID,"
+							+ " PRODUCT_ATTRIBUTE_DEFAULT, PRODUCT_ATTRIBUTE_DISCOUNTED, PRODUCT_ATTRIBUTE_FOR_DISP,"
+							+ " PRODUCT_ATTRIBUTE_REQUIRED, PRODUCT_ATTRIBUTE_FREE, PRODUCT_ATRIBUTE_PRICE,"
+							+ " PRODUCT_ATTRIBUTE_WEIGHT, PRODUCT_ATTRIBUTE_SORT_ORD, PRODUCT_ID, OPTION_ID,"
+							+ " OPTION_VALUE_ID) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", attributeId + index,
+							v == 0, false, false, false, false, BigDecimal.valueOf(v * 100L, 2), BigDecimal.ZERO, v,
+							id, optionId + o + 1, valueId + (o + 1) * valueCount + v);
+				}
+			}
+
+			// variants go before the availabilities referencing them
+			for (int v = 0; v < variantCount; v++) {
+				String variantSku = sku + "-" + v;
+				batches.add("insert into " + table("PRODUCT_VARIANT") + " (PRODUCT_VARIANT_ID, DATE_CREATED,"
+						+ " AVAILABLE, CODE, DATE_AVAILABLE, DEFAULT_SELECTION, SKU, SORT_ORDER, PRODUCT_ID,"
+						+ " PRODUCT_VARIATION_ID) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+						variantId + (long) p * variantCount + v, now, true, variantSku, now, v == 0, variantSku, v,
+						id, variationCount > 0 ? variationId + v % variationCount : null);
+			}
+			long offer = (long) p * (variantCount + 1);
+			offer(batches, now, merchantId, languageId, id, null, sku, availabilityId + offer, priceId + offer,
+					priceDescriptionId + offer, price, p % 4 == 0 ? price.multiply(BigDecimal.valueOf(8, 1)) : null);
+			for (int v = 0; v < variantCount; v++) {
+				offer(batches, now, merchantId, languageId, id, variantId + (long) p * variantCount + v,
+						sku + "-" + v, availabilityId + offer + v + 1, priceId + offer + v + 1,
+						priceDescriptionId + offer + v + 1, price.add(BigDecimal.valueOf(v * 100L, 2)), null);
+			}
+
+			if ((p + 1) % BATCH_SIZE == 0) {
+				batches.flush();
+			}
+		}
+		batches.flush();
+	}
+
+	/**
+	 * Availability, default price and price description of a product or of
+	 * one of its variants
+	 */
+	private void offer(Batches batches, Timestamp now, int merchantId, int languageId, long productId,
+			Long variantId, String sku, long availabilityId, long priceId, long priceDescriptionId,
+			BigDecimal price, BigDecimal special) {
+		batches.add("insert into " + table("PRODUCT_AVAILABILITY") + " (PRODUCT_AVAIL_ID, DATE_CREATED, AVAILABLE,"
+				+ " DATE_AVAILABLE, FREE_SHIPPING, QUANTITY, QUANTITY_ORD_MAX, QUANTITY_ORD_MIN, STATUS, REGION, SKU,"
+				+ " MERCHANT_ID, PRODUCT_ID, PRODUCT_VARIANT) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+				availabilityId, now, true, now, false, 1000000, 10, 1, true, "*", sku, merchantId, productId,
+				variantId);
+		batches.add("insert into " + table("PRODUCT_PRICE") + " (PRODUCT_PRICE_ID, PRODUCT_PRICE_CODE, DEFAULT_PRICE,"
+				+ " PRODUCT_PRICE_AMOUNT, PRODUCT_PRICE_SPECIAL_AMOUNT, PRODUCT_PRICE_TYPE, PRODUCT_AVAIL_ID)"
+				+ " values (?, ?, ?, ?, ?, ?, ?)", priceId, "base", true, price, special, "ONE_TIME", availabilityId);
+		batches.add("insert into " + table("PRODUCT_PRICE_DESCRIPTION") + " (DESCRIPTION_ID, DATE_CREATED, NAME,"
+				+ " LANGUAGE_ID, PRODUCT_PRICE_ID) values (?, ?, ?, ?, ?)", priceDescriptionId, now, "Base price",
+				languageId, priceId);
+	}
+
+	/**
+	 * Reserves count identifiers of a table and returns the first one. The
+	 * identifiers start above the table content and above any block the shop
+	 * may already have taken, and the sequence is moved past them. With the
+	 * legacy hi/lo generators a sequence value hi gives the identifiers
+	 * hi * allocationSize to (hi + 1) * allocationSize - 1
+	 */
+	private long allocate(String table, String column, String sequence, int allocationSize, long count) {
+		if (count == 0) {
+			return 0;
+		}
+		Long max = jdbc.queryForObject("select max(" + column + ") from " + table(table), Long.class);
+		Long hi = first(jdbc.queryForList("select SEQ_COUNT from " + table("SM_SEQUENCER") + " where SEQ_NAME = ?",
+				Long.class, sequence));
+		long first = Math.max(max == null ? 1 : max + 1, hi == null ? 1 : hi * allocationSize);
+		long next = (first + count + allocationSize - 1) / allocationSize;
+		if (hi == null) {
+			jdbc.update("insert into " + table("SM_SEQUENCER") + " (SEQ_NAME, SEQ_COUNT) values (?, ?)", sequence,
+					next);
+		} else {
+			jdbc.update("update " + table("SM_SEQUENCER") + " set SEQ_COUNT = ? where SEQ_NAME = ?", next, sequence);
+		}
+		return first;
+	}
+
+	private int merchantId(String code) {
+		return jdbc.queryForObject("select MERCHANT_ID from " + table("MERCHANT_STORE") + " where STORE_CODE = ?",
+				Integer.class, code);
+	}
+
+	private int languageId(int merchantId) {
+		return jdbc.queryForObject("select LANGUAGE_ID from " + table("MERCHANT_STORE") + " where MERCHANT_ID = ?",
+				Integer.class, merchantId);
+	}
+
+	private String table(String name) {
+		return schema == null || schema.isEmpty() ? name : schema + "." + name;
+	}
+
+	private static <T> T first(List<T> values) {
+		return values.isEmpty() ? null : values.get(0);
+	}
+
+	private static Timestamp now() {
+		return new Timestamp(System.currentTimeMillis());
+	}
+
+	/**
+	 * Pending rows by insert statement, flushed in the order the statements
+	 * were first used so that parent rows go first
+	 */
+	private class Batches {
+
+		private final Map<String, List<Object[]>> rows = new LinkedHashMap<String, List<Object[]>>();
+
+		void add(String sql, Object... values) {
+			rows.computeIfAbsent(sql, s -> new ArrayList<Object[]>()).add(values);
+		}
+
+		void flush() {
+			for (Map.Entry<String, List<Object[]>> entry : rows.entrySet()) {
+				List<Object[]> values = entry.getValue();
+				for (int i = 0; i < values.size(); i += BATCH_SIZE) {
+					jdbc.batchUpdate(entry.getKey(), values.subList(i, Math.min(values.size(), i + BATCH_SIZE)));
+				}
+			}
+			rows.clear();
+		}
+
+	}
+
+	/**
+	 * Categories and products of a store, as used by the storefront journeys
+	 */
+	public static class StoreCatalog {
+
+		private final String code;
+		private final List<String> categoryUrls = new ArrayList<String>();
+		private final List<Long> productIds = new ArrayList<Long>();
+		private final List<String> skus = new ArrayList<String>();
+		private final List<String> productUrls = new ArrayList<String>();
+
+		public StoreCatalog(String code) {
+			this.code = code;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public List<String> getCategoryUrls() {
+			return categoryUrls;
+		}
+
+		public List<Long> getProductIds() {
+			return productIds;
+		}
+
+		public List<String> getSkus() {
+			return skus;
+		}
+
+		public List<String> getProductUrls() {
+			return productUrls;
+		}
+
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.salesmanager.benchmarks.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Latencies and errors by endpoint (GET /api/v1/products/{id}). Requests
+ * are only recorded once the recorder is started, so that warm up requests
+ * are left out of the report
+ */
+public class LatencyRecorder {
+
+	private static final double[] PERCENTILES = { 50, 90, 95, 99 };
+
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<String, Endpoint>();
+	private volatile boolean recording;
+	private volatile long started;
+	private volatile long stopped;
+
+	public void start() {
+		endpoints.clear();
+		started = System.nanoTime();
+		recording = true;
+	}
+
+	public void stop() {
+		recording = false;
+		stopped = System.nanoTime();
+	}
+
+	public void record(String endpoint, long nanos, boolean error) {
+		if (!recording) {
+			return;
+		}
+		endpoints.computeIfAbsent(endpoint, Endpoint::new).add(nanos, error);
+	}
+
+	/**
+	 * Statistics by endpoint, sorted by name
+	 */
+	public List<EndpointStatistics> getStatistics() {
+		double seconds = Math.max(1, (recording ? System.nanoTime() : stopped) - started) / 1_000_000_000d;
+		List<EndpointStatistics> statistics = new ArrayList<EndpointStatistics>();
+		for (Endpoint endpoint : endpoints.values()) {
+			statistics.add(endpoint.statistics(seconds));
+		}
+		statistics.sort((s1, s2) -> s1.getEndpoint().compareTo(s2.getEndpoint()));
+		return statistics;
+	}
+
+	public void print(PrintStream out) {
+		out.println(String.format("%-52s %8s %7s %9s %9s %9s %9s %9s %9s", "Endpoint", "Requests", "Errors", "Req/s",
+				"p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+		for (EndpointStatistics s : getStatistics()) {
+			out.println(String.format("%-52s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f", s.getEndpoint(),
+					s.getRequests(), s.getErrors(), s.getThroughput(), s.getP50(), s.getP90(), s.getP95(), s.getP99(),
+					s.getMax()));
+		}
+	}
+
+	public void write(File file) throws IOException {
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, getStatistics());
+	}
+
+	private static class Endpoint {
+
+		private final String name;
+		private long[] latencies = new long[1024];
+		private int count;
+		private int errors;
+
+		Endpoint(String name) {
+			this.name = name;
+		}
+
+		synchronized void add(long nanos, boolean error) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = nanos;
+			if (error) {
+				errors++;
+			}
+		}
+
+		synchronized EndpointStatistics statistics(double seconds) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			EndpointStatistics statistics = new EndpointStatistics();
+			statistics.setEndpoint(name);
+			statistics.setRequests(count);
+			statistics.setErrors(errors);
+			statistics.setThroughput(count / seconds);
+			statistics.setP50(percentile(sorted, PERCENTILES[0]));
+			statistics.setP90(percentile(sorted, PERCENTILES[1]));
+			statistics.setP95(percentile(sorted, PERCENTILES[2]));
+			statistics.setP99(percentile(sorted, PERCENTILES[3]));
+			statistics.setMax(count == 0 ? 0 : millis(sorted[count - 1]));
+			return statistics;
+		}
+
+		/**
+		 * Nearest rank percentile in milliseconds
+		 */
+		private static double percentile(long[] sorted, double percentile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+			return millis(sorted[Math.max(0, rank - 1)]);
+		}
+
+		private static double millis(long nanos) {
+			return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+		}
+
+	}
+
+	public static class EndpointStatistics {
+
+		private String endpoint;
+		private long requests;
+		private long errors;
+		private double throughput;
+		private double p50;
+		private double p90;
+		private double p95;
+		private double p99;
+		private double max;
+
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		public void setEndpoint(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public void setRequests(long requests) {
+			this.requests = requests;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		public void setErrors(long errors) {
+			this.errors = errors;
+		}
+
+		public double getThroughput() {
+			return throughput;
+		}
+
+		public void setThroughput(double throughput) {
+			this.throughput = throughput;
+		}
+
+		public double getP50() {
+			return p50;
+		}
+
+		public void setP50(double p50) {
+			this.p50 = p50;
+		}
+
+		public double getP90() {
+			return p90;
+		}
+
+		public void setP90(double p90) {
+			this.p90 = p90;
+		}
+
+		public double getP95() {
+			return p95;
+		}
+
+		public void setP95(double p95) {
+			this.p95 = p95;
+		}
+
+		public double getP99() {
+			return p99;
+		}
+
+		public void setP99(double p99) {
+			this.p99 = p99;
+		}
+
+		public double getMax() {
+			return max;
+		}
+
+		public void setMax(double max) {
+			this.max = max;
+		}
+
+	}
+
+}
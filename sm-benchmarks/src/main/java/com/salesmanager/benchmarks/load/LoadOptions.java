@@ -0,0 +1,148 @@
+package com.salesmanager.benchmarks.load;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test options, given as --name=value arguments
+ *
+ * <pre>
+ * --url                 running shop to test, the shop is started in process
+ *                       on an in memory H2 database when not given
+ * --jdbc.url            database of the running shop to seed, with
+ *                       --jdbc.user, --jdbc.password and --jdbc.schema
+ * --seed                seed the catalog (true)
+ * --stores              stores, DEFAULT included (1)
+ * --categories          categories per store (50)
+ * --products            products per store (1000)
+ * --variants            variants per product (2)
+ * --options             selectable options per store (2)
+ * --optionValues        values per option (5)
+ * --images              images per product (2)
+ * --users               concurrent users (10)
+ * --warmup              warm up in seconds, not reported (10)
+ * --duration            measured duration in seconds (60)
+ * --mix                 user journeys weights (browse=60,search=15,cart=20,checkout=5)
+ * --reindex             rebuild the search index after seeding (false)
+ * --admin.user          administrator used for the store configuration
+ * --admin.password
+ * --report              json report (load-report.json)
+ * </pre>
+ */
+public class LoadOptions {
+
+	private final Map<String, String> values = new HashMap<String, String>();
+
+	public static LoadOptions parse(String[] args) {
+		LoadOptions options = new LoadOptions();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+				throw new IllegalArgumentException("Expected --name=value but was " + arg);
+			}
+			options.values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		return options;
+	}
+
+	public String getUrl() {
+		return values.get("url");
+	}
+
+	public String getJdbcUrl() {
+		return values.get("jdbc.url");
+	}
+
+	public String getJdbcUser() {
+		return string("jdbc.user", "root");
+	}
+
+	public String getJdbcPassword() {
+		return string("jdbc.password", "");
+	}
+
+	public String getJdbcSchema() {
+		return string("jdbc.schema", "SALESMANAGER");
+	}
+
+	public boolean isSeed() {
+		return Boolean.parseBoolean(string("seed", "true"));
+	}
+
+	public int getStores() {
+		return integer("stores", 1);
+	}
+
+	public int getCategories() {
+		return integer("categories", 50);
+	}
+
+	public int getProducts() {
+		return integer("products", 1000);
+	}
+
+	public int getVariants() {
+		return integer("variants", 2);
+	}
+
+	public int getOptions() {
+		return integer("options", 2);
+	}
+
+	public int getOptionValues() {
+		return integer("optionValues", 5);
+	}
+
+	public int getImages() {
+		return integer("images", 2);
+	}
+
+	public int getUsers() {
+		return integer("users", 10);
+	}
+
+	public int getWarmup() {
+		return integer("warmup", 10);
+	}
+
+	public int getDuration() {
+		return integer("duration", 60);
+	}
+
+	public boolean isReindex() {
+		return Boolean.parseBoolean(string("reindex", "false"));
+	}
+
+	public String getAdminUser() {
+		return string("admin.user", "admin@shopizer.com");
+	}
+
+	public String getAdminPassword() {
+		return string("admin.password", "password");
+	}
+
+	public String getReport() {
+		return string("report", "load-report.json");
+	}
+
+	/**
+	 * Journey weights by journey name, in the given order
+	 */
+	public Map<String, Integer> getMix() {
+		Map<String, Integer> mix = new LinkedHashMap<String, Integer>();
+		for (String entry : string("mix", "browse=60,search=15,cart=20,checkout=5").split(",")) {
+			String[] weight = entry.split("=");
+			mix.put(weight[0].trim(), Integer.valueOf(weight[1].trim()));
+		}
+		return mix;
+	}
+
+	private String string(String name, String defaultValue) {
+		return values.getOrDefault(name, defaultValue);
+	}
+
+	private int integer(String name, int defaultValue) {
+		return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+	}
+
+}
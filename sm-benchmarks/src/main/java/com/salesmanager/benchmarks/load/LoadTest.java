@@ -0,0 +1,150 @@
+package com.salesmanager.benchmarks.load;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.salesmanager.benchmarks.load.CatalogSeeder.StoreCatalog;
+import com.salesmanager.shop.application.ShopApplication;
+
+/**
+ * End to end load test of the storefront api. Seeds a large catalog, runs
+ * concurrent shoppers for a warm up period then for the measured duration,
+ * and reports latency percentiles and throughput by endpoint.
+ *
+ * Without --url the shop is started in this jvm on an in memory H2 database,
+ * otherwise the running shop is tested and its database seeded when
+ * --jdbc.url is given. See {@link LoadOptions} for the options
+ *
+ * java -cp benchmarks.jar com.salesmanager.benchmarks.load.LoadTest
+ * --products=50000 --users=50 --duration=300
+ */
+public final class LoadTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadOptions options = LoadOptions.parse(args);
+
+		ConfigurableApplicationContext shop = null;
+		String url = options.getUrl();
+		DataSource dataSource = null;
+		String schema = options.getJdbcSchema();
+		if (url == null) {
+			shop = start(options);
+			url = "http://localhost:" + shop.getEnvironment().getProperty("local.server.port");
+			dataSource = shop.getBean(DataSource.class);
+		} else if (options.getJdbcUrl() != null) {
+			dataSource = new DriverManagerDataSource(options.getJdbcUrl(), options.getJdbcUser(),
+					options.getJdbcPassword());
+		}
+
+		try {
+			LatencyRecorder recorder = new LatencyRecorder();
+			StorefrontScenario scenario = new StorefrontScenario(catalogs(options, dataSource, schema, url, recorder),
+					options.getMix());
+
+			StorefrontClient admin = new StorefrontClient(url, recorder);
+			if (admin.login(options.getAdminUser(), options.getAdminPassword())) {
+				scenario.configure(admin, options.isReindex());
+			} else {
+				LOGGER.warn("Could not log in as " + options.getAdminUser()
+						+ ", payment and shipping modules are not configured");
+			}
+
+			run(scenario, url, recorder, options);
+
+			recorder.print(System.out);
+			recorder.write(new File(options.getReport()));
+			LOGGER.info("Report written to " + options.getReport());
+		} finally {
+			if (shop != null) {
+				shop.close();
+			}
+		}
+	}
+
+	/**
+	 * Catalog of every store, seeded or read from the database when
+	 * reachable, read through the api otherwise
+	 */
+	private static List<StoreCatalog> catalogs(LoadOptions options, DataSource dataSource, String schema,
+			String url, LatencyRecorder recorder) {
+		List<StoreCatalog> catalogs = new ArrayList<StoreCatalog>();
+		if (dataSource != null) {
+			CatalogSeeder seeder = new CatalogSeeder(dataSource, schema, options);
+			if (options.isSeed()) {
+				catalogs.addAll(seeder.seed().values());
+			} else {
+				for (int i = 0; i < options.getStores(); i++) {
+					catalogs.add(seeder.read(CatalogSeeder.storeCode(i)));
+				}
+			}
+		} else {
+			StorefrontClient client = new StorefrontClient(url, recorder);
+			for (int i = 0; i < options.getStores(); i++) {
+				catalogs.add(StorefrontScenario.discover(client, CatalogSeeder.storeCode(i)));
+			}
+		}
+		for (StoreCatalog catalog : catalogs) {
+			LOGGER.info("Store " + catalog.getCode() + " with " + catalog.getCategoryUrls().size() + " categories and "
+					+ catalog.getProductIds().size() + " products");
+		}
+		return catalogs;
+	}
+
+	/**
+	 * Runs the users for the warm up then the measured duration, only the
+	 * measured requests are recorded
+	 */
+	private static void run(StorefrontScenario scenario, String url, LatencyRecorder recorder, LoadOptions options)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.getWarmup() + options.getDuration());
+		ExecutorService users = Executors.newFixedThreadPool(options.getUsers());
+		for (int i = 0; i < options.getUsers(); i++) {
+			StorefrontClient client = new StorefrontClient(url, recorder);
+			users.execute(() -> scenario.run(client, deadline));
+		}
+		users.shutdown();
+
+		LOGGER.info("Warming up " + options.getUsers() + " users for " + options.getWarmup() + " s");
+		TimeUnit.SECONDS.sleep(options.getWarmup());
+		recorder.start();
+		LOGGER.info("Measuring for " + options.getDuration() + " s");
+		TimeUnit.SECONDS.sleep(options.getDuration());
+		recorder.stop();
+
+		if (!users.awaitTermination(1, TimeUnit.MINUTES)) {
+			users.shutdownNow();
+		}
+	}
+
+	/**
+	 * Starts the shop on a random port and an in memory H2 database
+	 */
+	private static ConfigurableApplicationContext start(LoadOptions options) {
+		String schema = options.getJdbcSchema();
+		return new SpringApplicationBuilder(ShopApplication.class).run("--server.port=0",
+				"--db.jdbcUrl=jdbc:h2:mem:shopizer-load;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS " + schema,
+				"--db.driverClass=org.h2.Driver", "--db.user=sa", "--db.password=",
+				"--hibernate.dialect=org.hibernate.dialect.H2Dialect", "--hibernate.hbm2ddl.auto=create",
+				"--db.schema=" + schema, "--spring.jpa.properties.hibernate.default_schema=" + schema,
+				"--db.preferredTestQuery=SELECT 1", "--db.minPoolSize=" + options.getUsers(),
+				"--db.maxPoolSize=" + options.getUsers());
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.salesmanager.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Json client of the shop api recording the latency of every request under
+ * its endpoint pattern, GET /api/v1/products/{id} for example. A request in
+ * error is recorded and returns null, it is up to the journey to go on or
+ * not
+ */
+public class StorefrontClient {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final String url;
+	private final LatencyRecorder recorder;
+	private volatile String token;
+
+	public StorefrontClient(String url, LatencyRecorder recorder) {
+		this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Authenticates the administrator, following requests carry its token
+	 */
+	public boolean login(String user, String password) {
+		JsonNode response = post("/api/v1/private/login", "/api/v1/private/login",
+				mapper.createObjectNode().put("username", user).put("password", password));
+		token = response == null ? null : response.path("token").asText(null);
+		return token != null;
+	}
+
+	public JsonNode get(String pattern, String path) {
+		return send("GET " + pattern, request(path).GET());
+	}
+
+	public JsonNode post(String pattern, String path, Object body) {
+		return send("POST " + pattern, request(path).POST(body(body)));
+	}
+
+	public JsonNode put(String pattern, String path, Object body) {
+		return send("PUT " + pattern, request(path).PUT(body(body)));
+	}
+
+	public ObjectMapper getMapper() {
+		return mapper;
+	}
+
+	private HttpRequest.Builder request(String path) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + path)).timeout(TIMEOUT)
+				.header("Accept", "application/json").header("Content-Type", "application/json");
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder;
+	}
+
+	private HttpRequest.BodyPublisher body(Object body) {
+		try {
+			return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body));
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private JsonNode send(String endpoint, HttpRequest.Builder request) {
+		long start = System.nanoTime();
+		HttpResponse<String> response;
+		try {
+			response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e) {
+			recorder.record(endpoint, System.nanoTime() - start, true);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		boolean error = response.statusCode() >= 400;
+		recorder.record(endpoint, System.nanoTime() - start, error);
+		if (error) {
+			return null;
+		}
+		try {
+			return response.body().isEmpty() ? mapper.createObjectNode() : mapper.readTree(response.body());
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+}
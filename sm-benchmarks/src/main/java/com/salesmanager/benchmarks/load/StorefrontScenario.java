@@ -0,0 +1,250 @@
+package com.salesmanager.benchmarks.load;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.salesmanager.benchmarks.load.CatalogSeeder.StoreCatalog;
+
+/**
+ * Storefront journeys of a shopper, picked according to the mix weights
+ *
+ * <pre>
+ * browse    categories, category and product listings, product details (v1 and v2)
+ * search    product search and the details of a result
+ * cart      adds two products to a new cart and reads it back
+ * checkout  cart, shipping quote then money order checkout with store pick up
+ * </pre>
+ *
+ * Money order and store pick up are the payment and shipping modules of every
+ * store, they complete without calling any external service
+ */
+public class StorefrontScenario {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StorefrontScenario.class);
+
+	private static final String PAYMENT_MODULE = "moneyorder";
+	private static final String SHIPPING_MODULE = "storePickUp";
+	private static final int PAGE_SIZE = 20;
+
+	private final List<StoreCatalog> catalogs;
+	private final Map<String, Integer> mix;
+	private final int totalWeight;
+
+	public StorefrontScenario(List<StoreCatalog> catalogs, Map<String, Integer> mix) {
+		this.catalogs = catalogs;
+		this.mix = mix;
+		this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+		if (totalWeight <= 0) {
+			throw new IllegalArgumentException("The journey mix has no weight");
+		}
+		for (String journey : mix.keySet()) {
+			if (!"browse".equals(journey) && !"search".equals(journey) && !"cart".equals(journey)
+					&& !"checkout".equals(journey)) {
+				throw new IllegalArgumentException("Unknown journey " + journey);
+			}
+		}
+	}
+
+	/**
+	 * Catalog of a store read through the api, when the database is not
+	 * reachable by the load test
+	 */
+	public static StoreCatalog discover(StorefrontClient client, String store) {
+		StoreCatalog catalog = new StoreCatalog(store);
+		JsonNode categories = client.get("/api/v1/category", "/api/v1/category?count=100&" + query(store));
+		if (categories != null) {
+			for (JsonNode category : categories.path("categories")) {
+				String url = category.path("description").path("friendlyUrl").asText(null);
+				if (url != null) {
+					catalog.getCategoryUrls().add(url);
+				}
+			}
+		}
+		JsonNode products = client.get("/api/v1/products", "/api/v1/products?count=100&" + query(store));
+		if (products != null) {
+			for (JsonNode product : products.path("products")) {
+				catalog.getProductIds().add(product.path("id").asLong());
+				catalog.getSkus().add(product.path("sku").asText());
+				catalog.getProductUrls().add(product.path("description").path("friendlyUrl").asText(null));
+			}
+		}
+		return catalog;
+	}
+
+	/**
+	 * Configures the payment and shipping modules of every store, and
+	 * rebuilds the search index when asked to
+	 */
+	public void configure(StorefrontClient admin, boolean reindex) {
+		for (StoreCatalog catalog : catalogs) {
+			String store = "?store=" + catalog.getCode();
+			ObjectNode payment = admin.getMapper().createObjectNode().put("code", PAYMENT_MODULE).put("active", true)
+					.put("defaultSelected", true);
+			payment.putObject("integrationKeys").put("address", "Load test payment address");
+			admin.post("/api/v1/private/modules/payment", "/api/v1/private/modules/payment" + store, payment);
+
+			ObjectNode shipping = admin.getMapper().createObjectNode().put("code", SHIPPING_MODULE)
+					.put("active", true).put("defaultSelected", true);
+			shipping.putObject("integrationKeys").put("price", "0").put("note", "Load test pick up");
+			admin.post("/api/v1/private/modules/shipping", "/api/v1/private/modules/shipping" + store, shipping);
+
+			if (reindex) {
+				admin.post("/api/v1/private/system/search/index", "/api/v1/private/system/search/index" + store,
+						admin.getMapper().createObjectNode());
+			}
+		}
+	}
+
+	/**
+	 * Runs journeys until the deadline
+	 */
+	public void run(StorefrontClient client, long deadline) {
+		while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+			StoreCatalog catalog = catalogs.get(ThreadLocalRandom.current().nextInt(catalogs.size()));
+			if (catalog.getProductIds().isEmpty()) {
+				LOGGER.warn("Store " + catalog.getCode() + " has no product");
+				return;
+			}
+			String journey = journey();
+			if ("browse".equals(journey)) {
+				browse(client, catalog);
+			} else if ("search".equals(journey)) {
+				search(client, catalog);
+			} else if ("cart".equals(journey)) {
+				cart(client, catalog);
+			} else {
+				checkout(client, catalog);
+			}
+		}
+	}
+
+	private String journey() {
+		int weight = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			weight -= entry.getValue();
+			if (weight < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("No journey for the mix " + mix);
+	}
+
+	private void browse(StorefrontClient client, StoreCatalog catalog) {
+		String query = query(catalog.getCode());
+		client.get("/api/v1/category", "/api/v1/category?" + query);
+		if (!catalog.getCategoryUrls().isEmpty()) {
+			String category = pick(catalog.getCategoryUrls());
+			client.get("/api/v1/category/{friendlyUrl}", "/api/v1/category/" + category + "?" + query);
+			client.get("/api/v2/products/category/{friendlyUrl}",
+					"/api/v2/products/category/" + category + "?count=" + PAGE_SIZE + "&" + query);
+		}
+		int page = ThreadLocalRandom.current().nextInt(Math.max(1, catalog.getProductIds().size() / PAGE_SIZE));
+		client.get("/api/v1/products", "/api/v1/products?page=" + page + "&count=" + PAGE_SIZE + "&" + query);
+		client.get("/api/v2/products", "/api/v2/products?page=" + page + "&count=" + PAGE_SIZE + "&" + query);
+
+		int index = ThreadLocalRandom.current().nextInt(catalog.getProductIds().size());
+		client.get("/api/v1/products/{id}", "/api/v1/products/" + catalog.getProductIds().get(index) + "?" + query);
+		client.get("/api/v2/product/{sku}", "/api/v2/product/" + catalog.getSkus().get(index) + "?" + query);
+		String url = catalog.getProductUrls().get(index);
+		if (url != null) {
+			client.get("/api/v1/product/friendly/{friendlyUrl}", "/api/v1/product/friendly/" + url + "?" + query);
+			client.get("/api/v2/product/name/{friendlyUrl}", "/api/v2/product/name/" + url + "?" + query);
+		}
+	}
+
+	private void search(StorefrontClient client, StoreCatalog catalog) {
+		String query = query(catalog.getCode());
+		ObjectNode search = client.getMapper().createObjectNode()
+				.put("query", "Product " + ThreadLocalRandom.current().nextInt(100)).put("count", PAGE_SIZE)
+				.put("start", 0);
+		JsonNode results = client.post("/api/v1/search", "/api/v1/search?" + query, search);
+		if (results != null && results.path("products").size() > 0) {
+			JsonNode product = results.path("products").get(0);
+			client.get("/api/v1/products/{id}", "/api/v1/products/" + product.path("id").asLong() + "?" + query);
+		}
+	}
+
+	/**
+	 * @return the cart code, null when the cart could not be created
+	 */
+	private String cart(StorefrontClient client, StoreCatalog catalog) {
+		String query = query(catalog.getCode());
+		JsonNode cart = client.post("/api/v1/cart", "/api/v1/cart?" + query, item(client, catalog));
+		String code = cart == null ? null : cart.path("code").asText(null);
+		if (code == null) {
+			return null;
+		}
+		client.put("/api/v1/cart/{code}", "/api/v1/cart/" + code + "?" + query, item(client, catalog));
+		client.get("/api/v1/cart/{code}", "/api/v1/cart/" + code + "?" + query);
+		return code;
+	}
+
+	private void checkout(StorefrontClient client, StoreCatalog catalog) {
+		String code = cart(client, catalog);
+		if (code == null) {
+			return;
+		}
+		String query = query(catalog.getCode());
+		ObjectNode address = address(client, catalog);
+		JsonNode summary = client.post("/api/v1/cart/{code}/shipping",
+				"/api/v1/cart/" + code + "/shipping?" + query, address);
+		JsonNode option = summary == null ? null : summary.path("shippingOptions").path(0);
+		JsonNode cart = client.get("/api/v1/cart/{code}", "/api/v1/cart/" + code + "?" + query);
+		if (option == null || option.isMissingNode() || cart == null) {
+			return;
+		}
+		BigDecimal total = new BigDecimal(cart.path("total").asText("0"))
+				.add(new BigDecimal(option.path("optionPrice").asText("0")));
+
+		ObjectNode order = client.getMapper().createObjectNode();
+		ObjectNode customer = order.putObject("customer");
+		customer.put("emailAddress", "shopper" + ThreadLocalRandom.current().nextInt(1000000) + "@shopizer.com");
+		customer.set("billing", address);
+		customer.set("delivery", address);
+		ObjectNode payment = order.putObject("payment");
+		payment.put("paymentModule", PAYMENT_MODULE).put("paymentType", "MONEYORDER")
+				.put("transactionType", "AUTHORIZECAPTURE").put("amount", total.toPlainString());
+		order.put("shippingQuote", option.path("shippingQuoteOptionId").asLong());
+		order.put("currency", cart.path("currency").asText(null));
+		order.put("customerAgreement", true);
+		client.post("/api/v1/cart/{code}/checkout", "/api/v1/cart/" + code + "/checkout?" + query, order);
+	}
+
+	private ObjectNode item(StorefrontClient client, StoreCatalog catalog) {
+		return client.getMapper().createObjectNode().put("product", pick(catalog.getSkus()))
+				.put("quantity", 1 + ThreadLocalRandom.current().nextInt(3));
+	}
+
+	/**
+	 * Shopper address in the country of the store
+	 */
+	private ObjectNode address(StorefrontClient client, StoreCatalog catalog) {
+		JsonNode store = client.get("/api/v1/store/{code}", "/api/v1/store/" + catalog.getCode());
+		JsonNode location = store == null ? client.getMapper().createObjectNode() : store.path("address");
+		ObjectNode address = client.getMapper().createObjectNode();
+		address.put("firstName", "Load").put("lastName", "Shopper").put("address", "1 Load street")
+				.put("city", location.path("city").asText("Montreal"))
+				.put("postalCode", location.path("postalCode").asText("H2H2H2"))
+				.put("stateProvince", location.path("stateProvince").asText("QC"))
+				.put("zone", location.path("stateProvince").asText("QC"))
+				.put("country", location.path("country").asText("CA"))
+				.put("countryCode", location.path("country").asText("CA")).put("phone", "5555555555");
+		return address;
+	}
+
+	private static <T> T pick(List<T> values) {
+		return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+	}
+
+	private static String query(String store) {
+		return "store=" + store + "&lang=en";
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.salesmanager.benchmarks.order;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.modules.order.InvoiceModule;
+import com.salesmanager.core.business.modules.order.ODSInvoiceModule;
+import com.salesmanager.core.business.services.reference.country.CountryService;
+import com.salesmanager.core.business.services.reference.zone.ZoneService;
+import com.salesmanager.core.business.utils.ProductPriceUtils;
+import com.salesmanager.core.model.common.Billing;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderTotal;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.currency.Currency;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Invoice rendering throughput, in invoices per second. Orders have 5 lines
+ * and 3 totals.
+ *
+ * templatePerInvoice reproduces the previous behaviour where the template was
+ * opened and parsed for every invoice
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceBenchmark {
+
+	private static final int BATCH_SIZE = 50;
+	private static final int PRODUCTS = 5;
+
+	private ODSInvoiceModule invoiceModule;
+	private ZoneService zoneService;
+	private CountryService countryService;
+	private ProductPriceUtils priceUtil;
+	private MerchantStore store;
+	private Language language;
+	private Order[] orders;
+
+	@Setup
+	public void setUp() throws Exception {
+		zoneService = emptyService(ZoneService.class);
+		countryService = emptyService(CountryService.class);
+		priceUtil = new ProductPriceUtils();
+		invoiceModule = newInvoiceModule();
+
+		language = new Language();
+		language.setCode("en");
+
+		store = new MerchantStore();
+		store.setId(1);
+		store.setCode("DEFAULT");
+		store.setStorename("Shopizer Store");
+		store.setStoreaddress("1 Main Street");
+		store.setStorecity("Montreal");
+		store.setStorepostalcode("H2X 1Y4");
+		store.setStorephone("514-555-0100");
+		store.setCurrencyFormatNational(true);
+		store.setDefaultLanguage(language);
+		Currency currency = new Currency();
+		currency.setCurrency(java.util.Currency.getInstance("CAD"));
+		store.setCurrency(currency);
+		Country country = new Country();
+		country.setIsoCode("CA");
+		store.setCountry(country);
+
+		orders = new Order[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			orders[i] = order(i + 1L);
+		}
+	}
+
+	@Benchmark
+	public void cachedTemplate(Blackhole blackhole) throws Exception {
+		CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+		invoiceModule.writeInvoice(store, orders[0], language, out);
+		blackhole.consume(out.getByteCount());
+	}
+
+	@Benchmark
+	public void templatePerInvoice(Blackhole blackhole) throws Exception {
+		CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+		newInvoiceModule().writeInvoice(store, orders[0], language, out);
+		blackhole.consume(out.getByteCount());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void zipBatch(Blackhole blackhole) throws Exception {
+		CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+		InvoiceModule.Batch batch = invoiceModule.newBatch(store, language, out);
+		for (Order order : orders) {
+			batch.add(order);
+		}
+		batch.finish();
+		blackhole.consume(out.getByteCount());
+	}
+
+	private ODSInvoiceModule newInvoiceModule() {
+		ODSInvoiceModule module = new ODSInvoiceModule();
+		ReflectionTestUtils.setField(module, "zoneService", zoneService);
+		ReflectionTestUtils.setField(module, "countryService", countryService);
+		ReflectionTestUtils.setField(module, "priceUtil", priceUtil);
+		return module;
+	}
+
+	/**
+	 * Reference data service without data, map lookups return empty maps
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T emptyService(Class<T> type) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> method.getReturnType().isAssignableFrom(Map.class)
+						? Collections.emptyMap()
+						: null);
+	}
+
+	private Order order(Long id) {
+		Order order = new Order();
+		order.setId(id);
+		order.setDatePurchased(new Date());
+
+		Billing billing = new Billing();
+		billing.setFirstName("Jane");
+		billing.setLastName("Doe");
+		billing.setAddress("2 Second Street");
+		billing.setCity("Toronto");
+		billing.setPostalCode("M5V 2T6");
+		billing.setTelephone("416-555-0100");
+		order.setBilling(billing);
+
+		Set<OrderProduct> products = new HashSet<OrderProduct>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			OrderProduct product = new OrderProduct();
+			product.setProductName("Product " + i);
+			product.setProductQuantity(i + 1);
+			product.setOneTimeCharge(new BigDecimal("19.99"));
+			products.add(product);
+		}
+		order.setOrderProducts(products);
+
+		Set<OrderTotal> totals = new HashSet<OrderTotal>();
+		String[] names = { "Sub-total", "Tax", "Total" };
+		for (int i = 0; i < names.length; i++) {
+			OrderTotal total = new OrderTotal();
+			total.setText(names[i]);
+			total.setSortOrder(i);
+			total.setValue(new BigDecimal("100.00"));
+			totals.add(total);
+		}
+		order.setOrderTotal(totals);
+		return order;
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.salesmanager.benchmarks.order;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.benchmarks.BenchmarkData;
+import com.salesmanager.benchmarks.tax.TaxBenchmark;
+import com.salesmanager.core.business.repositories.order.OrderRepository;
+import com.salesmanager.core.business.services.order.OrderServiceImpl;
+import com.salesmanager.core.business.services.order.ordertotal.OrderTotalServiceImpl;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.shoppingcart.ShoppingCart;
+
+/**
+ * Shopping cart total, sub total, order total variations without post
+ * processor modules, and taxes, for an anonymous and a known customer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+	@Param({ "1", "10", "50" })
+	private int cartSize;
+
+	private OrderServiceImpl orderService;
+	private ShoppingCart cart;
+	private Customer customer;
+	private MerchantStore store;
+	private Language language;
+
+	@Setup
+	public void setUp() {
+		OrderTotalServiceImpl orderTotalService = new OrderTotalServiceImpl();
+		ReflectionTestUtils.setField(orderTotalService, "orderTotalPostProcessors", Collections.emptyList());
+
+		orderService = new OrderServiceImpl(BenchmarkData.service(OrderRepository.class, Collections.emptyMap()));
+		ReflectionTestUtils.setField(orderService, "orderTotalService", orderTotalService);
+		ReflectionTestUtils.setField(orderService, "taxService", TaxBenchmark.newTaxService());
+
+		language = BenchmarkData.language();
+		store = BenchmarkData.store(language);
+		customer = BenchmarkData.customer(store);
+		cart = BenchmarkData.cart(BenchmarkData.catalog(cartSize, store, language), cartSize, store);
+	}
+
+	@Benchmark
+	public void anonymousCartTotal(Blackhole blackhole) throws Exception {
+		blackhole.consume(orderService.calculateShoppingCartTotal(cart, store, language));
+	}
+
+	@Benchmark
+	public void customerCartTotal(Blackhole blackhole) throws Exception {
+		blackhole.consume(orderService.calculateShoppingCartTotal(cart, customer, store, language));
+	}
+
+}
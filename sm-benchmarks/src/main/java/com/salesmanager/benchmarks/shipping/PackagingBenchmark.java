@@ -0,0 +1,87 @@
+package com.salesmanager.benchmarks.shipping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.benchmarks.BenchmarkData;
+import com.salesmanager.core.business.modules.integration.shipping.impl.DefaultPackagingImpl;
+import com.salesmanager.core.business.services.shipping.ShippingService;
+import com.salesmanager.core.business.services.system.MerchantLogService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.shipping.ShippingConfiguration;
+import com.salesmanager.core.model.shipping.ShippingProduct;
+
+/**
+ * Packing of a cart in 60x60x60 boxes of 30 units of weight, cart lines have
+ * a quantity of 1 to 3, and in individual item packages
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackagingBenchmark {
+
+	@Param({ "5", "20", "50" })
+	private int cartSize;
+
+	private DefaultPackagingImpl packaging;
+	private MerchantStore store;
+	private List<ShippingProduct> products;
+
+	@Setup
+	public void setUp() {
+		ShippingConfiguration configuration = new ShippingConfiguration();
+		configuration.setBoxWidth(60);
+		configuration.setBoxHeight(60);
+		configuration.setBoxLength(60);
+		configuration.setBoxWeight(1);
+		configuration.setMaxWeight(30);
+
+		packaging = new DefaultPackagingImpl();
+		ReflectionTestUtils.setField(packaging, "shippingService", BenchmarkData.service(ShippingService.class,
+				Collections.singletonMap("getShippingConfiguration", configuration)));
+		ReflectionTestUtils.setField(packaging, "merchantLogService",
+				BenchmarkData.service(MerchantLogService.class, Collections.emptyMap()));
+
+		Language language = BenchmarkData.language();
+		store = BenchmarkData.store(language);
+		List<Product> catalog = BenchmarkData.catalog(cartSize, store, language);
+		products = new ArrayList<ShippingProduct>();
+		for (int i = 0; i < cartSize; i++) {
+			ShippingProduct product = new ShippingProduct(catalog.get(i));
+			product.setQuantity(i % 3 + 1);
+			products.add(product);
+		}
+	}
+
+	@Benchmark
+	public void boxPackages(Blackhole blackhole) throws Exception {
+		blackhole.consume(packaging.getBoxPackagesDetails(products, store));
+	}
+
+	@Benchmark
+	public void itemPackages(Blackhole blackhole) throws Exception {
+		blackhole.consume(packaging.getItemPackagesDetails(products, store));
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.salesmanager.benchmarks.shop;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.shop.store.security.JWTTokenUtil;
+import com.salesmanager.shop.store.security.user.JWTUser;
+
+/**
+ * Parsing of the bearer token done by the authentication filter of every
+ * private api request: the user name lookup, then the token validation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTTokenBenchmark {
+
+	private JWTTokenUtil tokenUtil;
+	private JWTUser user;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		tokenUtil = new JWTTokenUtil();
+		ReflectionTestUtils.setField(tokenUtil, "secret", "aSecret");
+		ReflectionTestUtils.setField(tokenUtil, "expiration", 604800L);
+
+		user = new JWTUser(1L, "admin@shopizer.com", "Admin", "User", "admin@shopizer.com", "password",
+				Collections.emptyList(), true, new Date(0));
+		token = tokenUtil.generateToken(user);
+	}
+
+	@Benchmark
+	public void username(Blackhole blackhole) {
+		blackhole.consume(tokenUtil.getUsernameFromToken(token));
+	}
+
+	@Benchmark
+	public void authenticate(Blackhole blackhole) {
+		blackhole.consume(tokenUtil.getUsernameFromToken(token));
+		blackhole.consume(tokenUtil.validateToken(token, user));
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.salesmanager.benchmarks.shop;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.aop.AfterReturningAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.SingletonMetadataAwareAspectInstanceFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.benchmarks.BenchmarkData;
+import com.salesmanager.core.business.exception.ConversionException;
+import com.salesmanager.core.business.services.catalog.pricing.PricingServiceImpl;
+import com.salesmanager.core.business.utils.ProductPriceUtils;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.catalog.product.ReadableProduct;
+import com.salesmanager.shop.populator.PersistableAuditAspect;
+import com.salesmanager.shop.populator.catalog.ReadableProductPopulator;
+import com.salesmanager.shop.utils.LocalImageFilePathUtils;
+
+/**
+ * Product listing converted by {@link ReadableProductPopulator}, as is and
+ * through a proxy applying the audit advice on every populate as
+ * {@link PersistableAuditAspect} did before it was restricted to the
+ * {@link com.salesmanager.shop.populator.Audited} populators
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PopulatorAuditBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int catalogSize;
+
+	private ReadableProductPopulator populator;
+	private ReadableProductPopulator advised;
+	private MerchantStore store;
+	private Language language;
+	private List<Product> catalog;
+
+	@Setup
+	public void setUp() {
+		PricingServiceImpl pricingService = new PricingServiceImpl();
+		ReflectionTestUtils.setField(pricingService, "priceUtil", new ProductPriceUtils());
+
+		LocalImageFilePathUtils imageUtils = new LocalImageFilePathUtils();
+		imageUtils.setContentUrlPath("http://localhost:8080");
+		Properties properties = new Properties();
+		properties.setProperty("CONTEXT_PATH", "");
+		imageUtils.setProperties(properties);
+
+		populator = new ReadableProductPopulator();
+		populator.setPricingService(pricingService);
+		populator.setimageUtils(imageUtils);
+
+		PersistableAuditAspect aspect = new PersistableAuditAspect();
+		if (!AopUtils.findAdvisorsThatCanApply(new ReflectiveAspectJAdvisorFactory()
+				.getAdvisors(new SingletonMetadataAwareAspectInstanceFactory(aspect, "persistableAuditAspect")),
+				ReadableProductPopulator.class).isEmpty()) {
+			throw new IllegalStateException("The audit aspect applies to ReadableProductPopulator");
+		}
+
+		AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+		advisor.setExpression("execution(* populate(..))");
+		advisor.setAdvice((AfterReturningAdvice) (result, method, args, target) -> aspect.afterReturning(null, result));
+		ProxyFactory factory = new ProxyFactory(populator);
+		factory.setProxyTargetClass(true);
+		factory.addAdvisor(advisor);
+		advised = (ReadableProductPopulator) factory.getProxy();
+
+		language = BenchmarkData.language();
+		store = BenchmarkData.store(language);
+		catalog = BenchmarkData.catalog(catalogSize, store, language);
+	}
+
+	@Benchmark
+	public void plain(Blackhole blackhole) throws ConversionException {
+		populate(populator, blackhole);
+	}
+
+	@Benchmark
+	public void advised(Blackhole blackhole) throws ConversionException {
+		populate(advised, blackhole);
+	}
+
+	private void populate(ReadableProductPopulator populator, Blackhole blackhole) throws ConversionException {
+		for (Product product : catalog) {
+			blackhole.consume(populator.populate(product, new ReadableProduct(), store, language));
+		}
+	}
+
+}
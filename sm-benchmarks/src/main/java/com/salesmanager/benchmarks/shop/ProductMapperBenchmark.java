@@ -0,0 +1,90 @@
+package com.salesmanager.benchmarks.shop;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.benchmarks.BenchmarkData;
+import com.salesmanager.core.business.services.catalog.pricing.PricingServiceImpl;
+import com.salesmanager.core.business.services.catalog.product.review.ProductReviewStatisticsService;
+import com.salesmanager.core.business.utils.ProductPriceUtils;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.mapper.catalog.ReadableCategoryMapper;
+import com.salesmanager.shop.mapper.catalog.ReadableManufacturerMapper;
+import com.salesmanager.shop.mapper.catalog.ReadableProductTypeMapper;
+import com.salesmanager.shop.mapper.catalog.product.ReadableProductMapper;
+import com.salesmanager.shop.mapper.catalog.product.ReadableProductVariantMapper;
+import com.salesmanager.shop.utils.LocalImageFilePathUtils;
+
+/**
+ * Conversion of a product listing to the api model, with price, images,
+ * categories and descriptions. Review statistics come from an empty in
+ * memory service
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int catalogSize;
+
+	private ReadableProductMapper mapper;
+	private MerchantStore store;
+	private Language language;
+	private List<Product> catalog;
+
+	@Setup
+	public void setUp() {
+		PricingServiceImpl pricingService = new PricingServiceImpl();
+		ReflectionTestUtils.setField(pricingService, "priceUtil", new ProductPriceUtils());
+
+		LocalImageFilePathUtils imageUtils = new LocalImageFilePathUtils();
+		imageUtils.setContentUrlPath("http://localhost:8080");
+		Properties properties = new Properties();
+		properties.setProperty("CONTEXT_PATH", "");
+		imageUtils.setProperties(properties);
+
+		mapper = new ReadableProductMapper();
+		ReflectionTestUtils.setField(mapper, "imageUtils", imageUtils);
+		ReflectionTestUtils.setField(mapper, "readableCategoryMapper", new ReadableCategoryMapper());
+		ReflectionTestUtils.setField(mapper, "readableProductTypeMapper", new ReadableProductTypeMapper());
+		ReflectionTestUtils.setField(mapper, "readableProductVariantMapper", new ReadableProductVariantMapper());
+		ReflectionTestUtils.setField(mapper, "readableManufacturerMapper", new ReadableManufacturerMapper());
+		ReflectionTestUtils.setField(mapper, "pricingService", pricingService);
+		ReflectionTestUtils.setField(mapper, "productReviewStatisticsService",
+				BenchmarkData.service(ProductReviewStatisticsService.class, Collections.emptyMap()));
+
+		language = BenchmarkData.language();
+		store = BenchmarkData.store(language);
+		catalog = BenchmarkData.catalog(catalogSize, store, language);
+	}
+
+	@Benchmark
+	public void convert(Blackhole blackhole) {
+		for (Product product : catalog) {
+			blackhole.consume(mapper.convert(product, store, language));
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.salesmanager.benchmarks.tax;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.benchmarks.BenchmarkData;
+import com.salesmanager.core.business.services.system.MerchantConfigurationService;
+import com.salesmanager.core.business.services.tax.TaxClassService;
+import com.salesmanager.core.business.services.tax.TaxRateService;
+import com.salesmanager.core.business.services.tax.TaxServiceImpl;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.OrderSummary;
+import com.salesmanager.core.model.order.OrderSummaryType;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+import com.salesmanager.core.model.tax.taxclass.TaxClass;
+import com.salesmanager.core.model.tax.taxrate.TaxRate;
+import com.salesmanager.core.model.tax.taxrate.TaxRateDescription;
+
+/**
+ * Tax lines of a cart shipped in the store province, taxed by a federal and a
+ * provincial rate. Tax configuration, classes and rates come from in memory
+ * services, the time measured excludes their lookups
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaxBenchmark {
+
+	@Param({ "1", "10", "50" })
+	private int cartSize;
+
+	private TaxServiceImpl taxService;
+	private OrderSummary summary;
+	private Customer customer;
+	private MerchantStore store;
+	private Language language;
+
+	@Setup
+	public void setUp() {
+		taxService = newTaxService();
+		language = BenchmarkData.language();
+		store = BenchmarkData.store(language);
+		customer = BenchmarkData.customer(store);
+
+		summary = new OrderSummary();
+		summary.setOrderSummaryType(OrderSummaryType.SHOPPINGCART);
+		summary.setProducts(new ArrayList<ShoppingCartItem>(BenchmarkData
+				.cart(BenchmarkData.catalog(cartSize, store, language), cartSize, store).getLineItems()));
+	}
+
+	@Benchmark
+	public void calculateTax(Blackhole blackhole) throws Exception {
+		blackhole.consume(taxService.calculateTax(summary, customer, store, language));
+	}
+
+	/**
+	 * Tax service with the default tax class and GST 5% + QST 9.975%
+	 */
+	public static TaxServiceImpl newTaxService() {
+		TaxClass taxClass = BenchmarkData.taxClass();
+		List<TaxRate> rates = Arrays.asList(taxRate(1L, "GST", "5", taxClass), taxRate(2L, "QST", "9.975", taxClass));
+
+		Map<String, Object> taxRates = new HashMap<String, Object>();
+		taxRates.put("listByCountryZoneAndTaxClass", rates);
+		taxRates.put("listByCountryStateProvinceAndTaxClass", rates);
+
+		TaxServiceImpl taxService = new TaxServiceImpl();
+		ReflectionTestUtils.setField(taxService, "merchantConfigurationService",
+				BenchmarkData.service(MerchantConfigurationService.class, Collections.emptyMap()));
+		ReflectionTestUtils.setField(taxService, "taxClassService",
+				BenchmarkData.service(TaxClassService.class, Collections.singletonMap("getByCode", taxClass)));
+		ReflectionTestUtils.setField(taxService, "taxRateService",
+				BenchmarkData.service(TaxRateService.class, taxRates));
+		return taxService;
+	}
+
+	private static TaxRate taxRate(Long id, String code, String rate, TaxClass taxClass) {
+		TaxRate taxRate = new TaxRate();
+		taxRate.setId(id);
+		taxRate.setCode(code);
+		taxRate.setTaxRate(new BigDecimal(rate));
+		taxRate.setTaxClass(taxClass);
+		TaxRateDescription description = new TaxRateDescription();
+		description.setName(code);
+		description.setTaxRate(taxRate);
+		taxRate.setDescriptions(Collections.singletonList(description));
+		return taxRate;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.salesmanager.core.business.cache.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.cache.CacheInvalidationTransport;
+
+/**
+ * Redis pub/sub transport, every node subscribes to the channel. Messages
+ * published while a node is disconnected are lost, its entries are
+ * refreshed when they expire
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "redis")
+public class RedisCacheInvalidationTransport implements CacheInvalidationTransport {
+
+	private final ChannelTopic topic;
+	private final StringRedisTemplate template;
+	private final RedisMessageListenerContainer container;
+
+	private final Map<Consumer<String>, MessageListener> listeners = new ConcurrentHashMap<Consumer<String>, MessageListener>();
+
+	public RedisCacheInvalidationTransport(RedisConnectionFactory connectionFactory,
+			@Value("${cache.invalidation.channel:shopizer-cache-invalidation}") String channel) {
+		this.topic = new ChannelTopic(channel);
+		this.template = new StringRedisTemplate(connectionFactory);
+		this.container = new RedisMessageListenerContainer();
+		this.container.setConnectionFactory(connectionFactory);
+	}
+
+	@PostConstruct
+	public void init() {
+		container.afterPropertiesSet();
+		container.start();
+	}
+
+	@PreDestroy
+	public void destroy() throws Exception {
+		container.destroy();
+	}
+
+	@Override
+	public void publish(String message) {
+		template.convertAndSend(topic.getTopic(), message);
+	}
+
+	@Override
+	public void subscribe(Consumer<String> listener) {
+		MessageListener messageListener = (message, pattern) ->
+				listener.accept(new String(message.getBody(), StandardCharsets.UTF_8));
+		listeners.put(listener, messageListener);
+		container.addMessageListener(messageListener, topic);
+	}
+
+	@Override
+	public void unsubscribe(Consumer<String> listener) {
+		MessageListener messageListener = listeners.remove(listener);
+		if(messageListener != null) {
+			container.removeMessageListener(messageListener, topic);
+		}
+	}
+
+}
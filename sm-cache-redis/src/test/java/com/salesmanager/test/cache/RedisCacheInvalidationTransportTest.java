@@ -0,0 +1,73 @@
+package com.salesmanager.test.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.cache.CacheInvalidation;
+import com.salesmanager.core.business.cache.CacheInvalidation.Kind;
+import com.salesmanager.core.business.cache.redis.RedisCacheInvalidationTransport;
+
+public class RedisCacheInvalidationTransportTest {
+
+	private static final String CHANNEL = "cache-invalidation-test";
+	private static final String EVICT = new CacheInvalidation(Kind.SERVICE, "products", 1L).encode("node-a");
+	private static final String CLEAR = new CacheInvalidation(Kind.SERVICE, "products", null).encode("node-a");
+
+	private RedisConnection connection;
+	private RedisCacheInvalidationTransport transport;
+
+	@Before
+	public void init() {
+		RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+		connection = mock(RedisConnection.class);
+		when(connectionFactory.getConnection()).thenReturn(connection);
+		transport = new RedisCacheInvalidationTransport(connectionFactory, CHANNEL);
+	}
+
+	@Test
+	public void publishOnChannel() {
+		transport.publish(EVICT);
+
+		verify(connection).publish(CHANNEL.getBytes(StandardCharsets.UTF_8),
+				EVICT.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void messagesAreDeliveredUntilUnsubscribed() {
+		List<String> received = new ArrayList<String>();
+		Consumer<String> listener = received::add;
+		transport.subscribe(listener);
+
+		MessageListener messageListener = listeners().get(listener);
+		messageListener.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+				CLEAR.getBytes(StandardCharsets.UTF_8)), null);
+		assertEquals(1, received.size());
+		assertEquals(CLEAR, received.get(0));
+
+		transport.unsubscribe(listener);
+		assertTrue(listeners().isEmpty());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Consumer<String>, MessageListener> listeners() {
+		return (Map<Consumer<String>, MessageListener>) ReflectionTestUtils.getField(transport, "listeners");
+	}
+
+}
@@ -14,6 +14,8 @@ public class ServiceException extends Exception {
 	public final static int EXCEPTION_VALIDATION = 99;
 	public final static int EXCEPTION_PAYMENT_DECLINED = 100;
 	public final static int EXCEPTION_TRANSACTION_DECLINED = 101;
+	/** payment gateway did not answer in time, the payment may have gone through **/
+	public final static int EXCEPTION_PAYMENT_TIMEOUT = 102;
 	public final static int EXCEPTION_INVENTORY_MISMATCH = 120;
 	
 	private String messageCode = null;
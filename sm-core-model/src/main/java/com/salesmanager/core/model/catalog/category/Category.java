@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
@@ -24,6 +25,9 @@ import javax.persistence.UniqueConstraint;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.salesmanager.core.model.common.audit.AuditSection;
 import com.salesmanager.core.model.common.audit.Auditable;
 import com.salesmanager.core.model.generic.SalesManagerEntity;
@@ -37,6 +41,7 @@ import com.salesmanager.core.model.merchant.MerchantStore;
     @UniqueConstraint(columnNames = {"MERCHANT_ID", "CODE"}) )
 
 
+@Cacheable
 public class Category extends SalesManagerEntity<Long, Category> implements Auditable {
     private static final long serialVersionUID = 1L;
     
@@ -51,6 +56,7 @@ public class Category extends SalesManagerEntity<Long, Category> implements Audi
 
     @Valid
     @OneToMany(mappedBy="category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<CategoryDescription> descriptions = new HashSet<CategoryDescription>();
 
     @ManyToOne(fetch = FetchType.LAZY)
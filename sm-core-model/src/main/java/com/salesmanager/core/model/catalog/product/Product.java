@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
@@ -27,6 +28,8 @@ import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 
 import com.salesmanager.core.model.catalog.category.Category;
@@ -51,6 +54,7 @@ import com.salesmanager.core.model.tax.taxclass.TaxClass;
 @EntityListeners(value = AuditListener.class)
 @Table(name = "PRODUCT", uniqueConstraints=
 @UniqueConstraint(columnNames = {"MERCHANT_ID", "SKU"}))
+@Cacheable
 public class Product extends SalesManagerEntity<Long, Product> implements Auditable {
 	private static final long serialVersionUID = 1L;
 
@@ -69,6 +73,7 @@ public class Product extends SalesManagerEntity<Long, Product> implements Audita
 	private AuditSection auditSection = new AuditSection();
 
 	@OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "product")
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	private Set<ProductDescription> descriptions = new HashSet<ProductDescription>();
 	
 	/**
@@ -0,0 +1,171 @@
+package com.salesmanager.core.model.catalog.product.review;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import com.salesmanager.core.model.generic.SalesManagerEntity;
+
+/**
+ * Review statistics of a product, one row per product reviewed.
+ * Counters are incremented in place when a review is created, updated or
+ * deleted and recomputed from PRODUCT_REVIEW by a periodic reconciliation
+ * @author c.samson
+ *
+ */
+@Entity
+@Table(name = "PRODUCT_REVIEW_STATISTICS")
+public class ProductReviewStatistics extends SalesManagerEntity<Long, ProductReviewStatistics> {
+	private static final long serialVersionUID = 1L;
+
+	public static final int MAX_RATING = 5;
+
+	@Id
+	@Column(name = "PRODUCT_ID", unique=true, nullable=false)
+	private Long id;
+
+	@Column(name = "REVIEW_SUM", nullable=false)
+	private double reviewSum;
+
+	@Column(name = "REVIEW_COUNT", nullable=false)
+	private int reviewCount;
+
+	@Column(name = "RATING_1", nullable=false)
+	private int rating1;
+
+	@Column(name = "RATING_2", nullable=false)
+	private int rating2;
+
+	@Column(name = "RATING_3", nullable=false)
+	private int rating3;
+
+	@Column(name = "RATING_4", nullable=false)
+	private int rating4;
+
+	@Column(name = "RATING_5", nullable=false)
+	private int rating5;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "DATE_RECONCILED")
+	private Date dateReconciled;
+
+	public ProductReviewStatistics() {
+	}
+
+	public ProductReviewStatistics(Long productId) {
+		this.id = productId;
+	}
+
+	/**
+	 * Histogram bucket (1 to 5 stars) of a rating, half stars round up
+	 */
+	public static int star(double rating) {
+		return (int) Math.max(1, Math.min(MAX_RATING, Math.round(rating)));
+	}
+
+	/**
+	 * Average rating, null when the product has no review
+	 */
+	public BigDecimal getReviewAvg() {
+		if(reviewCount <= 0) {
+			return null;
+		}
+		return new BigDecimal(reviewSum / reviewCount).setScale(2, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Number of reviews rated with the given number of stars
+	 */
+	public int getRatingCount(int star) {
+		switch(star) {
+			case 1: return rating1;
+			case 2: return rating2;
+			case 3: return rating3;
+			case 4: return rating4;
+			case 5: return rating5;
+			default: throw new IllegalArgumentException("Star must be between 1 and " + MAX_RATING + " [" + star + "]");
+		}
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public double getReviewSum() {
+		return reviewSum;
+	}
+
+	public void setReviewSum(double reviewSum) {
+		this.reviewSum = reviewSum;
+	}
+
+	public int getReviewCount() {
+		return reviewCount;
+	}
+
+	public void setReviewCount(int reviewCount) {
+		this.reviewCount = reviewCount;
+	}
+
+	public int getRating1() {
+		return rating1;
+	}
+
+	public void setRating1(int rating1) {
+		this.rating1 = rating1;
+	}
+
+	public int getRating2() {
+		return rating2;
+	}
+
+	public void setRating2(int rating2) {
+		this.rating2 = rating2;
+	}
+
+	public int getRating3() {
+		return rating3;
+	}
+
+	public void setRating3(int rating3) {
+		this.rating3 = rating3;
+	}
+
+	public int getRating4() {
+		return rating4;
+	}
+
+	public void setRating4(int rating4) {
+		this.rating4 = rating4;
+	}
+
+	public int getRating5() {
+		return rating5;
+	}
+
+	public void setRating5(int rating5) {
+		this.rating5 = rating5;
+	}
+
+	public Date getDateReconciled() {
+		return dateReconciled;
+	}
+
+	public void setDateReconciled(Date dateReconciled) {
+		this.dateReconciled = dateReconciled;
+	}
+
+}
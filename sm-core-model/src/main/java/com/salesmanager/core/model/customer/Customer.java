@@ -17,6 +17,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -52,7 +53,11 @@ import com.salesmanager.core.utils.CloneUtils;
 @Entity
 @Table(name = "CUSTOMER", 
 	 uniqueConstraints=
-			@UniqueConstraint(columnNames = {"MERCHANT_ID", "CUSTOMER_NICK"}))
+			@UniqueConstraint(columnNames = {"MERCHANT_ID", "CUSTOMER_NICK"}),
+	 indexes = {
+			@Index(name="CUST_EMAIL_IDX", columnList = "MERCHANT_ID,CUSTOMER_EMAIL_ADDRESS"),
+			@Index(name="CUST_FIRST_NAME_IDX", columnList = "MERCHANT_ID,BILLING_FIRST_NAME"),
+			@Index(name="CUST_LAST_NAME_IDX", columnList = "MERCHANT_ID,BILLING_LAST_NAME")})
 public class Customer extends SalesManagerEntity<Long, Customer> implements Auditable {
 	private static final long serialVersionUID = 1L;
 	
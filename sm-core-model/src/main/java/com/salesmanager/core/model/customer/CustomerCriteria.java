@@ -9,6 +9,11 @@ public class CustomerCriteria extends Criteria {
 	private String name;
 	private String email;
 	private String country;
+	/**
+	 * Keyset pagination, last customer of the previous page
+	 */
+	private Long lastId;
+	private boolean approximateCount;
 	public String getFirstName() {
 		return firstName;
 	}
@@ -39,5 +44,17 @@ public class CustomerCriteria extends Criteria {
 	public void setCountry(String country) {
 		this.country = country;
 	}
+	public Long getLastId() {
+		return lastId;
+	}
+	public void setLastId(Long lastId) {
+		this.lastId = lastId;
+	}
+	public boolean isApproximateCount() {
+		return approximateCount;
+	}
+	public void setApproximateCount(boolean approximateCount) {
+		this.approximateCount = approximateCount;
+	}
 
 }
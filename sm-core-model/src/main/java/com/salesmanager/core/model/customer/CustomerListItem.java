@@ -0,0 +1,112 @@
+package com.salesmanager.core.model.customer;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Columns of a customer shown in customer listings, projected from the
+ * customer table without its attributes, groups and addresses
+ */
+public class CustomerListItem implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String emailAddress;
+	private String nick;
+	private String billingFirstName;
+	private String billingLastName;
+	private String billingCompany;
+	private String billingTelephone;
+	private String billingCountry;
+	private Date dateCreated;
+
+	public CustomerListItem() {
+	}
+
+	public CustomerListItem(Long id, String emailAddress, String nick, String billingFirstName, String billingLastName,
+			String billingCompany, String billingTelephone, String billingCountry, Date dateCreated) {
+		this.id = id;
+		this.emailAddress = emailAddress;
+		this.nick = nick;
+		this.billingFirstName = billingFirstName;
+		this.billingLastName = billingLastName;
+		this.billingCompany = billingCompany;
+		this.billingTelephone = billingTelephone;
+		this.billingCountry = billingCountry;
+		this.dateCreated = dateCreated;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getEmailAddress() {
+		return emailAddress;
+	}
+
+	public void setEmailAddress(String emailAddress) {
+		this.emailAddress = emailAddress;
+	}
+
+	public String getNick() {
+		return nick;
+	}
+
+	public void setNick(String nick) {
+		this.nick = nick;
+	}
+
+	public String getBillingFirstName() {
+		return billingFirstName;
+	}
+
+	public void setBillingFirstName(String billingFirstName) {
+		this.billingFirstName = billingFirstName;
+	}
+
+	public String getBillingLastName() {
+		return billingLastName;
+	}
+
+	public void setBillingLastName(String billingLastName) {
+		this.billingLastName = billingLastName;
+	}
+
+	public String getBillingCompany() {
+		return billingCompany;
+	}
+
+	public void setBillingCompany(String billingCompany) {
+		this.billingCompany = billingCompany;
+	}
+
+	public String getBillingTelephone() {
+		return billingTelephone;
+	}
+
+	public void setBillingTelephone(String billingTelephone) {
+		this.billingTelephone = billingTelephone;
+	}
+
+	public String getBillingCountry() {
+		return billingCountry;
+	}
+
+	public void setBillingCountry(String billingCountry) {
+		this.billingCountry = billingCountry;
+	}
+
+	public Date getDateCreated() {
+		return dateCreated;
+	}
+
+	public void setDateCreated(Date dateCreated) {
+		this.dateCreated = dateCreated;
+	}
+
+}
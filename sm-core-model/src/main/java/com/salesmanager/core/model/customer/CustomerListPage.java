@@ -0,0 +1,47 @@
+package com.salesmanager.core.model.customer;
+
+import java.util.List;
+
+import com.salesmanager.core.model.common.EntityList;
+
+/**
+ * A page of customers obtained with keyset pagination. The next page is
+ * requested by passing nextId in {@link CustomerCriteria}
+ */
+public class CustomerListPage extends EntityList {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<CustomerListItem> items;
+	private Long nextId;
+	private boolean approximateCount;
+
+	public List<CustomerListItem> getItems() {
+		return items;
+	}
+
+	public void setItems(List<CustomerListItem> items) {
+		this.items = items;
+	}
+
+	public Long getNextId() {
+		return nextId;
+	}
+
+	public void setNextId(Long nextId) {
+		this.nextId = nextId;
+	}
+
+	public boolean isLast() {
+		return nextId == null;
+	}
+
+	public boolean isApproximateCount() {
+		return approximateCount;
+	}
+
+	public void setApproximateCount(boolean approximateCount) {
+		this.approximateCount = approximateCount;
+	}
+
+}
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
@@ -29,6 +30,9 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.salesmanager.core.constants.MeasureUnit;
 import com.salesmanager.core.model.common.audit.AuditSection;
@@ -43,6 +47,7 @@ import com.salesmanager.core.utils.CloneUtils;
 @Entity
 @Table(name = "MERCHANT_STORE",
 	indexes = @Index(columnList = "LINEAGE"))
+@Cacheable
 public class MerchantStore extends SalesManagerEntity<Integer, MerchantStore> implements Auditable {
 
   private static final long serialVersionUID = 1L;
@@ -148,6 +153,7 @@ public class MerchantStore extends SalesManagerEntity<Integer, MerchantStore> im
 	@NotEmpty
 	@ManyToMany(fetch = FetchType.LAZY)
 	@JoinTable(name = "MERCHANT_LANGUAGE")
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	private List<Language> languages = new ArrayList<Language>();
 
 	@Column(name = "USE_CACHE")
@@ -15,6 +15,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -42,7 +43,9 @@ import com.salesmanager.core.model.reference.currency.Currency;
 import com.salesmanager.core.utils.CloneUtils;
 
 @Entity
-@Table (name="ORDERS")
+@Table (name="ORDERS", indexes = {
+		@Index(name="ORD_MERCHANT_DATE_IDX", columnList = "MERCHANTID,DATE_PURCHASED,ORDER_ID"),
+		@Index(name="ORD_CUSTOMER_DATE_IDX", columnList = "CUSTOMER_ID,DATE_PURCHASED,ORDER_ID")})
 public class Order extends SalesManagerEntity<Long, Order> {
 	
 	
@@ -1,5 +1,7 @@
 package com.salesmanager.core.model.order;
 
+import java.util.Date;
+
 import com.salesmanager.core.model.common.Criteria;
 
 public class OrderCriteria extends Criteria {
@@ -11,6 +13,17 @@ public class OrderCriteria extends Criteria {
 	private String paymentMethod;
 	private Long customerId;
 	private String email;
+	/**
+	 * Keyset pagination, last order of the previous page
+	 */
+	private Date lastDatePurchased;
+	private Long lastId;
+	private boolean approximateCount;
+	/**
+	 * Date purchased window, both bounds inclusive
+	 */
+	private Date startDate;
+	private Date endDate;
 	public void setPaymentMethod(String paymentMethod) {
 		this.paymentMethod = paymentMethod;
 	}
@@ -55,6 +68,36 @@ public class OrderCriteria extends Criteria {
 	public void setEmail(String email) {
 		this.email = email;
 	}
+	public Date getLastDatePurchased() {
+		return lastDatePurchased;
+	}
+	public void setLastDatePurchased(Date lastDatePurchased) {
+		this.lastDatePurchased = lastDatePurchased;
+	}
+	public Long getLastId() {
+		return lastId;
+	}
+	public void setLastId(Long lastId) {
+		this.lastId = lastId;
+	}
+	public boolean isApproximateCount() {
+		return approximateCount;
+	}
+	public void setApproximateCount(boolean approximateCount) {
+		this.approximateCount = approximateCount;
+	}
+	public Date getStartDate() {
+		return startDate;
+	}
+	public void setStartDate(Date startDate) {
+		this.startDate = startDate;
+	}
+	public Date getEndDate() {
+		return endDate;
+	}
+	public void setEndDate(Date endDate) {
+		this.endDate = endDate;
+	}
    
 	
 	
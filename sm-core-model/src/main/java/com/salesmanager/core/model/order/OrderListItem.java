@@ -0,0 +1,148 @@
+package com.salesmanager.core.model.order;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.order.orderstatus.OrderStatus;
+
+/**
+ * Summary columns of an order used in order listings. Line items
+ * are loaded in a single query for all orders of a page
+ */
+public class OrderListItem implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private Date datePurchased;
+	private OrderStatus status;
+	private BigDecimal total;
+	private String currency;
+	private Long customerId;
+	private String customerEmailAddress;
+	private String billingFirstName;
+	private String billingLastName;
+	private String paymentModuleCode;
+	private String shippingModuleCode;
+	private List<OrderProduct> orderProducts = new ArrayList<OrderProduct>();
+
+	public OrderListItem() {
+	}
+
+	public OrderListItem(Long id, Date datePurchased, OrderStatus status, BigDecimal total, String currency,
+			Long customerId, String customerEmailAddress, String billingFirstName, String billingLastName,
+			String paymentModuleCode, String shippingModuleCode) {
+		this.id = id;
+		this.datePurchased = datePurchased;
+		this.status = status;
+		this.total = total;
+		this.currency = currency;
+		this.customerId = customerId;
+		this.customerEmailAddress = customerEmailAddress;
+		this.billingFirstName = billingFirstName;
+		this.billingLastName = billingLastName;
+		this.paymentModuleCode = paymentModuleCode;
+		this.shippingModuleCode = shippingModuleCode;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Date getDatePurchased() {
+		return datePurchased;
+	}
+
+	public void setDatePurchased(Date datePurchased) {
+		this.datePurchased = datePurchased;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public void setTotal(BigDecimal total) {
+		this.total = total;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public Long getCustomerId() {
+		return customerId;
+	}
+
+	public void setCustomerId(Long customerId) {
+		this.customerId = customerId;
+	}
+
+	public String getCustomerEmailAddress() {
+		return customerEmailAddress;
+	}
+
+	public void setCustomerEmailAddress(String customerEmailAddress) {
+		this.customerEmailAddress = customerEmailAddress;
+	}
+
+	public String getBillingFirstName() {
+		return billingFirstName;
+	}
+
+	public void setBillingFirstName(String billingFirstName) {
+		this.billingFirstName = billingFirstName;
+	}
+
+	public String getBillingLastName() {
+		return billingLastName;
+	}
+
+	public void setBillingLastName(String billingLastName) {
+		this.billingLastName = billingLastName;
+	}
+
+	public String getPaymentModuleCode() {
+		return paymentModuleCode;
+	}
+
+	public void setPaymentModuleCode(String paymentModuleCode) {
+		this.paymentModuleCode = paymentModuleCode;
+	}
+
+	public String getShippingModuleCode() {
+		return shippingModuleCode;
+	}
+
+	public void setShippingModuleCode(String shippingModuleCode) {
+		this.shippingModuleCode = shippingModuleCode;
+	}
+
+	public List<OrderProduct> getOrderProducts() {
+		return orderProducts;
+	}
+
+	public void setOrderProducts(List<OrderProduct> orderProducts) {
+		this.orderProducts = orderProducts;
+	}
+
+}
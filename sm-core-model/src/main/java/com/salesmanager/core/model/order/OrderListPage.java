@@ -0,0 +1,57 @@
+package com.salesmanager.core.model.order;
+
+import java.util.Date;
+import java.util.List;
+
+import com.salesmanager.core.model.common.EntityList;
+
+/**
+ * A page of orders obtained with keyset pagination. The next page is
+ * requested by passing nextDatePurchased and nextId in {@link OrderCriteria}
+ */
+public class OrderListPage extends EntityList {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<OrderListItem> items;
+	private Date nextDatePurchased;
+	private Long nextId;
+	private boolean approximateCount;
+
+	public List<OrderListItem> getItems() {
+		return items;
+	}
+
+	public void setItems(List<OrderListItem> items) {
+		this.items = items;
+	}
+
+	public Date getNextDatePurchased() {
+		return nextDatePurchased;
+	}
+
+	public void setNextDatePurchased(Date nextDatePurchased) {
+		this.nextDatePurchased = nextDatePurchased;
+	}
+
+	public Long getNextId() {
+		return nextId;
+	}
+
+	public void setNextId(Long nextId) {
+		this.nextId = nextId;
+	}
+
+	public boolean isLast() {
+		return nextId == null;
+	}
+
+	public boolean isApproximateCount() {
+		return approximateCount;
+	}
+
+	public void setApproximateCount(boolean approximateCount) {
+		this.approximateCount = approximateCount;
+	}
+
+}
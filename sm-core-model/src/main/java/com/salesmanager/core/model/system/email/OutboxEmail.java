@@ -0,0 +1,203 @@
+package com.salesmanager.core.model.system.email;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.TableGenerator;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.hibernate.annotations.Type;
+
+import com.salesmanager.core.model.generic.SalesManagerEntity;
+import com.salesmanager.core.model.merchant.MerchantStore;
+
+/**
+ * Email written with the change that triggers it and sent by the outbox
+ * dispatcher
+ */
+@Entity
+@Table(name = "EMAIL_OUTBOX", indexes = { @Index(name = "EMAIL_OUTBOX_DUE_IDX", columnList = "STATUS,NEXT_ATTEMPT") })
+public class OutboxEmail extends SalesManagerEntity<Long, OutboxEmail> {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(name = "EMAIL_OUTBOX_ID")
+	@TableGenerator(name = "TABLE_GEN", table = "SM_SEQUENCER", pkColumnName = "SEQ_NAME", valueColumnName = "SEQ_COUNT", pkColumnValue = "EMAIL_OUTBOX_SEQ_NEXT_VAL")
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "TABLE_GEN")
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "MERCHANT_ID", nullable = false)
+	private MerchantStore merchantStore;
+
+	@Column(name = "FROM_NAME")
+	private String from;
+
+	@Column(name = "FROM_EMAIL")
+	private String fromEmail;
+
+	@Column(name = "TO_EMAIL", nullable = false)
+	private String to;
+
+	@Column(name = "SUBJECT", length = 512)
+	private String subject;
+
+	@Column(name = "TEMPLATE_NAME", nullable = false)
+	private String templateName;
+
+	/** json object **/
+	@Column(name = "TEMPLATE_TOKENS")
+	@Type(type = "org.hibernate.type.TextType")
+	private String templateTokens;
+
+	@Enumerated(value = EnumType.STRING)
+	@Column(name = "STATUS", length = 10, nullable = false)
+	private OutboxEmailStatus status = OutboxEmailStatus.PENDING;
+
+	@Column(name = "ATTEMPTS", nullable = false)
+	private int attempts;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "NEXT_ATTEMPT", nullable = false)
+	private Date nextAttempt;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "DATE_CREATED", nullable = false)
+	private Date dateCreated;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "DATE_SENT")
+	private Date dateSent;
+
+	@Column(name = "LAST_ERROR")
+	@Type(type = "org.hibernate.type.TextType")
+	private String lastError;
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public MerchantStore getMerchantStore() {
+		return merchantStore;
+	}
+
+	public void setMerchantStore(MerchantStore merchantStore) {
+		this.merchantStore = merchantStore;
+	}
+
+	public String getFrom() {
+		return from;
+	}
+
+	public void setFrom(String from) {
+		this.from = from;
+	}
+
+	public String getFromEmail() {
+		return fromEmail;
+	}
+
+	public void setFromEmail(String fromEmail) {
+		this.fromEmail = fromEmail;
+	}
+
+	public String getTo() {
+		return to;
+	}
+
+	public void setTo(String to) {
+		this.to = to;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	public String getTemplateName() {
+		return templateName;
+	}
+
+	public void setTemplateName(String templateName) {
+		this.templateName = templateName;
+	}
+
+	public String getTemplateTokens() {
+		return templateTokens;
+	}
+
+	public void setTemplateTokens(String templateTokens) {
+		this.templateTokens = templateTokens;
+	}
+
+	public OutboxEmailStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OutboxEmailStatus status) {
+		this.status = status;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public Date getNextAttempt() {
+		return nextAttempt;
+	}
+
+	public void setNextAttempt(Date nextAttempt) {
+		this.nextAttempt = nextAttempt;
+	}
+
+	public Date getDateCreated() {
+		return dateCreated;
+	}
+
+	public void setDateCreated(Date dateCreated) {
+		this.dateCreated = dateCreated;
+	}
+
+	public Date getDateSent() {
+		return dateSent;
+	}
+
+	public void setDateSent(Date dateSent) {
+		this.dateSent = dateSent;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+}
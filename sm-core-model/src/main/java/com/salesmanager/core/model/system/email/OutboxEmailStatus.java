@@ -0,0 +1,11 @@
+package com.salesmanager.core.model.system.email;
+
+public enum OutboxEmailStatus {
+	
+	/** to be sent, or claimed by a dispatcher until next attempt **/
+	PENDING,
+	SENT,
+	/** not sent after the last attempt **/
+	DEAD
+
+}
@@ -0,0 +1,122 @@
+package com.salesmanager.core.business.cache;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Invalidation of a cache entry, or of a whole region when the key is null,
+ * sent to the other nodes. Encoded as a single line
+ * node|kind|region|key where the key is prefixed by its type
+ * (S string, L long, I integer, * whole region)
+ */
+public class CacheInvalidation {
+
+	public enum Kind {
+		/** spring cache (service cache, @Cacheable regions) **/
+		SERVICE,
+		/** hibernate entity region, key is the entity id **/
+		ENTITY,
+		/** hibernate collection region, key is the owner id **/
+		COLLECTION
+	}
+
+	private static final char SEPARATOR = '|';
+
+	private final Kind kind;
+	private final String region;
+	private final Object key;
+
+	public CacheInvalidation(Kind kind, String region, Object key) {
+		Validate.notNull(kind, "Kind cannot be null");
+		Validate.notEmpty(region, "Region cannot be empty");
+		Validate.isTrue(region.indexOf(SEPARATOR) < 0, "Region cannot contain " + SEPARATOR);
+		this.kind = kind;
+		this.region = region;
+		this.key = key;
+	}
+
+	/**
+	 * Keys other than strings, longs and integers cannot be sent, the
+	 * region is invalidated instead
+	 */
+	public static boolean isSupportedKey(Object key) {
+		return key == null || key instanceof String || key instanceof Long || key instanceof Integer;
+	}
+
+	public String encode(String node) {
+		StringBuilder message = new StringBuilder(64)
+				.append(node).append(SEPARATOR)
+				.append(kind.name()).append(SEPARATOR)
+				.append(region).append(SEPARATOR);
+		if(key == null) {
+			message.append('*');
+		} else if(key instanceof Long) {
+			message.append('L').append(key);
+		} else if(key instanceof Integer) {
+			message.append('I').append(key);
+		} else {
+			message.append('S').append(key);
+		}
+		return message.toString();
+	}
+
+	/**
+	 * @return node and invalidation, the key may contain the separator
+	 */
+	public static Decoded decode(String message) {
+		String[] parts = message.split("\\|", 4);
+		if(parts.length != 4 || parts[3].isEmpty()) {
+			throw new IllegalArgumentException("Malformed cache invalidation [" + message + "]");
+		}
+		String encodedKey = parts[3];
+		String value = encodedKey.substring(1);
+		Object key;
+		switch(encodedKey.charAt(0)) {
+			case '*': key = null; break;
+			case 'L': key = Long.valueOf(value); break;
+			case 'I': key = Integer.valueOf(value); break;
+			case 'S': key = value; break;
+			default: throw new IllegalArgumentException("Malformed cache invalidation key [" + message + "]");
+		}
+		return new Decoded(parts[0], new CacheInvalidation(Kind.valueOf(parts[1]), parts[2], key));
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	/**
+	 * @return key to evict, null for the whole region
+	 */
+	public Object getKey() {
+		return key;
+	}
+
+	@Override
+	public String toString() {
+		return kind + " " + region + " " + (key == null ? "*" : key);
+	}
+
+	public static class Decoded {
+
+		private final String node;
+		private final CacheInvalidation invalidation;
+
+		Decoded(String node, CacheInvalidation invalidation) {
+			this.node = node;
+			this.invalidation = invalidation;
+		}
+
+		public String getNode() {
+			return node;
+		}
+
+		public CacheInvalidation getInvalidation() {
+			return invalidation;
+		}
+	}
+
+}
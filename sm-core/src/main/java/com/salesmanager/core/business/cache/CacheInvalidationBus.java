@@ -0,0 +1,117 @@
+package com.salesmanager.core.business.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.salesmanager.core.business.cache.CacheInvalidation.Kind;
+
+/**
+ * Keeps node local caches (service caches and hibernate second level
+ * cache) coherent between nodes. Invalidations made on a node are published
+ * on the transport and applied to the caches of the other nodes by the
+ * handlers registered for their kind
+ * @author c.samson
+ *
+ */
+@Component("cacheInvalidationBus")
+public class CacheInvalidationBus {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+	private final String node = UUID.randomUUID().toString();
+
+	private final Map<Kind, List<Consumer<CacheInvalidation>>> handlers = new ConcurrentHashMap<Kind, List<Consumer<CacheInvalidation>>>();
+
+	private final Consumer<String> listener = this::receive;
+
+	@Inject
+	private CacheInvalidationTransport transport;
+
+	public CacheInvalidationBus() {
+	}
+
+	public CacheInvalidationBus(CacheInvalidationTransport transport) {
+		this.transport = transport;
+	}
+
+	@PostConstruct
+	public void init() {
+		transport.subscribe(listener);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		transport.unsubscribe(listener);
+	}
+
+	/**
+	 * Applies invalidations of this kind received from other nodes
+	 */
+	public void register(Kind kind, Consumer<CacheInvalidation> handler) {
+		handlers.computeIfAbsent(kind, k -> new CopyOnWriteArrayList<Consumer<CacheInvalidation>>()).add(handler);
+	}
+
+	/**
+	 * Sends the invalidation to the other nodes, once the current
+	 * transaction commits so they do not reload the previous state
+	 */
+	public void publish(CacheInvalidation invalidation) {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					send(invalidation);
+				}
+			});
+		} else {
+			send(invalidation);
+		}
+	}
+
+	private void send(CacheInvalidation invalidation) {
+		try {
+			transport.publish(invalidation.encode(node));
+		} catch(Exception e) {
+			//other nodes catch up when their entries expire
+			LOGGER.error("Cannot publish cache invalidation " + invalidation, e);
+		}
+	}
+
+	void receive(String message) {
+		try {
+			CacheInvalidation.Decoded decoded = CacheInvalidation.decode(message);
+			if(node.equals(decoded.getNode())) {
+				return;
+			}
+			CacheInvalidation invalidation = decoded.getInvalidation();
+			List<Consumer<CacheInvalidation>> kindHandlers = handlers.get(invalidation.getKind());
+			if(kindHandlers == null) {
+				return;
+			}
+			for(Consumer<CacheInvalidation> handler : kindHandlers) {
+				handler.accept(invalidation);
+			}
+		} catch(Exception e) {
+			LOGGER.error("Cannot apply cache invalidation [" + message + "]", e);
+		}
+	}
+
+	public String getNode() {
+		return node;
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.salesmanager.core.business.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded cache invalidations between nodes. Messages are delivered
+ * to every subscriber, including the node that published them
+ */
+public interface CacheInvalidationTransport {
+
+	void publish(String message);
+
+	void subscribe(Consumer<String> listener);
+
+	void unsubscribe(Consumer<String> listener);
+
+}
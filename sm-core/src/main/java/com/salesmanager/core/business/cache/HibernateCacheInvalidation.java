@@ -0,0 +1,230 @@
+package com.salesmanager.core.business.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.cache.CacheInvalidation.Kind;
+
+/**
+ * Publishes the hibernate second level cache entries changed by this node
+ * (entities and collections) and evicts the ones changed by the other nodes.
+ * Inverse collections (descriptions) are not written when an element changes,
+ * the owner collection is invalidated from the element state
+ * @author c.samson
+ *
+ */
+@Component
+public class HibernateCacheInvalidation implements PostInsertEventListener, PostUpdateEventListener,
+		PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+		PostCollectionRemoveEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Inject
+	private CacheInvalidationBus bus;
+
+	private transient SessionFactoryImplementor sessionFactory;
+
+	/** cached inverse collections by element entity name **/
+	private transient Map<String, List<InverseCollection>> inverseCollections = Collections.emptyMap();
+
+	@PostConstruct
+	public void init() {
+		sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		inverseCollections = inverseCollections(sessionFactory);
+
+		EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+		registry.appendListeners(EventType.POST_INSERT, this);
+		registry.appendListeners(EventType.POST_UPDATE, this);
+		registry.appendListeners(EventType.POST_DELETE, this);
+		registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+		registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+		registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+
+		bus.register(Kind.ENTITY, this::evictEntity);
+		bus.register(Kind.COLLECTION, this::evictCollection);
+	}
+
+	private static Map<String, List<InverseCollection>> inverseCollections(SessionFactoryImplementor sessionFactory) {
+		Map<String, List<InverseCollection>> collections = new HashMap<String, List<InverseCollection>>();
+		for(CollectionPersister persister : sessionFactory.getMetamodel().collectionPersisters().values()) {
+			if(!persister.hasCache() || !persister.isInverse() || !persister.getElementType().isEntityType()
+					|| !(persister instanceof AbstractCollectionPersister)) {
+				continue;
+			}
+			String mappedBy = ((AbstractCollectionPersister) persister).getMappedByProperty();
+			if(mappedBy == null) {
+				continue;
+			}
+			String elementName = ((EntityType) persister.getElementType()).getAssociatedEntityName();
+			EntityPersister element = sessionFactory.getMetamodel().entityPersister(elementName);
+			if(!(element instanceof AbstractEntityPersister)) {
+				continue;
+			}
+			Integer index = ((AbstractEntityPersister) element).getEntityMetamodel().getPropertyIndexOrNull(mappedBy);
+			if(index != null) {
+				collections.computeIfAbsent(elementName, n -> new ArrayList<InverseCollection>())
+						.add(new InverseCollection(persister.getRole(), index));
+			}
+		}
+		return collections;
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		invalidateInverse(event.getPersister(), event.getState(), null);
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		invalidateEntity(event.getPersister(), event.getId());
+		invalidateInverse(event.getPersister(), event.getState(), event.getOldState());
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		invalidateEntity(event.getPersister(), event.getId());
+		invalidateInverse(event.getPersister(), event.getDeletedState(), null);
+	}
+
+	@Override
+	public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+		invalidateCollection(event);
+	}
+
+	@Override
+	public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+		invalidateCollection(event);
+	}
+
+	@Override
+	public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+		invalidateCollection(event);
+	}
+
+	/**
+	 * Published through the bus once the transaction commits
+	 */
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return false;
+	}
+
+	private void invalidateEntity(EntityPersister persister, Serializable id) {
+		if(persister.canWriteToCache()) {
+			publish(Kind.ENTITY, persister.getEntityName(), id);
+		}
+	}
+
+	private void invalidateInverse(EntityPersister persister, Object[] state, Object[] oldState) {
+		List<InverseCollection> collections = inverseCollections.get(persister.getEntityName());
+		if(collections == null) {
+			return;
+		}
+		for(InverseCollection collection : collections) {
+			Object owner = state == null ? null : state[collection.ownerProperty];
+			Object previousOwner = oldState == null ? null : oldState[collection.ownerProperty];
+			if(owner != null) {
+				publish(Kind.COLLECTION, collection.role, sessionFactory.getPersistenceUnitUtil().getIdentifier(owner));
+			}
+			if(previousOwner != null && previousOwner != owner) {
+				publish(Kind.COLLECTION, collection.role, sessionFactory.getPersistenceUnitUtil().getIdentifier(previousOwner));
+			}
+		}
+	}
+
+	private void invalidateCollection(AbstractCollectionEvent event) {
+		String role = event.getCollection().getRole();
+		if(role == null || !sessionFactory.getMetamodel().collectionPersister(role).hasCache()) {
+			return;
+		}
+		publish(Kind.COLLECTION, role, event.getAffectedOwnerIdOrNull());
+	}
+
+	private void publish(Kind kind, String region, Object id) {
+		bus.publish(new CacheInvalidation(kind, region, CacheInvalidation.isSupportedKey(id) ? id : null));
+	}
+
+	private void evictEntity(CacheInvalidation invalidation) {
+		EntityPersister persister = sessionFactory.getMetamodel().entityPersister(invalidation.getRegion());
+		if(invalidation.getKey() == null) {
+			sessionFactory.getCache().evictEntityData(invalidation.getRegion());
+		} else {
+			sessionFactory.getCache().evictEntityData(invalidation.getRegion(),
+					identifier(invalidation.getKey(), persister.getIdentifierType().getReturnedClass()));
+		}
+	}
+
+	private void evictCollection(CacheInvalidation invalidation) {
+		CollectionPersister persister = sessionFactory.getMetamodel().collectionPersister(invalidation.getRegion());
+		if(invalidation.getKey() == null) {
+			sessionFactory.getCache().evictCollectionData(invalidation.getRegion());
+		} else {
+			sessionFactory.getCache().evictCollectionData(invalidation.getRegion(),
+					identifier(invalidation.getKey(), persister.getKeyType().getReturnedClass()));
+		}
+	}
+
+	/**
+	 * Keys are sent as longs, integers or strings, the identifier is
+	 * converted back to the mapped type
+	 */
+	static Serializable identifier(Object key, Class<?> type) {
+		if(key instanceof Number) {
+			Number number = (Number) key;
+			if(type == Long.class || type == long.class) {
+				return number.longValue();
+			}
+			if(type == Integer.class || type == int.class) {
+				return number.intValue();
+			}
+		}
+		return (Serializable) key;
+	}
+
+	private static class InverseCollection {
+
+		private final String role;
+		private final int ownerProperty;
+
+		InverseCollection(String role, int ownerProperty) {
+			this.role = role;
+			this.ownerProperty = ownerProperty;
+		}
+	}
+
+}
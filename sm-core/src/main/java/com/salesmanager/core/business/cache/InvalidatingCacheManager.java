@@ -0,0 +1,136 @@
+package com.salesmanager.core.business.cache;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.salesmanager.core.business.cache.CacheInvalidation.Kind;
+
+/**
+ * Spring cache manager publishing the evictions made on its caches to the
+ * other nodes and applying theirs. Puts are not published, a node caching
+ * what it just read does not invalidate the other nodes
+ */
+public class InvalidatingCacheManager implements CacheManager {
+
+	private final CacheManager target;
+	private final CacheInvalidationBus bus;
+	private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<String, Cache>();
+
+	public InvalidatingCacheManager(CacheManager target, CacheInvalidationBus bus) {
+		this.target = target;
+		this.bus = bus;
+		bus.register(Kind.SERVICE, this::apply);
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		Cache cache = caches.get(name);
+		if(cache == null) {
+			Cache targetCache = target.getCache(name);
+			if(targetCache == null) {
+				return null;
+			}
+			cache = caches.computeIfAbsent(name, n -> new InvalidatingCache(targetCache));
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return target.getCacheNames();
+	}
+
+	private void apply(CacheInvalidation invalidation) {
+		Cache cache = target.getCache(invalidation.getRegion());
+		if(cache == null) {
+			return;
+		}
+		if(invalidation.getKey() == null) {
+			cache.clear();
+		} else {
+			cache.evict(invalidation.getKey());
+		}
+	}
+
+	private void publish(String region, Object key) {
+		bus.publish(new CacheInvalidation(Kind.SERVICE, region,
+				CacheInvalidation.isSupportedKey(key) ? key : null));
+	}
+
+	private class InvalidatingCache implements Cache {
+
+		private final Cache cache;
+
+		InvalidatingCache(Cache cache) {
+			this.cache = cache;
+		}
+
+		@Override
+		public String getName() {
+			return cache.getName();
+		}
+
+		@Override
+		public Object getNativeCache() {
+			return cache.getNativeCache();
+		}
+
+		@Override
+		public ValueWrapper get(Object key) {
+			return cache.get(key);
+		}
+
+		@Override
+		public <T> T get(Object key, Class<T> type) {
+			return cache.get(key, type);
+		}
+
+		@Override
+		public <T> T get(Object key, Callable<T> valueLoader) {
+			return cache.get(key, valueLoader);
+		}
+
+		@Override
+		public void put(Object key, Object value) {
+			cache.put(key, value);
+		}
+
+		@Override
+		public ValueWrapper putIfAbsent(Object key, Object value) {
+			return cache.putIfAbsent(key, value);
+		}
+
+		@Override
+		public void evict(Object key) {
+			cache.evict(key);
+			publish(getName(), key);
+		}
+
+		@Override
+		public boolean evictIfPresent(Object key) {
+			boolean present = cache.evictIfPresent(key);
+			publish(getName(), key);
+			return present;
+		}
+
+		@Override
+		public void clear() {
+			cache.clear();
+			publish(getName(), null);
+		}
+
+		@Override
+		public boolean invalidate() {
+			boolean present = cache.invalidate();
+			publish(getName(), null);
+			return present;
+		}
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.salesmanager.core.business.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In JVM transport, single node deployments and tests. Transports created
+ * on the same channel deliver to each other synchronously
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+	private static final Map<String, List<Consumer<String>>> CHANNELS = new ConcurrentHashMap<String, List<Consumer<String>>>();
+
+	private final List<Consumer<String>> listeners;
+
+	public LoopbackCacheInvalidationTransport(@Value("${cache.invalidation.channel:shopizer-cache-invalidation}") String channel) {
+		this.listeners = CHANNELS.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<Consumer<String>>());
+	}
+
+	@Override
+	public void publish(String message) {
+		for(Consumer<String> listener : listeners) {
+			listener.accept(message);
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<String> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void unsubscribe(Consumer<String> listener) {
+		listeners.remove(listener);
+	}
+
+}
@@ -1,9 +1,13 @@
 package com.salesmanager.core.business.configuration;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.cache.annotation.EnableCaching;
@@ -14,6 +18,9 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.salesmanager.core.business.configuration.db.MonitoredDataSource;
+import com.salesmanager.core.business.configuration.db.PoolMetricsTrackerFactory;
+import com.salesmanager.core.business.configuration.db.ReplicaRoutingDataSource;
 import com.zaxxer.hikari.HikariDataSource;
 
 
@@ -56,32 +63,166 @@ public class DataConfiguration {
     @Value("${db.schema}")
     private String schema;
     
-    @Value("${db.preferredTestQuery}")
-    private String testQuery;
-    
     @Value("${db.minPoolSize}")
     private int minPoolSize;
     
     @Value("${db.maxPoolSize}")
     private int maxPoolSize;
 
+    /**
+     * Connection pool timings, in milliseconds
+     */
+    @Value("${db.connectionTimeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${db.idleTimeout:600000}")
+    private long idleTimeout;
+
+    /**
+     * Should be a few seconds shorter than the database wait_timeout
+     */
+    @Value("${db.maxLifetime:1800000}")
+    private long maxLifetime;
+
+    /**
+     * Logs the stack of connections held longer than this, 0 disables
+     */
+    @Value("${db.leakDetectionThreshold:0}")
+    private long leakDetectionThreshold;
+
+    /**
+     * Only for drivers not supporting JDBC4 Connection.isValid
+     */
+    @Value("${db.connectionTestQuery:}")
+    private String connectionTestQuery;
+
+    /**
+     * MySQL prepared statements cache, per connection
+     */
+    @Value("${db.cachePrepStmts:true}")
+    private boolean cachePrepStmts;
+
+    @Value("${db.prepStmtCacheSize:250}")
+    private int prepStmtCacheSize;
+
+    @Value("${db.prepStmtCacheSqlLimit:2048}")
+    private int prepStmtCacheSqlLimit;
+
+    @Value("${db.useServerPrepStmts:true}")
+    private boolean useServerPrepStmts;
+
+    /**
+     * Number of statements sent to the database in a single JDBC batch
+     */
+    @Value("${db.batchSize:50}")
+    private int batchSize;
+
+    /**
+     * Read replicas, comma separated jdbc urls. When empty everything runs
+     * on the primary database
+     */
+    @Value("${db.replica.jdbcUrls:}")
+    private String replicaUrls;
+
+    @Value("${db.replica.user:${db.user}}")
+    private String replicaUser;
+
+    @Value("${db.replica.password:${db.password}}")
+    private String replicaPassword;
+
+    @Value("${db.replica.maxPoolSize:${db.maxPoolSize}}")
+    private int replicaMaxPoolSize;
+
+    /**
+     * Milliseconds during which reads stay on the primary after a write
+     */
+    @Value("${db.replica.primaryAfterWrite:5000}")
+    private long primaryAfterWrite;
+
+    /**
+     * Counts statements, rows and jdbc time of requests and service methods
+     */
+    @Value("${sql.statistics.enabled:false}")
+    private boolean sqlStatistics;
+
+    @Bean
+    public DataSource dataSource() {
+    	DataSource dataSource = pools();
+    	return sqlStatistics ? new MonitoredDataSource(dataSource) : dataSource;
+    }
+
+    private DataSource pools() {
+    	List<String> replicaJdbcUrls = replicaJdbcUrls();
+    	HikariDataSource primary = pool(ReplicaRoutingDataSource.PRIMARY, url, user, password, maxPoolSize);
+    	if (replicaJdbcUrls.isEmpty()) {
+    		return primary;
+    	}
+
+    	List<HikariDataSource> replicas = new ArrayList<HikariDataSource>();
+    	for (String replicaUrl : replicaJdbcUrls) {
+    		HikariDataSource replica = pool(ReplicaRoutingDataSource.REPLICA + (replicas.size() + 1), replicaUrl,
+    				replicaUser, replicaPassword, replicaMaxPoolSize);
+    		replica.setReadOnly(true);
+    		replicas.add(replica);
+    	}
+    	return new ReplicaRoutingDataSource(primary, replicas, primaryAfterWrite);
+    }
+
+    /**
+     * Usage, wait time and timeouts of the connection pools
+     */
     @Bean
-    public HikariDataSource dataSource() {
+    public PoolMetricsTrackerFactory poolMetrics() {
+    	return new PoolMetricsTrackerFactory();
+    }
+
+    private HikariDataSource pool(String name, String jdbcUrl, String username, String pass, int maximumPoolSize) {
     	HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
     	.driverClassName(driverClassName)
-    	.url(url)
-    	.username(user)
-    	.password(password)
+    	.url(jdbcUrl)
+    	.username(username)
+    	.password(pass)
     	.build();
     	
     	/** Datasource config **/
-    	dataSource.setIdleTimeout(minPoolSize);
-    	dataSource.setMaximumPoolSize(maxPoolSize);
-    	dataSource.setConnectionTestQuery(testQuery);
+    	dataSource.setPoolName(name);
+    	dataSource.setMinimumIdle(Math.min(minPoolSize, maximumPoolSize));
+    	dataSource.setMaximumPoolSize(maximumPoolSize);
+    	dataSource.setConnectionTimeout(connectionTimeout);
+    	dataSource.setIdleTimeout(idleTimeout);
+    	dataSource.setMaxLifetime(maxLifetime);
+    	dataSource.setLeakDetectionThreshold(leakDetectionThreshold);
+    	if (!StringUtils.isBlank(connectionTestQuery)) {
+    		dataSource.setConnectionTestQuery(connectionTestQuery);
+    	}
+    	dataSource.setMetricsTrackerFactory(poolMetrics());
+
+    	if (jdbcUrl.startsWith("jdbc:mysql:") || jdbcUrl.startsWith("jdbc:mariadb:")) {
+    		dataSource.addDataSourceProperty("cachePrepStmts", cachePrepStmts);
+    		dataSource.addDataSourceProperty("prepStmtCacheSize", prepStmtCacheSize);
+    		dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", prepStmtCacheSqlLimit);
+    		dataSource.addDataSourceProperty("useServerPrepStmts", useServerPrepStmts);
+    		dataSource.addDataSourceProperty("useLocalSessionState", true);
+    		dataSource.addDataSourceProperty("rewriteBatchedStatements", true);
+    		dataSource.addDataSourceProperty("cacheResultSetMetadata", true);
+    		dataSource.addDataSourceProperty("cacheServerConfiguration", true);
+    		dataSource.addDataSourceProperty("elideSetAutoCommits", true);
+    		dataSource.addDataSourceProperty("maintainTimeStats", false);
+    	}
     	
     	return dataSource;
     }
 
+    private List<String> replicaJdbcUrls() {
+    	List<String> urls = new ArrayList<String>();
+    	for (String replicaUrl : StringUtils.split(replicaUrls, ',')) {
+    		if (!StringUtils.isBlank(replicaUrl)) {
+    			urls.add(replicaUrl.trim());
+    		}
+    	}
+    	return urls;
+    }
+
 	@Bean
 	public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
 
@@ -106,11 +247,25 @@ public class DataConfiguration {
         hibernateProperties.setProperty("hibernate.cache.use_second_level_cache", "true");
         hibernateProperties.setProperty("hibernate.cache.use_query_cache", "true");
         hibernateProperties.setProperty("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.EhCacheRegionFactory");
+        //entities annotated @Cacheable, hibernate caches none of them when the mode is unspecified
+        hibernateProperties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        //entity and collection regions, see ehcache-hibernate.xml
+        hibernateProperties.setProperty("net.sf.ehcache.configurationResourceName", "/spring/ehcache-hibernate.xml");
+        //a description saved or removed on its own evicts the parent descriptions collection
+        hibernateProperties.setProperty("hibernate.cache.auto_evict_collection_cache", "true");
         hibernateProperties.setProperty("hibernate.connection.CharSet", "utf8");
         hibernateProperties.setProperty("hibernate.connection.characterEncoding", "utf8");
         hibernateProperties.setProperty("hibernate.connection.useUnicode", "true");
         hibernateProperties.setProperty("hibernate.id.new_generator_mappings", "false"); //unless you run on a new schema
         hibernateProperties.setProperty("hibernate.generate_statistics", "false");
+        hibernateProperties.setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+        hibernateProperties.setProperty("hibernate.order_inserts", "true");
+        hibernateProperties.setProperty("hibernate.order_updates", "true");
+        hibernateProperties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        if (!replicaJdbcUrls().isEmpty()) {
+            //a connection per transaction, each transaction is routed to the primary or a replica
+            hibernateProperties.setProperty("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        }
         // hibernateProperties.setProperty("hibernate.globally_quoted_identifiers", "true");
         return hibernateProperties;
     }
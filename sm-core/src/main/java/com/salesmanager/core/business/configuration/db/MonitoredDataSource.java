@@ -0,0 +1,166 @@
+package com.salesmanager.core.business.configuration.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts statements, rows and JDBC time of the current thread scopes, see
+ * {@link SqlMonitor}. Rows are the rows read from result sets and the update
+ * counts, time is the time spent executing statements
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+	public MonitoredDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+	}
+
+	/**
+	 * Closes the pools of the target datasource
+	 */
+	public void close() throws Exception {
+		DataSource target = getTargetDataSource();
+		if (target instanceof AutoCloseable) {
+			((AutoCloseable) target).close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private abstract static class Handler implements InvocationHandler {
+
+		protected final Object target;
+
+		Handler(Object target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return target.toString();
+			default:
+				return handle(proxy, method, args);
+			}
+		}
+
+		abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+
+		protected Object call(Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	private static class ConnectionHandler extends Handler {
+
+		ConnectionHandler(Connection connection) {
+			super(connection);
+		}
+
+		@Override
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = call(method, args);
+			switch (method.getName()) {
+			case "createStatement":
+				return proxy(Statement.class, new StatementHandler(result));
+			case "prepareStatement":
+				return proxy(PreparedStatement.class, new StatementHandler(result));
+			case "prepareCall":
+				return proxy(CallableStatement.class, new StatementHandler(result));
+			default:
+				return result;
+			}
+		}
+	}
+
+	private static class StatementHandler extends Handler {
+
+		StatementHandler(Object statement) {
+			super(statement);
+		}
+
+		@Override
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("execute")) {
+				long start = System.nanoTime();
+				Object result = call(method, args);
+				long nanos = System.nanoTime() - start;
+				SqlMonitor.record(1, updated(result), nanos);
+				return result instanceof ResultSet ? proxy(ResultSet.class, new ResultSetHandler(result)) : result;
+			}
+			Object result = call(method, args);
+			if ("getResultSet".equals(name) && result != null) {
+				return proxy(ResultSet.class, new ResultSetHandler(result));
+			}
+			return result;
+		}
+
+		private long updated(Object result) {
+			if (result instanceof Integer || result instanceof Long) {
+				return Math.max(((Number) result).longValue(), 0);
+			}
+			long rows = 0;
+			if (result instanceof int[]) {
+				for (int count : (int[]) result) {
+					rows += Math.max(count, 0);
+				}
+			} else if (result instanceof long[]) {
+				for (long count : (long[]) result) {
+					rows += Math.max(count, 0);
+				}
+			}
+			return rows;
+		}
+	}
+
+	private static class ResultSetHandler extends Handler {
+
+		ResultSetHandler(Object resultSet) {
+			super(resultSet);
+		}
+
+		@Override
+		Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = call(method, args);
+			if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+				SqlMonitor.record(0, 1, 0);
+			}
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package com.salesmanager.core.business.configuration.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Collects usage, wait time and timeouts of the Hikari pools it is given to,
+ * counters are kept since startup
+ */
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+	private final Map<String, Tracker> trackers = new ConcurrentHashMap<String, Tracker>();
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		Tracker tracker = new Tracker(poolName, poolStats);
+		trackers.put(poolName, tracker);
+		return tracker;
+	}
+
+	/**
+	 * @return statistics of the started pools
+	 */
+	public List<PoolStatistics> getStatistics() {
+		List<PoolStatistics> statistics = new ArrayList<PoolStatistics>();
+		for (Tracker tracker : trackers.values()) {
+			statistics.add(tracker.statistics());
+		}
+		statistics.sort((s1, s2) -> s1.getName().compareTo(s2.getName()));
+		return statistics;
+	}
+
+	public PoolStatistics getStatistics(String poolName) {
+		Tracker tracker = trackers.get(poolName);
+		return tracker != null ? tracker.statistics() : null;
+	}
+
+	private class Tracker implements IMetricsTracker {
+
+		private final String poolName;
+		private final PoolStats poolStats;
+
+		private final LongAdder acquired = new LongAdder();
+		private final LongAdder acquiredNanos = new LongAdder();
+		private final AtomicLong maxAcquiredNanos = new AtomicLong();
+		private final LongAdder usage = new LongAdder();
+		private final LongAdder usageMillis = new LongAdder();
+		private final AtomicLong maxUsageMillis = new AtomicLong();
+		private final LongAdder created = new LongAdder();
+		private final LongAdder timeouts = new LongAdder();
+
+		Tracker(String poolName, PoolStats poolStats) {
+			this.poolName = poolName;
+			this.poolStats = poolStats;
+		}
+
+		@Override
+		public void recordConnectionCreatedMillis(long millis) {
+			created.increment();
+		}
+
+		@Override
+		public void recordConnectionAcquiredNanos(long nanos) {
+			acquired.increment();
+			acquiredNanos.add(nanos);
+			maxAcquiredNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long millis) {
+			usage.increment();
+			usageMillis.add(millis);
+			maxUsageMillis.accumulateAndGet(millis, Math::max);
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			timeouts.increment();
+		}
+
+		@Override
+		public void close() {
+			trackers.remove(poolName, this);
+		}
+
+		PoolStatistics statistics() {
+			PoolStatistics statistics = new PoolStatistics();
+			statistics.setName(poolName);
+			statistics.setMaxConnections(poolStats.getMaxConnections());
+			statistics.setMinConnections(poolStats.getMinConnections());
+			statistics.setTotalConnections(poolStats.getTotalConnections());
+			statistics.setActiveConnections(poolStats.getActiveConnections());
+			statistics.setIdleConnections(poolStats.getIdleConnections());
+			statistics.setPendingThreads(poolStats.getPendingThreads());
+
+			long acquiredCount = acquired.sum();
+			statistics.setAcquired(acquiredCount);
+			statistics.setAverageWaitMillis(acquiredCount == 0 ? 0
+					: (double) acquiredNanos.sum() / acquiredCount / TimeUnit.MILLISECONDS.toNanos(1));
+			statistics.setMaxWaitMillis((double) maxAcquiredNanos.get() / TimeUnit.MILLISECONDS.toNanos(1));
+
+			long usageCount = usage.sum();
+			statistics.setAverageUsageMillis(usageCount == 0 ? 0 : (double) usageMillis.sum() / usageCount);
+			statistics.setMaxUsageMillis(maxUsageMillis.get());
+			statistics.setCreated(created.sum());
+			statistics.setTimeouts(timeouts.sum());
+			return statistics;
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.salesmanager.core.business.configuration.db;
+
+/**
+ * Snapshot of a connection pool, counters are kept since startup
+ */
+public class PoolStatistics {
+
+	private String name;
+	private int maxConnections;
+	private int minConnections;
+	private int totalConnections;
+	private int activeConnections;
+	private int idleConnections;
+	/** threads waiting for a connection **/
+	private int pendingThreads;
+	/** connections handed out by the pool **/
+	private long acquired;
+	private double averageWaitMillis;
+	private double maxWaitMillis;
+	/** time a connection was held before being returned **/
+	private double averageUsageMillis;
+	private long maxUsageMillis;
+	/** physical connections opened once the pool is started **/
+	private long created;
+	/** requests that did not get a connection within the connection timeout **/
+	private long timeouts;
+
+	/**
+	 * @return active connections in percentage of the maximum pool size
+	 */
+	public int getUsage() {
+		if (maxConnections == 0) {
+			return 0;
+		}
+		return activeConnections * 100 / maxConnections;
+	}
+
+	/**
+	 * @return true when threads are waiting for a connection
+	 */
+	public boolean isSaturated() {
+		return pendingThreads > 0;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getMinConnections() {
+		return minConnections;
+	}
+
+	public void setMinConnections(int minConnections) {
+		this.minConnections = minConnections;
+	}
+
+	public int getTotalConnections() {
+		return totalConnections;
+	}
+
+	public void setTotalConnections(int totalConnections) {
+		this.totalConnections = totalConnections;
+	}
+
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	public void setActiveConnections(int activeConnections) {
+		this.activeConnections = activeConnections;
+	}
+
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	public void setIdleConnections(int idleConnections) {
+		this.idleConnections = idleConnections;
+	}
+
+	public int getPendingThreads() {
+		return pendingThreads;
+	}
+
+	public void setPendingThreads(int pendingThreads) {
+		this.pendingThreads = pendingThreads;
+	}
+
+	public long getAcquired() {
+		return acquired;
+	}
+
+	public void setAcquired(long acquired) {
+		this.acquired = acquired;
+	}
+
+	public double getAverageWaitMillis() {
+		return averageWaitMillis;
+	}
+
+	public void setAverageWaitMillis(double averageWaitMillis) {
+		this.averageWaitMillis = averageWaitMillis;
+	}
+
+	public double getMaxWaitMillis() {
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(double maxWaitMillis) {
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public double getAverageUsageMillis() {
+		return averageUsageMillis;
+	}
+
+	public void setAverageUsageMillis(double averageUsageMillis) {
+		this.averageUsageMillis = averageUsageMillis;
+	}
+
+	public long getMaxUsageMillis() {
+		return maxUsageMillis;
+	}
+
+	public void setMaxUsageMillis(long maxUsageMillis) {
+		this.maxUsageMillis = maxUsageMillis;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public void setCreated(long created) {
+		this.created = created;
+	}
+
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	public void setTimeouts(long timeouts) {
+		this.timeouts = timeouts;
+	}
+
+}
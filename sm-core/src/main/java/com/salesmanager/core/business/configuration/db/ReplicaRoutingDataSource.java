@@ -0,0 +1,141 @@
+package com.salesmanager.core.business.configuration.db;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends read only transactions (get*, list*, search* service methods and
+ * repository finders) to the replica pools and everything else to the
+ * primary pool.
+ *
+ * The physical connection is only obtained at the first statement, once the
+ * transaction read only flag is known. After a read write transaction the
+ * thread keeps reading from the primary for a configurable delay so that a
+ * request sees its own writes while replicas catch up.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	public static final String PRIMARY = "primary";
+	public static final String REPLICA = "replica-";
+
+	/** time until which reads of the thread stay on the primary **/
+	private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<Long>();
+
+	private final HikariDataSource primary;
+	private final List<HikariDataSource> replicas;
+	private final long primaryAfterWrite;
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * @param primaryAfterWrite milliseconds during which a thread reads from
+	 * the primary after a read write transaction
+	 */
+	public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long primaryAfterWrite) {
+		this.primary = primary;
+		this.replicas = replicas;
+		this.primaryAfterWrite = primaryAfterWrite;
+
+		Map<Object, Object> targets = new HashMap<Object, Object>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			targets.put(REPLICA + (i + 1), replicas.get(i));
+		}
+
+		Router router = new Router();
+		router.setTargetDataSources(targets);
+		router.setDefaultTargetDataSource(primary);
+		router.setLenientFallback(false);
+		router.afterPropertiesSet();
+
+		setTargetDataSource(router);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Reads of the current thread go to the primary until {@link #clear()}
+	 * or the end of the delay
+	 */
+	public static void usePrimary(long millis) {
+		long until = System.currentTimeMillis() + millis;
+		Long current = PRIMARY_UNTIL.get();
+		if (current == null || current < until) {
+			PRIMARY_UNTIL.set(until);
+		}
+	}
+
+	/**
+	 * Forgets the writes of the current thread, called at the end of a request
+	 */
+	public static void clear() {
+		PRIMARY_UNTIL.remove();
+	}
+
+	static boolean isPrimaryRequired() {
+		Long until = PRIMARY_UNTIL.get();
+		if (until == null) {
+			return false;
+		}
+		if (until < System.currentTimeMillis()) {
+			PRIMARY_UNTIL.remove();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return connection pools by name, primary first
+	 */
+	public Map<String, HikariDataSource> getPools() {
+		Map<String, HikariDataSource> pools = new LinkedHashMap<String, HikariDataSource>();
+		pools.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			pools.put(REPLICA + (i + 1), replicas.get(i));
+		}
+		return Collections.unmodifiableMap(pools);
+	}
+
+	@Override
+	public void close() {
+		primary.close();
+		for (HikariDataSource replica : replicas) {
+			replica.close();
+		}
+	}
+
+	private class Router extends AbstractRoutingDataSource {
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+				return PRIMARY;
+			}
+			if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+				usePrimary(primaryAfterWrite);
+				return PRIMARY;
+			}
+			if (replicas.isEmpty() || isPrimaryRequired()) {
+				return PRIMARY;
+			}
+			String key = REPLICA + (Math.floorMod(next.getAndIncrement(), replicas.size()) + 1);
+			if (LOGGER.isTraceEnabled()) {
+				LOGGER.trace("Read only transaction routed to " + key);
+			}
+			return key;
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.salesmanager.core.business.configuration.db;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statements executed by a thread are added to every scope opened on the
+ * thread, a service method called during a request counts for the method and
+ * for the request. Listeners are told about each scope when it is closed
+ */
+public final class SqlMonitor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SqlMonitor.class);
+
+	private static final ThreadLocal<ArrayDeque<SqlStatistics>> SCOPES = new ThreadLocal<ArrayDeque<SqlStatistics>>();
+	private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<Listener>();
+
+	public interface Listener {
+
+		void completed(SqlStatistics statistics);
+
+	}
+
+	private SqlMonitor() {
+	}
+
+	/**
+	 * Opens a scope on the current thread, must be closed with
+	 * {@link #stop(SqlStatistics)}
+	 */
+	public static SqlStatistics start(SqlStatistics.Scope scope, String name) {
+		ArrayDeque<SqlStatistics> scopes = SCOPES.get();
+		if (scopes == null) {
+			scopes = new ArrayDeque<SqlStatistics>();
+			SCOPES.set(scopes);
+		}
+		SqlStatistics statistics = new SqlStatistics(scope, name);
+		scopes.addLast(statistics);
+		return statistics;
+	}
+
+	public static void stop(SqlStatistics statistics) {
+		ArrayDeque<SqlStatistics> scopes = SCOPES.get();
+		if (scopes != null) {
+			scopes.removeLastOccurrence(statistics);
+			if (scopes.isEmpty()) {
+				SCOPES.remove();
+			}
+		}
+		for (Listener listener : LISTENERS) {
+			try {
+				listener.completed(statistics);
+			} catch (Exception e) {
+				LOGGER.warn("Sql statistics listener failed", e);
+			}
+		}
+	}
+
+	/**
+	 * @return outermost scope of the current thread, usually the request,
+	 * null when nothing is monitored
+	 */
+	public static SqlStatistics current() {
+		ArrayDeque<SqlStatistics> scopes = SCOPES.get();
+		return scopes != null ? scopes.peekFirst() : null;
+	}
+
+	static void record(int statements, long rows, long nanos) {
+		ArrayDeque<SqlStatistics> scopes = SCOPES.get();
+		if (scopes == null) {
+			return;
+		}
+		for (SqlStatistics statistics : scopes) {
+			statistics.add(statements, rows, nanos);
+		}
+	}
+
+	public static void addListener(Listener listener) {
+		LISTENERS.add(listener);
+	}
+
+	public static void removeListener(Listener listener) {
+		LISTENERS.remove(listener);
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.salesmanager.core.business.configuration.db;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statements executed, rows read or updated and time spent in the JDBC driver
+ * during a request or a service method. Only used by the thread running the
+ * request or the method
+ */
+public class SqlStatistics {
+
+	public enum Scope {
+		REQUEST, SERVICE
+	}
+
+	private final Scope scope;
+	private String name;
+	private int statements;
+	private long rows;
+	private long nanos;
+
+	SqlStatistics(Scope scope, String name) {
+		this.scope = scope;
+		this.name = name;
+	}
+
+	void add(int statements, long rows, long nanos) {
+		this.statements += statements;
+		this.rows += rows;
+		this.nanos += nanos;
+	}
+
+	public Scope getScope() {
+		return scope;
+	}
+
+	/**
+	 * @return request method and path pattern or service method
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * The request path pattern is only known once the request is mapped
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public long getJdbcMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+}
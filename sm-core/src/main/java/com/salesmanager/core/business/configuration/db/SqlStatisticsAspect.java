@@ -0,0 +1,30 @@
+package com.salesmanager.core.business.configuration.db;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sql statistics of each service method, tagged with the service class and
+ * the method name. Only registered with sql.statistics.enabled and
+ * sql.statistics.services, services are not proxied otherwise
+ */
+@Component
+@Aspect
+@ConditionalOnProperty(name = { "sql.statistics.enabled", "sql.statistics.services" }, havingValue = "true")
+public class SqlStatisticsAspect {
+
+	@Around("execution(public * com.salesmanager.core.business.services..*ServiceImpl.*(..))")
+	public Object monitor(ProceedingJoinPoint joinPoint) throws Throwable {
+		SqlStatistics statistics = SqlMonitor.start(SqlStatistics.Scope.SERVICE,
+				joinPoint.getTarget().getClass().getSimpleName() + "." + joinPoint.getSignature().getName());
+		try {
+			return joinPoint.proceed();
+		} finally {
+			SqlMonitor.stop(statistics);
+		}
+	}
+
+}
@@ -19,8 +19,15 @@ public class AsynchronousEventsConfiguration {
 	       SimpleApplicationEventMulticaster eventMulticaster
 	         = new SimpleApplicationEventMulticaster();
 	        
-	       eventMulticaster.setTaskExecutor(new SimpleAsyncTaskExecutor());
+	       SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+	       executor.setTaskDecorator(eventMulticasterStatistics());
+	       eventMulticaster.setTaskExecutor(executor);
 	       return eventMulticaster;
 	   }
 
+	   @Bean
+	   public EventMulticasterStatistics eventMulticasterStatistics() {
+	       return new EventMulticasterStatistics();
+	   }
+
 }
@@ -0,0 +1,39 @@
+package com.salesmanager.core.business.configuration.events;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Counts the events of the asynchronous multicaster, pending are dispatched
+ * to a listener thread and not completed yet, dispatched are completed since
+ * startup
+ */
+public class EventMulticasterStatistics implements TaskDecorator {
+
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicLong dispatched = new AtomicLong();
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		pending.incrementAndGet();
+		return () -> {
+			try {
+				runnable.run();
+			} finally {
+				pending.decrementAndGet();
+				dispatched.incrementAndGet();
+			}
+		};
+	}
+
+	public int getPending() {
+		return pending.get();
+	}
+
+	public long getDispatched() {
+		return dispatched.get();
+	}
+
+}
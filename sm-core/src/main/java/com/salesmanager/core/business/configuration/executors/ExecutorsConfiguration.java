@@ -0,0 +1,91 @@
+package com.salesmanager.core.business.configuration.executors;
+
+import javax.inject.Inject;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * One bounded executor per background workload, so a slow smtp server or
+ * payment gateway does not starve the other workloads, and a scheduler for
+ * delayed and periodic tasks
+ *
+ * Each executor is configured with async.[name].corePoolSize, maxPoolSize,
+ * queueCapacity, callerRuns and virtualThreads, the scheduler with
+ * async.scheduler.poolSize
+ */
+@Configuration
+public class ExecutorsConfiguration {
+
+	public static final String INDEXING_EXECUTOR = "indexingExecutor";
+	public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+	public static final String PAYMENT_EXECUTOR = "paymentExecutor";
+	public static final String REFERENCE_EXECUTOR = "referenceExecutor";
+	/** name spring uses for @Scheduled methods **/
+	public static final String TASK_SCHEDULER = "taskScheduler";
+
+	@Inject
+	private Environment env;
+
+	/**
+	 * Search reindex jobs, one at a time. Jobs are interrupted at shutdown
+	 * and resumed from their checkpoint
+	 */
+	@Bean(name = INDEXING_EXECUTOR)
+	public InstrumentedTaskExecutor indexingExecutor() {
+		InstrumentedTaskExecutor executor = executor("indexing", 1, 1, 100, false);
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		return executor;
+	}
+
+	/**
+	 * Email delivery threads and the outbox dispatcher
+	 */
+	@Bean(name = NOTIFICATION_EXECUTOR)
+	public InstrumentedTaskExecutor notificationExecutor() {
+		int threads = env.getProperty("mail.delivery.threads", Integer.class, 2) + 1;
+		return executor("notification", threads, threads, 500, false);
+	}
+
+	/**
+	 * Payment gateway calls. Calls are not queued, they would wait past their
+	 * deadline, concurrency is bounded per gateway by the gateway executor
+	 */
+	@Bean(name = PAYMENT_EXECUTOR)
+	public InstrumentedTaskExecutor paymentExecutor() {
+		return executor("payment", 4, 100, 0, false);
+	}
+
+	/**
+	 * Reference data files read when the database is created and reference
+	 * caches loaded at startup
+	 */
+	@Bean(name = REFERENCE_EXECUTOR)
+	public InstrumentedTaskExecutor referenceExecutor() {
+		return executor("reference", 3, 3, 100, false);
+	}
+
+	/**
+	 * Search index flush, outbox polling, ip database refresh and @Scheduled
+	 * methods
+	 */
+	@Bean(name = TASK_SCHEDULER)
+	public InstrumentedTaskScheduler taskScheduler() {
+		return new InstrumentedTaskScheduler("scheduler",
+				env.getProperty("async.scheduler.poolSize", Integer.class, 2));
+	}
+
+	private InstrumentedTaskExecutor executor(String name, int corePoolSize, int maxPoolSize,
+			int queueCapacity, boolean callerRuns) {
+		String prefix = "async." + name + ".";
+		InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor(name,
+				env.getProperty(prefix + "corePoolSize", Integer.class, corePoolSize),
+				env.getProperty(prefix + "maxPoolSize", Integer.class, maxPoolSize),
+				env.getProperty(prefix + "queueCapacity", Integer.class, queueCapacity),
+				env.getProperty(prefix + "callerRuns", Boolean.class, callerRuns));
+		executor.setVirtualThreads(env.getProperty(prefix + "virtualThreads", Boolean.class, false));
+		return executor;
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.salesmanager.core.business.configuration.executors;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Named pool with a bounded queue counting the rejected tasks. Tasks submitted
+ * when the pool and the queue are full are either rejected or run by the
+ * submitting thread
+ */
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentedTaskExecutor.class);
+
+	private final String name;
+	private final int queueCapacity;
+	private final AtomicLong rejected = new AtomicLong();
+	private boolean virtualThreads;
+
+	public InstrumentedTaskExecutor(String name, int corePoolSize, int maxPoolSize, int queueCapacity,
+			boolean callerRuns) {
+		this.name = name;
+		this.queueCapacity = queueCapacity;
+		setCorePoolSize(corePoolSize);
+		setMaxPoolSize(maxPoolSize);
+		setQueueCapacity(queueCapacity);
+		setThreadNamePrefix(name + "-");
+		setWaitForTasksToCompleteOnShutdown(true);
+		setAwaitTerminationSeconds(10);
+
+		RejectedExecutionHandler policy = callerRuns ? new ThreadPoolExecutor.CallerRunsPolicy()
+				: new ThreadPoolExecutor.AbortPolicy();
+		setRejectedExecutionHandler((task, executor) -> {
+			rejected.incrementAndGet();
+			policy.rejectedExecution(task, executor);
+		});
+	}
+
+	/**
+	 * Pool threads are virtual threads when the jvm supports them (java 21),
+	 * platform threads otherwise
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		ThreadFactory factory = virtualThreads ? virtualThreadFactory(name + "-") : null;
+		this.virtualThreads = factory != null;
+		if (factory != null) {
+			setThreadFactory(factory);
+		} else if (virtualThreads) {
+			LOGGER.warn("Virtual threads not supported by this jvm, executor [{}] uses platform threads", name);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public ExecutorStatistics statistics() {
+		ExecutorStatistics statistics = new ExecutorStatistics();
+		statistics.setName(name);
+		statistics.setVirtualThreads(virtualThreads);
+		statistics.setCorePoolSize(getCorePoolSize());
+		statistics.setMaxPoolSize(getMaxPoolSize());
+		statistics.setQueueCapacity(queueCapacity);
+		statistics.setRejected(rejected.get());
+		ThreadPoolExecutor executor = getThreadPoolExecutor();
+		statistics.setPoolSize(executor.getPoolSize());
+		statistics.setActive(executor.getActiveCount());
+		statistics.setQueued(executor.getQueue().size());
+		statistics.setCompleted(executor.getCompletedTaskCount());
+		return statistics;
+	}
+
+	private static ThreadFactory virtualThreadFactory(String prefix) {
+		try {
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Class<?> builder = Class.forName("java.lang.Thread$Builder");
+			Object virtual = ofVirtual.invoke(null);
+			virtual = builder.getMethod("name", String.class, long.class).invoke(virtual, prefix, 1L);
+			return (ThreadFactory) builder.getMethod("factory").invoke(virtual);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+}
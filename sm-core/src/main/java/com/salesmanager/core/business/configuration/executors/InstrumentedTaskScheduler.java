@@ -0,0 +1,54 @@
+package com.salesmanager.core.business.configuration.executors;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Named scheduler for delayed and periodic tasks counting the rejected tasks.
+ * Scheduled tasks should be short, longer work is handed over to an executor
+ */
+public class InstrumentedTaskScheduler extends ThreadPoolTaskScheduler {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String name;
+	private final AtomicLong rejected = new AtomicLong();
+
+	public InstrumentedTaskScheduler(String name, int poolSize) {
+		this.name = name;
+		setPoolSize(poolSize);
+		setThreadNamePrefix(name + "-");
+		setRemoveOnCancelPolicy(true);
+		setRejectedExecutionHandler((task, executor) -> {
+			rejected.incrementAndGet();
+			throw new RejectedExecutionException("Task " + task + " rejected by scheduler [" + name + "]");
+		});
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public ExecutorStatistics statistics() {
+		ScheduledThreadPoolExecutor executor = getScheduledThreadPoolExecutor();
+		ExecutorStatistics statistics = new ExecutorStatistics();
+		statistics.setName(name);
+		statistics.setCorePoolSize(executor.getCorePoolSize());
+		statistics.setMaxPoolSize(executor.getCorePoolSize());
+		statistics.setQueueCapacity(Integer.MAX_VALUE);
+		statistics.setRejected(rejected.get());
+		statistics.setPoolSize(executor.getPoolSize());
+		statistics.setActive(executor.getActiveCount());
+		statistics.setQueued(executor.getQueue().size());
+		statistics.setCompleted(executor.getCompletedTaskCount());
+		return statistics;
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.salesmanager.core.business.modules.email;
 
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -32,6 +33,19 @@ public class EmailComponent implements HtmlEmailSender {
     
   }
 
+  @Override
+  public CompletableFuture<Void> deliver(Email email, EmailConfig emailConfig) throws Exception {
+    switch(emailSender) 
+    { 
+        case "default": 
+          return defaultEmailSender.deliver(email, emailConfig);
+        case "ses": 
+          return sesEmailSender.deliver(email, emailConfig);
+        default: 
+            throw new Exception("No email implementation for " + emailSender); 
+    }
+  }
+
   @Override
   public void setEmailConfig(EmailConfig emailConfig) {
     switch(emailSender) 
@@ -1,9 +1,17 @@
 package com.salesmanager.core.business.modules.email;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface EmailModule {
   
   void send(final Email email) throws Exception;
 
+  /**
+   * Sends with this configuration (null for the default one)
+   * @return completed once the email is sent
+   */
+  CompletableFuture<Void> deliver(final Email email, EmailConfig emailConfig) throws Exception;
+
   void setEmailConfig(EmailConfig emailConfig);
 
 }
@@ -0,0 +1,83 @@
+package com.salesmanager.core.business.modules.email;
+
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.stereotype.Component;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+
+/**
+ * Email templates parsed once at startup. The template loader is configured
+ * once, setting it on each message cleared the freemarker template cache and
+ * every message was parsed again
+ * @author c.samson
+ *
+ */
+@Component("emailTemplates")
+public class EmailTemplates {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmailTemplates.class);
+
+  private final static String TEMPLATE_PATH = "templates/email";
+
+  @Inject
+  private Configuration freemarkerMailConfiguration;
+
+  private final Map<String, Template> templates = new ConcurrentHashMap<String, Template>();
+
+  @PostConstruct
+  public void init() {
+    freemarkerMailConfiguration.setClassForTemplateLoading(EmailTemplates.class, "/");
+    try {
+      Resource[] resources = new PathMatchingResourcePatternResolver(EmailTemplates.class.getClassLoader())
+          .getResources("classpath*:/" + TEMPLATE_PATH + "/*.ftl");
+      for (Resource resource : resources) {
+        try {
+          getTemplate(resource.getFilename());
+        } catch (Exception e) {
+          LOGGER.error("Cannot compile email template " + resource.getFilename(), e);
+        }
+      }
+      LOGGER.info("Compiled {} email templates", templates.size());
+    } catch (Exception e) {
+      LOGGER.error("Cannot list email templates", e);
+    }
+  }
+
+  /**
+   * @param templateName file name in templates/email
+   * @return compiled template, thread safe
+   */
+  public Template getTemplate(String templateName) throws Exception {
+    Template template = templates.get(templateName);
+    if (template == null) {
+      template = freemarkerMailConfiguration.getTemplate(
+          new StringBuilder(TEMPLATE_PATH).append("/").append(templateName).toString());
+      templates.put(templateName, template);
+    }
+    return template;
+  }
+
+  public String render(String templateName, Map<String, String> templateTokens) throws Exception {
+    final StringWriter writer = new StringWriter();
+    try {
+      getTemplate(templateName).process(templateTokens, writer);
+    } catch (TemplateException e) {
+      throw new MailPreparationException("Can't generate mail", e);
+    }
+    return writer.toString();
+  }
+
+}
@@ -1,10 +1,14 @@
 package com.salesmanager.core.business.modules.email;
 
+import java.util.concurrent.CompletableFuture;
+
 
 public interface HtmlEmailSender {
 	
 	void send(final Email email) throws Exception;
 
+	CompletableFuture<Void> deliver(final Email email, EmailConfig emailConfig) throws Exception;
+
 	void setEmailConfig(EmailConfig emailConfig);
 
 }
@@ -0,0 +1,270 @@
+package com.salesmanager.core.business.modules.email;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.executors.ExecutorsConfiguration;
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+/**
+ * Sends prepared messages from a bounded queue. Delivery threads take the
+ * messages in batches and send each batch through a pooled SMTP transport,
+ * messages that cannot be sent are retried with an exponential backoff
+ * @author c.samson
+ *
+ */
+@Component("mailDelivery")
+public class MailDelivery {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MailDelivery.class);
+
+  @Value("${mail.delivery.queueCapacity:1000}")
+  private int queueCapacity = 1000;
+
+  @Value("${mail.delivery.threads:2}")
+  private int threads = 2;
+
+  @Value("${mail.delivery.batchSize:20}")
+  private int batchSize = 20;
+
+  @Value("${mail.delivery.maxAttempts:5}")
+  private int maxAttempts = 5;
+
+  @Value("${mail.delivery.backoff:2000}")
+  private long backoff = 2000;
+
+  @Value("${mail.delivery.submitTimeout:5000}")
+  private long submitTimeout = 5000;
+
+  @Value("${mail.delivery.idleTimeout:30000}")
+  private long idleTimeout = 30000;
+
+  private final DelayQueue<PendingMail> queue = new DelayQueue<PendingMail>();
+
+  /** queued and retried messages **/
+  private Semaphore capacity;
+
+  private SmtpTransportPool transports;
+
+  /** runs the delivery threads, sized for them **/
+  @Inject
+  @Qualifier(ExecutorsConfiguration.NOTIFICATION_EXECUTOR)
+  private TaskExecutor notificationExecutor;
+
+  /** delivery threads still running **/
+  private CountDownLatch workers;
+
+  private volatile boolean running;
+
+  @PostConstruct
+  public void init() {
+    capacity = new Semaphore(queueCapacity);
+    transports = new SmtpTransportPool(threads, idleTimeout);
+    running = true;
+    workers = new CountDownLatch(threads);
+    for (int i = 0; i < threads; i++) {
+      notificationExecutor.execute(() -> {
+        try {
+          deliver();
+        } finally {
+          workers.countDown();
+        }
+      });
+    }
+  }
+
+  @PreDestroy
+  public void destroy() throws InterruptedException {
+    running = false;
+    workers.await(10, TimeUnit.SECONDS);
+    transports.close();
+    if (!queue.isEmpty()) {
+      LOGGER.warn("{} emails not sent at shutdown", queue.size());
+      for (PendingMail mail : queue) {
+        mail.result.completeExceptionally(new MessagingException("Email delivery stopped"));
+      }
+      queue.clear();
+    }
+  }
+
+  /**
+   * Session used to create the messages sent to this server
+   */
+  public Session getSession(SmtpSettings settings) {
+    return transports.getSession(settings);
+  }
+
+  /**
+   * Queues the message, waits for room when the queue is full
+   * @return completed when the message is sent, exceptionally when it is
+   * rejected or cannot be sent after the last attempt
+   * @throws MessagingException when the queue stays full
+   */
+  public CompletableFuture<Void> submit(SmtpSettings settings, MimeMessage message) throws MessagingException {
+    message.saveChanges();
+    try {
+      if (!capacity.tryAcquire(submitTimeout, TimeUnit.MILLISECONDS)) {
+        throw new MessagingException("Email queue is full (" + queueCapacity + ")");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MessagingException("Interrupted while queuing email", e);
+    }
+    PendingMail mail = new PendingMail(settings, message);
+    queue.put(mail);
+    return mail.result;
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  private void deliver() {
+    List<PendingMail> batch = new ArrayList<PendingMail>(batchSize);
+    while (running) {
+      try {
+        PendingMail first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        send(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Throwable e) {
+        //keep the delivery thread running
+        LOGGER.error("Email delivery failed", e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void send(List<PendingMail> batch) {
+    Map<SmtpSettings, List<PendingMail>> servers = new LinkedHashMap<SmtpSettings, List<PendingMail>>();
+    for (PendingMail mail : batch) {
+      servers.computeIfAbsent(mail.settings, s -> new ArrayList<PendingMail>()).add(mail);
+    }
+    for (Map.Entry<SmtpSettings, List<PendingMail>> server : servers.entrySet()) {
+      send(server.getKey(), server.getValue());
+    }
+  }
+
+  private void send(SmtpSettings settings, List<PendingMail> mails) {
+    Transport transport;
+    try {
+      transport = transports.borrow(settings);
+    } catch (Exception e) {
+      LOGGER.warn("Cannot connect to " + settings, e);
+      for (PendingMail mail : mails) {
+        retry(mail, e);
+      }
+      return;
+    }
+    boolean broken = false;
+    for (PendingMail mail : mails) {
+      if (broken) {
+        retry(mail, null);
+        continue;
+      }
+      try {
+        transport.sendMessage(mail.message, mail.message.getAllRecipients());
+        capacity.release();
+        mail.result.complete(null);
+      } catch (SendFailedException e) {
+        if (isPermanent(e)) {
+          //rejected addresses, will not succeed later
+          LOGGER.error("Email rejected by " + settings, e);
+          capacity.release();
+          mail.result.completeExceptionally(e);
+        } else {
+          LOGGER.warn("Email deferred by " + settings, e);
+          retry(mail, e);
+        }
+      } catch (Exception e) {
+        LOGGER.warn("Cannot send email through " + settings, e);
+        broken = true;
+        retry(mail, e);
+      }
+    }
+    transports.release(settings, transport, broken);
+  }
+
+  /**
+   * 5xx replies and rejected recipients, 4xx replies are temporary
+   */
+  private static boolean isPermanent(SendFailedException e) {
+    if (e instanceof SMTPSendFailedException) {
+      return ((SMTPSendFailedException) e).getReturnCode() >= 500;
+    }
+    return e.getValidUnsentAddresses() == null || e.getValidUnsentAddresses().length == 0;
+  }
+
+  private void retry(PendingMail mail, Exception cause) {
+    mail.attempts++;
+    if (cause != null) {
+      mail.cause = cause;
+    }
+    if (mail.attempts >= maxAttempts) {
+      LOGGER.error("Email not sent after {} attempts", mail.attempts);
+      capacity.release();
+      mail.result.completeExceptionally(mail.cause != null ? mail.cause
+          : new MessagingException("Email not sent after " + mail.attempts + " attempts"));
+      return;
+    }
+    mail.notBefore = System.currentTimeMillis() + (backoff << (mail.attempts - 1));
+    queue.put(mail);
+  }
+
+  private static class PendingMail implements Delayed {
+
+    private final SmtpSettings settings;
+    private final MimeMessage message;
+    private final CompletableFuture<Void> result = new CompletableFuture<Void>();
+    private int attempts;
+    private Exception cause;
+    private long notBefore;
+
+    PendingMail(SmtpSettings settings, MimeMessage message) {
+      this.settings = settings;
+      this.message = message;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(notBefore - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(notBefore, ((PendingMail) o).notBefore);
+    }
+  }
+
+}
@@ -1,10 +1,9 @@
 package com.salesmanager.core.business.modules.email;
 
-import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import org.jsoup.helper.Validate;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailPreparationException;
 import org.springframework.stereotype.Component;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.simpleemail.AmazonSimpleEmailService;
@@ -14,9 +13,6 @@ import com.amazonaws.services.simpleemail.model.Content;
 import com.amazonaws.services.simpleemail.model.Destination;
 import com.amazonaws.services.simpleemail.model.Message;
 import com.amazonaws.services.simpleemail.model.SendEmailRequest;
-import freemarker.template.Configuration;
-import freemarker.template.Template;
-import freemarker.template.TemplateException;
 
 /**
  * AWS HTML email sender
@@ -28,13 +24,11 @@ import freemarker.template.TemplateException;
 public class SESEmailSenderImpl implements EmailModule {
 
   @Inject
-  private Configuration freemarkerMailConfiguration;
+  private EmailTemplates emailTemplates;
   
   @Value("${config.emailSender.region}")
   private String region;
 
-  private final static String TEMPLATE_PATH = "templates/email";
-
   // The configuration set to use for this email. If you do not want to use a
   // configuration set, comment the following variable and the
   // .withConfigurationSetName(CONFIGSET); argument below.
@@ -73,21 +67,17 @@ public class SESEmailSenderImpl implements EmailModule {
 
   }
 
-  private String prepareHtml(Email email) throws Exception {
-
-
-    freemarkerMailConfiguration.setClassForTemplateLoading(DefaultEmailSenderImpl.class, "/");
-    Template htmlTemplate = freemarkerMailConfiguration.getTemplate(new StringBuilder(TEMPLATE_PATH)
-            .append("/").append(email.getTemplateName()).toString());
-    final StringWriter htmlWriter = new StringWriter();
-    try {
-      htmlTemplate.process(email.getTemplateTokens(), htmlWriter);
-    } catch (TemplateException e) {
-      throw new MailPreparationException("Can't generate HTML mail", e);
-    }
-
-    return htmlWriter.toString();
+  /**
+   * Sent synchronously, the email configuration does not apply to SES
+   */
+  @Override
+  public CompletableFuture<Void> deliver(Email email, EmailConfig emailConfig) throws Exception {
+    send(email);
+    return CompletableFuture.completedFuture(null);
+  }
 
+  private String prepareHtml(Email email) throws Exception {
+    return emailTemplates.render(email.getTemplateName(), email.getTemplateTokens());
   }
 
   @Override
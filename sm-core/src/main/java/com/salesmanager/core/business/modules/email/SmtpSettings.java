@@ -0,0 +1,106 @@
+package com.salesmanager.core.business.modules.email;
+
+import java.util.Objects;
+import java.util.Properties;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * SMTP server and credentials, key of the pooled transports
+ */
+public final class SmtpSettings {
+
+  private static final String CONNECTION_TIMEOUT = "10000";
+  private static final String TIMEOUT = "30000";
+
+  private final String protocol;
+  private final String host;
+  private final int port;
+  private final String username;
+  private final String password;
+  private final Properties properties;
+
+  public SmtpSettings(String protocol, String host, int port, String username, String password,
+      Properties properties) {
+    this.protocol = protocol == null ? "smtp" : protocol;
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+    this.properties = new Properties();
+    if (properties != null) {
+      this.properties.putAll(properties);
+    }
+    //a stalled server must not block the delivery threads
+    this.properties.putIfAbsent("mail." + this.protocol + ".connectiontimeout", CONNECTION_TIMEOUT);
+    this.properties.putIfAbsent("mail." + this.protocol + ".timeout", TIMEOUT);
+  }
+
+  /**
+   * Merchant configuration
+   */
+  public static SmtpSettings of(EmailConfig config) {
+    Properties properties = new Properties();
+    properties.put("mail.smtp.auth", String.valueOf(config.isSmtpAuth()));
+    properties.put("mail.smtp.starttls.enable", String.valueOf(config.isStarttls()));
+    return new SmtpSettings(config.getProtocol(), config.getHost(), Integer.parseInt(config.getPort()),
+        config.getUsername(), config.getPassword(), properties);
+  }
+
+  /**
+   * Default configuration (email.properties)
+   */
+  public static SmtpSettings of(JavaMailSenderImpl sender) {
+    return new SmtpSettings(sender.getProtocol(), sender.getHost(), sender.getPort(),
+        sender.getUsername(), sender.getPassword(), sender.getJavaMailProperties());
+  }
+
+  public String getProtocol() {
+    return protocol;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public Properties getProperties() {
+    return properties;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SmtpSettings)) {
+      return false;
+    }
+    SmtpSettings other = (SmtpSettings) o;
+    return port == other.port && protocol.equals(other.protocol) && Objects.equals(host, other.host)
+        && Objects.equals(username, other.username) && Objects.equals(password, other.password)
+        && properties.equals(other.properties);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(protocol, host, port, username);
+  }
+
+  @Override
+  public String toString() {
+    return protocol + "://" + (username == null ? "" : username + "@") + host + ":" + port;
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.salesmanager.core.business.modules.email;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connected and authenticated SMTP transports kept open between messages,
+ * per SMTP server. Transports idle longer than the idle timeout are not
+ * reused, servers close them on their side
+ */
+public class SmtpTransportPool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+  private final int maxIdle;
+  private final long idleTimeout;
+
+  private final Map<SmtpSettings, Session> sessions = new ConcurrentHashMap<SmtpSettings, Session>();
+  private final Map<SmtpSettings, Deque<Idle>> idle = new ConcurrentHashMap<SmtpSettings, Deque<Idle>>();
+
+  public SmtpTransportPool(int maxIdle, long idleTimeout) {
+    this.maxIdle = maxIdle;
+    this.idleTimeout = idleTimeout;
+  }
+
+  public Session getSession(SmtpSettings settings) {
+    return sessions.computeIfAbsent(settings, s -> Session.getInstance(s.getProperties()));
+  }
+
+  /**
+   * @return connected transport, to be released
+   */
+  public Transport borrow(SmtpSettings settings) throws MessagingException {
+    Deque<Idle> transports = idle(settings);
+    long now = System.currentTimeMillis();
+    while (true) {
+      Idle candidate;
+      synchronized (transports) {
+        candidate = transports.pollFirst();
+      }
+      if (candidate == null) {
+        break;
+      }
+      if (now - candidate.since < idleTimeout) {
+        return candidate.transport;
+      }
+      close(candidate.transport);
+    }
+    Transport transport = getSession(settings).getTransport(settings.getProtocol());
+    transport.connect(settings.getHost(), settings.getPort(), settings.getUsername(),
+        settings.getPassword());
+    return transport;
+  }
+
+  /**
+   * @param broken closes the transport instead of keeping it
+   */
+  public void release(SmtpSettings settings, Transport transport, boolean broken) {
+    if (broken) {
+      close(transport);
+      return;
+    }
+    Deque<Idle> transports = idle(settings);
+    synchronized (transports) {
+      if (transports.size() < maxIdle) {
+        //most recently used first, the others expire
+        transports.addFirst(new Idle(transport, System.currentTimeMillis()));
+        return;
+      }
+    }
+    close(transport);
+  }
+
+  public void close() {
+    for (Deque<Idle> transports : idle.values()) {
+      List<Idle> closing;
+      synchronized (transports) {
+        closing = new ArrayList<Idle>(transports);
+        transports.clear();
+      }
+      for (Idle i : closing) {
+        close(i.transport);
+      }
+    }
+  }
+
+  private Deque<Idle> idle(SmtpSettings settings) {
+    return idle.computeIfAbsent(settings, s -> new ArrayDeque<Idle>());
+  }
+
+  private void close(Transport transport) {
+    try {
+      transport.close();
+    } catch (Exception e) {
+      LOGGER.debug("Cannot close smtp transport", e);
+    }
+  }
+
+  private static class Idle {
+
+    private final Transport transport;
+    private final long since;
+
+    Idle(Transport transport, long since) {
+      this.transport = transport;
+      this.since = since;
+    }
+  }
+
+}
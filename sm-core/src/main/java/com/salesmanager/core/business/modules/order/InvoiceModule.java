@@ -1,6 +1,8 @@
 package com.salesmanager.core.business.modules.order;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.order.Order;
@@ -11,4 +13,30 @@ public interface InvoiceModule {
 	
 	ByteArrayOutputStream createInvoice(MerchantStore store, Order order, Language language) throws Exception;
 
+	/**
+	 * Writes the invoice of an order to the stream, the stream is not closed
+	 */
+	void writeInvoice(MerchantStore store, Order order, Language language, OutputStream out) throws Exception;
+
+	/**
+	 * Invoices of many orders written to a single zip stream, one entry per
+	 * order
+	 */
+	Batch newBatch(MerchantStore store, Language language, OutputStream out) throws Exception;
+
+	/**
+	 * @return file name of the invoice of an order
+	 */
+	String invoiceName(Order order);
+
+	interface Batch {
+
+		void add(Order order) throws Exception;
+
+		/**
+		 * Completes the zip, the stream is not closed
+		 */
+		void finish() throws IOException;
+	}
+
 }
@@ -1,387 +1,288 @@
 package com.salesmanager.core.business.modules.order;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.inject.Inject;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.services.reference.country.CountryService;
 import com.salesmanager.core.business.services.reference.zone.ZoneService;
 import com.salesmanager.core.business.utils.ProductPriceUtils;
+import com.salesmanager.core.business.utils.ProductUtils;
+import com.salesmanager.core.model.common.Billing;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderTotal;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.reference.country.Country;
 import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.reference.zone.Zone;
 
-
-
-
-
+/**
+ * Fills the .ods invoice template of the order language. Templates are parsed
+ * once per language and copied in memory for each invoice, invoices are
+ * written to the output stream without temporary files
+ */
 public class ODSInvoiceModule implements InvoiceModule {
-	
+
 	private final static String INVOICE_TEMPLATE = "templates/invoice/Invoice";
 	private final static String INVOICE_TEMPLATE_EXTENSION = ".ods";
-	private final static String TEMP_INVOICE_SUFFIX_NAME = "_invoice.ods";
 	private final static int ADDRESS_ROW_START = 2;
 	private final static int ADDRESS_ROW_END = 5;
-	
+
 	private final static int BILLTO_ROW_START = 8;
 	private final static int BILLTO_ROW_END = 13;
-	
+
 	private final static int PRODUCT_ROW_START = 16;
-	
+
 	private static final Logger LOGGER = LoggerFactory.getLogger( ODSInvoiceModule.class );
-	
+
 	@Inject
 	private ZoneService zoneService;
-	
+
 	@Inject
 	private CountryService countryService;
-	
+
 	@Inject
 	private ProductPriceUtils priceUtil;
 
-	@Deprecated
+	/** parsed templates per language code **/
+	private final Map<String, OdsTemplate> templates = new ConcurrentHashMap<String, OdsTemplate>();
+
 	@Override
 	public ByteArrayOutputStream createInvoice(MerchantStore store, Order order, Language language) throws Exception {
-		// TODO Auto-generated method stub
-		throw new Exception("Not implemented");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writeInvoice(store, order, language, out);
+		return out;
 	}
-	
 
-/*	@Override
-	public ByteArrayOutputStream createInvoice(MerchantStore store, Order order, Language language) throws Exception {
-		
-		
-
-			
-			List<Zone> zones = zoneService.getZones(store.getCountry(), language);
-			Map<String,Country> countries = countryService.getCountriesMap(language);
-			
-			//get default template
-			String template = new StringBuilder().append(INVOICE_TEMPLATE).append("_").append(language.getCode().toLowerCase()).append(INVOICE_TEMPLATE_EXTENSION).toString();
-			
-			//try by language
-			InputStream is = null;
-			try {
-				is = getClass().getClassLoader().getResourceAsStream(template);
-			} catch (Exception e) {
-				LOGGER.warn("Cannot open template " + template);
-				throw new Exception("Cannot open " + template);
+	@Override
+	public void writeInvoice(MerchantStore store, Order order, Language language, OutputStream out) throws Exception {
+		new InvoiceContext(language).fill(store, order).writeTo(out);
+	}
+
+	@Override
+	public Batch newBatch(MerchantStore store, Language language, OutputStream out) throws Exception {
+		InvoiceContext context = new InvoiceContext(language);
+		ZipOutputStream zip = new ZipOutputStream(out);
+		return new Batch() {
+
+			@Override
+			public void add(Order order) throws Exception {
+				zip.putNextEntry(new ZipEntry(invoiceName(order)));
+				context.fill(store, order).writeTo(zip);
+				zip.closeEntry();
+			}
+
+			@Override
+			public void finish() throws IOException {
+				zip.finish();
 			}
-			
-			if(is==null) {
-				try {
-					is = getClass().getClassLoader().getResourceAsStream(new StringBuilder().append(INVOICE_TEMPLATE).append(INVOICE_TEMPLATE_EXTENSION).toString());
-				} catch (Exception e) {
-					LOGGER.warn("Cannot open template " + template);
-					throw new Exception("Cannot open " + new StringBuilder().append(INVOICE_TEMPLATE).append(INVOICE_TEMPLATE_EXTENSION).toString());
+		};
+	}
+
+	@Override
+	public String invoiceName(Order order) {
+		return "invoice-" + order.getId() + INVOICE_TEMPLATE_EXTENSION;
+	}
+
+	/**
+	 * Template of a language, the default template when the language has none
+	 */
+	OdsTemplate getTemplate(Language language) throws Exception {
+		String code = language.getCode().toLowerCase();
+		OdsTemplate template = templates.get(code);
+		if (template != null) {
+			return template;
+		}
+		template = loadTemplate(INVOICE_TEMPLATE + "_" + code + INVOICE_TEMPLATE_EXTENSION);
+		if (template == null) {
+			template = templates.get("");
+			if (template == null) {
+				template = loadTemplate(INVOICE_TEMPLATE + INVOICE_TEMPLATE_EXTENSION);
+				if (template == null) {
+					throw new Exception("Cannot open " + INVOICE_TEMPLATE + INVOICE_TEMPLATE_EXTENSION);
 				}
+				templates.putIfAbsent("", template);
 			}
-			
-			if(is==null) {
-				LOGGER.warn("Cannot open template " + template);
-				throw new Exception("Cannot open " + new StringBuilder().append(INVOICE_TEMPLATE).append(INVOICE_TEMPLATE_EXTENSION).toString());
+		}
+		OdsTemplate previous = templates.putIfAbsent(code, template);
+		return previous != null ? previous : template;
+	}
+
+	private OdsTemplate loadTemplate(String name) {
+		try (InputStream is = getClass().getClassLoader().getResourceAsStream(name)) {
+			if (is == null) {
+				return null;
 			}
-			
-			File file = new File(order.getId() + "_working");
-			OutputStream os = new FileOutputStream(file);
-			IOUtils.copy(is, os);
-			os.close();
-			//File file = new File(resource.toURI().toURL());
-		
-			Sheet sheet = SpreadSheet.createFromFile(file).getSheet(0);
-			
-			
-			//Store name 
+			LOGGER.debug("Loading invoice template " + name);
+			return new OdsTemplate(is);
+		} catch (Exception e) {
+			LOGGER.warn("Cannot open template " + name, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Template and reference data of a language, shared by the invoices of a
+	 * batch
+	 */
+	private class InvoiceContext {
+
+		private final OdsTemplate template;
+		private final Map<String, Zone> zones;
+		private final Map<String, Country> countries;
+		private final SimpleDateFormat format = new SimpleDateFormat(Constants.DEFAULT_DATE_FORMAT);
+
+		InvoiceContext(Language language) throws Exception {
+			this.template = getTemplate(language);
+			this.zones = zoneService.getZones(language);
+			this.countries = countryService.getCountriesMap(language);
+		}
+
+		OdsTemplate.Sheet fill(MerchantStore store, Order order) throws Exception {
+
+			OdsTemplate.Sheet sheet = template.newSheet();
+
+			//Store name
 			sheet.setValueAt(store.getStorename(), 0, 0);
-			
-			
-			
+
 			//Address
-			//count store address cell
 			int storeAddressCell = ADDRESS_ROW_START;
-			
-			Map<String,Zone> zns = zoneService.getZones(language);
-
-			
-			//3
-			StringBuilder storeAddress = null;
-			if(!StringUtils.isBlank(store.getStoreaddress())) {
-				storeAddress = new StringBuilder();
-				storeAddress.append(store.getStoreaddress());
-			}
-			if(!StringUtils.isBlank(store.getStorecity())) {
-				if(storeAddress==null) {
-					storeAddress = new StringBuilder();
-				} else {
-					storeAddress.append(", ");
-				}
-				storeAddress.append(store.getStorecity());
-			}
-			if(storeAddress!=null) {
-				sheet.setValueAt(storeAddress.toString(), 0, storeAddressCell);
-				storeAddressCell ++;
-			}
-			
-			//4
-			StringBuilder storeProvince = null;
-			if(store.getZone()!=null) {
-				storeProvince = new StringBuilder();
-				
-				for(Zone z : zones) {
-					if(z.getCode().equals(store.getZone().getCode())) {
-						storeProvince.append(z.getName());
-						break;
-					}
-				}
-				
-			} else {
-				if(!StringUtils.isBlank(store.getStorestateprovince())) {
-					storeProvince = new StringBuilder();
-					storeProvince.append(store.getStorestateprovince());
-				}
-			}
-			if(store.getCountry()!=null) {
-				if(storeProvince==null) {
-					storeProvince = new StringBuilder();
-				} else {
-					storeProvince.append(", ");
-				}
-				
-				Country c = countries.get(store.getCountry().getIsoCode());
-				if(c!=null) {
-					storeProvince.append(c.getName());
-				} else {
-					storeProvince.append(store.getCountry().getIsoCode());
-				}
-				
+
+			String storeAddress = join(store.getStoreaddress(), store.getStorecity());
+			if (storeAddress != null) {
+				sheet.setValueAt(storeAddress, 0, storeAddressCell++);
 			}
-			if(storeProvince!=null) {
-				sheet.setValueAt(storeProvince.toString(), 0, storeAddressCell);
-				storeAddressCell ++;
+
+			String storeProvince = join(
+					store.getZone() != null ? zoneName(store.getZone().getCode()) : store.getStorestateprovince(),
+					store.getCountry() != null ? countryName(store.getCountry().getIsoCode()) : null);
+			if (storeProvince != null) {
+				sheet.setValueAt(storeProvince, 0, storeAddressCell++);
 			}
-			
-			//5
-			if(!StringUtils.isBlank(store.getStorepostalcode())) {
-				sheet.setValueAt(store.getStorepostalcode(), 0, storeAddressCell);
-				storeAddressCell ++;
+
+			if (!StringUtils.isBlank(store.getStorepostalcode())) {
+				sheet.setValueAt(store.getStorepostalcode(), 0, storeAddressCell++);
 			}
-			
-			//6
-			if(!StringUtils.isBlank(store.getStorephone())) {
-				sheet.setValueAt(store.getStorephone(), 0, storeAddressCell);
+
+			if (!StringUtils.isBlank(store.getStorephone())) {
+				sheet.setValueAt(store.getStorephone(), 0, storeAddressCell++);
 			}
-			
+
 			//delete address blank lines
-			for(int i = storeAddressCell; i<ADDRESS_ROW_END; i++) {
+			for (int i = storeAddressCell; i <= ADDRESS_ROW_END; i++) {
 				sheet.setValueAt("", 0, i);
 			}
 
-			//invoice date
-			SimpleDateFormat format = new SimpleDateFormat(Constants.DEFAULT_DATE_FORMAT);
-			sheet.setValueAt(format.format(order.getDatePurchased()), 3, 2);
-			
+			//invoice date, replaces the template TODAY() formula
+			Date invoiceDate = order.getDatePurchased() != null ? order.getDatePurchased() : new Date();
+			sheet.setValueAt(format.format(invoiceDate), 3, 2);
+
 			//invoice number
 			sheet.setValueAt(order.getId(), 3, 3);
-			
+
 			//bill to
-			//count bill to address cell
 			int billToCell = BILLTO_ROW_START;
-			if(!StringUtils.isBlank(order.getBilling().getFirstName())) {
-				StringBuilder nm = new StringBuilder();
-				nm.append(order.getBilling().getFirstName()).append(" ").append(order.getBilling().getLastName());
-				sheet.setValueAt(nm.toString(), 0, billToCell);
-				billToCell ++;
-			}
-			
-			//9
-			if(!StringUtils.isBlank(order.getBilling().getCompany())) {
-				sheet.setValueAt(order.getBilling().getCompany(), 0, billToCell);
-				billToCell ++;
-			}
-			
-			//10
-			StringBuilder billToAddress = null;
-			if(!StringUtils.isBlank(order.getBilling().getAddress())) {
-				billToAddress = new StringBuilder();
-				billToAddress.append(order.getBilling().getAddress());
-			}
-			if(!StringUtils.isBlank(order.getBilling().getCity())) {
-				if(billToAddress==null) {
-					billToAddress = new StringBuilder();
-				} else {
-					billToAddress.append(", ");
+			Billing billing = order.getBilling();
+			if (billing != null) {
+				if (!StringUtils.isBlank(billing.getFirstName())) {
+					sheet.setValueAt(billing.getFirstName() + " " + StringUtils.defaultString(billing.getLastName()), 0,
+							billToCell++);
 				}
-				billToAddress.append(order.getBilling().getCity());
-			}
-			if(billToAddress!=null) {
-				sheet.setValueAt(billToAddress.toString(), 0, billToCell);
-				billToCell ++;
-			}
-			
-			//11
-			StringBuilder billToProvince = null;
-			if(order.getBilling().getZone()!=null) {
-				billToProvince = new StringBuilder();
-				
-				Zone billingZone = zns.get(order.getBilling().getZone().getCode());
-				if(billingZone!=null) {
-						billToProvince.append(billingZone.getName());
+
+				if (!StringUtils.isBlank(billing.getCompany())) {
+					sheet.setValueAt(billing.getCompany(), 0, billToCell++);
 				}
-				
-			} else {
-				if(!StringUtils.isBlank(order.getBilling().getState())) {
-					billToProvince = new StringBuilder();
-					billToProvince.append(order.getBilling().getState());
+
+				String billToAddress = join(billing.getAddress(), billing.getCity());
+				if (billToAddress != null) {
+					sheet.setValueAt(billToAddress, 0, billToCell++);
 				}
-			}
-			if(order.getBilling().getCountry()!=null) {
-				if(billToProvince==null) {
-					billToProvince = new StringBuilder();
-				} else {
-					billToProvince.append(", ");
+
+				String billToProvince = join(
+						billing.getZone() != null ? zoneName(billing.getZone().getCode()) : billing.getState(),
+						billing.getCountry() != null ? countryName(billing.getCountry().getIsoCode()) : null);
+				if (billToProvince != null) {
+					sheet.setValueAt(billToProvince, 0, billToCell++);
 				}
-				Country c = countries.get(order.getBilling().getCountry().getIsoCode());
-				if(c!=null) {
-					billToProvince.append(c.getName());
-				} else {
-					billToProvince.append(order.getBilling().getCountry().getIsoCode());
+
+				if (!StringUtils.isBlank(billing.getPostalCode())) {
+					sheet.setValueAt(billing.getPostalCode(), 0, billToCell++);
+				}
+
+				if (!StringUtils.isBlank(billing.getTelephone())) {
+					sheet.setValueAt(billing.getTelephone(), 0, billToCell++);
 				}
-				
-			}
-			if(billToProvince!=null) {
-				sheet.setValueAt(billToProvince.toString(), 0, billToCell);
-				billToCell ++;
-			}
-			
-			//12
-			if(!StringUtils.isBlank(order.getBilling().getPostalCode())) {
-				billToCell ++;
-				sheet.setValueAt(order.getBilling().getPostalCode(), 0, billToCell);
-				billToCell ++;
-			}
-			
-			//13
-			if(!StringUtils.isBlank(order.getBilling().getTelephone())) {
-				sheet.setValueAt(order.getBilling().getTelephone(), 0, billToCell);
 			}
-			
+
 			//delete address blank lines
-			for(int i = billToCell; i<BILLTO_ROW_END; i++) {
+			for (int i = billToCell; i <= BILLTO_ROW_END; i++) {
 				sheet.setValueAt("", 0, i);
 			}
-			
+
 			//products
-			Set<OrderProduct> orderProducts = order.getOrderProducts();
 			int productCell = PRODUCT_ROW_START;
-			for(OrderProduct orderProduct : orderProducts) {
-				
-
-				String orderProductName = ProductUtils.buildOrderProductDisplayName(orderProduct);
-				
-				sheet.setValueAt(orderProductName.toString(), 0, productCell);
-				
-				int quantity = orderProduct.getProductQuantity();
-				sheet.setValueAt(quantity, 1, productCell);
-				String amount = priceUtil.getStoreFormatedAmountWithCurrency(store, orderProduct.getOneTimeCharge());
-				sheet.setValueAt(amount, 2, productCell);
-				String t = priceUtil.getStoreFormatedAmountWithCurrency(store, priceUtil.getOrderProductTotalPrice(store, orderProduct));
-				sheet.setValueAt(t, 3, productCell);
-
+			for (OrderProduct orderProduct : order.getOrderProducts()) {
+				sheet.setValueAt(ProductUtils.buildOrderProductDisplayName(orderProduct), 0, productCell);
+				sheet.setValueAt(orderProduct.getProductQuantity(), 1, productCell);
+				sheet.setValueAt(priceUtil.getStoreFormatedAmountWithCurrency(store, orderProduct.getOneTimeCharge()), 2,
+						productCell);
+				sheet.setValueAt(priceUtil.getStoreFormatedAmountWithCurrency(store,
+						priceUtil.getOrderProductTotalPrice(store, orderProduct)), 3, productCell);
 				productCell++;
-				
 			}
-			
-			//print totals
+
+			//totals
 			productCell++;
-			Set<OrderTotal> totals = order.getOrderTotal();
-			for(OrderTotal orderTotal : totals) {
-				
+			List<OrderTotal> totals = new ArrayList<OrderTotal>(order.getOrderTotal());
+			totals.sort(Comparator.comparingInt(OrderTotal::getSortOrder));
+			for (OrderTotal orderTotal : totals) {
 				String totalName = orderTotal.getText();
-				if(totalName.contains(".")) {
+				if (totalName == null || totalName.contains(".")) {
 					totalName = orderTotal.getTitle();
 				}
-				String totalValue = priceUtil.getStoreFormatedAmountWithCurrency(store,orderTotal.getValue());
 				sheet.setValueAt(totalName, 2, productCell);
-				sheet.setValueAt(totalValue, 3, productCell);
+				sheet.setValueAt(priceUtil.getStoreFormatedAmountWithCurrency(store, orderTotal.getValue()), 3,
+						productCell);
 				productCell++;
 			}
-			
-			//sheet.getCellAt(0, 0).setImage(arg0)
-			//sheet.getCellAt(0, 0).setStyleName(arg0)
-			//sheet.getCellAt(0, 0).getStyle().
-			
-			
-			//generate invoice file
-			StringBuilder tempInvoiceName = new StringBuilder();
-			tempInvoiceName.append(order.getId()).append(TEMP_INVOICE_SUFFIX_NAME);
-			File outputFile = new File(tempInvoiceName.toString());
-			OOUtils.open(sheet.getSpreadSheet().saveAs(outputFile));
-			
-			
-			
-			final OpenDocument doc = new OpenDocument();
-			doc.loadFrom(tempInvoiceName.toString());
-
-			 // Open the PDF document
-			 Document document = new Document(PageSize.A4);
-			 
-			 
-			 //File outFile = new File("invoice.pdf");
-
-			 PdfDocument pdf = new PdfDocument();
-
-			 document.addDocListener(pdf);
-
-			 //FileOutputStream fileOutputStream = new FileOutputStream(outFile);
-			 ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-			 
-			 PdfWriter writer = PdfWriter.getInstance(pdf, outputStream);
-			 pdf.addWriter(writer);
-
-			 document.open();
-
-			 // Create a template and a Graphics2D object 
-			 Rectangle pageSize = document.getPageSize();
-			 int w = (int) (pageSize.getWidth() * 0.9);
-			 int h = (int) (pageSize.getHeight() * 0.95);
-			 PdfContentByte cb = writer.getDirectContent();
-			 PdfTemplate tp = cb.createTemplate(w, h);
-
-			 Graphics2D g2 = tp.createPrinterGraphics(w, h, null);
-			 // If you want to prevent copy/paste, you can use
-			 // g2 = tp.createGraphicsShapes(w, h, true, 0.9f);
-			            
-			 tp.setWidth(w);
-			 tp.setHeight(h);
-
-			 // Configure the renderer
-			 ODTRenderer renderer = new ODTRenderer(doc);
-			 renderer.setIgnoreMargins(true);
-			 renderer.setPaintMaxResolution(true);
-			            
-			 // Scale the renderer to fit width
-			 renderer.setResizeFactor(renderer.getPrintWidth() / w);
-			 // Render
-			 renderer.paintComponent(g2);
-			 g2.dispose();
-
-			 // Add our spreadsheet in the middle of the page
-			 float offsetX = (float) ((pageSize.getWidth() - w) / 2);
-			 float offsetY = (float) ((pageSize.getHeight() - h) / 2);
-			 cb.addTemplate(tp, offsetX, offsetY);
-			 // Close the PDF document
-			 document.close();
-			 outputFile.delete();//remove temp file
-			 file.delete();//remove spreadsheet file
-			 is.close();
-			 return outputStream;
-		
-		
 
+			return sheet;
+		}
+
+		private String zoneName(String code) {
+			Zone zone = zones.get(code);
+			return zone != null ? zone.getName() : code;
+		}
+
+		private String countryName(String isoCode) {
+			Country country = countries.get(isoCode);
+			return country != null ? country.getName() : isoCode;
+		}
+	}
+
+	private static String join(String first, String second) {
+		if (StringUtils.isBlank(first)) {
+			return StringUtils.isBlank(second) ? null : second;
+		}
+		return StringUtils.isBlank(second) ? first : first + ", " + second;
 	}
-*/
+
 }
@@ -0,0 +1,292 @@
+package com.salesmanager.core.business.modules.order;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.io.IOUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * OpenDocument spreadsheet parsed once and kept in memory. Each call to
+ * newSheet returns an independent copy of the first sheet which is filled
+ * and written as a new .ods document, nothing is written to disk
+ * @author c.samson
+ *
+ */
+public class OdsTemplate {
+
+	private static final String CONTENT = "content.xml";
+	private static final String MIMETYPE = "mimetype";
+
+	private static final String TABLE_NS = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+	private static final String OFFICE_NS = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+	private static final String TEXT_NS = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+	private static final String CALCEXT_NS = "urn:org:documentfoundation:names:experimental:calc:xmlns:calcext:1.0";
+
+	private static final ThreadLocal<Transformer> TRANSFORMER = ThreadLocal.withInitial(() -> {
+		try {
+			return TransformerFactory.newInstance().newTransformer();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	/** other entries of the document copied as is **/
+	private final Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+	private final Document content;
+
+	public OdsTemplate(InputStream in) throws Exception {
+		byte[] contentXml = null;
+		try (ZipInputStream zip = new ZipInputStream(in)) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				if (entry.isDirectory()) {
+					continue;
+				}
+				byte[] data = IOUtils.toByteArray(zip);
+				if (CONTENT.equals(entry.getName())) {
+					contentXml = data;
+				} else {
+					entries.put(entry.getName(), data);
+				}
+			}
+		}
+		if (contentXml == null) {
+			throw new IOException("Not an OpenDocument file, " + CONTENT + " not found");
+		}
+
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+		try {
+			//fully built tree, copies can be made concurrently
+			factory.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+		} catch (Exception e) {
+			//not a xerces parser
+		}
+		DocumentBuilder builder = factory.newDocumentBuilder();
+		content = builder.parse(new ByteArrayInputStream(contentXml));
+	}
+
+	/**
+	 * @return copy of the template first sheet
+	 */
+	public Sheet newSheet() {
+		Document copy;
+		synchronized (content) {
+			copy = (Document) content.cloneNode(true);
+		}
+		Element table = (Element) copy.getElementsByTagNameNS(TABLE_NS, "table").item(0);
+		if (table == null) {
+			throw new IllegalStateException("Template does not contain a sheet");
+		}
+		return new Sheet(copy, table);
+	}
+
+	/**
+	 * A copy of the template sheet
+	 */
+	public class Sheet {
+
+		private final Document document;
+		private final Element table;
+
+		private Sheet(Document document, Element table) {
+			this.document = document;
+			this.table = table;
+		}
+
+		public void setValueAt(String value, int column, int row) {
+			Element cell = cell(column, row);
+			clear(cell);
+			if (value == null || value.isEmpty()) {
+				return;
+			}
+			cell.setAttributeNS(OFFICE_NS, "office:value-type", "string");
+			text(cell, value);
+		}
+
+		public void setValueAt(Number value, int column, int row) {
+			Element cell = cell(column, row);
+			clear(cell);
+			if (value == null) {
+				return;
+			}
+			cell.setAttributeNS(OFFICE_NS, "office:value-type", "float");
+			cell.setAttributeNS(OFFICE_NS, "office:value", value.toString());
+			text(cell, value.toString());
+		}
+
+		/**
+		 * Writes the filled sheet as an .ods document, the stream is not
+		 * closed
+		 */
+		public void writeTo(OutputStream out) throws Exception {
+			try (ZipOutputStream zip = new ZipOutputStream(new NonClosingOutputStream(out))) {
+				write(zip);
+			}
+		}
+
+		private void write(ZipOutputStream zip) throws Exception {
+			//mimetype first and not compressed
+			byte[] mimetype = entries.get(MIMETYPE);
+			if (mimetype != null) {
+				ZipEntry entry = new ZipEntry(MIMETYPE);
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(mimetype.length);
+				CRC32 crc = new CRC32();
+				crc.update(mimetype);
+				entry.setCrc(crc.getValue());
+				zip.putNextEntry(entry);
+				zip.write(mimetype);
+				zip.closeEntry();
+			}
+
+			zip.putNextEntry(new ZipEntry(CONTENT));
+			TRANSFORMER.get().transform(new DOMSource(document), new StreamResult(zip));
+			zip.closeEntry();
+
+			for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+				if (MIMETYPE.equals(e.getKey())) {
+					continue;
+				}
+				zip.putNextEntry(new ZipEntry(e.getKey()));
+				zip.write(e.getValue());
+				zip.closeEntry();
+			}
+		}
+
+		public byte[] toByteArray() throws Exception {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writeTo(out);
+			return out.toByteArray();
+		}
+
+		private Element cell(int column, int row) {
+			return item(item(table, "table-row", "number-rows-repeated", row), "table-cell", "number-columns-repeated",
+					column);
+		}
+
+		/**
+		 * Child at a position, elements repeated by the document are split so
+		 * that the returned element is not shared with other positions
+		 */
+		private Element item(Element parent, String name, String repeatedAttribute, int index) {
+			int position = 0;
+			for (Element child : children(parent, name)) {
+				int repeated = repeated(child, repeatedAttribute);
+				if (index < position + repeated) {
+					int before = index - position;
+					int after = repeated - before - 1;
+					if (before > 0) {
+						Element copy = (Element) child.cloneNode(true);
+						setRepeated(copy, repeatedAttribute, before);
+						parent.insertBefore(copy, child);
+					}
+					if (after > 0) {
+						Element copy = (Element) child.cloneNode(true);
+						setRepeated(copy, repeatedAttribute, after);
+						parent.insertBefore(copy, child.getNextSibling());
+					}
+					setRepeated(child, repeatedAttribute, 1);
+					return child;
+				}
+				position += repeated;
+			}
+			//past the end of the sheet
+			Element child = null;
+			for (; position <= index; position++) {
+				child = document.createElementNS(TABLE_NS, "table:" + name);
+				parent.appendChild(child);
+			}
+			return child;
+		}
+
+		private List<Element> children(Element parent, String name) {
+			List<Element> children = new ArrayList<Element>();
+			for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+				if (node instanceof Element && TABLE_NS.equals(node.getNamespaceURI())) {
+					String localName = node.getLocalName();
+					if (name.equals(localName) || ("table-cell".equals(name) && "covered-table-cell".equals(localName))) {
+						children.add((Element) node);
+					}
+				}
+			}
+			return children;
+		}
+
+		private int repeated(Element element, String attribute) {
+			String value = element.getAttributeNS(TABLE_NS, attribute);
+			return value == null || value.isEmpty() ? 1 : Integer.parseInt(value);
+		}
+
+		private void setRepeated(Element element, String attribute, int repeated) {
+			if (repeated > 1) {
+				element.setAttributeNS(TABLE_NS, "table:" + attribute, String.valueOf(repeated));
+			} else {
+				element.removeAttributeNS(TABLE_NS, attribute);
+			}
+		}
+
+		private void clear(Element cell) {
+			cell.removeAttributeNS(OFFICE_NS, "value-type");
+			cell.removeAttributeNS(OFFICE_NS, "value");
+			cell.removeAttributeNS(OFFICE_NS, "date-value");
+			cell.removeAttributeNS(OFFICE_NS, "string-value");
+			cell.removeAttributeNS(TABLE_NS, "formula");
+			cell.removeAttributeNS(CALCEXT_NS, "value-type");
+			while (cell.getFirstChild() != null) {
+				cell.removeChild(cell.getFirstChild());
+			}
+		}
+
+		private void text(Element cell, String value) {
+			Element p = document.createElementNS(TEXT_NS, "text:p");
+			p.setTextContent(value);
+			cell.appendChild(p);
+		}
+	}
+
+	/**
+	 * Leaves the target stream open, it may be a response or a zip batch
+	 */
+	private static class NonClosingOutputStream extends FilterOutputStream {
+
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+
+}
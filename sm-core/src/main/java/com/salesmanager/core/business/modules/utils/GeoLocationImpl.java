@@ -1,10 +1,30 @@
 package com.salesmanager.core.business.modules.utils;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
 
+import com.maxmind.db.CHMCache;
+import com.maxmind.db.ClosedDatabaseException;
+import com.maxmind.db.Reader;
 import com.maxmind.geoip2.DatabaseReader;
 import com.maxmind.geoip2.model.CityResponse;
 import com.salesmanager.core.business.exception.ServiceException;
@@ -14,48 +34,301 @@ import com.salesmanager.core.modules.utils.GeoLocation;
 /**
  * Using Geolite2 City database
  * http://dev.maxmind.com/geoip/geoip2/geolite2/#Databases
+ *
+ * The database file is memory mapped from databasePath, or extracted once
+ * from the classpath to the temp directory when no path is configured.
+ * Addresses are cached per network prefix (/24 for ipv4, /64 for ipv6).
+ * When the file is replaced (write a new file then move it over the old one)
+ * the new database is swapped in without restart
  * @author c.samson
  *
  */
 public class GeoLocationImpl implements GeoLocation {
-	
-	private DatabaseReader reader = null;
+
 	private static final Logger LOGGER = LoggerFactory.getLogger( GeoLocationImpl.class );
 
+	private static final String CLASSPATH_DATABASE = "reference/GeoLite2-City.mmdb";
+
+	/**
+	 * .mmdb file, if empty the classpath database is used
+	 */
+	private String databasePath;
+
+	/**
+	 * Maximum number of network prefixes cached
+	 */
+	private int cacheSize = 10000;
+
+	/**
+	 * Interval (seconds) between checks for a newer database file, 0 disables
+	 */
+	private long refreshInterval = 3600;
+
+	private final AtomicReference<Database> database = new AtomicReference<Database>();
+
+	/**
+	 * Runs the database file checks, no check without scheduler
+	 */
+	private TaskScheduler scheduler;
+
+	private ScheduledFuture<?> refreshing;
+
+	public void init() {
+		try {
+			reload();
+		} catch(Exception e) {
+			LOGGER.error("Cannot instantiate IP database",e);
+		}
+
+		if(refreshInterval > 0 && scheduler != null) {
+			refreshing = scheduler.scheduleWithFixedDelay(this::refresh,
+					Instant.now().plusSeconds(refreshInterval), Duration.ofSeconds(refreshInterval));
+		}
+	}
+
+	public void destroy() {
+		if(refreshing != null) {
+			refreshing.cancel(false);
+		}
+		Database current = database.getAndSet(null);
+		if(current != null) {
+			current.close();
+		}
+	}
 
 	@Override
 	public Address getAddress(String ipAddress) throws Exception {
-		
-			if(reader==null) {
-					try {
-						java.io.InputStream inputFile = GeoLocationImpl.class.getClassLoader().getResourceAsStream("reference/GeoLite2-City.mmdb");
-						reader = new DatabaseReader.Builder(inputFile).build();
-					} catch(Exception e) {
-						LOGGER.error("Cannot instantiate IP database",e);
-					}
-			}
-		
-			Address address = new Address();
 
+			Address address = null;
+
+			try {
+
+			InetAddress inetAddress = InetAddress.getByName(ipAddress);
 			try {
-			
-			CityResponse response = reader.city(InetAddress.getByName(ipAddress));
+				address = database().getAddress(inetAddress);
+			} catch(ClosedDatabaseException ce) {
+				//database swapped during the lookup
+				address = database().getAddress(inetAddress);
+			}
+
+			} catch(ServiceException e) {
+				throw e;
+			} catch(Exception e) {
+				throw new ServiceException(e);
+			}
+
+			return copy(address);
+
+
+	}
+
+	/**
+	 * Opens the database file and swaps it with the one in use. Lookups
+	 * in progress complete on the previous database
+	 * @throws IOException
+	 */
+	public synchronized void reload() throws IOException {
+		File file = databaseFile();
+		Database next = new Database(file, cacheSize);
+		Database previous = database.getAndSet(next);
+		if(previous != null) {
+			previous.close();
+		}
+		LOGGER.info("IP database loaded from " + file.getAbsolutePath());
+	}
+
+	private void refresh() {
+		try {
+			Database current = database.get();
+			if(current == null || current.file.lastModified() != current.lastModified) {
+				reload();
+			}
+		} catch(Exception e) {
+			LOGGER.error("Cannot reload IP database",e);
+		}
+	}
+
+	/**
+	 * Lookups answered by the prefix cache since the database was loaded
+	 */
+	public long getCacheHits() {
+		Database current = database.get();
+		return current != null ? current.hits.sum() : 0;
+	}
+
+	/**
+	 * Lookups read from the database file since the database was loaded
+	 */
+	public long getCacheMisses() {
+		Database current = database.get();
+		return current != null ? current.misses.sum() : 0;
+	}
+
+	/**
+	 * Network prefixes currently cached
+	 */
+	public int getCachedPrefixes() {
+		Database current = database.get();
+		if(current == null) {
+			return 0;
+		}
+		synchronized(current.cache) {
+			return current.cache.size();
+		}
+	}
+
+	private Database database() throws ServiceException {
+		Database current = database.get();
+		if(current == null) {
+			throw new ServiceException("IP database is not available");
+		}
+		return current;
+	}
+
+	private File databaseFile() throws IOException {
+		if(!StringUtils.isBlank(databasePath)) {
+			return new File(databasePath);
+		}
+
+		URL resource = GeoLocationImpl.class.getClassLoader().getResource(CLASSPATH_DATABASE);
+		if(resource == null) {
+			throw new IOException("No IP database configured and " + CLASSPATH_DATABASE + " not found in classpath");
+		}
+
+		//extracted once, a file can be memory mapped when a classpath resource cannot
+		Path target = new File(System.getProperty("java.io.tmpdir"), "shopizer-GeoLite2-City.mmdb").toPath();
+		long length = resource.openConnection().getContentLengthLong();
+		if(!Files.exists(target) || Files.size(target) != length) {
+			Path tmp = Files.createTempFile(target.getParent(), "GeoLite2-City", ".mmdb");
+			try(InputStream in = resource.openStream()) {
+				Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+			}
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		return target.toFile();
+	}
+
+	private Address copy(Address address) {
+		Address copy = new Address();
+		copy.setCountry(address.getCountry());
+		copy.setPostalCode(address.getPostalCode());
+		copy.setZone(address.getZone());
+		copy.setCity(address.getCity());
+		return copy;
+	}
+
+	public String getDatabasePath() {
+		return databasePath;
+	}
+
+	public void setDatabasePath(String databasePath) {
+		this.databasePath = databasePath;
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	public long getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	public void setRefreshInterval(long refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+	public void setScheduler(TaskScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Memory mapped database file and the addresses resolved from it,
+	 * swapped as a whole when a newer file is loaded
+	 */
+	private static class Database {
+
+		private final File file;
+		private final long lastModified;
+		private final DatabaseReader reader;
+		private final Map<String, Address> cache;
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+
+		Database(File file, int cacheSize) throws IOException {
+			this.file = file;
+			this.lastModified = file.lastModified();
+			this.reader = new DatabaseReader.Builder(file).fileMode(Reader.FileMode.MEMORY_MAPPED)
+					.withCache(new CHMCache()).build();
+			//least recently used prefixes are evicted
+			this.cache = new LinkedHashMap<String, Address>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Address> eldest) {
+					return size() > cacheSize;
+				}
+			};
+		}
+
+		Address getAddress(InetAddress inetAddress) throws Exception {
+			String prefix = prefix(inetAddress);
+			Address address;
+			synchronized(cache) {
+				address = cache.get(prefix);
+			}
+			if(address != null) {
+				hits.increment();
+			} else {
+				misses.increment();
+				address = lookup(inetAddress);
+				synchronized(cache) {
+					cache.put(prefix, address);
+				}
+			}
+			return address;
+		}
+
+		private Address lookup(InetAddress inetAddress) throws Exception {
+			Address address = new Address();
+			CityResponse response = null;
+			try {
+				response = reader.city(inetAddress);
+			} catch(com.maxmind.geoip2.exception.AddressNotFoundException ne) {
+				LOGGER.debug("Address not fount in DB " + ne.getMessage());
+				return address;
+			}
 
 			address.setCountry(response.getCountry().getIsoCode());
 			address.setPostalCode(response.getPostal().getCode());
 			address.setZone(response.getMostSpecificSubdivision().getIsoCode());
 			address.setCity(response.getCity().getName());
-			
-			} catch(com.maxmind.geoip2.exception.AddressNotFoundException ne) {
-				LOGGER.debug("Address not fount in DB " + ne.getMessage());
-			} catch(Exception e) {
-				throw new ServiceException(e);
+			return address;
+		}
+
+		/**
+		 * Network prefix, /24 for ipv4 and /64 for ipv6
+		 */
+		private String prefix(InetAddress inetAddress) {
+			byte[] bytes = inetAddress.getAddress();
+			int length = inetAddress instanceof Inet4Address ? 3 : 8;
+			StringBuilder prefix = new StringBuilder(length * 4);
+			for(int i = 0; i < length; i++) {
+				prefix.append(bytes[i] & 0xff).append('.');
 			}
+			return prefix.toString();
+		}
 
-		
-			return address;
-		
-		
+		void close() {
+			try {
+				reader.close();
+			} catch(IOException e) {
+				LOGGER.warn("Cannot close IP database",e);
+			}
+		}
 	}
 
 
@@ -2,6 +2,7 @@ package com.salesmanager.core.business.repositories.catalog.product;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -27,4 +28,13 @@ public interface ProductRepository extends JpaRepository<Product, Long>, Product
 	)
 	List<Object> findBySku(String sku, Integer consultId);
 
+	@Query("select p.id from Product p where p.merchantStore.id = ?1 and p.id > ?2 order by p.id")
+	List<Long> findIdsByStore(Integer storeId, Long afterId, Pageable pageable);
+
+	@Query("select count(p) from Product p where p.merchantStore.id = ?1")
+	long countByStore(Integer storeId);
+
+	@Query("select p.sku from Product p where p.merchantStore.id = ?1")
+	List<String> findSkusByStore(Integer storeId);
+
 }
@@ -29,6 +29,20 @@ public interface ProductRepositoryCustom {
 
 		List<Product> getProductsListByIds(Set<Long> productIds);
 
+		/**
+		 * Loads fully populated products for a given merchant in a single
+		 * query regardless of availability. Used by batch processes such as
+		 * search indexing
+		 */
+		List<Product> getProductsListByIds(Set<Long> productIds, MerchantStore store);
+
+		/**
+		 * Persists new products and their cascaded entities then flushes and
+		 * clears the persistence context so the inserts are sent in JDBC
+		 * batches and memory does not grow over successive calls
+		 */
+		void persistAll(List<Product> products);
+
 		List<Product> listByTaxClass(TaxClass taxClass);
 
 		List<Product> listByStore(MerchantStore store);
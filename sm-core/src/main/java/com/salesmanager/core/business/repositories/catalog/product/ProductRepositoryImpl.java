@@ -471,6 +471,32 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 		return q.getResultList();
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Product> getProductsListByIds(Set<Long> productIds, MerchantStore store) {
+		StringBuilder qs = new StringBuilder();
+		qs.append(productQueryV2());
+		qs.append("where p.id in (:pid) ");
+		qs.append("and merch.id=:mid");
+
+		String hql = qs.toString();
+		Query q = this.em.createQuery(hql);
+
+		q.setParameter("pid", productIds);
+		q.setParameter("mid", store.getId());
+
+		return q.getResultList();
+	}
+
+	@Override
+	public void persistAll(List<Product> products) {
+		for (Product product : products) {
+			em.persist(product);
+		}
+		em.flush();
+		em.clear();
+	}
+
 	/**
 	 * This query is used for category listings. All collections are not fully
 	 * loaded, only the required objects so the listing page can display
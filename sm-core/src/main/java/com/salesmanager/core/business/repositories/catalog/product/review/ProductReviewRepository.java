@@ -28,5 +28,8 @@ public interface ProductReviewRepository extends JpaRepository<ProductReview, Lo
 	@Query("select p from ProductReview p left join fetch p.descriptions pd join fetch p.customer pc join fetch pc.merchantStore pcm left join fetch pc.defaultLanguage pcl left join fetch pc.attributes pca left join fetch pca.customerOption pcao left join fetch pca.customerOptionValue pcav left join fetch pcao.descriptions pcaod left join fetch pcav.descriptions pcavd join fetch p.product pp join fetch pp.merchantStore ppm  join fetch p.product pp join fetch pp.merchantStore ppm left join fetch p.descriptions pd where pp.id = ?1 and pc.id = ?2")
 	ProductReview findByProductAndCustomer(Long productId, Long customerId);
 	
+	@Query("select p.reviewRating from ProductReview p where p.id = ?1")
+	Double findRating(Long id);
+	
 	
 }
@@ -0,0 +1,67 @@
+package com.salesmanager.core.business.repositories.catalog.product.review;
+
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.salesmanager.core.model.catalog.product.review.ProductReviewStatistics;
+
+public interface ProductReviewStatisticsRepository extends JpaRepository<ProductReviewStatistics, Long> {
+
+	/**
+	 * Adds the deltas to the counters in a single statement, concurrent
+	 * reviews of the same product are serialized on the row lock
+	 * @return number of rows updated, 0 when the product has no statistics yet
+	 */
+	@Modifying
+	@Query("update ProductReviewStatistics s set s.reviewSum = s.reviewSum + :sum, s.reviewCount = s.reviewCount + :count, "
+			+ "s.rating1 = s.rating1 + :rating1, s.rating2 = s.rating2 + :rating2, s.rating3 = s.rating3 + :rating3, "
+			+ "s.rating4 = s.rating4 + :rating4, s.rating5 = s.rating5 + :rating5 where s.id = :productId")
+	int increment(@Param("productId") Long productId, @Param("sum") double sum, @Param("count") int count,
+			@Param("rating1") int rating1, @Param("rating2") int rating2, @Param("rating3") int rating3,
+			@Param("rating4") int rating4, @Param("rating5") int rating5);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from ProductReviewStatistics s where s.id = ?1")
+	ProductReviewStatistics findForUpdate(Long productId);
+
+	/**
+	 * Statistics computed from the reviews, one row per product:
+	 * product id, sum, count, then the number of reviews per star
+	 */
+	@Query("select pp.id, coalesce(sum(p.reviewRating), 0), count(p), "
+			+ "sum(case when p.reviewRating < 1.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 1.5 and p.reviewRating < 2.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 2.5 and p.reviewRating < 3.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 3.5 and p.reviewRating < 4.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 4.5 then 1 else 0 end) "
+			+ "from ProductReview p join p.product pp where p.reviewRating is not null group by pp.id")
+	List<Object[]> computeAll();
+
+	@Query("select pp.id, coalesce(sum(p.reviewRating), 0), count(p), "
+			+ "sum(case when p.reviewRating < 1.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 1.5 and p.reviewRating < 2.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 2.5 and p.reviewRating < 3.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 3.5 and p.reviewRating < 4.5 then 1 else 0 end), "
+			+ "sum(case when p.reviewRating >= 4.5 then 1 else 0 end) "
+			+ "from ProductReview p join p.product pp where pp.id = ?1 and p.reviewRating is not null group by pp.id")
+	List<Object[]> compute(Long productId);
+
+	/**
+	 * Statistics with the product rating columns: statistics, product
+	 * review average, product review count
+	 */
+	@Query("select s, p.productReviewAvg, p.productReviewCount from ProductReviewStatistics s, Product p where p.id = s.id")
+	List<Object[]> findAllWithProductRating();
+
+	@Modifying
+	@Query("delete from ProductReviewStatistics s where not exists (select p.id from Product p where p.id = s.id)")
+	int deleteOrphans();
+
+}
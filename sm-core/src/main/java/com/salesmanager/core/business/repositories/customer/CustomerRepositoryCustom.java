@@ -1,7 +1,10 @@
 package com.salesmanager.core.business.repositories.customer;
 
+import java.util.List;
+
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
+import com.salesmanager.core.model.customer.CustomerListItem;
 import com.salesmanager.core.model.merchant.MerchantStore;
 
 
@@ -9,6 +12,24 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 public interface CustomerRepositoryCustom {
 
 	CustomerList listByStore(MerchantStore store, CustomerCriteria criteria);
+
+	/**
+	 * Listing columns of customers ordered by id. Pagination seeks after
+	 * lastId of the criteria and returns at most pageSize + 1 rows so the
+	 * caller can tell if there is a next page
+	 * @param store
+	 * @param criteria
+	 * @return
+	 */
+	List<CustomerListItem> listCustomerItems(MerchantStore store, CustomerCriteria criteria);
+
+	/**
+	 * Count of customers matching the filters of the criteria
+	 * @param store
+	 * @param criteria
+	 * @return
+	 */
+	long countCustomers(MerchantStore store, CustomerCriteria criteria);
 	
 
 }
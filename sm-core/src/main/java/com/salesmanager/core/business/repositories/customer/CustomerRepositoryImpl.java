@@ -1,13 +1,17 @@
 package com.salesmanager.core.business.repositories.customer;
 
+import java.util.List;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.salesmanager.core.model.common.CriteriaOrderBy;
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
+import com.salesmanager.core.model.customer.CustomerListItem;
 import com.salesmanager.core.model.merchant.MerchantStore;
 
 
@@ -142,6 +146,100 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
 		
 	}
 
-    
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<CustomerListItem> listCustomerItems(MerchantStore store, CustomerCriteria criteria) {
+
+		boolean ascending = criteria.getOrderBy() != null
+				&& CriteriaOrderBy.ASC.name().equals(criteria.getOrderBy().name());
+
+		StringBuilder qs = new StringBuilder();
+		qs.append("select new com.salesmanager.core.model.customer.CustomerListItem(");
+		qs.append("c.id, c.emailAddress, c.nick, c.billing.firstName, c.billing.lastName, c.billing.company, ");
+		qs.append("c.billing.telephone, bc.isoCode, c.auditSection.dateCreated) ");
+		qs.append("from Customer as c left join c.billing.country bc");
+		qs.append(itemsFilter(criteria));
+
+		if (criteria.getLastId() != null) {
+			qs.append(" and c.id ").append(ascending ? ">" : "<").append(" :lastId");
+		}
+
+		qs.append(" order by c.id").append(ascending ? " asc" : " desc");
+
+		Query q = em.createQuery(qs.toString());
+		setItemsFilterParameters(q, store, criteria);
+
+		if (criteria.getLastId() != null) {
+			q.setParameter("lastId", criteria.getLastId());
+		}
+
+		q.setMaxResults(criteria.getPageSize() + 1);
+
+		return q.getResultList();
+	}
+
+	@Override
+	public long countCustomers(MerchantStore store, CustomerCriteria criteria) {
+
+		StringBuilder qs = new StringBuilder("select count(c) from Customer as c");
+		if (!StringUtils.isBlank(criteria.getCountry())) {
+			qs.append(" left join c.billing.country bc");
+		}
+		qs.append(itemsFilter(criteria));
+
+		Query q = em.createQuery(qs.toString());
+		setItemsFilterParameters(q, store, criteria);
+
+		return ((Number) q.getSingleResult()).longValue();
+	}
+
+	/**
+	 * Filters of the listing. Text filters are anchored to the beginning of
+	 * the value so the database can use the email and name indexes
+	 */
+	private String itemsFilter(CustomerCriteria criteria) {
+		StringBuilder where = new StringBuilder(" where c.merchantStore.id=:mId");
+
+		if (!StringUtils.isBlank(criteria.getName())) {
+			where.append(" and (c.billing.firstName like :nm or c.billing.lastName like :nm)");
+		}
+		if (!StringUtils.isBlank(criteria.getFirstName())) {
+			where.append(" and c.billing.firstName like :fn");
+		}
+		if (!StringUtils.isBlank(criteria.getLastName())) {
+			where.append(" and c.billing.lastName like :ln");
+		}
+		if (!StringUtils.isBlank(criteria.getEmail())) {
+			where.append(" and c.emailAddress like :email");
+		}
+		if (!StringUtils.isBlank(criteria.getCountry())) {
+			where.append(" and bc.isoCode=:country");
+		}
+		return where.toString();
+	}
+
+	private void setItemsFilterParameters(Query q, MerchantStore store, CustomerCriteria criteria) {
+		q.setParameter("mId", store.getId());
+
+		if (!StringUtils.isBlank(criteria.getName())) {
+			q.setParameter("nm", startsWith(criteria.getName()));
+		}
+		if (!StringUtils.isBlank(criteria.getFirstName())) {
+			q.setParameter("fn", startsWith(criteria.getFirstName()));
+		}
+		if (!StringUtils.isBlank(criteria.getLastName())) {
+			q.setParameter("ln", startsWith(criteria.getLastName()));
+		}
+		if (!StringUtils.isBlank(criteria.getEmail())) {
+			q.setParameter("email", startsWith(criteria.getEmail()));
+		}
+		if (!StringUtils.isBlank(criteria.getCountry())) {
+			q.setParameter("country", criteria.getCountry().trim().toUpperCase());
+		}
+	}
+
+	private String startsWith(String q) {
+		return q.trim() + '%';
+	}
 
 }
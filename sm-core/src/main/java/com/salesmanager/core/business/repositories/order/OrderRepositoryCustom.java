@@ -1,8 +1,13 @@
 package com.salesmanager.core.business.repositories.order;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.OrderListItem;
 
 
 
@@ -11,4 +16,37 @@ public interface OrderRepositoryCustom {
 
 	OrderList listByStore(MerchantStore store, OrderCriteria criteria);
 	OrderList listOrders(MerchantStore store, OrderCriteria criteria);
+
+	/**
+	 * Summary columns of orders ordered by date purchased and id. Pagination
+	 * seeks after lastDatePurchased / lastId of the criteria and returns
+	 * at most pageSize + 1 rows so the caller can tell if there is a next page
+	 * @param store
+	 * @param criteria
+	 * @return
+	 */
+	List<OrderListItem> listOrderItems(MerchantStore store, OrderCriteria criteria);
+
+	/**
+	 * Count of orders matching the filters of the criteria
+	 * @param store
+	 * @param criteria
+	 * @return
+	 */
+	long countOrders(MerchantStore store, OrderCriteria criteria);
+
+	/**
+	 * Streams the orders matching the filters of the criteria by ascending
+	 * date purchased and id. Order ids are read from a forward only cursor,
+	 * orders are then loaded by chunks with their products, totals, attributes
+	 * and status history. The persistence context is cleared once a chunk has
+	 * been handed to the consumer. Must run within a transaction
+	 * @param store
+	 * @param criteria
+	 * @param fetchSize rows fetched per round trip by the cursor
+	 * @param chunkSize orders loaded per chunk
+	 * @param consumer
+	 * @return number of orders exported
+	 */
+	long exportOrders(MerchantStore store, OrderCriteria criteria, int fetchSize, int chunkSize, Consumer<Order> consumer);
 }
@@ -1,17 +1,27 @@
 package com.salesmanager.core.business.repositories.order;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
 
 import com.salesmanager.core.business.utils.RepositoryHelper;
 import com.salesmanager.core.model.common.CriteriaOrderBy;
 import com.salesmanager.core.model.common.GenericEntityList;
 import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.OrderListItem;
 import com.salesmanager.core.model.order.orderstatus.OrderStatus;
 
 
@@ -260,9 +270,199 @@ public class OrderRepositoryImpl implements OrderRepositoryCustom {
 		return orderList;
 	}
 	
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<OrderListItem> listOrderItems(MerchantStore store, OrderCriteria criteria) {
+
+		boolean ascending = criteria.getOrderBy() != null
+				&& CriteriaOrderBy.ASC.name().equals(criteria.getOrderBy().name());
+
+		StringBuilder qs = new StringBuilder();
+		qs.append("select new com.salesmanager.core.model.order.OrderListItem(");
+		qs.append("o.id, o.datePurchased, o.status, o.total, c.code, o.customerId, o.customerEmailAddress, ");
+		qs.append("o.billing.firstName, o.billing.lastName, o.paymentModuleCode, o.shippingModuleCode) ");
+		qs.append("from Order as o left join o.currency c");
+		qs.append(itemsFilter(criteria));
+
+		if (criteria.getLastDatePurchased() != null && criteria.getLastId() != null) {
+			String operator = ascending ? ">" : "<";
+			qs.append(" and (o.datePurchased ").append(operator).append(" :lastDate");
+			qs.append(" or (o.datePurchased = :lastDate and o.id ").append(operator).append(" :lastId))");
+		}
+
+		String direction = ascending ? " asc" : " desc";
+		qs.append(" order by o.datePurchased").append(direction).append(", o.id").append(direction);
+
+		Query q = em.createQuery(qs.toString());
+		setItemsFilterParameters(q, store, criteria);
+
+		if (criteria.getLastDatePurchased() != null && criteria.getLastId() != null) {
+			q.setParameter("lastDate", criteria.getLastDatePurchased());
+			q.setParameter("lastId", criteria.getLastId());
+		}
+
+		q.setMaxResults(criteria.getPageSize() + 1);
+
+		return q.getResultList();
+	}
+
+	@Override
+	public long countOrders(MerchantStore store, OrderCriteria criteria) {
+
+		Query q = em.createQuery("select count(o) from Order as o" + itemsFilter(criteria));
+		setItemsFilterParameters(q, store, criteria);
+
+		return ((Number) q.getSingleResult()).longValue();
+	}
+
+	@Override
+	public long exportOrders(MerchantStore store, OrderCriteria criteria, int fetchSize, int chunkSize,
+			Consumer<Order> consumer) {
+
+		org.hibernate.query.Query<Long> q = em.unwrap(Session.class).createQuery(
+				"select o.id from Order as o" + itemsFilter(criteria) + " order by o.datePurchased asc, o.id asc",
+				Long.class);
+		setItemsFilterParameters(q, store, criteria);
+		q.setFetchSize(fetchSize);
+		q.setReadOnly(true);
+
+		long count = 0;
+		List<Long> chunk = new ArrayList<Long>(chunkSize);
+
+		try (ScrollableResults ids = q.scroll(ScrollMode.FORWARD_ONLY)) {
+			while (ids.next()) {
+				chunk.add((Long) ids.get(0));
+				if (chunk.size() == chunkSize) {
+					count += exportChunk(chunk, consumer);
+					chunk.clear();
+				}
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			count += exportChunk(chunk, consumer);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Collections are fetched by separate queries on the same persistence
+	 * context to avoid the cartesian product of joining all of them at once
+	 */
+	private int exportChunk(List<Long> ids, Consumer<Order> consumer) {
+
+		List<Order> orders = em.createQuery("select distinct o from Order as o left join fetch o.currency"
+				+ " left join fetch o.delivery.country left join fetch o.delivery.zone"
+				+ " left join fetch o.billing.country left join fetch o.billing.zone"
+				+ " left join fetch o.orderTotal ot where o.id in (:ids)"
+				+ " order by o.datePurchased asc, o.id asc", Order.class)
+				.setParameter("ids", ids)
+				.setHint(QueryHints.HINT_READONLY, true)
+				.getResultList();
+
+		em.createQuery("select distinct o from Order as o left join fetch o.orderProducts op"
+				+ " left join fetch op.prices opp left join fetch op.orderAttributes opa where o.id in (:ids)", Order.class)
+				.setParameter("ids", ids)
+				.setHint(QueryHints.HINT_READONLY, true)
+				.getResultList();
+
+		em.createQuery("select distinct o from Order as o left join fetch o.orderAttributes oa where o.id in (:ids)", Order.class)
+				.setParameter("ids", ids)
+				.setHint(QueryHints.HINT_READONLY, true)
+				.getResultList();
+
+		em.createQuery("select distinct o from Order as o left join fetch o.orderHistory oh where o.id in (:ids)", Order.class)
+				.setParameter("ids", ids)
+				.setHint(QueryHints.HINT_READONLY, true)
+				.getResultList();
+
+		for (Order order : orders) {
+			consumer.accept(order);
+		}
+
+		//keeps memory constant whatever the size of the export
+		em.clear();
+
+		return orders.size();
+	}
+
+	/**
+	 * Filters of the summary listing. Text filters are anchored to the
+	 * beginning of the value so the database can use an index
+	 */
+	private String itemsFilter(OrderCriteria criteria) {
+		StringBuilder where = new StringBuilder(" where o.merchant.id=:mId");
+
+		if (criteria.getCustomerId() != null) {
+			where.append(" and o.customerId=:cid");
+		}
+		if (criteria.getId() != null) {
+			where.append(" and o.id=:id");
+		}
+		if (!StringUtils.isBlank(criteria.getCustomerName())) {
+			where.append(" and (o.billing.firstName like :nm or o.billing.lastName like :nm)");
+		}
+		if (!StringUtils.isBlank(criteria.getEmail())) {
+			where.append(" and o.customerEmailAddress like :email");
+		}
+		if (!StringUtils.isBlank(criteria.getCustomerPhone())) {
+			where.append(" and (o.billing.telephone like :phone or o.delivery.telephone like :phone)");
+		}
+		if (!StringUtils.isBlank(criteria.getPaymentMethod())) {
+			where.append(" and o.paymentModuleCode=:pm");
+		}
+		if (!StringUtils.isBlank(criteria.getStatus())) {
+			where.append(" and o.status=:status");
+		}
+		if (criteria.getStartDate() != null) {
+			where.append(" and o.datePurchased >= :startDate");
+		}
+		if (criteria.getEndDate() != null) {
+			where.append(" and o.datePurchased <= :endDate");
+		}
+		return where.toString();
+	}
+
+	private void setItemsFilterParameters(Query q, MerchantStore store, OrderCriteria criteria) {
+		q.setParameter("mId", store.getId());
+
+		if (criteria.getCustomerId() != null) {
+			q.setParameter("cid", criteria.getCustomerId());
+		}
+		if (criteria.getId() != null) {
+			q.setParameter("id", criteria.getId());
+		}
+		if (!StringUtils.isBlank(criteria.getCustomerName())) {
+			q.setParameter("nm", startsWith(criteria.getCustomerName()));
+		}
+		if (!StringUtils.isBlank(criteria.getEmail())) {
+			q.setParameter("email", startsWith(criteria.getEmail()));
+		}
+		if (!StringUtils.isBlank(criteria.getCustomerPhone())) {
+			q.setParameter("phone", startsWith(criteria.getCustomerPhone()));
+		}
+		if (!StringUtils.isBlank(criteria.getPaymentMethod())) {
+			q.setParameter("pm", criteria.getPaymentMethod());
+		}
+		if (!StringUtils.isBlank(criteria.getStatus())) {
+			q.setParameter("status", OrderStatus.valueOf(criteria.getStatus().toUpperCase()));
+		}
+		if (criteria.getStartDate() != null) {
+			q.setParameter("startDate", criteria.getStartDate());
+		}
+		if (criteria.getEndDate() != null) {
+			q.setParameter("endDate", criteria.getEndDate());
+		}
+	}
+
 	private String like(String q) {
 		return '%' + q + '%';
 	}
 
+	private String startsWith(String q) {
+		return q.trim() + '%';
+	}
+
 
 }
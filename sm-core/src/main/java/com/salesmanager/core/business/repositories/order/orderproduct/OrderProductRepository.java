@@ -1,10 +1,16 @@
 package com.salesmanager.core.business.repositories.order.orderproduct;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.salesmanager.core.model.order.orderproduct.OrderProduct;
 
 public interface OrderProductRepository extends JpaRepository<OrderProduct, Long> {
 
+	@Query("select distinct op from OrderProduct op join fetch op.order o left join fetch op.prices opp left join fetch op.orderAttributes opa where o.id in ?1")
+	List<OrderProduct> findByOrderIds(Collection<Long> orderIds);
 
 }
@@ -0,0 +1,44 @@
+package com.salesmanager.core.business.repositories.system;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.salesmanager.core.model.system.email.OutboxEmail;
+import com.salesmanager.core.model.system.email.OutboxEmailStatus;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+	/**
+	 * Pending emails due, locked until the claiming transaction commits
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select o from OutboxEmail o where o.status = com.salesmanager.core.model.system.email.OutboxEmailStatus.PENDING "
+			+ "and o.nextAttempt <= ?1 order by o.nextAttempt, o.id")
+	List<OutboxEmail> findDue(Date now, Pageable pageable);
+
+	long countByStatus(OutboxEmailStatus status);
+
+	@Modifying
+	@Query("update OutboxEmail o set o.status = com.salesmanager.core.model.system.email.OutboxEmailStatus.SENT, "
+			+ "o.dateSent = ?2, o.lastError = null where o.id = ?1")
+	int sent(Long id, Date dateSent);
+
+	@Modifying
+	@Query("update OutboxEmail o set o.status = com.salesmanager.core.model.system.email.OutboxEmailStatus.PENDING, "
+			+ "o.attempts = 0, o.nextAttempt = ?1 where o.status = com.salesmanager.core.model.system.email.OutboxEmailStatus.DEAD")
+	int requeueDead(Date now);
+
+	@Modifying
+	@Query("delete from OutboxEmail o where o.status = com.salesmanager.core.model.system.email.OutboxEmailStatus.SENT "
+			+ "and o.dateSent < ?1")
+	int deleteSent(Date before);
+
+}
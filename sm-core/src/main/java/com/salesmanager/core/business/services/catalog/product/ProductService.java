@@ -3,6 +3,7 @@ package com.salesmanager.core.business.services.catalog.product;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 
@@ -17,15 +18,6 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.core.model.tax.taxclass.TaxClass;
 
-@Service
-public class ProductService {
-
-    @Cacheable("products")
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
-    }
-}
-
 
 public interface ProductService extends SalesManagerEntityService<Long, Product> {
 
@@ -104,6 +96,47 @@ public interface ProductService extends SalesManagerEntityService<Long, Product>
 	 */
 	Product findOne(Long id, MerchantStore merchant);
 
+	/**
+	 * Find a list of products for a specific merchant using a single query
+	 * @param ids
+	 * @param merchant
+	 * @return
+	 */
+	List<Product> findByIds(Set<Long> ids, MerchantStore merchant);
+
+	/**
+	 * Identifiers of the products of a merchant following an id, ordered by
+	 * id. Used to walk a catalog in chunks
+	 * @param store
+	 * @param afterId last id of the previous chunk, 0 for the first chunk
+	 * @param max
+	 * @return
+	 */
+	List<Long> listIdsByStore(MerchantStore store, long afterId, int max);
+
+	/**
+	 * Number of products of a merchant
+	 * @param store
+	 * @return
+	 */
+	long countByStore(MerchantStore store);
+
+	/**
+	 * Sku of all products of a merchant
+	 * @param store
+	 * @return
+	 */
+	List<String> listSkusByStore(MerchantStore store);
+
+	/**
+	 * Creates a list of fully configured products in a single transaction.
+	 * Inserts are sent to the database in JDBC batches. Images are not saved
+	 * and no product event is published, indexing is left to the caller
+	 * @param products
+	 * @throws ServiceException
+	 */
+	void createProducts(List<Product> products) throws ServiceException;
+
 
 }
 
@@ -20,6 +20,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.catalog.product.ProductRepository;
@@ -342,6 +343,42 @@ public class ProductServiceImpl extends SalesManagerEntityServiceImpl<Long, Prod
 		return productRepository.getById(id, merchant);
 	}
 
+	@Override
+	public List<Product> findByIds(Set<Long> ids, MerchantStore merchant) {
+		Validate.notNull(merchant, "MerchantStore must not be null");
+		Validate.notEmpty(ids, "ids must not be empty");
+		return productRepository.getProductsListByIds(ids, merchant);
+	}
+
+	@Override
+	public List<Long> listIdsByStore(MerchantStore store, long afterId, int max) {
+		Validate.notNull(store, "MerchantStore must not be null");
+		return productRepository.findIdsByStore(store.getId(), afterId, PageRequest.of(0, max));
+	}
+
+	@Override
+	public long countByStore(MerchantStore store) {
+		Validate.notNull(store, "MerchantStore must not be null");
+		return productRepository.countByStore(store.getId());
+	}
+
+	@Override
+	public List<String> listSkusByStore(MerchantStore store) {
+		Validate.notNull(store, "MerchantStore must not be null");
+		return productRepository.findSkusByStore(store.getId());
+	}
+
+	@Override
+	@Transactional
+	public void createProducts(List<Product> products) throws ServiceException {
+		Validate.notNull(products, "products cannot be null");
+		for (Product product : products) {
+			Validate.isTrue(product.getId() == null, "product [" + product.getSku() + "] already exists");
+			Validate.notEmpty(product.getAvailabilities(), "product must have at least one availability");
+		}
+		productRepository.persistAll(products);
+	}
+
 	@Override
 	public Page<Product> listByStore(MerchantStore store, Language language, ProductCriteria criteria, int page,
 			int count) {
@@ -1,6 +1,5 @@
 package com.salesmanager.core.business.services.catalog.product.review;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -10,7 +9,6 @@ import org.springframework.stereotype.Service;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.catalog.product.review.ProductReviewRepository;
-import com.salesmanager.core.business.services.catalog.product.ProductService;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.review.ProductReview;
@@ -26,7 +24,7 @@ public class ProductReviewServiceImpl extends
 	private ProductReviewRepository productReviewRepository;
 	
 	@Inject
-	private ProductService productService;
+	private ProductReviewStatisticsService productReviewStatisticsService;
 	
 	@Inject
 	public ProductReviewServiceImpl(
@@ -55,55 +53,40 @@ public class ProductReviewServiceImpl extends
 		return productReviewRepository.findByProduct(product.getId(), language.getId());
 	}
 	
-	private void saveOrUpdate(ProductReview review) throws ServiceException {
-		
-
+	private void validate(ProductReview review) {
 		Validate.notNull(review,"ProductReview cannot be null");
 		Validate.notNull(review.getProduct(),"ProductReview.product cannot be null");
 		Validate.notNull(review.getCustomer(),"ProductReview.customer cannot be null");
-		
-		
-		//refresh product
-		Product product = productService.getById(review.getProduct().getId());
-		
-		//ajust product rating
-		Integer count = 0;
-		if(product.getProductReviewCount()!=null) {
-			count = product.getProductReviewCount();
-		}
-				
-		
-		
-
-		BigDecimal averageRating = product.getProductReviewAvg();
-		if(averageRating==null) {
-			averageRating = new BigDecimal(0);
-		}
-		//get reviews
-
-		
-		BigDecimal totalRating = averageRating.multiply(new BigDecimal(count));
-		totalRating = totalRating.add(new BigDecimal(review.getReviewRating()));
-		
-		count = count + 1;
-		double avg = totalRating.doubleValue() / count;
-		
-		product.setProductReviewAvg(new BigDecimal(avg));
-		product.setProductReviewCount(count);
-		super.save(review);
-		
-		productService.update(product);
-		
-		review.setProduct(product);
-		
 	}
 	
+	/**
+	 * Product rating is kept in ProductReviewStatistics, incremented in place
+	 * instead of being recomputed on the product
+	 */
 	public void update(ProductReview review) throws ServiceException {
-		this.saveOrUpdate(review);
+		validate(review);
+		Double previous = review.getId() == null ? null : productReviewRepository.findRating(review.getId());
+		super.save(review);
+		if(previous == null) {
+			productReviewStatisticsService.add(review.getProduct().getId(), review.getReviewRating());
+		} else {
+			productReviewStatisticsService.replace(review.getProduct().getId(), previous, review.getReviewRating());
+		}
 	}
 	
 	public void create(ProductReview review) throws ServiceException {
-		this.saveOrUpdate(review);
+		validate(review);
+		super.save(review);
+		productReviewStatisticsService.add(review.getProduct().getId(), review.getReviewRating());
+	}
+	
+	@Override
+	public void delete(ProductReview review) throws ServiceException {
+		Validate.notNull(review,"ProductReview cannot be null");
+		Double rating = productReviewRepository.findRating(review.getId());
+		Long productId = review.getProduct().getId();
+		super.delete(review);
+		productReviewStatisticsService.remove(productId, rating);
 	}
 
 	/* (non-Javadoc)
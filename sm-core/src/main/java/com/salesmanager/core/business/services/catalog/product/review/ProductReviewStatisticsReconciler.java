@@ -0,0 +1,41 @@
+package com.salesmanager.core.business.services.catalog.product.review;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes review statistics from the reviews, correcting
+ * increments lost to failures and refreshing the product rating columns
+ * used by the search index
+ * @author c.samson
+ *
+ */
+@Component
+public class ProductReviewStatisticsReconciler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductReviewStatisticsReconciler.class);
+
+	@Inject
+	private ProductReviewStatisticsService productReviewStatisticsService;
+
+	@Value("${review.statistics.reconcile:true}")
+	private boolean enabled;
+
+	@Scheduled(initialDelayString = "${review.statistics.reconcileInterval:900000}", fixedDelayString = "${review.statistics.reconcileInterval:900000}")
+	public void reconcile() {
+		if(!enabled) {
+			return;
+		}
+		try {
+			productReviewStatisticsService.reconcile();
+		} catch(Exception e) {
+			LOGGER.error("Cannot reconcile review statistics", e);
+		}
+	}
+
+}
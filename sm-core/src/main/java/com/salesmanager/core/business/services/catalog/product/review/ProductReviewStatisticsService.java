@@ -0,0 +1,45 @@
+package com.salesmanager.core.business.services.catalog.product.review;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.common.generic.SalesManagerEntityService;
+import com.salesmanager.core.model.catalog.product.review.ProductReviewStatistics;
+
+/**
+ * Review statistics (sum, count and number of reviews per star) maintained
+ * with in place increments when reviews are created, updated or deleted
+ * @author c.samson
+ *
+ */
+public interface ProductReviewStatisticsService extends
+		SalesManagerEntityService<Long, ProductReviewStatistics> {
+
+	/**
+	 * Cached statistics of a product
+	 * @param productId
+	 * @return null when the product has never been reviewed
+	 */
+	ProductReviewStatistics getByProduct(Long productId);
+
+	void add(Long productId, Double rating) throws ServiceException;
+
+	void remove(Long productId, Double rating) throws ServiceException;
+
+	/**
+	 * A review rating was changed from previous to rating
+	 */
+	void replace(Long productId, Double previous, Double rating) throws ServiceException;
+
+	/**
+	 * Recomputes the statistics of a product from its reviews and copies
+	 * them to the product rating columns
+	 */
+	void reconcile(Long productId) throws ServiceException;
+
+	/**
+	 * Recomputes the statistics that differ from the reviews or from the
+	 * product rating columns
+	 * @return number of products corrected
+	 */
+	int reconcile() throws ServiceException;
+
+}
@@ -0,0 +1,279 @@
+package com.salesmanager.core.business.services.catalog.product.review;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.repositories.catalog.product.ProductRepository;
+import com.salesmanager.core.business.repositories.catalog.product.review.ProductReviewStatisticsRepository;
+import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.review.ProductReviewStatistics;
+
+@Service("productReviewStatisticsService")
+public class ProductReviewStatisticsServiceImpl extends
+		SalesManagerEntityServiceImpl<Long, ProductReviewStatistics> implements
+		ProductReviewStatisticsService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductReviewStatisticsServiceImpl.class);
+
+	public static final String CACHE_NAME = "productReviewStatistics";
+
+	private static final double SUM_TOLERANCE = 0.0001;
+
+	private ProductReviewStatisticsRepository productReviewStatisticsRepository;
+
+	@Inject
+	@Qualifier("serviceCacheManager")
+	private CacheManager cacheManager;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
+
+	@Inject
+	private ProductRepository productRepository;
+
+	private Cache cache;
+
+	/**
+	 * Independent transactions, a statistics row created by one is
+	 * visible to others before the review that created it commits
+	 */
+	private TransactionTemplate newTransaction;
+
+	@Inject
+	public ProductReviewStatisticsServiceImpl(
+			ProductReviewStatisticsRepository productReviewStatisticsRepository) {
+			super(productReviewStatisticsRepository);
+			this.productReviewStatisticsRepository = productReviewStatisticsRepository;
+	}
+
+	@PostConstruct
+	public void init() {
+		cache = cacheManager.getCache(CACHE_NAME);
+		Validate.notNull(cache, "Cache " + CACHE_NAME + " is not configured");
+		newTransaction = new TransactionTemplate(transactionManager);
+		newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@Override
+	public ProductReviewStatistics getByProduct(Long productId) {
+		if(productId == null) {
+			return null;
+		}
+		ValueWrapper cached = cache.get(productId);
+		if(cached != null) {
+			return (ProductReviewStatistics)cached.get();
+		}
+		//products never reviewed are cached as well
+		ProductReviewStatistics statistics = productReviewStatisticsRepository.findById(productId).orElse(null);
+		cache.put(productId, statistics);
+		return statistics;
+	}
+
+	@Override
+	public void add(Long productId, Double rating) throws ServiceException {
+		if(rating == null) {
+			return;
+		}
+		increment(productId, rating, 1, ProductReviewStatistics.star(rating), 1);
+	}
+
+	@Override
+	public void remove(Long productId, Double rating) throws ServiceException {
+		if(rating == null) {
+			return;
+		}
+		increment(productId, -rating, -1, ProductReviewStatistics.star(rating), -1);
+	}
+
+	@Override
+	public void replace(Long productId, Double previous, Double rating) throws ServiceException {
+		if(previous == null) {
+			add(productId, rating);
+			return;
+		}
+		if(rating == null) {
+			remove(productId, previous);
+			return;
+		}
+		if(previous.equals(rating)) {
+			return;
+		}
+		int[] stars = new int[ProductReviewStatistics.MAX_RATING + 1];
+		stars[ProductReviewStatistics.star(previous)]--;
+		stars[ProductReviewStatistics.star(rating)]++;
+		increment(productId, rating - previous, 0, stars);
+	}
+
+	private void increment(Long productId, double sum, int count, int star, int starDelta) {
+		int[] stars = new int[ProductReviewStatistics.MAX_RATING + 1];
+		stars[star] = starDelta;
+		increment(productId, sum, count, stars);
+	}
+
+	private void increment(Long productId, double sum, int count, int[] stars) {
+		Validate.notNull(productId, "Product id cannot be null");
+		if(!productReviewStatisticsRepository.existsById(productId)) {
+			create(productId);
+		}
+		productReviewStatisticsRepository.increment(productId, sum, count, stars[1], stars[2], stars[3], stars[4], stars[5]);
+		evict(productId);
+	}
+
+	/**
+	 * Creates the statistics row in its own transaction, when two reviews
+	 * of a new product create it concurrently one insert is rejected
+	 * and both increment the same row
+	 */
+	private void create(Long productId) {
+		try {
+			newTransaction.execute(status -> {
+				if(!productReviewStatisticsRepository.existsById(productId)) {
+					productReviewStatisticsRepository.saveAndFlush(new ProductReviewStatistics(productId));
+				}
+				return null;
+			});
+		} catch(DataIntegrityViolationException e) {
+			LOGGER.debug("Review statistics of product [" + productId + "] created concurrently");
+		}
+	}
+
+	@Override
+	public void reconcile(Long productId) throws ServiceException {
+		Validate.notNull(productId, "Product id cannot be null");
+		try {
+			create(productId);
+			newTransaction.execute(status -> {
+				//increments wait until the reviews are counted
+				ProductReviewStatistics statistics = productReviewStatisticsRepository.findForUpdate(productId);
+				List<Object[]> computed = productReviewStatisticsRepository.compute(productId);
+				set(statistics, computed.isEmpty() ? null : computed.get(0));
+				statistics.setDateReconciled(new Date());
+				//entity update, a bulk update would evict every product from the second level cache
+				Product product = productRepository.findById(productId).orElse(null);
+				if(product != null && !matches(statistics, product.getProductReviewAvg(), product.getProductReviewCount())) {
+					product.setProductReviewAvg(statistics.getReviewAvg());
+					product.setProductReviewCount(statistics.getReviewCount());
+				}
+				return null;
+			});
+		} catch(Exception e) {
+			throw new ServiceException("Cannot reconcile review statistics of product [" + productId + "]", e);
+		}
+		evict(productId);
+	}
+
+	@Override
+	public int reconcile() throws ServiceException {
+
+		Map<Long, Object[]> computed = new HashMap<Long, Object[]>();
+		for(Object[] row : productReviewStatisticsRepository.computeAll()) {
+			computed.put((Long)row[0], row);
+		}
+
+		int corrected = 0;
+		for(Object[] row : productReviewStatisticsRepository.findAllWithProductRating()) {
+			ProductReviewStatistics statistics = (ProductReviewStatistics)row[0];
+			Object[] expected = computed.remove(statistics.getId());
+			if(!matches(statistics, expected) || !matches(statistics, (BigDecimal)row[1], (Integer)row[2])) {
+				reconcile(statistics.getId());
+				corrected++;
+			}
+		}
+
+		//reviewed products without statistics
+		for(Long productId : computed.keySet()) {
+			reconcile(productId);
+			corrected++;
+		}
+
+		int orphans = productReviewStatisticsRepository.deleteOrphans();
+
+		if(corrected > 0 || orphans > 0) {
+			LOGGER.info("Review statistics reconciled, " + corrected + " product(s) corrected, " + orphans + " deleted product(s) removed");
+		}
+		return corrected;
+	}
+
+	/**
+	 * Statistics against a row computed from the reviews
+	 */
+	private boolean matches(ProductReviewStatistics statistics, Object[] expected) {
+		ProductReviewStatistics computed = new ProductReviewStatistics(statistics.getId());
+		set(computed, expected);
+		if(Math.abs(statistics.getReviewSum() - computed.getReviewSum()) > SUM_TOLERANCE
+				|| statistics.getReviewCount() != computed.getReviewCount()) {
+			return false;
+		}
+		for(int star = 1; star <= ProductReviewStatistics.MAX_RATING; star++) {
+			if(statistics.getRatingCount(star) != computed.getRatingCount(star)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Statistics against the product rating columns
+	 */
+	private boolean matches(ProductReviewStatistics statistics, BigDecimal productReviewAvg, Integer productReviewCount) {
+		BigDecimal avg = statistics.getReviewAvg();
+		if(avg == null) {
+			return productReviewAvg == null && (productReviewCount == null || productReviewCount == 0);
+		}
+		return productReviewAvg != null && avg.compareTo(productReviewAvg) == 0
+				&& productReviewCount != null && productReviewCount == statistics.getReviewCount();
+	}
+
+	/**
+	 * Copies a row computed from the reviews, null when there is no review
+	 */
+	private void set(ProductReviewStatistics statistics, Object[] computed) {
+		statistics.setReviewSum(computed == null ? 0 : ((Number)computed[1]).doubleValue());
+		statistics.setReviewCount(computed == null ? 0 : ((Number)computed[2]).intValue());
+		statistics.setRating1(computed == null ? 0 : ((Number)computed[3]).intValue());
+		statistics.setRating2(computed == null ? 0 : ((Number)computed[4]).intValue());
+		statistics.setRating3(computed == null ? 0 : ((Number)computed[5]).intValue());
+		statistics.setRating4(computed == null ? 0 : ((Number)computed[6]).intValue());
+		statistics.setRating5(computed == null ? 0 : ((Number)computed[7]).intValue());
+	}
+
+	/**
+	 * Evicted once the change is committed, a read in between would cache
+	 * the previous statistics
+	 */
+	private void evict(Long productId) {
+		cache.evict(productId);
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					cache.evict(productId);
+				}
+			});
+		}
+	}
+
+}
@@ -9,6 +9,7 @@ import com.salesmanager.core.model.common.Address;
 import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
+import com.salesmanager.core.model.customer.CustomerListPage;
 import com.salesmanager.core.model.merchant.MerchantStore;
 
 
@@ -25,6 +26,17 @@ public interface CustomerService  extends SalesManagerEntityService<Long, Custom
 
 	CustomerList getListByStore(MerchantStore store, CustomerCriteria criteria);
 
+	/**
+	 * Lists customer grid columns using keyset pagination on id. Attributes,
+	 * groups and addresses are not loaded, the detail view reads the full
+	 * customer. When the criteria asks for an approximate count the total
+	 * is served from cache
+	 * @param store
+	 * @param criteria
+	 * @return
+	 */
+	CustomerListPage listCustomerItems(MerchantStore store, CustomerCriteria criteria);
+
 	Customer getByNick(String nick, int storeId);
 	Customer getByNick(String nick, String code);
 	
@@ -1,9 +1,11 @@
 package com.salesmanager.core.business.services.customer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
 
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -12,10 +14,13 @@ import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.customer.CustomerRepository;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.business.services.customer.attribute.CustomerAttributeService;
+import com.salesmanager.core.business.utils.CacheUtils;
 import com.salesmanager.core.model.common.Address;
 import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
+import com.salesmanager.core.model.customer.CustomerListItem;
+import com.salesmanager.core.model.customer.CustomerListPage;
 import com.salesmanager.core.model.customer.attribute.CustomerAttribute;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.modules.utils.GeoLocation;
@@ -35,6 +40,11 @@ public class CustomerServiceImpl extends SalesManagerEntityServiceImpl<Long, Cus
 	@Inject
 	private GeoLocation geoLocation;
 
+	@Inject
+	private CacheUtils cache;
+
+	private final static String CUSTOMER_COUNT_CACHE_KEY = "_CUSTOMER_COUNT_";
+
 	
 	@Inject
 	public CustomerServiceImpl(CustomerRepository customerRepository) {
@@ -71,6 +81,56 @@ public class CustomerServiceImpl extends SalesManagerEntityServiceImpl<Long, Cus
 	public CustomerList getListByStore(MerchantStore store, CustomerCriteria criteria) {
 		return customerRepository.listByStore(store,criteria);
 	}
+
+	@Override
+	public CustomerListPage listCustomerItems(MerchantStore store, CustomerCriteria criteria) {
+		Validate.notNull(store, "Store cannot be null");
+		Validate.notNull(criteria, "CustomerCriteria cannot be null");
+		Validate.isTrue(criteria.getPageSize() > 0, "Page size must be greater than 0");
+
+		int pageSize = criteria.getPageSize();
+		List<CustomerListItem> items = new ArrayList<CustomerListItem>(customerRepository.listCustomerItems(store, criteria));
+
+		CustomerListPage page = new CustomerListPage();
+		if (items.size() > pageSize) {
+			items = new ArrayList<CustomerListItem>(items.subList(0, pageSize));
+			page.setNextId(items.get(items.size() - 1).getId());
+		}
+		page.setItems(items);
+
+		if (criteria.isApproximateCount()) {
+			page.setTotalCount(approximateCount(store, criteria));
+			page.setApproximateCount(true);
+		} else {
+			page.setTotalCount(customerRepository.countCustomers(store, criteria));
+		}
+		page.setTotalPages((int) Math.ceil((double) page.getTotalCount() / pageSize));
+
+		return page;
+	}
+
+	/**
+	 * Count of customers kept in the object cache for the duration of the
+	 * cache entry. Avoids a full count of the customers of a merchant for
+	 * every page
+	 */
+	private long approximateCount(MerchantStore store, CustomerCriteria criteria) {
+		String key = new StringBuilder().append(store.getId()).append(CUSTOMER_COUNT_CACHE_KEY)
+				.append(criteria.getName()).append("_").append(criteria.getFirstName()).append("_")
+				.append(criteria.getLastName()).append("_").append(criteria.getEmail()).append("_")
+				.append(criteria.getCountry()).toString();
+		try {
+			Long count = (Long) cache.getFromCache(key);
+			if (count == null) {
+				count = customerRepository.countCustomers(store, criteria);
+				cache.putInCache(count, key);
+			}
+			return count;
+		} catch (Exception e) {
+			LOGGER.error("Cannot get customer count from cache", e);
+			return customerRepository.countCustomers(store, criteria);
+		}
+	}
 	
 	@Override
 	public Address getCustomerAddress(MerchantStore store, String ipAddress) throws ServiceException {
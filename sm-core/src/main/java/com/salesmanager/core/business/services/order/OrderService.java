@@ -1,8 +1,10 @@
 package com.salesmanager.core.business.services.order;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityService;
@@ -11,6 +13,7 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.OrderListPage;
 import com.salesmanager.core.model.order.OrderSummary;
 import com.salesmanager.core.model.order.OrderTotalSummary;
 import com.salesmanager.core.model.order.orderstatus.OrderStatusHistory;
@@ -76,6 +79,28 @@ public interface OrderService extends SalesManagerEntityService<Long, Order> {
     ByteArrayOutputStream generateInvoice(MerchantStore store, Order order,
                                           Language language) throws ServiceException;
 
+    /**
+     * Writes the invoice of an order to the stream, the stream is not closed
+     * @param store
+     * @param order
+     * @param language
+     * @param out
+     * @throws ServiceException
+     */
+    void writeInvoice(MerchantStore store, Order order, Language language, OutputStream out) throws ServiceException;
+
+    /**
+     * Writes the invoices of all orders matching the criteria to a single zip
+     * stream. Orders are read in chunks as for an export
+     * @param store
+     * @param criteria
+     * @param language
+     * @param out
+     * @return number of invoices
+     * @throws ServiceException
+     */
+    long writeInvoices(MerchantStore store, OrderCriteria criteria, Language language, OutputStream out) throws ServiceException;
+
     Order getOrder(Long id, MerchantStore store);
 
     
@@ -95,6 +120,29 @@ public interface OrderService extends SalesManagerEntityService<Long, Order> {
 	 */
 	OrderList getOrders(OrderCriteria criteria, MerchantStore store);
 
+	/**
+	 * Lists order summaries using keyset pagination on date purchased and id.
+	 * Line items are loaded only for the orders of the page. When the criteria
+	 * asks for an approximate count the total is served from cache
+	 * @param store
+	 * @param criteria
+	 * @return
+	 */
+	OrderListPage listOrderItems(MerchantStore store, OrderCriteria criteria);
+
+	/**
+	 * Streams all orders matching the criteria, with their products, totals,
+	 * attributes and status history, to the consumer by ascending date
+	 * purchased. Orders are read in chunks within a read only transaction
+	 * and are detached once consumed so memory does not grow with the
+	 * size of the export
+	 * @param store
+	 * @param criteria
+	 * @param consumer
+	 * @return number of orders exported
+	 */
+	long exportOrders(MerchantStore store, OrderCriteria criteria, Consumer<Order> consumer);
+
     void saveOrUpdate(Order order) throws ServiceException;
 
 	Order processOrder(Order order, Customer customer,
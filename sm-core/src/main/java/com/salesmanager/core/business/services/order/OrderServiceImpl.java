@@ -1,6 +1,9 @@
 package com.salesmanager.core.business.services.order;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
@@ -14,6 +17,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -23,12 +27,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.modules.order.InvoiceModule;
 import com.salesmanager.core.business.repositories.order.OrderRepository;
+import com.salesmanager.core.business.repositories.order.orderproduct.OrderProductRepository;
 import com.salesmanager.core.business.services.catalog.product.ProductService;
 import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
 import com.salesmanager.core.business.services.customer.CustomerService;
@@ -38,6 +48,7 @@ import com.salesmanager.core.business.services.payments.TransactionService;
 import com.salesmanager.core.business.services.shipping.ShippingService;
 import com.salesmanager.core.business.services.shoppingcart.ShoppingCartService;
 import com.salesmanager.core.business.services.tax.TaxService;
+import com.salesmanager.core.business.utils.CacheUtils;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
 import com.salesmanager.core.model.catalog.product.price.FinalPrice;
@@ -47,6 +58,8 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.OrderListItem;
+import com.salesmanager.core.model.order.OrderListPage;
 import com.salesmanager.core.model.order.OrderSummary;
 import com.salesmanager.core.model.order.OrderSummaryType;
 import com.salesmanager.core.model.order.OrderTotal;
@@ -98,8 +111,31 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     @Inject
     private OrderTotalService orderTotalService;
 
+    @Inject
+    private OrderProductRepository orderProductRepository;
+
+    @Inject
+    private CacheUtils cache;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Rows fetched per round trip by the export cursor
+     */
+    @Value("${order.export.fetchSize:500}")
+    private int exportFetchSize;
+
+    /**
+     * Orders loaded with their details per export chunk
+     */
+    @Value("${order.export.chunkSize:100}")
+    private int exportChunkSize;
+
     private final OrderRepository orderRepository;
 
+    private final static String ORDER_COUNT_CACHE_KEY = "_ORDER_COUNT_";
+
     @Inject
     public OrderServiceImpl(OrderRepository orderRepository) {
         super(orderRepository);
@@ -143,7 +179,8 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     	}
 
 
-    	//first process payment
+    	//first process payment, processOrder does not run in a transaction
+    	//so no connection is held while waiting for the payment gateway
     	Transaction processTransaction = paymentService.processPayment(customer, store, payment, items, order);
 
     	if(order.getOrderHistory()==null || order.getOrderHistory().size()==0 || order.getStatus()==null) {
@@ -162,6 +199,31 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
 
     	}
 
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            saveOrder(order, customer, transaction, processTransaction);
+            transactionManager.commit(status);
+        } catch(ServiceException | RuntimeException e) {
+            if(!status.isCompleted()) {
+                transactionManager.rollback(status);
+            }
+            if(processTransaction!=null && processTransaction.getId()!=null) {
+                LOGGER.error("Order of payment transaction [" + processTransaction.getId()
+                    + "] was not saved, reconcile the payment with the payment gateway", e);
+            }
+            throw e;
+        }
+
+    	return order;
+    }
+
+    /**
+     * Saves the order with its customer and transactions in a single
+     * transaction, the payment transaction is attached to the order
+     * only if the order is saved
+     */
+    private void saveOrder(Order order, Customer customer, Transaction transaction, Transaction processTransaction) throws ServiceException {
+
         if(customer.getId()==null || customer.getId()==0) {
           customerService.create(customer);
         }
@@ -188,8 +250,6 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
     	}
         // decrement inventory
         updateInventory(order);
-
-    	return order;
     }
 
     /**
@@ -546,6 +606,46 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
 
     }
 
+    @Override
+    public void writeInvoice(final MerchantStore store, final Order order, final Language language, final OutputStream out) throws ServiceException {
+
+        Validate.notNull(order.getOrderProducts(),"Order products cannot be null");
+        Validate.notNull(order.getOrderTotal(),"Order totals cannot be null");
+
+        try {
+            invoiceModule.writeInvoice(store, order, language, out);
+        } catch(Exception e) {
+            throw new ServiceException(e);
+        }
+    }
+
+    @Override
+    public long writeInvoices(final MerchantStore store, final OrderCriteria criteria, final Language language, final OutputStream out) throws ServiceException {
+        Validate.notNull(store, "Store cannot be null");
+        Validate.notNull(criteria, "OrderCriteria cannot be null");
+
+        try {
+            InvoiceModule.Batch batch = invoiceModule.newBatch(store, language, out);
+            long count = exportOrders(store, criteria, order -> {
+                try {
+                    batch.add(order);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Cannot create invoice of order [" + order.getId() + "]", e);
+                }
+            });
+            batch.finish();
+            return count;
+        } catch (UncheckedIOException e) {
+            throw new ServiceException(e.getCause());
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException(e);
+        }
+    }
+
     @Override
     public Order getOrder(final Long orderId, MerchantStore store ) {
     	Validate.notNull(orderId, "Order id cannot be null");
@@ -565,6 +665,83 @@ public class OrderServiceImpl  extends SalesManagerEntityServiceImpl<Long, Order
         return orderRepository.listOrders(store, criteria);
     }
 
+    @Override
+    public OrderListPage listOrderItems(final MerchantStore store, final OrderCriteria criteria) {
+        Validate.notNull(store, "Store cannot be null");
+        Validate.notNull(criteria, "OrderCriteria cannot be null");
+        Validate.isTrue(criteria.getPageSize() > 0, "Page size must be greater than 0");
+
+        int pageSize = criteria.getPageSize();
+        List<OrderListItem> items = new ArrayList<OrderListItem>(orderRepository.listOrderItems(store, criteria));
+
+        OrderListPage page = new OrderListPage();
+        if (items.size() > pageSize) {
+            items = new ArrayList<OrderListItem>(items.subList(0, pageSize));
+            OrderListItem last = items.get(items.size() - 1);
+            page.setNextDatePurchased(last.getDatePurchased());
+            page.setNextId(last.getId());
+        }
+
+        if (!items.isEmpty()) {
+            Map<Long, OrderListItem> itemsById = new HashMap<Long, OrderListItem>();
+            for (OrderListItem item : items) {
+                itemsById.put(item.getId(), item);
+            }
+            for (OrderProduct orderProduct : orderProductRepository.findByOrderIds(itemsById.keySet())) {
+                itemsById.get(orderProduct.getOrder().getId()).getOrderProducts().add(orderProduct);
+            }
+        }
+        page.setItems(items);
+
+        if (criteria.isApproximateCount()) {
+            page.setTotalCount(approximateCount(store, criteria));
+            page.setApproximateCount(true);
+        } else {
+            page.setTotalCount(orderRepository.countOrders(store, criteria));
+        }
+        page.setTotalPages((int) Math.ceil((double) page.getTotalCount() / pageSize));
+
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(final MerchantStore store, final OrderCriteria criteria, final Consumer<Order> consumer) {
+        Validate.notNull(store, "Store cannot be null");
+        Validate.notNull(criteria, "OrderCriteria cannot be null");
+        Validate.notNull(consumer, "Consumer cannot be null");
+
+        long start = System.currentTimeMillis();
+        long count = orderRepository.exportOrders(store, criteria, exportFetchSize, exportChunkSize, consumer);
+        LOGGER.info("Exported " + count + " orders for store [" + store.getCode() + "] in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return count;
+    }
+
+    /**
+     * Count of orders kept in the object cache for the duration of the cache
+     * entry. Avoids a full count of the orders of a merchant for every page
+     */
+    private long approximateCount(MerchantStore store, OrderCriteria criteria) {
+        String key = new StringBuilder().append(store.getId()).append(ORDER_COUNT_CACHE_KEY)
+                .append(criteria.getCustomerId()).append("_").append(criteria.getId()).append("_")
+                .append(criteria.getCustomerName()).append("_").append(criteria.getEmail()).append("_")
+                .append(criteria.getCustomerPhone()).append("_").append(criteria.getPaymentMethod()).append("_")
+                .append(criteria.getStatus()).append("_").append(criteria.getStartDate()).append("_")
+                .append(criteria.getEndDate()).toString();
+        try {
+            Long count = (Long) cache.getFromCache(key);
+            if (count == null) {
+                count = orderRepository.countOrders(store, criteria);
+                cache.putInCache(count, key);
+            }
+            return count;
+        } catch (Exception e) {
+            LOGGER.error("Cannot get order count from cache", e);
+            return orderRepository.countOrders(store, criteria);
+        }
+    }
+
 
     @Override
     public void saveOrUpdate(final Order order) throws ServiceException {
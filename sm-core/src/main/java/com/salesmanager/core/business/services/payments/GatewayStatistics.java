@@ -0,0 +1,110 @@
+package com.salesmanager.core.business.services.payments;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the calls made to a payment module
+ */
+public class GatewayStatistics {
+
+	/**
+	 * Result of a gateway call
+	 */
+	public enum Outcome {
+		/** call completed **/
+		SUCCESS,
+		/** gateway refused the payment (declined card, validation) **/
+		DECLINED,
+		/** technical failure (connection, unexpected error) **/
+		ERROR,
+		/** deadline exceeded **/
+		TIMEOUT,
+		/** too many concurrent calls **/
+		REJECTED,
+		/** not attempted, circuit open **/
+		SHORT_CIRCUITED
+	}
+
+	public enum CircuitState {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private String module;
+	private CircuitState circuitState;
+	private int inFlight;
+	private long count;
+	private long totalTime;
+	private long maxTime;
+	private Map<Outcome, Long> outcomes = new LinkedHashMap<Outcome, Long>();
+	/**
+	 * Number of calls per latency bucket, keyed by bucket upper bound
+	 * in milliseconds (le) with +Inf for the slowest calls
+	 */
+	private Map<String, Long> latency = new LinkedHashMap<String, Long>();
+
+	public String getModule() {
+		return module;
+	}
+
+	public void setModule(String module) {
+		this.module = module;
+	}
+
+	public CircuitState getCircuitState() {
+		return circuitState;
+	}
+
+	public void setCircuitState(CircuitState circuitState) {
+		this.circuitState = circuitState;
+	}
+
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	public void setInFlight(int inFlight) {
+		this.inFlight = inFlight;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	public void setTotalTime(long totalTime) {
+		this.totalTime = totalTime;
+	}
+
+	public long getMaxTime() {
+		return maxTime;
+	}
+
+	public void setMaxTime(long maxTime) {
+		this.maxTime = maxTime;
+	}
+
+	public Map<Outcome, Long> getOutcomes() {
+		return outcomes;
+	}
+
+	public void setOutcomes(Map<Outcome, Long> outcomes) {
+		this.outcomes = outcomes;
+	}
+
+	public Map<String, Long> getLatency() {
+		return latency;
+	}
+
+	public void setLatency(Map<String, Long> latency) {
+		this.latency = latency;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.salesmanager.core.business.services.payments;
+
+import java.util.List;
+
+import com.salesmanager.core.business.exception.ServiceException;
+
+/**
+ * Runs calls to remote payment gateways (PaymentModule) with per module
+ * bounded concurrency, a deadline and a circuit breaker so a slow or failing
+ * gateway cannot exhaust request threads
+ */
+public interface PaymentGatewayExecutor {
+
+	/**
+	 * A call to a payment gateway
+	 */
+	@FunctionalInterface
+	interface GatewayCall<T> {
+		T call() throws ServiceException;
+	}
+
+	/**
+	 * Executes a gateway call for a given payment module. Exceptions raised
+	 * by the module are rethrown as is. A ServiceException is thrown when the
+	 * module is saturated, when its circuit is open or when the call exceeds
+	 * its deadline (EXCEPTION_PAYMENT_TIMEOUT, the gateway may have processed
+	 * the call)
+	 * @param moduleCode payment module code (stripe, braintree...)
+	 * @param operation authorize, capture, refund...
+	 * @param call
+	 * @return
+	 * @throws ServiceException
+	 */
+	<T> T execute(String moduleCode, String operation, GatewayCall<T> call) throws ServiceException;
+
+	/**
+	 * Latency and outcome statistics of each payment module called since startup
+	 * @return
+	 */
+	List<GatewayStatistics> statistics();
+
+}
@@ -0,0 +1,358 @@
+package com.salesmanager.core.business.services.payments;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.salesmanager.core.business.configuration.executors.ExecutorsConfiguration;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.payments.GatewayStatistics.CircuitState;
+import com.salesmanager.core.business.services.payments.GatewayStatistics.Outcome;
+
+/**
+ * Each payment module gets its own bulkhead (a semaphore bounding the number
+ * of calls in flight), a deadline enforced by running the call on a gateway
+ * thread and a circuit breaker opened after consecutive technical failures.
+ * Declined payments are not failures of the gateway and do not open the
+ * circuit.
+ *
+ * Defaults are configured with payment.gateway.* and can be overridden for
+ * a given module with payment.gateway.[module code].*
+ */
+@Service("paymentGatewayExecutor")
+public class PaymentGatewayExecutorImpl implements PaymentGatewayExecutor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PaymentGatewayExecutorImpl.class);
+
+	private static final String PROPERTY_PREFIX = "payment.gateway.";
+
+	/**
+	 * Upper bounds (ms) of the latency histogram buckets
+	 */
+	private static final long[] LATENCY_BUCKETS = { 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+	@Inject
+	private Environment environment;
+
+	/**
+	 * Maximum duration (ms) of a gateway call
+	 */
+	@Value("${payment.gateway.timeout:30000}")
+	private long timeout;
+
+	/**
+	 * Maximum number of concurrent calls to a gateway
+	 */
+	@Value("${payment.gateway.maxConcurrent:20}")
+	private int maxConcurrent;
+
+	/**
+	 * Consecutive failures opening the circuit
+	 */
+	@Value("${payment.gateway.failureThreshold:5}")
+	private int failureThreshold;
+
+	/**
+	 * Time (ms) the circuit stays open before a trial call is let through
+	 */
+	@Value("${payment.gateway.openDuration:30000}")
+	private long openDuration;
+
+	private final Map<String, Gateway> gateways = new ConcurrentHashMap<String, Gateway>();
+
+	/**
+	 * Runs the gateway calls, concurrency is bounded per gateway by the
+	 * bulkheads
+	 */
+	@Inject
+	@Qualifier(ExecutorsConfiguration.PAYMENT_EXECUTOR)
+	private AsyncTaskExecutor executor;
+
+	@Override
+	public <T> T execute(String moduleCode, String operation, GatewayCall<T> call) throws ServiceException {
+		Validate.notNull(moduleCode, "Module code cannot be null");
+		Validate.notNull(call, "GatewayCall cannot be null");
+
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			LOGGER.warn("Payment module [" + moduleCode + "] " + operation
+					+ " called within a database transaction");
+		}
+
+		Gateway gateway = gateways.computeIfAbsent(moduleCode, Gateway::new);
+
+		if (!gateway.allowRequest()) {
+			gateway.record(Outcome.SHORT_CIRCUITED, 0);
+			throw new ServiceException(ServiceException.EXCEPTION_ERROR,
+					"Payment module [" + moduleCode + "] is unavailable", "message.payment.error");
+		}
+
+		if (!gateway.permits.tryAcquire()) {
+			gateway.abandonTrial();
+			gateway.record(Outcome.REJECTED, 0);
+			throw new ServiceException(ServiceException.EXCEPTION_ERROR,
+					"Payment module [" + moduleCode + "] has too many calls in progress", "message.payment.error");
+		}
+
+		Attempt<T> attempt = new Attempt<T>(gateway, call);
+		long start = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(attempt);
+		} catch (RejectedExecutionException e) {
+			attempt.release();
+			gateway.abandonTrial();
+			throw new ServiceException(ServiceException.EXCEPTION_ERROR,
+					"Payment module [" + moduleCode + "] cannot be called", "message.payment.error");
+		}
+
+		try {
+			T result = future.get(gateway.timeout, TimeUnit.MILLISECONDS);
+			gateway.record(Outcome.SUCCESS, elapsed(start));
+			return result;
+		} catch (TimeoutException e) {
+			cancel(future, attempt);
+			gateway.record(Outcome.TIMEOUT, elapsed(start));
+			LOGGER.warn("Payment module [" + moduleCode + "] " + operation + " timed out after " + gateway.timeout
+					+ " ms");
+			throw new ServiceException(ServiceException.EXCEPTION_PAYMENT_TIMEOUT, "Payment module [" + moduleCode + "] "
+					+ operation + " timed out after " + gateway.timeout + " ms", "message.payment.error");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel(future, attempt);
+			gateway.abandonTrial();
+			throw new ServiceException(ServiceException.EXCEPTION_PAYMENT_TIMEOUT,
+					"Interrupted while calling payment module [" + moduleCode + "]", "message.payment.error");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			gateway.record(outcome(cause), elapsed(start));
+			if (cause instanceof ServiceException) {
+				throw (ServiceException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ServiceException(cause);
+		}
+	}
+
+	@Override
+	public List<GatewayStatistics> statistics() {
+		List<GatewayStatistics> statistics = new ArrayList<GatewayStatistics>();
+		for (Gateway gateway : gateways.values()) {
+			statistics.add(gateway.statistics());
+		}
+		statistics.sort((s1, s2) -> s1.getModule().compareTo(s2.getModule()));
+		return statistics;
+	}
+
+	/**
+	 * Exceptions raised by the payment module itself are payment refusals
+	 * unless caused by an I/O problem
+	 */
+	private Outcome outcome(Throwable t) {
+		if (!(t instanceof ServiceException)) {
+			return Outcome.ERROR;
+		}
+		for (Throwable cause = t.getCause(); cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+			if (cause instanceof IOException) {
+				return Outcome.ERROR;
+			}
+		}
+		return Outcome.DECLINED;
+	}
+
+	private void cancel(Future<?> future, Attempt<?> attempt) {
+		//a call which never started has to give back its permit,
+		//a running call keeps it until the module returns
+		if (future.cancel(true) && !attempt.started.get()) {
+			attempt.release();
+		}
+	}
+
+	private long elapsed(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private long property(String moduleCode, String name, long defaultValue) {
+		return environment.getProperty(PROPERTY_PREFIX + moduleCode + "." + name, Long.class, defaultValue);
+	}
+
+	/**
+	 * Gateway call holding a bulkhead permit until the module returns
+	 */
+	private static class Attempt<T> implements Callable<T> {
+
+		private final Gateway gateway;
+		private final GatewayCall<T> call;
+		private final AtomicBoolean started = new AtomicBoolean();
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		Attempt(Gateway gateway, GatewayCall<T> call) {
+			this.gateway = gateway;
+			this.call = call;
+		}
+
+		@Override
+		public T call() throws Exception {
+			started.set(true);
+			try {
+				return call.call();
+			} finally {
+				release();
+			}
+		}
+
+		void release() {
+			if (released.compareAndSet(false, true)) {
+				gateway.permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Bulkhead, circuit and statistics of a payment module
+	 */
+	private class Gateway {
+
+		private final String module;
+		private final long timeout;
+		private final int capacity;
+		private final Semaphore permits;
+
+		private CircuitState state = CircuitState.CLOSED;
+		private int failures = 0;
+		private long openedAt = 0;
+		private boolean trial = false;
+
+		private final Map<Outcome, LongAdder> outcomes = new ConcurrentHashMap<Outcome, LongAdder>();
+		private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS.length + 1];
+		private final LongAdder totalTime = new LongAdder();
+		private final LongAccumulator maxTime = new LongAccumulator(Long::max, 0);
+
+		Gateway(String module) {
+			this.module = module;
+			this.timeout = property(module, "timeout", PaymentGatewayExecutorImpl.this.timeout);
+			this.capacity = (int) property(module, "maxConcurrent", maxConcurrent);
+			this.permits = new Semaphore(capacity);
+			for (Outcome outcome : Outcome.values()) {
+				outcomes.put(outcome, new LongAdder());
+			}
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		synchronized boolean allowRequest() {
+			if (state == CircuitState.CLOSED) {
+				return true;
+			}
+			if (state == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= openDuration) {
+				state = CircuitState.HALF_OPEN;
+			}
+			if (state == CircuitState.HALF_OPEN && !trial) {
+				//let a single call test the gateway
+				trial = true;
+				return true;
+			}
+			return false;
+		}
+
+		synchronized void abandonTrial() {
+			trial = false;
+		}
+
+		void record(Outcome outcome, long time) {
+			outcomes.get(outcome).increment();
+			if (outcome == Outcome.SHORT_CIRCUITED || outcome == Outcome.REJECTED) {
+				return;
+			}
+
+			int bucket = 0;
+			while (bucket < LATENCY_BUCKETS.length && time > LATENCY_BUCKETS[bucket]) {
+				bucket++;
+			}
+			buckets[bucket].increment();
+			totalTime.add(time);
+			maxTime.accumulate(time);
+
+			if (outcome == Outcome.ERROR || outcome == Outcome.TIMEOUT) {
+				failure();
+			} else {
+				success();
+			}
+		}
+
+		private synchronized void success() {
+			if (state != CircuitState.CLOSED) {
+				LOGGER.info("Payment module [" + module + "] circuit closed");
+			}
+			state = CircuitState.CLOSED;
+			failures = 0;
+			trial = false;
+		}
+
+		private synchronized void failure() {
+			failures++;
+			if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && failures >= failureThreshold)) {
+				LOGGER.warn("Payment module [" + module + "] circuit opened after " + failures
+						+ " consecutive failures");
+				state = CircuitState.OPEN;
+				openedAt = System.currentTimeMillis();
+			}
+			trial = false;
+		}
+
+		synchronized CircuitState state() {
+			return state;
+		}
+
+		GatewayStatistics statistics() {
+			GatewayStatistics statistics = new GatewayStatistics();
+			statistics.setModule(module);
+			statistics.setCircuitState(state());
+			statistics.setInFlight(capacity - permits.availablePermits());
+			long count = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				long value = buckets[i].sum();
+				count += value;
+				statistics.getLatency().put(i < LATENCY_BUCKETS.length ? String.valueOf(LATENCY_BUCKETS[i]) : "+Inf",
+						value);
+			}
+			statistics.setCount(count);
+			statistics.setTotalTime(totalTime.sum());
+			statistics.setMaxTime(maxTime.get());
+			for (Outcome outcome : Outcome.values()) {
+				statistics.getOutcomes().put(outcome, outcomes.get(outcome).sum());
+			}
+			return statistics;
+		}
+	}
+
+}
@@ -18,6 +18,9 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
@@ -56,6 +59,11 @@ public class PaymentServiceImpl implements PaymentService {
 	
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(PaymentServiceImpl.class);
+
+	/** transaction details entries of a payment sent to the gateway that is not completed **/
+	private static final String PAYMENT_STATUS = "PAYMENT_STATUS";
+	private static final String PAYMENT_STATUS_PENDING = "PENDING";
+	private static final String PAYMENT_ORDER = "PAYMENT_ORDER";
 	
 
 	@Inject
@@ -85,6 +93,12 @@ public class PaymentServiceImpl implements PaymentService {
 	
 	@Inject
 	private Encryption encryption;
+
+	@Inject
+	private PaymentGatewayExecutor paymentGatewayExecutor;
+
+	@Inject
+	private PlatformTransactionManager transactionManager;
 	
 	@Override
 	public List<IntegrationModule> getPaymentMethods(MerchantStore store) throws ServiceException {
@@ -395,18 +409,35 @@ public class InitTransaction implements TransactionStrategy {
 			}
 		}
 		
+		Transaction pending = null;
+		if(transactionType != TransactionType.INIT) {
+			pending = pending(amount, payment.getPaymentType(), transactionType, null);
+		}
+
 		Transaction transaction = null;
-		if(transactionType == TransactionType.AUTHORIZE)  {
-			transaction = module.authorize(store, customer, items, amount, payment, configuration, integrationModule);
-		} else if(transactionType == TransactionType.AUTHORIZECAPTURE)  {
-			transaction = module.authorizeAndCapture(store, customer, items, amount, payment, configuration, integrationModule);
-		} else if(transactionType == TransactionType.INIT)  {
-			transaction = module.initTransaction(store, customer, amount, payment, configuration, integrationModule);
+		try {
+			if(transactionType == TransactionType.AUTHORIZE)  {
+				transaction = paymentGatewayExecutor.execute(payment.getModuleName(), "authorize",
+						() -> module.authorize(store, customer, items, amount, payment, configuration, integrationModule));
+			} else if(transactionType == TransactionType.AUTHORIZECAPTURE)  {
+				transaction = paymentGatewayExecutor.execute(payment.getModuleName(), "authorizeAndCapture",
+						() -> module.authorizeAndCapture(store, customer, items, amount, payment, configuration, integrationModule));
+			} else if(transactionType == TransactionType.INIT)  {
+				transaction = paymentGatewayExecutor.execute(payment.getModuleName(), "initTransaction",
+						() -> module.initTransaction(store, customer, amount, payment, configuration, integrationModule));
+			}
+		} catch(ServiceException | RuntimeException e) {
+			if(pending != null) {
+				fail(pending, e);
+			}
+			throw e;
 		}
 
 
-		if(transactionType != TransactionType.INIT) {
-			transactionService.create(transaction);
+		//attached to the order when the order is saved
+		if(pending != null) {
+			transaction = complete(pending, transaction);
+			transactionService.update(transaction);
 		}
 		
 		if(transactionType == TransactionType.AUTHORIZECAPTURE)  {
@@ -422,6 +453,69 @@ public class InitTransaction implements TransactionStrategy {
 
 	}
 	
+	/**
+	 * Transaction committed before calling the gateway, a payment the gateway
+	 * accepts after our deadline leaves a pending transaction to reconcile.
+	 * It is not attached to an order until the gateway answers, order
+	 * transaction listings do not see it
+	 */
+	private Transaction pending(BigDecimal amount, PaymentType paymentType, TransactionType transactionType, Order order) throws ServiceException {
+		Transaction pending = new Transaction();
+		pending.setAmount(amount);
+		pending.setPaymentType(paymentType);
+		pending.setTransactionType(transactionType);
+		pending.setTransactionDate(new Date());
+		pending.getTransactionDetails().put(PAYMENT_STATUS, PAYMENT_STATUS_PENDING);
+		if(order != null && order.getId() != null) {
+			pending.getTransactionDetails().put(PAYMENT_ORDER, String.valueOf(order.getId()));
+		}
+		transactionService.create(pending);
+		return pending;
+	}
+
+	/**
+	 * Copies the gateway answer to the pending transaction
+	 */
+	private Transaction complete(Transaction pending, Transaction result) {
+		pending.setAmount(result.getAmount());
+		pending.setPaymentType(result.getPaymentType());
+		pending.setTransactionType(result.getTransactionType());
+		pending.setTransactionDate(result.getTransactionDate());
+		pending.setTransactionDetails(result.getTransactionDetails());
+		pending.setDetails(pending.toJSONString());
+		return pending;
+	}
+
+	/**
+	 * Removes the pending transaction of a payment the gateway refused. When
+	 * the gateway did not answer in time the payment may have gone through,
+	 * it stays pending and has to be reconciled with the gateway
+	 */
+	private void fail(Transaction pending, Exception e) {
+		if(e instanceof ServiceException
+				&& ((ServiceException)e).getExceptionType() == ServiceException.EXCEPTION_PAYMENT_TIMEOUT) {
+			LOGGER.error("Payment transaction [" + pending.getId() + "] outcome is unknown, reconcile it with the payment gateway", e);
+			return;
+		}
+		try {
+			transactionService.delete(pending);
+		} catch(ServiceException | RuntimeException de) {
+			LOGGER.error("Cannot remove pending payment transaction [" + pending.getId() + "]", de);
+		}
+	}
+
+	/**
+	 * Rolls back the order changes following a payment the gateway accepted,
+	 * the completed transaction stays without order and has to be reconciled
+	 */
+	private void rollback(TransactionStatus status, Transaction transaction, Exception e) {
+		if(!status.isCompleted()) {
+			transactionManager.rollback(status);
+		}
+		LOGGER.error("Order of payment transaction [" + transaction.getId()
+				+ "] was not updated, reconcile the payment with the payment gateway", e);
+	}
+
 	@Override
 	public PaymentModule getPaymentModule(String paymentModuleCode) throws ServiceException {
 		return paymentModules.get(paymentModuleCode);
@@ -472,23 +566,36 @@ public class InitTransaction implements TransactionStrategy {
 		if(trx==null) {
 			throw new ServiceException("No capturable transaction for order id " + order.getId());
 		}
-		Transaction transaction = module.capture(store, customer, order, trx, configuration, integrationModule);
-		transaction.setOrder(order);
-		
-		
+		Transaction pending = pending(trx.getAmount(), trx.getPaymentType(), TransactionType.CAPTURE, order);
+		Transaction transaction = null;
+		try {
+			transaction = paymentGatewayExecutor.execute(order.getPaymentModuleCode(), "capture",
+					() -> module.capture(store, customer, order, trx, configuration, integrationModule));
+		} catch(ServiceException | RuntimeException e) {
+			fail(pending, e);
+			throw e;
+		}
+		transaction = complete(pending, transaction);
 
-		transactionService.create(transaction);
-		
-		
-		OrderStatusHistory orderHistory = new OrderStatusHistory();
-		orderHistory.setOrder(order);
-		orderHistory.setStatus(OrderStatus.PROCESSED);
-		orderHistory.setDateAdded(new Date());
-		
-		orderManagementService.addOrderStatusHistory(order, orderHistory);
-		
-		order.setStatus(OrderStatus.PROCESSED);
-		orderManagementService.saveOrUpdate(order);
+		TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		try {
+			transaction.setOrder(order);
+			transactionService.update(transaction);
+
+			OrderStatusHistory orderHistory = new OrderStatusHistory();
+			orderHistory.setOrder(order);
+			orderHistory.setStatus(OrderStatus.PROCESSED);
+			orderHistory.setDateAdded(new Date());
+
+			orderManagementService.addOrderStatusHistory(order, orderHistory);
+
+			order.setStatus(OrderStatus.PROCESSED);
+			orderManagementService.saveOrUpdate(order);
+			transactionManager.commit(status);
+		} catch(ServiceException | RuntimeException e) {
+			rollback(status, transaction, e);
+			throw e;
+		}
 
 		return transaction;
 
@@ -548,10 +655,34 @@ public class InitTransaction implements TransactionStrategy {
 			throw new ServiceException("No refundable transaction for this order");
 		}
 		
-		Transaction transaction = paymentModule.refund(partial, store, refundable, order, amount, configuration, integrationModule);
-		transaction.setOrder(order);
-		transactionService.create(transaction);
-		
+		final boolean partialRefund = partial;
+		Transaction pending = pending(amount, refundable.getPaymentType(), TransactionType.REFUND, order);
+		Transaction transaction = null;
+		try {
+			transaction = paymentGatewayExecutor.execute(module, "refund",
+					() -> paymentModule.refund(partialRefund, store, refundable, order, amount, configuration, integrationModule));
+		} catch(ServiceException | RuntimeException e) {
+			fail(pending, e);
+			throw e;
+		}
+		transaction = complete(pending, transaction);
+
+		TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		try {
+			transaction.setOrder(order);
+			transactionService.update(transaction);
+			saveRefund(order, amount);
+			transactionManager.commit(status);
+		} catch(ServiceException | RuntimeException e) {
+			rollback(status, transaction, e);
+			throw e;
+		}
+
+		return transaction;
+	}
+
+	private void saveRefund(Order order, BigDecimal amount) throws ServiceException {
+
         OrderTotal refund = new OrderTotal();
         refund.setModule(Constants.OT_REFUND_MODULE_CODE);
         refund.setText(Constants.OT_REFUND_MODULE_CODE);
@@ -565,7 +696,7 @@ public class InitTransaction implements TransactionStrategy {
         order.getOrderTotal().add(refund);
         
 		//update order total
-		orderTotal = orderTotal.subtract(amount);
+		BigDecimal orderTotal = order.getTotal().subtract(amount);
         
         //update ordertotal refund
         Set<OrderTotal> totals = order.getOrderTotal();
@@ -589,8 +720,6 @@ public class InitTransaction implements TransactionStrategy {
         order.getOrderHistory().add(orderHistory);
         
         orderManagementService.saveOrUpdate(order);
-
-		return transaction;
 	}
 	
 	@Override
@@ -758,7 +887,8 @@ public class InitTransaction implements TransactionStrategy {
 		
 		IntegrationModule integrationModule = getPaymentMethodByCode(store,payment.getModuleName());
 
-		return module.initTransaction(store, customer, amount, payment, configuration, integrationModule);
+		return paymentGatewayExecutor.execute(order.getPaymentModuleCode(), "initTransaction",
+				() -> module.initTransaction(store, customer, amount, payment, configuration, integrationModule));
 	}
 
 	@Override
@@ -796,7 +926,8 @@ public class InitTransaction implements TransactionStrategy {
 		
 		IntegrationModule integrationModule = getPaymentMethodByCode(store,payment.getModuleName());
 		
-		Transaction transaction = module.initTransaction(store, customer, amount, payment, configuration, integrationModule);
+		Transaction transaction = paymentGatewayExecutor.execute(payment.getModuleName(), "initTransaction",
+				() -> module.initTransaction(store, customer, amount, payment, configuration, integrationModule));
 		
 		transactionService.save(transaction);
 
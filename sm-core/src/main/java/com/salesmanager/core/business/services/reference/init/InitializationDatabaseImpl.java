@@ -6,11 +6,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StopWatch;
+import com.salesmanager.core.business.configuration.executors.ExecutorsConfiguration;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.catalog.product.manufacturer.ManufacturerService;
 import com.salesmanager.core.business.services.catalog.product.type.ProductTypeService;
@@ -51,6 +57,9 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(InitializationDatabaseImpl.class);
 	
+	private static final String ZONES_FILE = "reference/zoneconfig.json";
+	private static final String MODULES_FILE = "reference/integrationmodules.json";
+	
 
 	@Inject
 	private ZoneService zoneService;
@@ -93,6 +102,10 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 	
 	@Inject
 	protected PermissionService   permissionService;
+	
+	@Inject
+	@Qualifier(ExecutorsConfiguration.REFERENCE_EXECUTOR)
+	private AsyncTaskExecutor referenceExecutor;
 
 	private String name;
 	
@@ -100,22 +113,63 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 		return languageService.count() == 0;
 	}
 	
+	/**
+	 * Reference files are read on other threads while groups, languages and
+	 * countries are created. Entities of a kind are saved together and
+	 * flushed in jdbc batches, the time of each step is logged
+	 */
 	@Transactional
 	public void populate(String contextName) throws ServiceException {
 		this.name =  contextName;
 		
-		createSecurityGroups();
-		createLanguages();
-		createCountries();
-		createZones();
-		createCurrencies();
-		createSubReferences();
-		createModules();
-		createMerchant();
-
+		StopWatch timings = new StopWatch(String.format("%s : reference data", name));
+		Future<Map<String, Object>> zones = referenceExecutor.submit(() -> zonesLoader.readZones(ZONES_FILE));
+		Future<Map<String, Map<String, Object>>> individualZones = referenceExecutor.submit(zonesLoader::readIndividualZones);
+		Future<List<IntegrationModule>> modules = referenceExecutor.submit(() -> modulesLoader.loadIntegrationModules(MODULES_FILE));
+		try {
+			
+			time(timings, "security groups", this::createSecurityGroups);
+			time(timings, "languages", this::createLanguages);
+			time(timings, "countries", this::createCountries);
+			time(timings, "zones", () -> createZones(get(zones), get(individualZones)));
+			time(timings, "currencies", this::createCurrencies);
+			time(timings, "sub references", this::createSubReferences);
+			time(timings, "modules", () -> createModules(get(modules)));
+			time(timings, "merchant", this::createMerchant);
+		} finally {
+			zones.cancel(true);
+			individualZones.cancel(true);
+			modules.cancel(true);
+		}
+		
+		LOGGER.info(timings.prettyPrint());
 
 	}
 	
+	private interface Step {
+		void run() throws ServiceException;
+	}
+	
+	private void time(StopWatch timings, String step, Step task) throws ServiceException {
+		timings.start(step);
+		try {
+			task.run();
+		} finally {
+			timings.stop();
+		}
+	}
+	
+	private <T> T get(Future<T> file) throws ServiceException {
+		try {
+			return file.get();
+		} catch (ExecutionException e) {
+			throw new ServiceException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServiceException(e);
+		}
+	}
+	
 	private void createSecurityGroups() throws ServiceException {
 		
 		  //create permissions
@@ -245,76 +299,51 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 	private void createCurrencies() throws ServiceException {
 		LOGGER.info(String.format("%s : Populating Currencies ", name));
 
+		List<Currency> currencies = new ArrayList<Currency>();
 		for (String code : SchemaConstant.CURRENCY_MAP.keySet()) {
   
             try {
             	java.util.Currency c = java.util.Currency.getInstance(code);
             	
-            	if(c==null) {
-            		LOGGER.info(String.format("%s : Populating Currencies : no currency for code : %s", name, code));
-            	}
-            	
-            		//check if it exist
-            		
 	            	Currency currency = new Currency();
 	            	currency.setName(c.getCurrencyCode());
 	            	currency.setCurrency(c);
-	            	currencyService.create(currency);
+	            	currencies.add(currency);
 
-            //System.out.println(l.getCountry() + "   " + c.getSymbol() + "  " + c.getSymbol(l));
             } catch (IllegalArgumentException e) {
             	LOGGER.info(String.format("%s : Populating Currencies : no currency for code : %s", name, code));
             }
         }  
+		currencyService.saveAll(currencies);
 	}
 
 	private void createCountries() throws ServiceException {
 		LOGGER.info(String.format("%s : Populating Countries ", name));
 		List<Language> languages = languageService.list();
+		List<Country> countries = new ArrayList<Country>();
 		for(String code : SchemaConstant.COUNTRY_ISO_CODE) {
 			Locale locale = SchemaConstant.LOCALES.get(code);
 			if (locale != null) {
 				Country country = new Country(code);
-				countryService.create(country);
 				
 				for (Language language : languages) {
 					String name = locale.getDisplayCountry(new Locale(language.getCode()));
-					//byte[] ptext = value.getBytes(Constants.ISO_8859_1); 
-					//String name = new String(ptext, Constants.UTF_8); 
 					CountryDescription description = new CountryDescription(language, name);
-					countryService.addCountryDescription(country, description);
+					description.setCountry(country);
+					country.getDescriptions().add(description);
 				}
+				countries.add(country);
 			}
 		}
+		//descriptions are cascaded
+		countryService.saveAll(countries);
 	}
 	
-	private void createZones() throws ServiceException {
+	private void createZones(Map<String, Object> zones, Map<String, Map<String, Object>> individualZones) throws ServiceException {
 		LOGGER.info(String.format("%s : Populating Zones ", name));
         try {
 
-    		  Map<String,Zone> zonesMap = new HashMap<String,Zone>();
-    		  zonesMap = zonesLoader.loadZones("reference/zoneconfig.json");
-    		  
-    		  this.addZonesToDb(zonesMap);
-/*              
-              for (Map.Entry<String, Zone> entry : zonesMap.entrySet()) {
-            	    String key = entry.getKey();
-            	    Zone value = entry.getValue();
-            	    if(value.getDescriptions()==null) {
-            	    	LOGGER.warn("This zone " + key + " has no descriptions");
-            	    	continue;
-            	    }
-            	    
-            	    List<ZoneDescription> zoneDescriptions = value.getDescriptions();
-            	    value.setDescriptons(null);
-
-            	    zoneService.create(value);
-            	    
-            	    for(ZoneDescription description : zoneDescriptions) {
-            	    	description.setZone(value);
-            	    	zoneService.addDescription(value, description);
-            	    }
-              }*/
+    		  this.addZonesToDb(zonesLoader.loadZones(zones));
               
               //lookup additional zones
               //iterate configured languages
@@ -323,7 +352,7 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
               //load reference/zones/* (zone config for additional country)
               //example in.json and in-fr.son
               //will load es zones and use a specific file for french es zones
-      		  List<Map<String, Zone>> loadIndividualZones = zonesLoader.loadIndividualZones();
+      		  List<Map<String, Zone>> loadIndividualZones = zonesLoader.loadIndividualZones(individualZones);
       		  
       		loadIndividualZones.forEach(this::addZonesToDb);
 
@@ -339,6 +368,7 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 		
 		try {
 		
+			List<Zone> zones = new ArrayList<Zone>();
 	        for (Map.Entry<String, Zone> entry : zonesMap.entrySet()) {
 	    	    String key = entry.getKey();
 	    	    Zone value = entry.getValue();
@@ -348,16 +378,13 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 	    	    	continue;
 	    	    }
 	    	    
-	    	    List<ZoneDescription> zoneDescriptions = value.getDescriptions();
-	    	    value.setDescriptons(null);
-	
-	    	    zoneService.create(value);
-	    	    
-	    	    for(ZoneDescription description : zoneDescriptions) {
+	    	    for(ZoneDescription description : value.getDescriptions()) {
 	    	    	description.setZone(value);
-	    	    	zoneService.addDescription(value, description);
 	    	    }
+	    	    zones.add(value);
 	        }
+	        //descriptions are cascaded
+	        zoneService.saveAll(zones);
         
 		}catch(Exception e) {
 			LOGGER.error("An error occured while loading zones",e);
@@ -437,11 +464,10 @@ public class InitializationDatabaseImpl implements InitializationDatabase {
 		
 	}
 
-	private void createModules() throws ServiceException {
+	private void createModules(List<IntegrationModule> modules) throws ServiceException {
 		
 		try {
 			
-			List<IntegrationModule> modules = modulesLoader.loadIntegrationModules("reference/integrationmodules.json");
             for (IntegrationModule entry : modules) {
         	    moduleConfigurationService.create(entry);
           }
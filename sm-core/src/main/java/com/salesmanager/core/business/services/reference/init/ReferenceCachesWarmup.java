@@ -0,0 +1,100 @@
+package com.salesmanager.core.business.services.reference.init;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.executors.ExecutorsConfiguration;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.reference.country.CountryService;
+import com.salesmanager.core.business.services.reference.language.LanguageService;
+import com.salesmanager.core.business.services.reference.zone.ZoneService;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Loads the language registry then countries and zones of every language in
+ * the reference caches, on the reference executor once the context is
+ * refreshed so the first requests do not pay for it and startup does not
+ * wait for it
+ */
+@Component
+public class ReferenceCachesWarmup {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceCachesWarmup.class);
+
+	@Value("${config.reference.warmup:true}")
+	private boolean enabled;
+
+	@Inject
+	@Qualifier(ExecutorsConfiguration.REFERENCE_EXECUTOR)
+	private TaskExecutor executor;
+
+	@Inject
+	private LanguageService languageService;
+
+	@Inject
+	private CountryService countryService;
+
+	@Inject
+	private ZoneService zoneService;
+
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	@EventListener(ContextRefreshedEvent.class)
+	public void warmup() {
+		if (!enabled || !started.compareAndSet(false, true)) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		try {
+			CompletableFuture.supplyAsync(() -> call(languageService::getLanguages), executor)
+					.thenCompose(languages -> {
+						List<CompletableFuture<?>> caches = new ArrayList<CompletableFuture<?>>();
+						for (Language language : languages) {
+							caches.add(CompletableFuture.runAsync(() -> call(() -> countryService.getCountriesMap(language)), executor));
+							caches.add(CompletableFuture.runAsync(() -> call(() -> zoneService.getZones(language)), executor));
+						}
+						return CompletableFuture.allOf(caches.toArray(new CompletableFuture<?>[0]))
+								.thenApply(done -> languages.size());
+					})
+					.whenComplete((languages, e) -> {
+						if (e != null) {
+							LOGGER.warn("Reference caches warm up failed", e);
+						} else {
+							LOGGER.info(String.format("Reference caches of %d languages warmed up in %d ms", languages,
+									System.currentTimeMillis() - start));
+						}
+					});
+		} catch (TaskRejectedException e) {
+			//caches are loaded by the first requests
+			LOGGER.warn("Reference caches warm up rejected by the reference executor", e);
+		}
+	}
+
+	private interface Load<T> {
+		T get() throws ServiceException;
+	}
+
+	private static <T> T call(Load<T> load) {
+		try {
+			return load.get();
+		} catch (ServiceException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.salesmanager.core.business.services.reference.language;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import com.salesmanager.core.business.constants.Constants;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Immutable snapshot of the configured languages. Two letters iso codes are
+ * resolved from an array indexed by the code letters, other codes (not used
+ * by the default data) by scanning the languages
+ * @author c.samson
+ *
+ */
+public final class LanguageRegistry {
+
+	private static final int LETTERS = 26;
+
+	private final Language[] byCode = new Language[LETTERS * LETTERS];
+	private final Language[] languages;
+	private final List<Language> list;
+	private final Language defaultLanguage;
+
+	private LanguageRegistry(List<Language> languages) {
+		this.languages = languages.toArray(new Language[0]);
+		this.list = Collections.unmodifiableList(Arrays.asList(this.languages));
+		for(Language language : this.languages) {
+			int index = index(language.getCode());
+			if(index >= 0 && byCode[index] == null) {
+				byCode[index] = language;
+			}
+		}
+		this.defaultLanguage = get(Constants.DEFAULT_LANGUAGE);
+	}
+
+	public static LanguageRegistry of(List<Language> languages) {
+		return new LanguageRegistry(languages == null ? Collections.<Language>emptyList() : languages);
+	}
+
+	/**
+	 * Array index of a two letters code, case insensitive
+	 * @return index or -1 when the code is not two ascii letters
+	 */
+	static int index(String code) {
+		if(code == null || code.length() != 2) {
+			return -1;
+		}
+		int first = letter(code.charAt(0));
+		int second = letter(code.charAt(1));
+		if(first < 0 || second < 0) {
+			return -1;
+		}
+		return first * LETTERS + second;
+	}
+
+	private static int letter(char c) {
+		if(c >= 'a' && c <= 'z') {
+			return c - 'a';
+		}
+		if(c >= 'A' && c <= 'Z') {
+			return c - 'A';
+		}
+		return -1;
+	}
+
+	/**
+	 * @return language having this code or null
+	 */
+	public Language get(String code) {
+		int index = index(code);
+		if(index >= 0) {
+			return byCode[index];
+		}
+		if(code != null) {
+			for(Language language : languages) {
+				if(code.equals(language.getCode())) {
+					return language;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return language of the locale or null
+	 */
+	public Language get(Locale locale) {
+		return locale == null ? null : get(locale.getLanguage());
+	}
+
+	/**
+	 * @return default (english) language, null when not configured
+	 */
+	public Language getDefaultLanguage() {
+		return defaultLanguage;
+	}
+
+	public List<Language> getLanguages() {
+		return list;
+	}
+
+	public boolean isEmpty() {
+		return languages.length == 0;
+	}
+
+}
@@ -13,6 +13,12 @@ public interface LanguageService extends SalesManagerEntityService<Integer, Lang
 
 	Language getByCode(String code) throws ServiceException;
 
+	/**
+	 * Configured languages indexed by code, refreshed when languages
+	 * are saved or deleted
+	 */
+	LanguageRegistry getLanguageRegistry() throws ServiceException;
+
 	Map<String, Language> getLanguagesMap() throws ServiceException;
 
 	List<Language> getLanguages() throws ServiceException;
@@ -5,13 +5,17 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.salesmanager.core.business.cache.CacheInvalidation.Kind;
+import com.salesmanager.core.business.cache.CacheInvalidationBus;
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.repositories.reference.language.LanguageRepository;
@@ -32,9 +36,18 @@ public class LanguageServiceImpl extends SalesManagerEntityServiceImpl<Integer,
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(LanguageServiceImpl.class);
 	
+	private static final String LANGUAGES_CACHE_KEY = "LANGUAGES";
+	
 	@Inject
 	private CacheUtils cache;
 	
+	@Inject
+	private CacheInvalidationBus cacheInvalidationBus;
+	
+	/** loaded on first use, reset when languages are saved or deleted **/
+	private volatile LanguageRegistry registry;
+	private int registryVersion;
+	
 	private LanguageRepository languageRepository;
 	
 	@Inject
@@ -44,10 +57,81 @@ public class LanguageServiceImpl extends SalesManagerEntityServiceImpl<Integer,
 	}
 	
 	
+	@PostConstruct
+	public void init() {
+		//languages saved on another node
+		cacheInvalidationBus.register(Kind.SERVICE, invalidation -> {
+			if(invalidation.getKey() == null || LANGUAGES_CACHE_KEY.equals(invalidation.getKey())) {
+				resetRegistry();
+			}
+		});
+	}
+	
 	@Override
-	@Cacheable("languageByCode")
 	public Language getByCode(String code) throws ServiceException {
-		return languageRepository.findByCode(code);
+		return getLanguageRegistry().get(code);
+	}
+	
+	@Override
+	public LanguageRegistry getLanguageRegistry() throws ServiceException {
+		LanguageRegistry languages = registry;
+		if(languages == null) {
+			int version;
+			synchronized(this) {
+				version = registryVersion;
+			}
+			languages = LanguageRegistry.of(getLanguages());
+			synchronized(this) {
+				//not published if languages changed while loading
+				if(version == registryVersion) {
+					registry = languages;
+				}
+			}
+		}
+		return languages;
+	}
+	
+	private synchronized void resetRegistry() {
+		registryVersion++;
+		registry = null;
+	}
+	
+	@Override
+	public void save(Language language) throws ServiceException {
+		super.save(language);
+		invalidateLanguages();
+	}
+	
+	@Override
+	public void delete(Language language) throws ServiceException {
+		super.delete(language);
+		invalidateLanguages();
+	}
+	
+	/**
+	 * Reset now and again when the transaction completes, the registry
+	 * may have been reloaded from uncommitted languages
+	 */
+	private void invalidateLanguages() {
+		resetRegistry();
+		try {
+			cache.removeFromCache(LANGUAGES_CACHE_KEY);
+		} catch (Exception e) {
+			LOGGER.error("Cannot remove languages from cache", e);
+		}
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					resetRegistry();
+					try {
+						cache.removeFromCache(LANGUAGES_CACHE_KEY);
+					} catch (Exception e) {
+						LOGGER.error("Cannot remove languages from cache", e);
+					}
+				}
+			});
+		}
 	}
 	
 	@Override
@@ -69,7 +153,7 @@ public class LanguageServiceImpl extends SalesManagerEntityServiceImpl<Integer,
 	public Language toLanguage(Locale locale) {
 		Language language = null;
 		try {
-			language = getLanguagesMap().get(locale.getLanguage());
+			language = getLanguageRegistry().get(locale);
 		} catch (Exception e) {
 			LOGGER.error("Cannot convert locale " + locale.getLanguage() + " to language");
 		}
@@ -102,12 +186,12 @@ public class LanguageServiceImpl extends SalesManagerEntityServiceImpl<Integer,
 		List<Language> langs = null;
 		try {
 
-			langs = (List<Language>) cache.getFromCache("LANGUAGES");
+			langs = (List<Language>) cache.getFromCache(LANGUAGES_CACHE_KEY);
 			if(langs==null) {
 				langs = this.list();
 
 				
-				cache.putInCache(langs, "LANGUAGES");
+				cache.putInCache(langs, LANGUAGES_CACHE_KEY);
 			}
 
 		} catch (Exception e) {
@@ -53,39 +53,57 @@ public class ZonesLoader {
 
 	private static final String ALL_REGIONS = "*";
 
-	//
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	/** thread safe once configured, shared by all reads **/
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
 	public List<Map<String, Zone>> loadIndividualZones() throws Exception {
+		return loadIndividualZones(readIndividualZones());
+	}
 
-		List<Map<String, Zone>> loadedZones = new ArrayList<Map<String, Zone>>();
+	/**
+	 * Content of reference/zones/*.json by file name. Reading does not
+	 * need languages and countries, it can run while they are created
+	 * and the content mapped once they exist
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Map<String, Object>> readIndividualZones() throws ServiceException {
 		try {
+			Map<String, Map<String, Object>> files = new LinkedHashMap<String, Map<String, Object>>();
+			for (Resource resource : geZoneFiles(PATH)) {
+				try (InputStream in = resource.getInputStream()) {
+					files.put(resource.getFilename(), MAPPER.readValue(in, Map.class));
+				}
+			}
+			return files;
+		} catch (Exception e) {
+			throw new ServiceException(e);
+		}
+	}
 
-			List<Resource> files = geZoneFiles(PATH);
-			List<Language> languages = languageService.list();
+	/**
+	 * Zones of individual files, files of a country and of a language of that
+	 * country (in.json and in_fr.json) add descriptions to the same zones
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public List<Map<String, Zone>> loadIndividualZones(Map<String, Map<String, Object>> files) throws Exception {
 
-			ObjectMapper mapper = new ObjectMapper();
+		List<Map<String, Zone>> loadedZones = new ArrayList<Map<String, Zone>>();
+		try {
 
-			List<Country> countries = countryService.list();
-			Map<String, Country> countriesMap = new HashMap<String, Country>();
-			for (Country country : countries) {
-				countriesMap.put(country.getIsoCode(), country);
-			}
+			List<Language> languages = languageService.list();
+			Map<String, Country> countriesMap = countriesMap();
 
 			Map<String, Zone> zonesMap = new LinkedHashMap<String, Zone>();
 			Map<String, List<ZoneDescription>> zonesDescriptionsMap = new LinkedHashMap<String, List<ZoneDescription>>();
 			Map<String, String> zonesMark = new LinkedHashMap<String, String>();
 
 			// load files individually
-			for (Resource resource : files) {
-				InputStream in = resource.getInputStream();
-				if(in == null) {
-					continue;
-				}
-				Map<String, Object> data = mapper.readValue(in, Map.class);
+			for (Map.Entry<String, Map<String, Object>> file : files.entrySet()) {
+				Map<String, Object> data = file.getValue();
 				
-				if(resource.getFilename().contains("_")) {
+				if(file.getKey().contains("_")) {
 					for (Language l : languages) {
-						if (resource.getFilename().contains("_" + l.getCode())) {// lead for this
+						if (file.getKey().contains("_" + l.getCode())) {// lead for this
 							// language
 							List langList = (List) data.get(l.getCode());
 							if (langList != null) {
@@ -113,20 +131,20 @@ public class ZonesLoader {
 						}
 					}
 				}
-				
-				for (Map.Entry<String, Zone> entry : zonesMap.entrySet()) {
-					String key = entry.getKey();
-					Zone value = entry.getValue();
-
-					// get descriptions
-					List<ZoneDescription> descriptions = zonesDescriptionsMap.get(key);
-					if (descriptions != null) {
-						value.setDescriptons(descriptions);
-					}
-				}
+			}
+
+			for (Map.Entry<String, Zone> entry : zonesMap.entrySet()) {
+				String key = entry.getKey();
+				Zone value = entry.getValue();
 
-				loadedZones.add(zonesMap);
+				// get descriptions
+				List<ZoneDescription> descriptions = zonesDescriptionsMap.get(key);
+				if (descriptions != null) {
+					value.setDescriptons(descriptions);
+				}
 			}
+
+			loadedZones.add(zonesMap);
 			return loadedZones;
 
 		} catch (Exception e) {
@@ -135,32 +153,26 @@ public class ZonesLoader {
 
 	}
 
+	public Map<String, Zone> loadZones(String jsonFilePath) throws Exception {
+		return loadZones(readZones(jsonFilePath));
+	}
 
-	private InputStream loadFileContent(String fileName) throws Exception {
-		return this.getClass().getClassLoader().getResourceAsStream("classpath:/reference/zones/" + fileName);
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> readZones(String jsonFilePath) throws ServiceException {
+		try (InputStream in = this.getClass().getClassLoader().getResourceAsStream(jsonFilePath)) {
+			return MAPPER.readValue(in, Map.class);
+		} catch (Exception e) {
+			throw new ServiceException(e);
+		}
 	}
 
-	public Map<String, Zone> loadZones(String jsonFilePath) throws Exception {
+	public Map<String, Zone> loadZones(Map<String, Object> data) throws Exception {
 
 		List<Language> languages = languageService.list();
-
-		List<Country> countries = countryService.list();
-		Map<String, Country> countriesMap = new HashMap<String, Country>();
-		for (Country country : countries) {
-
-			countriesMap.put(country.getIsoCode(), country);
-
-		}
-
-		ObjectMapper mapper = new ObjectMapper();
+		Map<String, Country> countriesMap = countriesMap();
 
 		try {
 
-			InputStream in = this.getClass().getClassLoader().getResourceAsStream(jsonFilePath);
-
-			@SuppressWarnings("unchecked")
-			Map<String, Object> data = mapper.readValue(in, Map.class);
-
 			Map<String, Zone> zonesMap = new HashMap<String, Zone>();
 			Map<String, List<ZoneDescription>> zonesDescriptionsMap = new HashMap<String, List<ZoneDescription>>();
 			Map<String, String> zonesMark = new HashMap<String, String>();
@@ -201,6 +213,14 @@ public class ZonesLoader {
 
 	}
 
+	private Map<String, Country> countriesMap() throws ServiceException {
+		Map<String, Country> countriesMap = new HashMap<String, Country>();
+		for (Country country : countryService.list()) {
+			countriesMap.put(country.getIsoCode(), country);
+		}
+		return countriesMap;
+	}
+
 	// internal complex mapping stuff, don't try this at home ...
 	private void mapZone(Language l, Map<String, List<ZoneDescription>> zonesDescriptionsMap,
 			Map<String, Country> countriesMap, Map<String, Zone> zonesMap, Map<String, String> zonesMark,
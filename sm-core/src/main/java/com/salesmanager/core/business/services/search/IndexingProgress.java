@@ -0,0 +1,157 @@
+package com.salesmanager.core.business.services.search;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a full store reindex job
+ */
+public class IndexingProgress {
+
+	public enum Status {
+		RUNNING, COMPLETED, CANCELLED,
+		/** stopped by an error or a restart, can be resumed **/
+		INTERRUPTED
+	}
+
+	private final String store;
+	private final long total;
+	private final AtomicLong indexed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final Date startDate;
+	private volatile Date endDate;
+	private volatile Status status = Status.RUNNING;
+	private volatile boolean cancelRequested;
+	private volatile long lastId;
+
+	/** processed before this run, excluded from the throughput **/
+	private final long resumedAt;
+	private final long runStart = System.currentTimeMillis();
+
+	public IndexingProgress(String store, long total) {
+		this(store, total, 0, 0, 0, new Date());
+	}
+
+	/**
+	 * Job resumed from a checkpoint
+	 */
+	public IndexingProgress(String store, long total, long lastId, long indexed, long failed, Date startDate) {
+		this.store = store;
+		this.total = total;
+		this.lastId = lastId;
+		this.indexed.set(indexed);
+		this.failed.set(failed);
+		this.startDate = startDate;
+		this.resumedAt = indexed + failed;
+	}
+
+	void indexed(long count) {
+		indexed.addAndGet(count);
+	}
+
+	void failed(long count) {
+		failed.addAndGet(count);
+	}
+
+	void checkpoint(long lastId) {
+		this.lastId = lastId;
+	}
+
+	void complete(Status status) {
+		this.endDate = new Date();
+		this.status = status;
+	}
+
+	/**
+	 * Stops the job after the chunk being indexed
+	 */
+	public void cancel() {
+		cancelRequested = true;
+	}
+
+	public boolean isCancelRequested() {
+		return cancelRequested;
+	}
+
+	public String getStore() {
+		return store;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public long getIndexed() {
+		return indexed.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public long getProcessed() {
+		return indexed.get() + failed.get();
+	}
+
+	/**
+	 * @return last product id processed, a resumed job continues after it
+	 */
+	public long getLastId() {
+		return lastId;
+	}
+
+	/**
+	 * @return percentage of products processed [0-100]
+	 */
+	public int getPercentage() {
+		if(total == 0) {
+			return 100;
+		}
+		return (int) Math.min(getProcessed() * 100 / total, 100);
+	}
+
+	/**
+	 * @return products processed per second since the job was started or
+	 * resumed
+	 */
+	public double getThroughput() {
+		long end = endDate != null ? endDate.getTime() : System.currentTimeMillis();
+		long elapsed = end - runStart;
+		if (elapsed <= 0) {
+			return 0;
+		}
+		return (getProcessed() - resumedAt) * 1000d / elapsed;
+	}
+
+	/**
+	 * @return estimated end of a running job, null when not known yet
+	 */
+	public Date getEstimatedEndDate() {
+		if (!isRunning()) {
+			return endDate;
+		}
+		double throughput = getThroughput();
+		if (throughput <= 0) {
+			return null;
+		}
+		long remaining = Math.max(total - getProcessed(), 0);
+		return new Date(System.currentTimeMillis() + (long) (remaining * 1000 / throughput));
+	}
+
+	public Date getStartDate() {
+		return startDate;
+	}
+
+	public Date getEndDate() {
+		return endDate;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public boolean isRunning() {
+		return status == Status.RUNNING;
+	}
+
+}
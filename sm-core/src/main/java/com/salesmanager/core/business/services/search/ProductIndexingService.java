@@ -0,0 +1,77 @@
+package com.salesmanager.core.business.services.search;
+
+import java.util.List;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+
+/**
+ * Indexing pipeline sitting in front of {@link SearchService}. Index and delete
+ * requests are coalesced per product during a short window, products to be
+ * indexed are then loaded in one query and submitted in bulk to the search module
+ */
+public interface ProductIndexingService {
+	
+	/**
+	 * Requests a product to be indexed. Multiple requests for the same product
+	 * received during the coalescing window result in a single index operation
+	 * @param product
+	 */
+	void scheduleIndex(Product product);
+	
+	/**
+	 * Requests the documents of a product to be removed from the index
+	 * @param product
+	 */
+	void scheduleDelete(Product product);
+	
+	/**
+	 * Processes pending requests immediately
+	 */
+	void flush();
+	
+	/**
+	 * Starts a background reindex of all products of a store. Products are
+	 * read in chunks ordered by id and a checkpoint is saved after each chunk.
+	 * If a reindex is already running for the store the running job is returned
+	 * @param store
+	 * @return progress of the job
+	 */
+	IndexingProgress reindex(MerchantStore store);
+
+	/**
+	 * Continues a cancelled or interrupted reindex after the last checkpoint
+	 * @param store
+	 * @return progress of the job or null if there is no checkpoint
+	 * @throws ServiceException
+	 */
+	IndexingProgress resume(MerchantStore store) throws ServiceException;
+
+	/**
+	 * Stops the running reindex of a store after the current chunk, the job
+	 * can be resumed later
+	 * @param store
+	 * @return progress of the job or null if no job was started
+	 */
+	IndexingProgress cancel(MerchantStore store);
+
+	/**
+	 * Starts a background bulk index of a list of products of a store, used
+	 * after bulk changes that do not publish product events. The job is
+	 * queued behind any running reindex
+	 * @param store
+	 * @param productIds
+	 * @return progress of the job
+	 */
+	IndexingProgress index(MerchantStore store, List<Long> productIds);
+	
+	/**
+	 * Progress of the last reindex job started for a store, or of the job
+	 * interrupted by a restart
+	 * @param store
+	 * @return progress or null if no job was started
+	 */
+	IndexingProgress getProgress(MerchantStore store);
+
+}
@@ -0,0 +1,413 @@
+package com.salesmanager.core.business.services.search;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesmanager.core.business.configuration.executors.ExecutorsConfiguration;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.system.MerchantConfigurationService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.system.MerchantConfiguration;
+import com.salesmanager.core.model.system.MerchantConfigurationType;
+
+@Service("productIndexingService")
+public class ProductIndexingServiceImpl implements ProductIndexingService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductIndexingServiceImpl.class);
+
+	@Inject
+	private SearchService searchService;
+
+	@Inject
+	private ProductService productService;
+
+	@Inject
+	private MerchantConfigurationService merchantConfigurationService;
+
+	/**
+	 * Last product id of a full reindex, saved after each chunk
+	 */
+	private static final String REINDEX_CHECKPOINT = "SEARCH_REINDEX_CHECKPOINT";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	/**
+	 * Time during which requests for the same product are merged
+	 */
+	@Value("${search.index.coalesceWindow:500}")
+	private long coalesceWindow;
+
+	/**
+	 * Number of products loaded and submitted per bulk request
+	 */
+	@Value("${search.index.batchSize:100}")
+	private int batchSize;
+
+	/**
+	 * Pause between two batches of a full store reindex
+	 */
+	@Value("${search.reindex.pause:0}")
+	private long reindexPause;
+
+	private final Map<Long, PendingOperation> pending = new ConcurrentHashMap<Long, PendingOperation>();
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+	private final Map<String, IndexingProgress> progress = new ConcurrentHashMap<String, IndexingProgress>();
+
+	@Inject
+	@Qualifier(ExecutorsConfiguration.TASK_SCHEDULER)
+	private TaskScheduler scheduler;
+
+	@Inject
+	@Qualifier(ExecutorsConfiguration.INDEXING_EXECUTOR)
+	private AsyncTaskExecutor reindexExecutor;
+
+	@PreDestroy
+	public void destroy() {
+		flush();
+	}
+
+	@Override
+	public void scheduleIndex(Product product) {
+		schedule(product, false);
+	}
+
+	@Override
+	public void scheduleDelete(Product product) {
+		schedule(product, true);
+	}
+
+	private void schedule(Product product, boolean delete) {
+		Validate.notNull(product, "Product cannot be null");
+		Validate.notNull(product.getId(), "Product.id cannot be null");
+		Validate.notNull(product.getMerchantStore(), "Product.merchantStore cannot be null");
+
+		//last request for a product wins
+		pending.put(product.getId(), new PendingOperation(product, delete));
+
+		if (flushScheduled.compareAndSet(false, true)) {
+			try {
+				scheduler.schedule(this::flush, Instant.now().plusMillis(coalesceWindow));
+			} catch (TaskRejectedException e) {
+				//scheduler stopped
+				flush();
+			}
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+
+		flushScheduled.set(false);
+
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		Map<String, List<PendingOperation>> byStore = new HashMap<String, List<PendingOperation>>();
+		for (Long id : new ArrayList<Long>(pending.keySet())) {
+			PendingOperation operation = pending.remove(id);
+			if (operation != null) {
+				byStore.computeIfAbsent(operation.store.getCode(), k -> new ArrayList<PendingOperation>())
+						.add(operation);
+			}
+		}
+
+		for (List<PendingOperation> operations : byStore.values()) {
+			MerchantStore store = operations.get(0).store;
+
+			List<Product> deleted = new ArrayList<Product>();
+			List<Long> indexed = new ArrayList<Long>();
+			for (PendingOperation operation : operations) {
+				if (operation.delete) {
+					deleted.add(operation.product);
+				} else {
+					indexed.add(operation.product.getId());
+				}
+			}
+
+			try {
+				searchService.deleteDocuments(store, deleted);
+			} catch (Exception e) {
+				LOGGER.error("Cannot delete documents for store [" + store.getCode() + "]", e);
+			}
+
+			for (int i = 0; i < indexed.size(); i += batchSize) {
+				List<Long> ids = indexed.subList(i, Math.min(i + batchSize, indexed.size()));
+				try {
+					indexBatch(store, ids);
+				} catch (Exception e) {
+					LOGGER.error("Cannot index products " + ids + " for store [" + store.getCode() + "]", e);
+				}
+			}
+		}
+
+	}
+
+	@Override
+	public synchronized IndexingProgress reindex(MerchantStore store) {
+		Validate.notNull(store, "MerchantStore cannot be null");
+
+		IndexingProgress current = progress.get(store.getCode());
+		if (current != null && current.isRunning()) {
+			return current;
+		}
+
+		IndexingProgress job = new IndexingProgress(store.getCode(), productService.countByStore(store));
+		progress.put(store.getCode(), job);
+
+		submit(job, () -> reindexAll(store, job, null));
+		return job;
+	}
+
+	@Override
+	public synchronized IndexingProgress resume(MerchantStore store) throws ServiceException {
+		Validate.notNull(store, "MerchantStore cannot be null");
+
+		IndexingProgress current = progress.get(store.getCode());
+		if (current != null && current.isRunning()) {
+			return current;
+		}
+
+		MerchantConfiguration checkpoint = loadCheckpoint(store);
+		if (checkpoint == null) {
+			return null;
+		}
+		IndexingProgress saved = readCheckpoint(store, checkpoint);
+		IndexingProgress job = new IndexingProgress(store.getCode(), productService.countByStore(store),
+				saved.getLastId(), saved.getIndexed(), saved.getFailed(), saved.getStartDate());
+		progress.put(store.getCode(), job);
+
+		submit(job, () -> reindexAll(store, job, checkpoint));
+		return job;
+	}
+
+	@Override
+	public IndexingProgress cancel(MerchantStore store) {
+		Validate.notNull(store, "MerchantStore cannot be null");
+
+		IndexingProgress current = progress.get(store.getCode());
+		if (current != null && current.isRunning()) {
+			current.cancel();
+		}
+		return current;
+	}
+
+	/**
+	 * Walks the products of the store by id, one chunk per query, and saves a
+	 * checkpoint after each chunk. Products are loaded outside of any
+	 * transaction, each chunk is read in its own persistence context and
+	 * released once submitted
+	 */
+	private void reindexAll(MerchantStore store, IndexingProgress job, MerchantConfiguration checkpoint) {
+
+		LOGGER.info("Reindexing " + job.getTotal() + " products for store [" + store.getCode() + "] after id "
+				+ job.getLastId());
+
+		IndexingProgress.Status status = IndexingProgress.Status.INTERRUPTED;
+		try {
+			if (checkpoint == null) {
+				checkpoint = loadCheckpoint(store);
+			}
+			while (true) {
+				if (job.isCancelRequested()) {
+					status = IndexingProgress.Status.CANCELLED;
+					break;
+				}
+				List<Long> ids = productService.listIdsByStore(store, job.getLastId(), batchSize);
+				if (ids.isEmpty()) {
+					status = IndexingProgress.Status.COMPLETED;
+					break;
+				}
+				try {
+					indexBatch(store, ids);
+					job.indexed(ids.size());
+				} catch (Exception e) {
+					LOGGER.error("Cannot index products " + ids + " for store [" + store.getCode() + "]", e);
+					job.failed(ids.size());
+				}
+				job.checkpoint(ids.get(ids.size() - 1));
+				checkpoint = saveCheckpoint(store, job, checkpoint);
+
+				if (reindexPause > 0) {
+					Thread.sleep(reindexPause);
+				}
+			}
+			if (status == IndexingProgress.Status.COMPLETED && checkpoint != null) {
+				merchantConfigurationService.delete(checkpoint);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			LOGGER.error("Reindex of store [" + store.getCode() + "] stopped after id " + job.getLastId(), e);
+		} finally {
+			job.complete(status);
+		}
+
+		LOGGER.info("Reindex of store [" + store.getCode() + "] " + status + " " + job.getIndexed() + " indexed "
+				+ job.getFailed() + " failed " + String.format("%.1f", job.getThroughput()) + " products/s");
+
+	}
+
+	@Override
+	public IndexingProgress index(MerchantStore store, List<Long> productIds) {
+		Validate.notNull(store, "MerchantStore cannot be null");
+		Validate.notNull(productIds, "Product ids cannot be null");
+
+		List<Long> ids = new ArrayList<Long>(productIds);
+		IndexingProgress job = new IndexingProgress(store.getCode(), ids.size());
+
+		submit(job, () -> reindex(store, ids, job));
+		return job;
+	}
+
+	private void submit(IndexingProgress job, Runnable task) {
+		try {
+			reindexExecutor.execute(task);
+		} catch (TaskRejectedException e) {
+			LOGGER.warn("Reindex of store [" + job.getStore() + "] rejected, too many reindex jobs queued");
+			job.complete(IndexingProgress.Status.INTERRUPTED);
+		}
+	}
+
+	private void reindex(MerchantStore store, List<Long> ids, IndexingProgress job) {
+
+		LOGGER.info("Reindexing " + ids.size() + " products for store [" + store.getCode() + "]");
+
+		IndexingProgress.Status status = IndexingProgress.Status.INTERRUPTED;
+		try {
+			for (int i = 0; i < ids.size(); i += batchSize) {
+				if (job.isCancelRequested()) {
+					status = IndexingProgress.Status.CANCELLED;
+					break;
+				}
+				List<Long> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
+				try {
+					indexBatch(store, batch);
+					job.indexed(batch.size());
+				} catch (Exception e) {
+					LOGGER.error("Cannot index products " + batch + " for store [" + store.getCode() + "]", e);
+					job.failed(batch.size());
+				}
+				job.checkpoint(batch.get(batch.size() - 1));
+
+				if (reindexPause > 0) {
+					Thread.sleep(reindexPause);
+				}
+			}
+			if (status != IndexingProgress.Status.CANCELLED) {
+				status = IndexingProgress.Status.COMPLETED;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			LOGGER.error("Reindex of store [" + store.getCode() + "] stopped after id " + job.getLastId(), e);
+		} finally {
+			job.complete(status);
+		}
+
+		LOGGER.info("Reindex of store [" + store.getCode() + "] " + status + " " + job.getIndexed() + " indexed "
+				+ job.getFailed() + " failed");
+
+	}
+
+	@Override
+	public IndexingProgress getProgress(MerchantStore store) {
+		Validate.notNull(store, "MerchantStore cannot be null");
+		IndexingProgress job = progress.get(store.getCode());
+		if (job != null) {
+			return job;
+		}
+		//job of a previous run
+		try {
+			MerchantConfiguration checkpoint = loadCheckpoint(store);
+			return checkpoint != null ? readCheckpoint(store, checkpoint) : null;
+		} catch (ServiceException e) {
+			LOGGER.error("Cannot read reindex checkpoint of store [" + store.getCode() + "]", e);
+			return null;
+		}
+	}
+
+	private MerchantConfiguration loadCheckpoint(MerchantStore store) throws ServiceException {
+		return merchantConfigurationService.getMerchantConfiguration(REINDEX_CHECKPOINT, store);
+	}
+
+	private MerchantConfiguration saveCheckpoint(MerchantStore store, IndexingProgress job,
+			MerchantConfiguration checkpoint) throws Exception {
+		if (checkpoint == null) {
+			checkpoint = new MerchantConfiguration();
+			checkpoint.setKey(REINDEX_CHECKPOINT);
+			checkpoint.setMerchantStore(store);
+			checkpoint.setMerchantConfigurationType(MerchantConfigurationType.CONFIG);
+		}
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("lastId", job.getLastId());
+		values.put("indexed", job.getIndexed());
+		values.put("failed", job.getFailed());
+		values.put("startDate", job.getStartDate().getTime());
+		checkpoint.setValue(MAPPER.writeValueAsString(values));
+		merchantConfigurationService.saveOrUpdate(checkpoint);
+		return checkpoint;
+	}
+
+	private IndexingProgress readCheckpoint(MerchantStore store, MerchantConfiguration checkpoint)
+			throws ServiceException {
+		try {
+			JsonNode values = MAPPER.readTree(checkpoint.getValue());
+			IndexingProgress saved = new IndexingProgress(store.getCode(), productService.countByStore(store),
+					values.path("lastId").asLong(), values.path("indexed").asLong(), values.path("failed").asLong(),
+					new Date(values.path("startDate").asLong()));
+			saved.complete(IndexingProgress.Status.INTERRUPTED);
+			return saved;
+		} catch (IOException e) {
+			throw new ServiceException("Invalid reindex checkpoint " + checkpoint.getValue(), e);
+		}
+	}
+
+	private void indexBatch(MerchantStore store, List<Long> ids) throws Exception {
+		Set<Long> productIds = new HashSet<Long>(ids);
+		List<Product> products = productService.findByIds(productIds, store);
+		searchService.index(store, products);
+	}
+
+	private static class PendingOperation {
+
+		private final Product product;
+		private final MerchantStore store;
+		private final boolean delete;
+
+		PendingOperation(Product product, boolean delete) {
+			this.product = product;
+			this.store = product.getMerchantStore();
+			this.delete = delete;
+		}
+	}
+
+}
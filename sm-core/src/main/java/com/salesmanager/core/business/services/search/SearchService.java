@@ -1,5 +1,6 @@
 package com.salesmanager.core.business.services.search;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.salesmanager.core.business.exception.ServiceException;
@@ -22,6 +23,15 @@ public interface SearchService {
 	 */
 	void index(MerchantStore store, Product product) throws ServiceException;
 
+	/**
+	 * Bulk indexing of a list of products belonging to the same store. All documents
+	 * are submitted to the search module in a single request
+	 * @param store
+	 * @param products
+	 * @throws ServiceException
+	 */
+	void index(MerchantStore store, List<Product> products) throws ServiceException;
+
 	/**
 	 * Deletes a document in the appropriate language. Must be invoked when a product is deleted
 	 * @param store
@@ -31,6 +41,15 @@ public interface SearchService {
 	void deleteDocument(MerchantStore store, Product product)
 			throws ServiceException;
 
+	/**
+	 * Deletes documents of a list of products belonging to the same store
+	 * @param store
+	 * @param products
+	 * @throws ServiceException
+	 */
+	void deleteDocuments(MerchantStore store, List<Product> products)
+			throws ServiceException;
+
 	/**
 	 * Similar keywords based on a a series of characters. Used in the auto-complete
 	 */
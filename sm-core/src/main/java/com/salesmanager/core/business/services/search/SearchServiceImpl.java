@@ -186,9 +186,79 @@ public class SearchServiceImpl implements com.salesmanager.core.business.service
 
 	}
 
+	@Override
+	public void index(MerchantStore store, List<Product> products) throws ServiceException {
+
+		if (configuration.getProperty(INDEX_PRODUCTS) == null
+				|| configuration.getProperty(INDEX_PRODUCTS).equals(Constants.FALSE) || searchModule == null) {
+			return;
+		}
+
+		if (CollectionUtils.isEmpty(products)) {
+			return;
+		}
+
+		List<IndexItem> items = new ArrayList<IndexItem>();
+		try {
+			for (Product product : products) {
+
+				Validate.notNull(product.getId(), "Product.id cannot be null");
+
+				/**
+				 * Documents are replaced by id, only remove documents of languages
+				 * the product is no longer described in
+				 */
+				List<String> languages = languages(product);
+				List<String> staleLanguages = new ArrayList<String>();
+				if (applicationSearchConfiguration.getSearchLanguages() != null) {
+					staleLanguages = applicationSearchConfiguration.getSearchLanguages().stream()
+							.filter(l -> !languages.contains(l)).collect(Collectors.toList());
+				}
+				if (!staleLanguages.isEmpty()) {
+					try {
+						searchModule.delete(staleLanguages, product.getId());
+					} catch (Exception e) {
+						LOGGER.debug("No stale document to delete for product [" + product.getId() + "]");
+					}
+				}
+
+				List<Map<String, String>> variants = null;
+				if (!CollectionUtils.isEmpty(product.getVariants())) {
+					variants = product.getVariants().stream().map(i -> variants(i)).collect(Collectors.toList());
+				}
+
+				for (ProductDescription description : product.getDescriptions()) {
+					items.add(indexItem(store, description, product, variants));
+				}
+			}
+
+			if (!items.isEmpty()) {
+				searchModule.index(items);
+			}
+		} catch (ServiceException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ServiceException(e);
+		}
+
+	}
+
 	private void indexProduct(MerchantStore store, ProductDescription description, Product product,
 			List<Map<String, String>> variants) throws ServiceException {
 
+		try {
+			searchModule.index(indexItem(store, description, product, variants));
+		} catch (ServiceException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ServiceException(e);
+		}
+
+	}
+
+	private IndexItem indexItem(MerchantStore store, ProductDescription description, Product product,
+			List<Map<String, String>> variants) throws ServiceException {
+
 		try {
 			ProductImage image = null;
 			if (!CollectionUtils.isEmpty(product.getImages())) {
@@ -251,7 +321,7 @@ public class SearchServiceImpl implements com.salesmanager.core.business.service
 			item.setLanguage(description.getLanguage().getCode());
 			item.setLink(description.getSeUrl());
 
-			searchModule.index(item);
+			return item;
 		} catch (Exception e) {
 			throw new ServiceException(e);
 		}
@@ -397,6 +467,20 @@ public class SearchServiceImpl implements com.salesmanager.core.business.service
 
 	}
 
+	@Override
+	public void deleteDocuments(MerchantStore store, List<Product> products) throws ServiceException {
+
+		if (CollectionUtils.isEmpty(products)) {
+			return;
+		}
+
+		//search module deletes documents one product at a time
+		for (Product product : products) {
+			deleteDocument(store, product);
+		}
+
+	}
+
 	@Override
 	public SearchResponse searchKeywords(MerchantStore store, String language, SearchRequest search, int entriesCount)
 			throws ServiceException {
@@ -9,7 +9,6 @@ import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.modules.email.Email;
 import com.salesmanager.core.business.modules.email.EmailConfig;
-import com.salesmanager.core.business.modules.email.HtmlEmailSender;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.system.MerchantConfiguration;
 
@@ -20,15 +19,15 @@ public class EmailServiceImpl implements EmailService {
 	private MerchantConfigurationService merchantConfigurationService;
 	
 	@Inject
-	private HtmlEmailSender sender;
+	private OutboxEmailService outboxEmailService;
 	
+	/**
+	 * Written to the outbox, in the caller transaction when there is one,
+	 * and sent by the outbox dispatcher
+	 */
 	@Override
 	public void sendHtmlEmail(MerchantStore store, Email email) throws ServiceException, Exception {
-
-		EmailConfig emailConfig = getEmailConfiguration(store);
-		
-		sender.setEmailConfig(emailConfig);
-		sender.send(email);
+		outboxEmailService.queue(store, email);
 	}
 
 	@Override
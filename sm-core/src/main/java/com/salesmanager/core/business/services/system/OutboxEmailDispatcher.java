@@ -0,0 +1,241 @@
+package com.salesmanager.core.business.services.system;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.executors.ExecutorsConfiguration;
+import com.salesmanager.core.business.modules.email.EmailConfig;
+import com.salesmanager.core.business.modules.email.HtmlEmailSender;
+import com.salesmanager.core.model.system.email.OutboxEmail;
+
+/**
+ * Sends the outbox emails on the notification executor, the scheduler only
+ * triggers the batches and does not wait for the SMTP server. Emails are claimed in
+ * batches, a node stopping during a batch leaves its emails claimed until
+ * the lease expires, they are then sent by the next dispatcher (an email may
+ * be sent twice, never lost)
+ * @author c.samson
+ *
+ */
+@Component
+public class OutboxEmailDispatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutboxEmailDispatcher.class);
+
+	@Value("${mail.outbox.dispatch:true}")
+	private boolean dispatch = true;
+
+	@Value("${mail.outbox.pollInterval:1000}")
+	private long pollInterval = 1000;
+
+	@Value("${mail.outbox.batchSize:50}")
+	private int batchSize = 50;
+
+	@Value("${mail.outbox.lease:300000}")
+	private long lease = 300000;
+
+	@Value("${mail.outbox.sendTimeout:120000}")
+	private long sendTimeout = 120000;
+
+	@Value("${mail.outbox.retention:604800000}")
+	private long retention = 604800000;
+
+	private static final long PURGE_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+	@Inject
+	private OutboxEmailService outboxEmailService;
+
+	@Inject
+	private EmailService emailService;
+
+	@Inject
+	private HtmlEmailSender htmlEmailSender;
+
+	@Inject
+	@Qualifier(ExecutorsConfiguration.TASK_SCHEDULER)
+	private TaskScheduler scheduler;
+
+	@Inject
+	@Qualifier(ExecutorsConfiguration.NOTIFICATION_EXECUTOR)
+	private AsyncTaskExecutor notificationExecutor;
+
+	private ScheduledFuture<?> polling;
+	private ScheduledFuture<?> purging;
+
+	/** running dispatch, a single dispatch at a time **/
+	private Future<?> dispatching;
+
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong dead = new AtomicLong();
+	private final AtomicLong sendTime = new AtomicLong();
+
+	/**
+	 * Started once the context is refreshed, the schema may not be up to
+	 * date before
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	public synchronized void start() {
+		if (!dispatch || polling != null) {
+			return;
+		}
+		polling = scheduler.scheduleWithFixedDelay(this::poll, Instant.now().plusMillis(pollInterval),
+				Duration.ofMillis(pollInterval));
+		purging = scheduler.scheduleWithFixedDelay(this::purge, Instant.now().plusMillis(PURGE_INTERVAL),
+				Duration.ofMillis(PURGE_INTERVAL));
+	}
+
+	@PreDestroy
+	public synchronized void destroy() throws InterruptedException {
+		if (polling != null) {
+			polling.cancel(false);
+			purging.cancel(false);
+		}
+		if (dispatching != null) {
+			try {
+				dispatching.get(10, TimeUnit.SECONDS);
+			} catch (ExecutionException | TimeoutException e) {
+				LOGGER.warn("Outbox dispatch still running at shutdown", e);
+			}
+		}
+	}
+
+	/**
+	 * Hands a dispatch over to the notification executor unless one is
+	 * running
+	 */
+	private synchronized void poll() {
+		if (dispatching != null && !dispatching.isDone()) {
+			return;
+		}
+		try {
+			dispatching = notificationExecutor.submit(this::dispatch);
+		} catch (TaskRejectedException e) {
+			LOGGER.warn("Outbox dispatch rejected by the notification executor", e);
+		}
+	}
+
+	/**
+	 * Sends batches until no email is due
+	 */
+	public void dispatch() {
+		try {
+			int claimed;
+			do {
+				claimed = dispatchBatch();
+			} while (claimed == batchSize);
+		} catch (Exception e) {
+			LOGGER.error("Cannot dispatch outbox emails", e);
+		}
+	}
+
+	int dispatchBatch() throws Exception {
+		List<OutboxEmail> emails = outboxEmailService.claim(batchSize, lease);
+		if (emails.isEmpty()) {
+			return 0;
+		}
+		long start = System.currentTimeMillis();
+
+		Map<Integer, EmailConfig> configurations = new HashMap<Integer, EmailConfig>();
+		Map<OutboxEmail, CompletableFuture<Void>> deliveries = new LinkedHashMap<OutboxEmail, CompletableFuture<Void>>();
+		for (OutboxEmail email : emails) {
+			try {
+				Integer storeId = email.getMerchantStore().getId();
+				if (!configurations.containsKey(storeId)) {
+					configurations.put(storeId, emailService.getEmailConfiguration(email.getMerchantStore()));
+				}
+				deliveries.put(email, htmlEmailSender.deliver(outboxEmailService.getEmail(email), configurations.get(storeId)));
+			} catch (Exception e) {
+				failed(email, e);
+			}
+		}
+
+		long deadline = start + sendTimeout;
+		for (Map.Entry<OutboxEmail, CompletableFuture<Void>> delivery : deliveries.entrySet()) {
+			try {
+				delivery.getValue().get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+				outboxEmailService.sent(delivery.getKey().getId());
+				sent.incrementAndGet();
+			} catch (ExecutionException e) {
+				failed(delivery.getKey(), e.getCause());
+			} catch (Exception e) {
+				failed(delivery.getKey(), e);
+			}
+		}
+
+		long elapsed = System.currentTimeMillis() - start;
+		sendTime.addAndGet(elapsed);
+		LOGGER.info("Outbox batch of {} emails in {} ms", emails.size(), elapsed);
+		return emails.size();
+	}
+
+	private void failed(OutboxEmail email, Throwable e) {
+		LOGGER.warn("Cannot send outbox email " + email.getId(), e);
+		failed.incrementAndGet();
+		try {
+			if (outboxEmailService.failed(email.getId(), String.valueOf(e))) {
+				dead.incrementAndGet();
+			}
+		} catch (Exception ex) {
+			//claimed until the lease expires
+			LOGGER.error("Cannot reschedule outbox email " + email.getId(), ex);
+		}
+	}
+
+	private void purge() {
+		try {
+			int purged = outboxEmailService.purgeSent(retention);
+			if (purged > 0) {
+				LOGGER.info("Purged {} sent outbox emails", purged);
+			}
+		} catch (Exception e) {
+			LOGGER.error("Cannot purge outbox emails", e);
+		}
+	}
+
+	/** emails sent since startup **/
+	public long getSent() {
+		return sent.get();
+	}
+
+	/** failed attempts since startup **/
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/** emails dead lettered since startup **/
+	public long getDead() {
+		return dead.get();
+	}
+
+	/** time spent sending batches (ms) since startup **/
+	public long getSendTime() {
+		return sendTime.get();
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.salesmanager.core.business.services.system;
+
+import java.util.List;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.modules.email.Email;
+import com.salesmanager.core.business.services.common.generic.SalesManagerEntityService;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.system.email.OutboxEmail;
+import com.salesmanager.core.model.system.email.OutboxEmailStatus;
+
+/**
+ * Emails written in the transaction of the change that triggers them and
+ * sent by the {@link OutboxEmailDispatcher}
+ */
+public interface OutboxEmailService extends SalesManagerEntityService<Long, OutboxEmail> {
+
+	/**
+	 * Writes the email in the current transaction
+	 */
+	void queue(MerchantStore store, Email email) throws ServiceException;
+
+	/**
+	 * Pending emails due, not claimed again by another dispatcher until
+	 * the lease (ms) expires
+	 */
+	List<OutboxEmail> claim(int max, long lease) throws ServiceException;
+
+	Email getEmail(OutboxEmail outboxEmail) throws ServiceException;
+
+	void sent(Long id) throws ServiceException;
+
+	/**
+	 * Scheduled again with an exponential backoff, dead after the last attempt
+	 * @return true when the email is dead
+	 */
+	boolean failed(Long id, String error) throws ServiceException;
+
+	/**
+	 * Dead emails pending again
+	 * @return number of emails
+	 */
+	int requeueDead() throws ServiceException;
+
+	/**
+	 * Removes the emails sent more than retention (ms) ago
+	 */
+	int purgeSent(long retention) throws ServiceException;
+
+	long countByStatus(OutboxEmailStatus status);
+
+}
@@ -0,0 +1,141 @@
+package com.salesmanager.core.business.services.system;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.modules.email.Email;
+import com.salesmanager.core.business.repositories.system.OutboxEmailRepository;
+import com.salesmanager.core.business.services.common.generic.SalesManagerEntityServiceImpl;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.system.email.OutboxEmail;
+import com.salesmanager.core.model.system.email.OutboxEmailStatus;
+
+@Service("outboxEmailService")
+public class OutboxEmailServiceImpl extends SalesManagerEntityServiceImpl<Long, OutboxEmail>
+		implements OutboxEmailService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutboxEmailServiceImpl.class);
+
+	private static final TypeReference<Map<String, String>> TOKENS = new TypeReference<Map<String, String>>() {};
+
+	/** backoff stops doubling after this attempt **/
+	private static final int MAX_BACKOFF_SHIFT = 8;
+
+	private static final int MAX_ERROR_LENGTH = 2000;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Value("${mail.outbox.maxAttempts:8}")
+	private int maxAttempts = 8;
+
+	@Value("${mail.outbox.backoff:60000}")
+	private long backoff = 60000;
+
+	private OutboxEmailRepository outboxEmailRepository;
+
+	@Inject
+	public OutboxEmailServiceImpl(OutboxEmailRepository outboxEmailRepository) {
+		super(outboxEmailRepository);
+		this.outboxEmailRepository = outboxEmailRepository;
+	}
+
+	@Override
+	public void queue(MerchantStore store, Email email) throws ServiceException {
+		OutboxEmail outboxEmail = new OutboxEmail();
+		outboxEmail.setMerchantStore(store);
+		outboxEmail.setFrom(email.getFrom());
+		outboxEmail.setFromEmail(email.getFromEmail());
+		outboxEmail.setTo(email.getTo());
+		outboxEmail.setSubject(email.getSubject());
+		outboxEmail.setTemplateName(email.getTemplateName());
+		try {
+			outboxEmail.setTemplateTokens(mapper.writeValueAsString(email.getTemplateTokens()));
+		} catch (Exception e) {
+			throw new ServiceException("Cannot write email tokens", e);
+		}
+		Date now = new Date();
+		outboxEmail.setDateCreated(now);
+		outboxEmail.setNextAttempt(now);
+		outboxEmailRepository.save(outboxEmail);
+	}
+
+	@Override
+	public List<OutboxEmail> claim(int max, long lease) throws ServiceException {
+		Date now = new Date();
+		List<OutboxEmail> emails = outboxEmailRepository.findDue(now, PageRequest.of(0, max));
+		Date leaseEnd = new Date(now.getTime() + lease);
+		for (OutboxEmail email : emails) {
+			email.setAttempts(email.getAttempts() + 1);
+			email.setNextAttempt(leaseEnd);
+		}
+		return emails;
+	}
+
+	@Override
+	public Email getEmail(OutboxEmail outboxEmail) throws ServiceException {
+		Email email = new Email();
+		email.setFrom(outboxEmail.getFrom());
+		email.setFromEmail(outboxEmail.getFromEmail());
+		email.setTo(outboxEmail.getTo());
+		email.setSubject(outboxEmail.getSubject());
+		email.setTemplateName(outboxEmail.getTemplateName());
+		try {
+			email.setTemplateTokens(outboxEmail.getTemplateTokens() == null ? null
+					: mapper.readValue(outboxEmail.getTemplateTokens(), TOKENS));
+		} catch (Exception e) {
+			throw new ServiceException("Cannot read email tokens of outbox email " + outboxEmail.getId(), e);
+		}
+		return email;
+	}
+
+	@Override
+	public void sent(Long id) throws ServiceException {
+		outboxEmailRepository.sent(id, new Date());
+	}
+
+	@Override
+	public boolean failed(Long id, String error) throws ServiceException {
+		OutboxEmail email = outboxEmailRepository.findById(id).orElse(null);
+		if (email == null) {
+			return false;
+		}
+		email.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+		if (email.getAttempts() >= maxAttempts) {
+			LOGGER.error("Email {} to {} not sent after {} attempts", email.getId(), email.getTo(), email.getAttempts());
+			email.setStatus(OutboxEmailStatus.DEAD);
+			return true;
+		}
+		int shift = Math.min(Math.max(email.getAttempts() - 1, 0), MAX_BACKOFF_SHIFT);
+		email.setNextAttempt(new Date(System.currentTimeMillis() + (backoff << shift)));
+		return false;
+	}
+
+	@Override
+	public int requeueDead() throws ServiceException {
+		return outboxEmailRepository.requeueDead(new Date());
+	}
+
+	@Override
+	public int purgeSent(long retention) throws ServiceException {
+		return outboxEmailRepository.deleteSent(new Date(System.currentTimeMillis() - retention));
+	}
+
+	@Override
+	public long countByStatus(OutboxEmailStatus status) {
+		return outboxEmailRepository.countByStatus(status);
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.salesmanager.core.business.utils;
+
+/**
+ * Snapshot of a cache region, counters are accumulated since startup
+ */
+public class CacheStatistics {
+
+	private String cacheManager;
+	private String region;
+	private long size;
+	private long hits;
+	private long misses;
+	private double hitRatio;
+	private long evictions;
+
+	public String getCacheManager() {
+		return cacheManager;
+	}
+
+	public void setCacheManager(String cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public void setRegion(String region) {
+		this.region = region;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public void setHits(long hits) {
+		this.hits = hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void setMisses(long misses) {
+		this.misses = misses;
+	}
+
+	public double getHitRatio() {
+		return hitRatio;
+	}
+
+	public void setHitRatio(double hitRatio) {
+		this.hitRatio = hitRatio;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public void setEvictions(long evictions) {
+		this.evictions = evictions;
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.salesmanager.core.business.utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -12,6 +13,8 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
 import org.springframework.stereotype.Component;
 
+import net.sf.ehcache.statistics.StatisticsGateway;
+
 import com.salesmanager.core.model.merchant.MerchantStore;
 
 @Component("cache")
@@ -77,6 +80,36 @@ public class CacheUtils {
 		return returnKeys;
 	}
 	
+	/**
+	 * Statistics of every region, service caches and hibernate second
+	 * level cache
+	 */
+	public List<CacheStatistics> getStatistics() {
+		List<CacheStatistics> statistics = new ArrayList<CacheStatistics>();
+		for (net.sf.ehcache.CacheManager cacheManager : net.sf.ehcache.CacheManager.ALL_CACHE_MANAGERS) {
+			String[] names = cacheManager.getCacheNames();
+			Arrays.sort(names);
+			for (String name : names) {
+				net.sf.ehcache.Ehcache region = cacheManager.getEhcache(name);
+				if (region == null) {
+					continue;
+				}
+				StatisticsGateway gateway = region.getStatistics();
+				CacheStatistics regionStatistics = new CacheStatistics();
+				regionStatistics.setCacheManager(cacheManager.getName());
+				regionStatistics.setRegion(name);
+				regionStatistics.setSize(gateway.getSize());
+				regionStatistics.setHits(gateway.cacheHitCount());
+				regionStatistics.setMisses(gateway.cacheMissCount());
+				long requests = regionStatistics.getHits() + regionStatistics.getMisses();
+				regionStatistics.setHitRatio(requests == 0 ? 0 : (double) regionStatistics.getHits() / requests);
+				regionStatistics.setEvictions(gateway.cacheEvictedCount());
+				statistics.add(regionStatistics);
+			}
+		}
+		return statistics;
+	}
+	
 	public void shutDownCache() throws Exception {
 		
 	}
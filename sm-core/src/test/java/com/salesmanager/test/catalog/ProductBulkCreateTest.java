@@ -0,0 +1,112 @@
+package com.salesmanager.test.catalog;
+
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.repositories.catalog.product.ProductRepository;
+import com.salesmanager.core.business.repositories.catalog.product.ProductRepositoryImpl;
+import com.salesmanager.core.business.services.catalog.product.ProductServiceImpl;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.availability.ProductAvailability;
+
+/**
+ * Products of an import chunk are persisted together, flushed in jdbc
+ * batches then released from the persistence context
+ */
+public class ProductBulkCreateTest {
+
+	private EntityManager em;
+	private ProductRepositoryImpl repositoryImpl;
+	private ProductRepository productRepository;
+	private ProductServiceImpl productService;
+
+	@Before
+	public void setUp() {
+		em = mock(EntityManager.class);
+		repositoryImpl = new ProductRepositoryImpl();
+		ReflectionTestUtils.setField(repositoryImpl, "em", em);
+
+		productRepository = mock(ProductRepository.class);
+		productService = new ProductServiceImpl(productRepository);
+	}
+
+	@Test
+	public void testChunkIsFlushedThenCleared() {
+		Product first = product("a1");
+		Product second = product("a2");
+		Product third = product("a3");
+
+		repositoryImpl.persistAll(Arrays.asList(first, second, third));
+
+		InOrder inOrder = inOrder(em);
+		inOrder.verify(em).persist(first);
+		inOrder.verify(em).persist(second);
+		inOrder.verify(em).persist(third);
+		inOrder.verify(em).flush();
+		inOrder.verify(em).clear();
+	}
+
+	@Test
+	public void testCreateProductsPersistsTheChunk() throws Exception {
+		List<Product> products = Arrays.asList(product("a1"), product("a2"));
+
+		productService.createProducts(products);
+
+		verify(productRepository).persistAll(products);
+	}
+
+	/**
+	 * A chunk is rejected as a whole before anything is persisted
+	 */
+	@Test
+	public void testExistingProductRejectsChunk() throws Exception {
+		Product existing = product("a2");
+		existing.setId(2L);
+
+		try {
+			productService.createProducts(Arrays.asList(product("a1"), existing));
+			fail("Existing product accepted");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		verify(productRepository, never()).persistAll(anyList());
+	}
+
+	@Test
+	public void testProductWithoutAvailabilityRejectsChunk() throws Exception {
+		Product product = new Product();
+		product.setSku("a1");
+
+		try {
+			productService.createProducts(Arrays.asList(product));
+			fail("Product without availability accepted");
+		} catch (IllegalArgumentException e) {
+			//expected
+		}
+		verify(productRepository, never()).persistAll(anyList());
+	}
+
+	private Product product(String sku) {
+		Product product = new Product();
+		product.setSku(sku);
+		ProductAvailability availability = new ProductAvailability();
+		availability.setProduct(product);
+		product.getAvailabilities().add(availability);
+		return product;
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.salesmanager.test.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.salesmanager.core.business.repositories.catalog.product.ProductRepository;
+import com.salesmanager.core.business.repositories.catalog.product.review.ProductReviewStatisticsRepository;
+import com.salesmanager.core.business.services.catalog.product.review.ProductReviewStatisticsServiceImpl;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.review.ProductReviewStatistics;
+
+public class ProductReviewStatisticsTest {
+
+	private static final Long PRODUCT = 1L;
+
+	private ProductReviewStatisticsRepository repository;
+	private ProductRepository productRepository;
+	private ProductReviewStatisticsServiceImpl service;
+
+	@Before
+	public void setUp() {
+		repository = mock(ProductReviewStatisticsRepository.class);
+		service = new ProductReviewStatisticsServiceImpl(repository);
+		ReflectionTestUtils.setField(service, "cacheManager", new ConcurrentMapCacheManager(ProductReviewStatisticsServiceImpl.CACHE_NAME));
+		ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+		productRepository = mock(ProductRepository.class);
+		ReflectionTestUtils.setField(service, "productRepository", productRepository);
+		service.init();
+	}
+
+	@Test
+	public void testStatistics() {
+		ProductReviewStatistics statistics = new ProductReviewStatistics(PRODUCT);
+		assertNull(statistics.getReviewAvg());
+		statistics.setReviewSum(9);
+		statistics.setReviewCount(2);
+		assertEquals(new BigDecimal("4.50"), statistics.getReviewAvg());
+
+		assertEquals(1, ProductReviewStatistics.star(0));
+		assertEquals(3, ProductReviewStatistics.star(2.5));
+		assertEquals(4, ProductReviewStatistics.star(4.4));
+		assertEquals(5, ProductReviewStatistics.star(7));
+	}
+
+	@Test
+	public void testIncrements() throws Exception {
+		when(repository.existsById(PRODUCT)).thenReturn(true);
+
+		service.add(PRODUCT, 4d);
+		verify(repository).increment(PRODUCT, 4d, 1, 0, 0, 0, 1, 0);
+
+		service.replace(PRODUCT, 4d, 2d);
+		verify(repository).increment(PRODUCT, -2d, 0, 0, 1, 0, -1, 0);
+
+		service.remove(PRODUCT, 2d);
+		verify(repository).increment(PRODUCT, -2d, -1, 0, -1, 0, 0, 0);
+
+		//same rating, nothing to change
+		service.replace(PRODUCT, 3d, 3d);
+		verify(repository, times(3)).increment(anyLong(), anyDouble(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+		verify(repository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	public void testFirstReviewCreatesStatistics() throws Exception {
+		when(repository.existsById(PRODUCT)).thenReturn(false);
+
+		service.add(PRODUCT, 5d);
+
+		verify(repository).saveAndFlush(any(ProductReviewStatistics.class));
+		verify(repository).increment(PRODUCT, 5d, 1, 0, 0, 0, 0, 1);
+	}
+
+	@Test
+	public void testReadsAreCachedUntilChanged() throws Exception {
+		ProductReviewStatistics statistics = new ProductReviewStatistics(PRODUCT);
+		when(repository.findById(PRODUCT)).thenReturn(Optional.of(statistics));
+		when(repository.findById(2L)).thenReturn(Optional.empty());
+		when(repository.existsById(PRODUCT)).thenReturn(true);
+
+		assertSame(statistics, service.getByProduct(PRODUCT));
+		assertSame(statistics, service.getByProduct(PRODUCT));
+		assertNull(service.getByProduct(2L));
+		assertNull(service.getByProduct(2L));
+		verify(repository, times(1)).findById(PRODUCT);
+		verify(repository, times(1)).findById(2L);
+
+		service.add(PRODUCT, 1d);
+		service.getByProduct(PRODUCT);
+		verify(repository, times(2)).findById(PRODUCT);
+	}
+
+	@Test
+	public void testReconcile() throws Exception {
+		ProductReviewStatistics statistics = new ProductReviewStatistics(PRODUCT);
+		statistics.setReviewSum(4);
+		statistics.setReviewCount(1);
+		statistics.setRating4(1);
+		ProductReviewStatistics drifted = new ProductReviewStatistics(2L);
+
+		when(repository.computeAll()).thenReturn(Arrays.asList(
+				new Object[] { PRODUCT, 4d, 1L, 0L, 0L, 0L, 1L, 0L },
+				new Object[] { 2L, 5d, 1L, 0L, 0L, 0L, 0L, 1L }));
+		when(repository.findAllWithProductRating()).thenReturn(Arrays.asList(
+				new Object[] { statistics, new BigDecimal("4.00"), 1 },
+				new Object[] { drifted, null, null }));
+		when(repository.existsById(2L)).thenReturn(true);
+		when(repository.findForUpdate(2L)).thenReturn(drifted);
+		Product product = new Product();
+		when(productRepository.findById(2L)).thenReturn(Optional.of(product));
+		when(repository.compute(2L)).thenReturn(Collections.singletonList(new Object[] { 2L, 5d, 1L, 0L, 0L, 0L, 0L, 1L }));
+
+		assertEquals(1, service.reconcile());
+
+		assertEquals(1, drifted.getReviewCount());
+		assertEquals(1, drifted.getRating5());
+		assertEquals(new BigDecimal("5.00"), product.getProductReviewAvg());
+		assertEquals(Integer.valueOf(1), product.getProductReviewCount());
+		verify(repository, never()).findForUpdate(PRODUCT);
+		verify(repository).deleteOrphans();
+	}
+
+}
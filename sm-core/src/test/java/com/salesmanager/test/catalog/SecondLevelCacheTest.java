@@ -0,0 +1,254 @@
+package com.salesmanager.test.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.salesmanager.core.business.configuration.DataConfiguration;
+import com.salesmanager.core.business.repositories.catalog.product.manufacturer.ManufacturerRepository;
+import com.salesmanager.core.business.services.catalog.product.manufacturer.ManufacturerServiceImpl;
+import com.salesmanager.core.model.catalog.product.manufacturer.Manufacturer;
+import com.salesmanager.core.model.catalog.product.manufacturer.ManufacturerDescription;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.currency.Currency;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Second level cache with the hibernate properties of DataConfiguration on
+ * an in memory database, entities changed through the service are reloaded
+ * with their change
+ */
+public class SecondLevelCacheTest {
+
+	private static final String DESCRIPTIONS = Manufacturer.class.getName() + ".descriptions";
+
+	private LocalContainerEntityManagerFactoryBean factory;
+	private EntityManagerFactory entityManagerFactory;
+	private EntityManager entityManager;
+	private TransactionTemplate transaction;
+	private ManufacturerServiceImpl manufacturerService;
+	private Statistics statistics;
+
+	private MerchantStore store;
+	private Language en;
+	private Language fr;
+	private Long manufacturerId;
+
+	@Before
+	public void setUp() throws Exception {
+		DataConfiguration configuration = new DataConfiguration();
+		ReflectionTestUtils.setField(configuration, "hbm2ddl", "create");
+		ReflectionTestUtils.setField(configuration, "schema", "SALESMANAGER");
+		ReflectionTestUtils.setField(configuration, "dialect", "org.hibernate.dialect.H2Dialect");
+		ReflectionTestUtils.setField(configuration, "showSql", "false");
+		ReflectionTestUtils.setField(configuration, "batchSize", 50);
+		ReflectionTestUtils.setField(configuration, "replicaUrls", "");
+		Properties properties = ReflectionTestUtils.invokeMethod(configuration, "additionalProperties");
+		//hits and misses of the regions are asserted
+		properties.setProperty("hibernate.generate_statistics", "true");
+
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:CACHE-TEST;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS SALESMANAGER", "test", "password");
+		dataSource.setDriverClassName("org.h2.Driver");
+
+		factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setPackagesToScan("com.salesmanager.core.model");
+		factory.setJpaProperties(properties);
+		factory.setDataSource(dataSource);
+		factory.afterPropertiesSet();
+		entityManagerFactory = factory.getObject();
+
+		entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+		transaction = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+		manufacturerService = new ManufacturerServiceImpl(
+				new JpaRepositoryFactory(entityManager).getRepository(ManufacturerRepository.class));
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		transaction.executeWithoutResult(status -> {
+			en = language("en");
+			fr = language("fr");
+
+			Country country = new Country("CA");
+			entityManager.persist(country);
+			Currency currency = new Currency();
+			currency.setCurrency(java.util.Currency.getInstance("CAD"));
+			entityManager.persist(currency);
+
+			store = new MerchantStore();
+			store.setCode("DEFAULT");
+			store.setStorename("Default store");
+			store.setStoreEmailAddress("store@shopizer.com");
+			store.setCountry(country);
+			store.setCurrency(currency);
+			store.setDefaultLanguage(en);
+			entityManager.persist(store);
+		});
+
+		Manufacturer manufacturer = new Manufacturer();
+		manufacturer.setCode("acme");
+		manufacturer.setMerchantStore(store);
+		ManufacturerDescription description = description("Acme", en);
+		description.setManufacturer(manufacturer);
+		manufacturer.getDescriptions().add(description);
+		transaction.executeWithoutResult(status -> save(manufacturer));
+		manufacturerId = manufacturer.getId();
+
+		entityManagerFactory.getCache().evictAll();
+		statistics.clear();
+	}
+
+	@After
+	public void tearDown() {
+		factory.destroy();
+	}
+
+	@Test
+	public void testManufacturerReadFromCache() throws Exception {
+		load();
+		assertTrue(entityManagerFactory.getCache().contains(Manufacturer.class, manufacturerId));
+		assertEquals(1, databaseLoads());
+		assertEquals(1, collectionLoads());
+
+		load();
+		assertEquals(1, databaseLoads());
+		assertEquals(1, collectionLoads());
+	}
+
+	/**
+	 * An updated manufacturer replaces the cached one when the transaction
+	 * commits, the next read gets the change without going to the database
+	 */
+	@Test
+	public void testUpdatedManufacturerReloaded() throws Exception {
+		Manufacturer manufacturer = load();
+		manufacturer.setCode("acme-updated");
+		transaction.executeWithoutResult(status -> update(manufacturer));
+		statistics.clear();
+
+		assertEquals("acme-updated", load().getCode());
+		assertEquals(0, databaseLoads());
+	}
+
+	/**
+	 * A description added through the service evicts the cached
+	 * descriptions, they are read again from the database with the new one
+	 * and cached again
+	 */
+	@Test
+	public void testAddedDescriptionEvictsCollection() throws Exception {
+		Manufacturer manufacturer = load();
+
+		ManufacturerDescription description = description("Acme France", fr);
+		transaction.executeWithoutResult(status -> addDescription(manufacturer, description));
+		statistics.clear();
+
+		assertEquals(2, load().getDescriptions().size());
+		assertEquals(1, collectionLoads());
+
+		assertEquals(2, load().getDescriptions().size());
+		assertEquals(1, collectionLoads());
+	}
+
+	/**
+	 * A description saved on its own, without adding it to its parent,
+	 * evicts the cached descriptions of the parent
+	 */
+	@Test
+	public void testDescriptionSavedAloneEvictsCollection() throws Exception {
+		load();
+
+		ManufacturerDescription description = description("Acme France", fr);
+		transaction.executeWithoutResult(status -> {
+			description.setManufacturer(entityManager.getReference(Manufacturer.class, manufacturerId));
+			entityManager.persist(description);
+		});
+		statistics.clear();
+
+		assertEquals(2, load().getDescriptions().size());
+		assertEquals(1, collectionLoads());
+	}
+
+	/**
+	 * Manufacturer read by id as associations and references are, queries
+	 * always go to the database
+	 */
+	private Manufacturer load() {
+		return transaction.execute(status -> {
+			Manufacturer manufacturer = entityManager.find(Manufacturer.class, manufacturerId);
+			manufacturer.getDescriptions().size();
+			return manufacturer;
+		});
+	}
+
+	/**
+	 * Manufacturers read from the database rather than the cache
+	 */
+	private long databaseLoads() {
+		return statistics.getEntityStatistics(Manufacturer.class.getName()).getLoadCount();
+	}
+
+	/**
+	 * Descriptions collections read from the database rather than the cache
+	 */
+	private long collectionLoads() {
+		return statistics.getCollectionStatistics(DESCRIPTIONS).getLoadCount();
+	}
+
+	private void save(Manufacturer manufacturer) {
+		try {
+			manufacturerService.saveOrUpdate(manufacturer);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void update(Manufacturer manufacturer) {
+		try {
+			manufacturerService.update(manufacturer);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void addDescription(Manufacturer manufacturer, ManufacturerDescription description) {
+		try {
+			manufacturerService.addManufacturerDescription(manufacturer, description);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Language language(String code) {
+		Language language = new Language(code);
+		entityManager.persist(language);
+		return language;
+	}
+
+	private static ManufacturerDescription description(String name, Language language) {
+		ManufacturerDescription description = new ManufacturerDescription();
+		description.setName(name);
+		description.setLanguage(language);
+		return description;
+	}
+
+}
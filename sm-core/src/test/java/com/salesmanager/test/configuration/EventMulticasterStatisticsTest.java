@@ -0,0 +1,42 @@
+package com.salesmanager.test.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.salesmanager.core.business.configuration.events.EventMulticasterStatistics;
+
+public class EventMulticasterStatisticsTest {
+
+	@Test
+	public void pendingUntilCompleted() {
+		EventMulticasterStatistics statistics = new EventMulticasterStatistics();
+		Runnable first = statistics.decorate(() -> assertEquals(2, statistics.getPending()));
+		Runnable second = statistics.decorate(() -> {
+		});
+		assertEquals(2, statistics.getPending());
+
+		first.run();
+		second.run();
+		assertEquals(0, statistics.getPending());
+		assertEquals(2, statistics.getDispatched());
+	}
+
+	@Test
+	public void failedListenerCompleted() {
+		EventMulticasterStatistics statistics = new EventMulticasterStatistics();
+		Runnable failing = statistics.decorate(() -> {
+			throw new IllegalStateException("listener");
+		});
+		try {
+			failing.run();
+			fail("Listener exception expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(0, statistics.getPending());
+		assertEquals(1, statistics.getDispatched());
+	}
+
+}
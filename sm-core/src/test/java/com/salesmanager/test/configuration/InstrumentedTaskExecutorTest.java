@@ -0,0 +1,92 @@
+package com.salesmanager.test.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.salesmanager.core.business.configuration.executors.ExecutorStatistics;
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+
+public class InstrumentedTaskExecutorTest {
+
+	@Test
+	public void fullQueueRejects() throws Exception {
+		InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor("test", 1, 1, 1, false);
+		executor.initialize();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+			try {
+				executor.execute(() -> await(release));
+				fail("Task accepted by a full executor");
+			} catch (TaskRejectedException e) {
+				//expected
+			}
+
+			ExecutorStatistics statistics = executor.statistics();
+			assertEquals("test", statistics.getName());
+			assertEquals(1, statistics.getQueued());
+			assertEquals(1, statistics.getRejected());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+		assertEquals(2, executor.getThreadPoolExecutor().getCompletedTaskCount());
+	}
+
+	@Test
+	public void fullQueueRunsOnCaller() throws Exception {
+		InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor("test", 1, 1, 1, true);
+		executor.initialize();
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicReference<Thread> thread = new AtomicReference<Thread>();
+		try {
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+			executor.execute(() -> thread.set(Thread.currentThread()));
+
+			assertTrue(thread.get() == Thread.currentThread());
+			assertEquals(1, executor.getRejected());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void threadsNamedAfterExecutor() throws Exception {
+		InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor("indexing", 1, 1, 1, false);
+		//platform threads before java 21
+		executor.setVirtualThreads(true);
+		executor.initialize();
+		AtomicReference<String> name = new AtomicReference<String>();
+		CountDownLatch done = new CountDownLatch(1);
+		try {
+			executor.execute(() -> {
+				name.set(Thread.currentThread().getName());
+				done.countDown();
+			});
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			assertTrue(name.get().startsWith("indexing-"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.salesmanager.test.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.salesmanager.core.business.configuration.db.PoolMetricsTrackerFactory;
+import com.salesmanager.core.business.configuration.db.PoolStatistics;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class PoolMetricsTest {
+
+	private PoolMetricsTrackerFactory poolMetrics;
+	private HikariDataSource pool;
+
+	@Before
+	public void setUp() {
+		poolMetrics = new PoolMetricsTrackerFactory();
+		pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:pool-metrics;DB_CLOSE_DELAY=-1");
+		pool.setUsername("test");
+		pool.setPassword("password");
+		pool.setPoolName("primary");
+		pool.setMinimumIdle(1);
+		pool.setMaximumPoolSize(1);
+		pool.setConnectionTimeout(250);
+		pool.setMetricsTrackerFactory(poolMetrics);
+	}
+
+	@After
+	public void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	public void connectionUsageRecorded() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			try (Connection connection = pool.getConnection()) {
+				connection.createStatement().execute("select 1");
+			}
+		}
+
+		PoolStatistics statistics = poolMetrics.getStatistics("primary");
+		assertEquals(3, statistics.getAcquired());
+		assertEquals(1, statistics.getMaxConnections());
+		assertEquals(0, statistics.getActiveConnections());
+		assertEquals(0, statistics.getTimeouts());
+	}
+
+	@Test
+	public void timeoutRecorded() throws Exception {
+		try (Connection connection = pool.getConnection()) {
+			try (Connection other = pool.getConnection()) {
+				fail("Connection obtained from an exhausted pool");
+			} catch (SQLException e) {
+				//expected
+			}
+			PoolStatistics statistics = poolMetrics.getStatistics().get(0);
+			assertEquals(1, statistics.getTimeouts());
+			assertEquals(1, statistics.getActiveConnections());
+			assertEquals(100, statistics.getUsage());
+		}
+	}
+
+	@Test
+	public void trackerRemovedWithPool() {
+		pool.close();
+		assertTrue(poolMetrics.getStatistics().isEmpty());
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.salesmanager.test.configuration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.salesmanager.core.business.configuration.db.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primary and replicas are distinct in memory H2 databases, each one
+ * answering its own name
+ */
+public class ReplicaRoutingDataSourceTest {
+
+	private ReplicaRoutingDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	@Before
+	public void setUp() {
+		dataSource = new ReplicaRoutingDataSource(database("primary"),
+				Arrays.asList(database("replica1"), database("replica2")), 60000);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		ReplicaRoutingDataSource.clear();
+	}
+
+	@After
+	public void tearDown() {
+		ReplicaRoutingDataSource.clear();
+		dataSource.close();
+	}
+
+	@Test
+	public void readOnlyTransactionsOnReplicas() {
+		assertEquals("replica1", readOnly.execute(status -> name()));
+		assertEquals("replica2", readOnly.execute(status -> name()));
+		assertEquals("replica1", readOnly.execute(status -> name()));
+	}
+
+	@Test
+	public void writesOnPrimary() {
+		assertEquals("primary", readWrite.execute(status -> name()));
+		//no transaction
+		assertEquals("primary", name());
+	}
+
+	@Test
+	public void readsOnPrimaryAfterWrite() {
+		readWrite.execute(status -> jdbcTemplate.update("update SERVER set NAME = NAME"));
+		assertEquals("primary", readOnly.execute(status -> name()));
+
+		//next request
+		ReplicaRoutingDataSource.clear();
+		assertEquals("replica1", readOnly.execute(status -> name()));
+	}
+
+	@Test
+	public void readOnlyJoiningWriteTransaction() {
+		assertEquals("primary", readWrite.execute(status -> readOnly.execute(inner -> name())));
+	}
+
+	@Test
+	public void pools() {
+		assertEquals(Arrays.asList("primary", "replica-1", "replica-2"),
+				Arrays.asList(dataSource.getPools().keySet().toArray()));
+	}
+
+	private String name() {
+		return jdbcTemplate.queryForObject("select NAME from SERVER", String.class);
+	}
+
+	private HikariDataSource database(String name) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		pool.setUsername("test");
+		pool.setPassword("password");
+		pool.setMaximumPoolSize(2);
+		pool.setPoolName(name);
+		new JdbcTemplate(pool).execute("create table if not exists SERVER (NAME varchar(20))");
+		new JdbcTemplate(pool).execute("delete from SERVER");
+		new JdbcTemplate(pool).update("insert into SERVER values (?)", name);
+		return pool;
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.salesmanager.test.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.salesmanager.core.business.configuration.db.MonitoredDataSource;
+import com.salesmanager.core.business.configuration.db.SqlMonitor;
+import com.salesmanager.core.business.configuration.db.SqlStatistics;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class SqlMonitorTest {
+
+	private MonitoredDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private final List<SqlStatistics> completed = new ArrayList<SqlStatistics>();
+	private final SqlMonitor.Listener listener = completed::add;
+
+	@Before
+	public void setUp() {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:sql-monitor;DB_CLOSE_DELAY=-1");
+		pool.setUsername("test");
+		pool.setPassword("password");
+		pool.setMaximumPoolSize(2);
+		dataSource = new MonitoredDataSource(pool);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table if not exists ITEM (ID int)");
+		jdbcTemplate.execute("delete from ITEM");
+		SqlMonitor.addListener(listener);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		SqlMonitor.removeListener(listener);
+		dataSource.close();
+	}
+
+	@Test
+	public void statementsAndRowsCounted() {
+		SqlStatistics request = SqlMonitor.start(SqlStatistics.Scope.REQUEST, "GET /api/v1/items");
+		jdbcTemplate.batchUpdate("insert into ITEM values (?)", batch(5));
+		jdbcTemplate.queryForList("select ID from ITEM", Integer.class);
+		jdbcTemplate.update("update ITEM set ID = ID + 1 where ID < 2");
+		SqlMonitor.stop(request);
+
+		//batch, select and update
+		assertEquals(3, request.getStatements());
+		//5 inserted, 5 read, 2 updated
+		assertEquals(12, request.getRows());
+		assertTrue(request.getNanos() > 0);
+		assertEquals(1, completed.size());
+		assertNull(SqlMonitor.current());
+	}
+
+	@Test
+	public void nestedScopes() {
+		SqlStatistics request = SqlMonitor.start(SqlStatistics.Scope.REQUEST, "GET /api/v1/items");
+		jdbcTemplate.queryForList("select ID from ITEM", Integer.class);
+
+		SqlStatistics service = SqlMonitor.start(SqlStatistics.Scope.SERVICE, "ItemServiceImpl.list");
+		assertTrue(SqlMonitor.current() == request);
+		for (int i = 0; i < 3; i++) {
+			jdbcTemplate.queryForList("select ID from ITEM where ID = ?", Integer.class, i);
+		}
+		SqlMonitor.stop(service);
+		SqlMonitor.stop(request);
+
+		assertEquals(3, service.getStatements());
+		assertEquals(4, request.getStatements());
+		//service first
+		assertTrue(completed.get(0) == service);
+		assertTrue(completed.get(1) == request);
+	}
+
+	@Test
+	public void nothingRecordedOutsideScope() {
+		jdbcTemplate.queryForList("select ID from ITEM", Integer.class);
+		assertNull(SqlMonitor.current());
+		assertTrue(completed.isEmpty());
+	}
+
+	private List<Object[]> batch(int size) {
+		List<Object[]> batch = new ArrayList<Object[]>();
+		for (int i = 0; i < size; i++) {
+			batch.add(new Object[] { i });
+		}
+		return batch;
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.salesmanager.test.customer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.repositories.customer.CustomerRepository;
+import com.salesmanager.core.business.services.customer.CustomerServiceImpl;
+import com.salesmanager.core.business.utils.CacheUtils;
+import com.salesmanager.core.model.customer.CustomerCriteria;
+import com.salesmanager.core.model.customer.CustomerListItem;
+import com.salesmanager.core.model.customer.CustomerListPage;
+import com.salesmanager.core.model.merchant.MerchantStore;
+
+public class CustomerListItemsTest {
+
+	private CustomerServiceImpl customerService;
+	private CustomerRepository customerRepository;
+	private CacheUtils cache;
+	private MerchantStore store;
+
+	@Before
+	public void setUp() {
+		customerRepository = mock(CustomerRepository.class);
+		cache = mock(CacheUtils.class);
+		customerService = new CustomerServiceImpl(customerRepository);
+		ReflectionTestUtils.setField(customerService, "cache", cache);
+		store = new MerchantStore();
+		store.setId(1);
+	}
+
+	@Test
+	public void testNextPageCursor() {
+		CustomerCriteria criteria = new CustomerCriteria();
+		criteria.setPageSize(2);
+
+		when(customerRepository.listCustomerItems(store, criteria))
+				.thenReturn(Arrays.asList(item(30L), item(20L), item(10L)));
+		when(customerRepository.countCustomers(store, criteria)).thenReturn(3L);
+
+		CustomerListPage page = customerService.listCustomerItems(store, criteria);
+
+		assertEquals(2, page.getItems().size());
+		assertEquals(Long.valueOf(20L), page.getNextId());
+		assertEquals(3L, page.getTotalCount());
+		assertEquals(2, page.getTotalPages());
+	}
+
+	@Test
+	public void testLastPage() {
+		CustomerCriteria criteria = new CustomerCriteria();
+		criteria.setPageSize(2);
+		criteria.setLastId(20L);
+
+		when(customerRepository.listCustomerItems(store, criteria)).thenReturn(Collections.singletonList(item(10L)));
+
+		CustomerListPage page = customerService.listCustomerItems(store, criteria);
+
+		assertEquals(1, page.getItems().size());
+		assertTrue(page.isLast());
+		assertNull(page.getNextId());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyPageRejected() {
+		CustomerCriteria criteria = new CustomerCriteria();
+		criteria.setPageSize(0);
+
+		customerService.listCustomerItems(store, criteria);
+	}
+
+	@Test
+	public void testApproximateCountServedFromCache() throws Exception {
+		CustomerCriteria criteria = new CustomerCriteria();
+		criteria.setPageSize(2);
+		criteria.setEmail("john");
+		criteria.setApproximateCount(true);
+
+		when(customerRepository.listCustomerItems(store, criteria)).thenReturn(Collections.emptyList());
+		when(cache.getFromCache(anyString())).thenReturn(1000000L);
+
+		CustomerListPage page = customerService.listCustomerItems(store, criteria);
+
+		assertEquals(1000000L, page.getTotalCount());
+		assertTrue(page.isApproximateCount());
+		verify(customerRepository, never()).countCustomers(store, criteria);
+	}
+
+	private CustomerListItem item(Long id) {
+		CustomerListItem item = new CustomerListItem();
+		item.setId(id);
+		return item;
+	}
+
+}
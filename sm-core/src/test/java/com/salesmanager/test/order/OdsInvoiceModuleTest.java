@@ -0,0 +1,170 @@
+package com.salesmanager.test.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.modules.order.InvoiceModule;
+import com.salesmanager.core.business.modules.order.ODSInvoiceModule;
+import com.salesmanager.core.business.services.reference.country.CountryService;
+import com.salesmanager.core.business.services.reference.zone.ZoneService;
+import com.salesmanager.core.business.utils.ProductPriceUtils;
+import com.salesmanager.core.model.common.Billing;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderTotal;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.reference.language.Language;
+
+public class OdsInvoiceModuleTest {
+
+	private ODSInvoiceModule invoiceModule;
+	private MerchantStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		ZoneService zoneService = mock(ZoneService.class);
+		CountryService countryService = mock(CountryService.class);
+		ProductPriceUtils priceUtil = mock(ProductPriceUtils.class);
+		when(zoneService.getZones(any(Language.class))).thenReturn(Collections.emptyMap());
+		when(countryService.getCountriesMap(any(Language.class))).thenReturn(Collections.emptyMap());
+		when(priceUtil.getStoreFormatedAmountWithCurrency(any(), any())).thenAnswer(i -> "$" + i.getArgument(1));
+		when(priceUtil.getOrderProductTotalPrice(any(), any())).thenReturn(new BigDecimal("20.00"));
+
+		invoiceModule = new ODSInvoiceModule();
+		ReflectionTestUtils.setField(invoiceModule, "zoneService", zoneService);
+		ReflectionTestUtils.setField(invoiceModule, "countryService", countryService);
+		ReflectionTestUtils.setField(invoiceModule, "priceUtil", priceUtil);
+
+		store = new MerchantStore();
+		store.setId(1);
+		store.setCode("DEFAULT");
+		store.setStorename("Shopizer Store");
+		store.setStoreaddress("1 Main Street");
+		store.setStorecity("Montreal");
+	}
+
+	@Test
+	public void invoiceWrittenInMemory() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		invoiceModule.writeInvoice(store, order(100L), language("en"), out);
+
+		Map<String, byte[]> entries = unzip(out.toByteArray());
+		//mimetype first so the document type is recognized
+		assertEquals("mimetype", entries.keySet().iterator().next());
+		assertEquals("application/vnd.oasis.opendocument.spreadsheet",
+				new String(entries.get("mimetype"), StandardCharsets.US_ASCII));
+		assertTrue(entries.containsKey("styles.xml"));
+
+		String content = new String(entries.get("content.xml"), StandardCharsets.UTF_8);
+		assertTrue(content.contains("Shopizer Store"));
+		assertTrue(content.contains("1 Main Street, Montreal"));
+		assertTrue(content.contains("Jane Doe"));
+		assertTrue(content.contains("Red shirt"));
+		assertTrue(content.contains("$10.00"));
+		assertTrue(content.contains("$20.00"));
+		assertTrue(content.contains("Total"));
+		//template sample values replaced
+		assertFalse(content.contains("Company name"));
+		assertFalse(content.contains("Phone number"));
+		assertFalse(content.contains("TODAY()"));
+	}
+
+	@Test
+	public void templateParsedOncePerLanguage() throws Exception {
+		invoiceModule.writeInvoice(store, order(1L), language("fr"), new ByteArrayOutputStream());
+		invoiceModule.writeInvoice(store, order(2L), language("fr"), new ByteArrayOutputStream());
+		//no template for this language, default template
+		invoiceModule.writeInvoice(store, order(3L), language("de"), new ByteArrayOutputStream());
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> templates = (Map<String, Object>) ReflectionTestUtils.getField(invoiceModule, "templates");
+		assertEquals(3, templates.size());
+		assertTrue(templates.get("de") == templates.get(""));
+	}
+
+	@Test
+	public void invoicesWrittenToZip() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InvoiceModule.Batch batch = invoiceModule.newBatch(store, language("en"), out);
+		for (long id = 1; id <= 3; id++) {
+			batch.add(order(id));
+		}
+		batch.finish();
+
+		Map<String, byte[]> invoices = unzip(out.toByteArray());
+		assertEquals(3, invoices.size());
+		for (long id = 1; id <= 3; id++) {
+			Map<String, byte[]> invoice = unzip(invoices.get("invoice-" + id + ".ods"));
+			assertTrue(invoice.containsKey("content.xml"));
+		}
+	}
+
+	private Map<String, byte[]> unzip(byte[] data) throws Exception {
+		Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(data))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				entries.put(entry.getName(), IOUtils.toByteArray(zip));
+			}
+		}
+		return entries;
+	}
+
+	private Language language(String code) {
+		Language language = new Language();
+		language.setCode(code);
+		return language;
+	}
+
+	private Order order(Long id) {
+		Order order = new Order();
+		order.setId(id);
+
+		Billing billing = new Billing();
+		billing.setFirstName("Jane");
+		billing.setLastName("Doe");
+		billing.setAddress("2 Second Street");
+		billing.setCity("Toronto");
+		order.setBilling(billing);
+
+		OrderProduct product = new OrderProduct();
+		product.setProductName("Red shirt");
+		product.setProductQuantity(2);
+		product.setOneTimeCharge(new BigDecimal("10.00"));
+		Set<OrderProduct> products = new HashSet<OrderProduct>();
+		products.add(product);
+		order.setOrderProducts(products);
+
+		List<OrderTotal> totals = new ArrayList<OrderTotal>();
+		OrderTotal total = new OrderTotal();
+		total.setText("Total");
+		total.setValue(new BigDecimal("20.00"));
+		totals.add(total);
+		order.setOrderTotal(new HashSet<OrderTotal>(totals));
+		return order;
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.salesmanager.test.order;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.repositories.order.OrderRepository;
+import com.salesmanager.core.business.repositories.order.orderproduct.OrderProductRepository;
+import com.salesmanager.core.business.services.order.OrderServiceImpl;
+import com.salesmanager.core.business.utils.CacheUtils;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderCriteria;
+import com.salesmanager.core.model.order.OrderListItem;
+import com.salesmanager.core.model.order.OrderListPage;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+
+public class OrderListItemsTest {
+
+	private OrderServiceImpl orderService;
+	private OrderRepository orderRepository;
+	private OrderProductRepository orderProductRepository;
+	private CacheUtils cache;
+	private MerchantStore store;
+
+	@Before
+	public void setUp() {
+		orderRepository = mock(OrderRepository.class);
+		orderProductRepository = mock(OrderProductRepository.class);
+		cache = mock(CacheUtils.class);
+		orderService = new OrderServiceImpl(orderRepository);
+		ReflectionTestUtils.setField(orderService, "orderProductRepository", orderProductRepository);
+		ReflectionTestUtils.setField(orderService, "cache", cache);
+		store = new MerchantStore();
+		store.setId(1);
+	}
+
+	@Test
+	public void testNextPageCursorAndLineItems() {
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setPageSize(2);
+
+		Date date = new Date();
+		when(orderRepository.listOrderItems(store, criteria))
+				.thenReturn(Arrays.asList(item(3L, date), item(2L, date), item(1L, date)));
+		when(orderProductRepository.findByOrderIds(any()))
+				.thenReturn(Arrays.asList(orderProduct(3L), orderProduct(3L), orderProduct(2L)));
+		when(orderRepository.countOrders(store, criteria)).thenReturn(3L);
+
+		OrderListPage page = orderService.listOrderItems(store, criteria);
+
+		assertEquals(2, page.getItems().size());
+		assertEquals(Long.valueOf(2L), page.getNextId());
+		assertEquals(date, page.getNextDatePurchased());
+		assertEquals(2, page.getItems().get(0).getOrderProducts().size());
+		assertEquals(1, page.getItems().get(1).getOrderProducts().size());
+		assertEquals(3L, page.getTotalCount());
+		assertEquals(2, page.getTotalPages());
+	}
+
+	@Test
+	public void testLastPage() {
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setPageSize(2);
+
+		when(orderRepository.listOrderItems(store, criteria)).thenReturn(Collections.singletonList(item(1L, new Date())));
+		when(orderProductRepository.findByOrderIds(any())).thenReturn(Collections.emptyList());
+
+		OrderListPage page = orderService.listOrderItems(store, criteria);
+
+		assertTrue(page.isLast());
+		assertNull(page.getNextDatePurchased());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyPageRejected() {
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setPageSize(0);
+
+		orderService.listOrderItems(store, criteria);
+	}
+
+	@Test
+	public void testApproximateCountServedFromCache() throws Exception {
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setPageSize(2);
+		criteria.setApproximateCount(true);
+
+		when(orderRepository.listOrderItems(store, criteria)).thenReturn(Collections.emptyList());
+		when(cache.getFromCache(anyString())).thenReturn(500L);
+
+		OrderListPage page = orderService.listOrderItems(store, criteria);
+
+		assertEquals(500L, page.getTotalCount());
+		assertTrue(page.isApproximateCount());
+		verify(orderRepository, never()).countOrders(store, criteria);
+	}
+
+	@Test
+	public void testExportUsesConfiguredCursorSettings() {
+		ReflectionTestUtils.setField(orderService, "exportFetchSize", 1000);
+		ReflectionTestUtils.setField(orderService, "exportChunkSize", 50);
+
+		OrderCriteria criteria = new OrderCriteria();
+		criteria.setStartDate(new Date());
+		Consumer<Order> consumer = order -> {};
+
+		when(orderRepository.exportOrders(store, criteria, 1000, 50, consumer)).thenReturn(120L);
+
+		assertEquals(120L, orderService.exportOrders(store, criteria, consumer));
+		verify(orderRepository).exportOrders(eq(store), eq(criteria), eq(1000), eq(50), eq(consumer));
+	}
+
+	private OrderListItem item(Long id, Date date) {
+		OrderListItem item = new OrderListItem();
+		item.setId(id);
+		item.setDatePurchased(date);
+		return item;
+	}
+
+	private OrderProduct orderProduct(Long orderId) {
+		Order order = new Order();
+		order.setId(orderId);
+		OrderProduct orderProduct = new OrderProduct();
+		orderProduct.setOrder(order);
+		return orderProduct;
+	}
+
+}
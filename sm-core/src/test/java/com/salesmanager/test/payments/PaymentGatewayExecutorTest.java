@@ -0,0 +1,269 @@
+package com.salesmanager.test.payments;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.payments.GatewayStatistics;
+import com.salesmanager.core.business.services.payments.GatewayStatistics.CircuitState;
+import com.salesmanager.core.business.services.payments.GatewayStatistics.Outcome;
+import com.salesmanager.core.business.services.payments.PaymentGatewayExecutorImpl;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.payments.Payment;
+import com.salesmanager.core.model.payments.Transaction;
+import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
+import com.salesmanager.core.model.system.IntegrationConfiguration;
+import com.salesmanager.core.model.system.IntegrationModule;
+import com.salesmanager.core.modules.integration.IntegrationException;
+import com.salesmanager.core.modules.integration.payment.model.PaymentModule;
+
+/**
+ * Gateway isolation against local stub payment modules
+ */
+public class PaymentGatewayExecutorTest {
+
+	private static final String MODULE = "stub";
+
+	private PaymentGatewayExecutorImpl executor;
+	private InstrumentedTaskExecutor paymentExecutor;
+	private StubPaymentModule gateway;
+	private ExecutorService callers;
+
+	@Before
+	public void setUp() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty("payment.gateway." + MODULE + ".maxConcurrent", "1");
+
+		paymentExecutor = new InstrumentedTaskExecutor("payment", 4, 100, 0, false);
+		paymentExecutor.initialize();
+
+		executor = new PaymentGatewayExecutorImpl();
+		ReflectionTestUtils.setField(executor, "executor", paymentExecutor);
+		ReflectionTestUtils.setField(executor, "environment", environment);
+		ReflectionTestUtils.setField(executor, "timeout", 200L);
+		ReflectionTestUtils.setField(executor, "maxConcurrent", 20);
+		ReflectionTestUtils.setField(executor, "failureThreshold", 2);
+		ReflectionTestUtils.setField(executor, "openDuration", 100L);
+
+		gateway = new StubPaymentModule();
+		callers = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		gateway.release.countDown();
+		callers.shutdownNow();
+		paymentExecutor.shutdown();
+	}
+
+	@Test
+	public void testSuccessfulCallIsMeasured() throws Exception {
+		Transaction transaction = authorize();
+
+		assertNotNull(transaction);
+		GatewayStatistics statistics = statistics();
+		assertEquals(1, statistics.getCount());
+		assertEquals(Long.valueOf(1), statistics.getOutcomes().get(Outcome.SUCCESS));
+		assertEquals(Long.valueOf(1), statistics.getLatency().get("50"));
+		assertEquals(CircuitState.CLOSED, statistics.getCircuitState());
+	}
+
+	/**
+	 * A hanging gateway is abandoned once the deadline is reached
+	 */
+	@Test
+	public void testSlowGatewayTimesOut() throws Exception {
+		gateway.hang = true;
+
+		long start = System.currentTimeMillis();
+		try {
+			authorize();
+			fail("Expected timeout");
+		} catch (ServiceException e) {
+			assertTrue(e.getMessage().contains("timed out"));
+			assertEquals(ServiceException.EXCEPTION_PAYMENT_TIMEOUT, e.getExceptionType());
+		}
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		assertEquals(Long.valueOf(1), statistics().getOutcomes().get(Outcome.TIMEOUT));
+	}
+
+	/**
+	 * Calls exceeding the module capacity are rejected instead of queued
+	 */
+	@Test
+	public void testBulkheadRejectsConcurrentCalls() throws Exception {
+		//the first call must still be running when the second one arrives
+		ReflectionTestUtils.setField(executor, "timeout", 5000L);
+		gateway.hang = true;
+		callers.submit(() -> authorize());
+		assertTrue(gateway.started.await(1, TimeUnit.SECONDS));
+
+		gateway.hang = false;
+		try {
+			authorize();
+			fail("Expected rejection");
+		} catch (ServiceException e) {
+			assertTrue(e.getMessage().contains("too many calls"));
+		}
+		assertEquals(Long.valueOf(1), statistics().getOutcomes().get(Outcome.REJECTED));
+		assertEquals(1, gateway.calls.get());
+	}
+
+	/**
+	 * Consecutive technical failures open the circuit, a trial call
+	 * closes it once the gateway recovers
+	 */
+	@Test
+	public void testCircuitOpensOnFailuresAndRecovers() throws Exception {
+		gateway.failure = new IntegrationException("connection reset", new IOException("connection reset"));
+		for (int i = 0; i < 2; i++) {
+			try {
+				authorize();
+				fail("Expected failure");
+			} catch (IntegrationException e) {
+				//expected
+			}
+		}
+		assertEquals(CircuitState.OPEN, statistics().getCircuitState());
+
+		gateway.failure = null;
+		try {
+			authorize();
+			fail("Expected short circuit");
+		} catch (ServiceException e) {
+			assertTrue(e.getMessage().contains("unavailable"));
+		}
+		assertEquals(2, gateway.calls.get());
+
+		Thread.sleep(150);
+		assertNotNull(authorize());
+		GatewayStatistics statistics = statistics();
+		assertEquals(CircuitState.CLOSED, statistics.getCircuitState());
+		assertEquals(Long.valueOf(2), statistics.getOutcomes().get(Outcome.ERROR));
+		assertEquals(Long.valueOf(1), statistics.getOutcomes().get(Outcome.SHORT_CIRCUITED));
+	}
+
+	/**
+	 * Declined payments do not open the circuit
+	 */
+	@Test
+	public void testDeclinedPaymentsKeepCircuitClosed() throws Exception {
+		IntegrationException declined = new IntegrationException("card declined");
+		declined.setExceptionType(IntegrationException.EXCEPTION_PAYMENT_DECLINED);
+		gateway.failure = declined;
+		for (int i = 0; i < 3; i++) {
+			try {
+				authorize();
+				fail("Expected decline");
+			} catch (IntegrationException e) {
+				assertEquals(IntegrationException.EXCEPTION_PAYMENT_DECLINED, e.getExceptionType());
+			}
+		}
+
+		GatewayStatistics statistics = statistics();
+		assertEquals(CircuitState.CLOSED, statistics.getCircuitState());
+		assertEquals(Long.valueOf(3), statistics.getOutcomes().get(Outcome.DECLINED));
+	}
+
+	private Transaction authorize() throws ServiceException {
+		return executor.execute(MODULE, "authorize",
+				() -> gateway.authorize(null, null, null, BigDecimal.TEN, null, null, null));
+	}
+
+	private GatewayStatistics statistics() {
+		List<GatewayStatistics> statistics = executor.statistics();
+		assertEquals(1, statistics.size());
+		return statistics.get(0);
+	}
+
+	/**
+	 * Local gateway answering immediately, failing or hanging on demand
+	 */
+	private static class StubPaymentModule implements PaymentModule {
+
+		private volatile boolean hang = false;
+		private volatile IntegrationException failure;
+		private final AtomicInteger calls = new AtomicInteger();
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void validateModuleConfiguration(IntegrationConfiguration integrationConfiguration,
+				MerchantStore store) throws IntegrationException {
+		}
+
+		@Override
+		public Transaction initTransaction(MerchantStore store, Customer customer, BigDecimal amount,
+				Payment payment, IntegrationConfiguration configuration, IntegrationModule module)
+				throws IntegrationException {
+			return call(amount);
+		}
+
+		@Override
+		public Transaction authorize(MerchantStore store, Customer customer, List<ShoppingCartItem> items,
+				BigDecimal amount, Payment payment, IntegrationConfiguration configuration,
+				IntegrationModule module) throws IntegrationException {
+			return call(amount);
+		}
+
+		@Override
+		public Transaction capture(MerchantStore store, Customer customer, Order order,
+				Transaction capturableTransaction, IntegrationConfiguration configuration,
+				IntegrationModule module) throws IntegrationException {
+			return call(capturableTransaction.getAmount());
+		}
+
+		@Override
+		public Transaction authorizeAndCapture(MerchantStore store, Customer customer,
+				List<ShoppingCartItem> items, BigDecimal amount, Payment payment,
+				IntegrationConfiguration configuration, IntegrationModule module) throws IntegrationException {
+			return call(amount);
+		}
+
+		@Override
+		public Transaction refund(boolean partial, MerchantStore store, Transaction transaction, Order order,
+				BigDecimal amount, IntegrationConfiguration configuration, IntegrationModule module)
+				throws IntegrationException {
+			return call(amount);
+		}
+
+		private Transaction call(BigDecimal amount) throws IntegrationException {
+			calls.incrementAndGet();
+			started.countDown();
+			if (hang) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			Transaction transaction = new Transaction();
+			transaction.setAmount(amount);
+			return transaction;
+		}
+	}
+
+}
@@ -0,0 +1,258 @@
+package com.salesmanager.test.payments;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.order.OrderManagementService;
+import com.salesmanager.core.business.services.payments.PaymentGatewayExecutor;
+import com.salesmanager.core.business.services.payments.PaymentGatewayExecutor.GatewayCall;
+import com.salesmanager.core.business.services.payments.PaymentServiceImpl;
+import com.salesmanager.core.business.services.payments.TransactionService;
+import com.salesmanager.core.business.utils.CoreConfiguration;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.orderstatus.OrderStatus;
+import com.salesmanager.core.model.payments.Payment;
+import com.salesmanager.core.model.payments.PaymentType;
+import com.salesmanager.core.model.payments.Transaction;
+import com.salesmanager.core.model.payments.TransactionType;
+import com.salesmanager.core.model.system.IntegrationConfiguration;
+import com.salesmanager.core.model.system.IntegrationModule;
+import com.salesmanager.core.modules.integration.payment.model.PaymentModule;
+
+/**
+ * A payment transaction is saved as pending before the gateway is called
+ * and completed once the gateway answers
+ */
+public class PendingPaymentTest {
+
+	private static final String MODULE = "stripe";
+
+	private PaymentServiceImpl paymentService;
+	private TransactionService transactionService;
+	private PaymentGatewayExecutor executor;
+	private PaymentModule module;
+	private OrderManagementService orderManagementService;
+	private PlatformTransactionManager transactionManager;
+	private TransactionStatus status;
+
+	private MerchantStore store;
+	private Customer customer;
+	private Payment payment;
+	private Order order;
+
+	@Before
+	public void setUp() throws Exception {
+		transactionService = mock(TransactionService.class);
+		executor = mock(PaymentGatewayExecutor.class);
+		module = mock(PaymentModule.class);
+		orderManagementService = mock(OrderManagementService.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		status = mock(TransactionStatus.class);
+		when(transactionManager.getTransaction(any())).thenReturn(status);
+
+		paymentService = spy(new PaymentServiceImpl());
+		ReflectionTestUtils.setField(paymentService, "transactionService", transactionService);
+		ReflectionTestUtils.setField(paymentService, "paymentGatewayExecutor", executor);
+		ReflectionTestUtils.setField(paymentService, "coreConfiguration", mock(CoreConfiguration.class));
+		ReflectionTestUtils.setField(paymentService, "paymentModules", Collections.singletonMap(MODULE, module));
+		ReflectionTestUtils.setField(paymentService, "orderManagementService", orderManagementService);
+		ReflectionTestUtils.setField(paymentService, "transactionManager", transactionManager);
+
+		store = new MerchantStore();
+		customer = new Customer();
+		payment = new Payment();
+		payment.setModuleName(MODULE);
+		payment.setPaymentType(PaymentType.CREDITCARD);
+		order = new Order();
+		order.setTotal(new BigDecimal("10.00"));
+		order.setPaymentModuleCode(MODULE);
+
+		IntegrationConfiguration configuration = new IntegrationConfiguration();
+		configuration.setActive(true);
+		Map<String, String> keys = new HashMap<String, String>();
+		keys.put("transaction", TransactionType.AUTHORIZECAPTURE.name());
+		configuration.setIntegrationKeys(keys);
+		doReturn(Collections.singletonMap(MODULE, configuration)).when(paymentService).getPaymentModulesConfigured(store);
+		doReturn(new IntegrationModule()).when(paymentService).getPaymentMethodByCode(store, MODULE);
+
+		doAnswer(invocation -> {
+			Transaction transaction = invocation.getArgument(0);
+			assertEquals("PENDING", transaction.getTransactionDetails().get("PAYMENT_STATUS"));
+			assertNull(transaction.getOrder());
+			transaction.setId(1L);
+			return null;
+		}).when(transactionService).create(any(Transaction.class));
+	}
+
+	@Test
+	public void testCompletedPaymentUpdatesPendingTransaction() throws Exception {
+		Transaction result = new Transaction();
+		result.setAmount(order.getTotal());
+		result.setPaymentType(PaymentType.CREDITCARD);
+		result.setTransactionType(TransactionType.AUTHORIZECAPTURE);
+		result.getTransactionDetails().put("TRANSACTIONID", "ch_1");
+		when(module.authorizeAndCapture(any(), any(), any(), any(), any(), any(), any())).thenReturn(result);
+		when(executor.execute(eq(MODULE), anyString(), any()))
+				.thenAnswer(invocation -> ((GatewayCall<?>) invocation.getArgument(2)).call());
+
+		Transaction transaction = paymentService.processPayment(customer, store, payment, Collections.emptyList(), order);
+
+		ArgumentCaptor<Transaction> updated = ArgumentCaptor.forClass(Transaction.class);
+		verify(transactionService).update(updated.capture());
+		assertSame(transaction, updated.getValue());
+		assertEquals(Long.valueOf(1), transaction.getId());
+		assertEquals("{\"TRANSACTIONID\":\"ch_1\"}", transaction.getDetails());
+	}
+
+	@Test
+	public void testDeclinedPaymentIsRemoved() throws Exception {
+		when(executor.execute(eq(MODULE), anyString(), any()))
+				.thenThrow(new ServiceException(ServiceException.EXCEPTION_PAYMENT_DECLINED, "declined"));
+
+		try {
+			paymentService.processPayment(customer, store, payment, Collections.emptyList(), order);
+			fail("Expected decline");
+		} catch (ServiceException e) {
+			assertEquals(ServiceException.EXCEPTION_PAYMENT_DECLINED, e.getExceptionType());
+		}
+
+		ArgumentCaptor<Transaction> pending = ArgumentCaptor.forClass(Transaction.class);
+		verify(transactionService).create(pending.capture());
+		verify(transactionService).delete(pending.getValue());
+		verify(transactionService, never()).update(any(Transaction.class));
+	}
+
+	/**
+	 * The gateway may accept a payment after our deadline, the transaction
+	 * stays pending until it is reconciled
+	 */
+	@Test
+	public void testTimedOutPaymentStaysPending() throws Exception {
+		when(executor.execute(eq(MODULE), anyString(), any()))
+				.thenThrow(new ServiceException(ServiceException.EXCEPTION_PAYMENT_TIMEOUT, "timed out"));
+
+		try {
+			paymentService.processPayment(customer, store, payment, Collections.emptyList(), order);
+			fail("Expected timeout");
+		} catch (ServiceException e) {
+			assertEquals(ServiceException.EXCEPTION_PAYMENT_TIMEOUT, e.getExceptionType());
+		}
+
+		verify(transactionService).create(any(Transaction.class));
+		verify(transactionService, never()).update(any(Transaction.class));
+		verify(transactionService, never()).delete(any(Transaction.class));
+		assertNull(order.getStatus());
+	}
+
+	/**
+	 * The capture is attached to its order with the order status, in a
+	 * transaction started once the gateway answered
+	 */
+	@Test
+	public void testCaptureIsSavedWithOrderAfterGateway() throws Exception {
+		order.setId(5L);
+		Transaction authorized = new Transaction();
+		authorized.setAmount(order.getTotal());
+		authorized.setPaymentType(PaymentType.CREDITCARD);
+		when(transactionService.getCapturableTransaction(order)).thenReturn(authorized);
+		Transaction result = new Transaction();
+		result.setTransactionType(TransactionType.CAPTURE);
+		when(module.capture(any(), any(), any(), any(), any(), any())).thenReturn(result);
+		when(executor.execute(eq(MODULE), eq("capture"), any()))
+				.thenAnswer(invocation -> ((GatewayCall<?>) invocation.getArgument(2)).call());
+
+		Transaction transaction = paymentService.processCapturePayment(order, customer, store);
+
+		InOrder inOrder = inOrder(transactionService, executor, transactionManager, orderManagementService);
+		inOrder.verify(transactionService).create(transaction);
+		inOrder.verify(executor).execute(eq(MODULE), eq("capture"), any());
+		inOrder.verify(transactionManager).getTransaction(any());
+		inOrder.verify(transactionService).update(transaction);
+		inOrder.verify(orderManagementService).saveOrUpdate(order);
+		inOrder.verify(transactionManager).commit(status);
+		assertSame(order, transaction.getOrder());
+		assertEquals(Long.valueOf(1), transaction.getId());
+		assertEquals(OrderStatus.PROCESSED, order.getStatus());
+	}
+
+	@Test
+	public void testDeclinedRefundIsRemoved() throws Exception {
+		order.setId(5L);
+		when(transactionService.getRefundableTransaction(order)).thenReturn(new Transaction());
+		when(executor.execute(eq(MODULE), eq("refund"), any()))
+				.thenThrow(new ServiceException(ServiceException.EXCEPTION_TRANSACTION_DECLINED, "declined"));
+
+		try {
+			paymentService.processRefund(order, customer, store, new BigDecimal("5.00"));
+			fail("Expected decline");
+		} catch (ServiceException e) {
+			assertEquals(ServiceException.EXCEPTION_TRANSACTION_DECLINED, e.getExceptionType());
+		}
+
+		ArgumentCaptor<Transaction> pending = ArgumentCaptor.forClass(Transaction.class);
+		verify(transactionService).create(pending.capture());
+		assertEquals(TransactionType.REFUND, pending.getValue().getTransactionType());
+		assertEquals("5", pending.getValue().getTransactionDetails().get("PAYMENT_ORDER"));
+		verify(transactionService).delete(pending.getValue());
+		verify(transactionManager, never()).getTransaction(any());
+		verify(orderManagementService, never()).saveOrUpdate(order);
+	}
+
+	/**
+	 * The refund accepted by the gateway stays without order when the order
+	 * cannot be updated
+	 */
+	@Test
+	public void testRefundOrderUpdateFailureRollsBack() throws Exception {
+		order.setId(5L);
+		when(transactionService.getRefundableTransaction(order)).thenReturn(new Transaction());
+		when(module.refund(eq(true), any(), any(), any(), any(), any(), any())).thenReturn(new Transaction());
+		when(executor.execute(eq(MODULE), eq("refund"), any()))
+				.thenAnswer(invocation -> ((GatewayCall<?>) invocation.getArgument(2)).call());
+		doThrow(new ServiceException(ServiceException.EXCEPTION_ERROR, "cannot save")).when(orderManagementService).saveOrUpdate(order);
+
+		try {
+			paymentService.processRefund(order, customer, store, new BigDecimal("5.00"));
+			fail("Expected order update failure");
+		} catch (ServiceException e) {
+			assertEquals("cannot save", e.getMessage());
+		}
+
+		verify(transactionManager).rollback(status);
+		verify(transactionManager, never()).commit(status);
+		verify(transactionService, times(1)).create(any(Transaction.class));
+		verify(transactionService, never()).delete(any(Transaction.class));
+	}
+
+}
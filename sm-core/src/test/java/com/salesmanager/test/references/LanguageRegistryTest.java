@@ -0,0 +1,89 @@
+package com.salesmanager.test.references;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.cache.CacheInvalidationBus;
+import com.salesmanager.core.business.repositories.reference.language.LanguageRepository;
+import com.salesmanager.core.business.services.reference.language.LanguageRegistry;
+import com.salesmanager.core.business.services.reference.language.LanguageServiceImpl;
+import com.salesmanager.core.business.utils.CacheUtils;
+import com.salesmanager.core.model.reference.language.Language;
+
+public class LanguageRegistryTest {
+
+	private final Language en = new Language("en");
+	private final Language fr = new Language("fr");
+	private final Language zh = new Language("zh_TW");
+
+	@Test
+	public void resolveByCode() {
+		LanguageRegistry registry = LanguageRegistry.of(Arrays.asList(en, fr, zh));
+
+		assertSame(en, registry.get("en"));
+		assertSame(fr, registry.get("FR"));
+		assertSame(zh, registry.get("zh_TW"));
+		assertNull(registry.get("es"));
+		assertNull(registry.get("e1"));
+		assertNull(registry.get((String) null));
+		assertSame(en, registry.getDefaultLanguage());
+		assertEquals(3, registry.getLanguages().size());
+	}
+
+	@Test
+	public void resolveByLocale() {
+		LanguageRegistry registry = LanguageRegistry.of(Arrays.asList(en, fr));
+
+		assertSame(fr, registry.get(Locale.CANADA_FRENCH));
+		assertSame(en, registry.get(Locale.US));
+		assertNull(registry.get(Locale.GERMANY));
+	}
+
+	@Test
+	public void noDefaultLanguage() {
+		LanguageRegistry registry = LanguageRegistry.of(null);
+
+		assertNull(registry.getDefaultLanguage());
+		assertEquals(0, registry.getLanguages().size());
+	}
+
+	@Test
+	public void registryReloadedWhenLanguageSaved() throws Exception {
+		LanguageRepository repository = mock(LanguageRepository.class);
+		CacheUtils cache = mock(CacheUtils.class);
+		List<Language> languages = new ArrayList<Language>(Arrays.asList(en));
+		when(repository.findAll()).thenAnswer(i -> new ArrayList<Language>(languages));
+
+		LanguageServiceImpl service = new LanguageServiceImpl(repository);
+		ReflectionTestUtils.setField(service, "cache", cache);
+		ReflectionTestUtils.setField(service, "cacheInvalidationBus", mock(CacheInvalidationBus.class));
+
+		assertSame(en, service.getByCode("en"));
+		assertNull(service.getByCode("fr"));
+		assertEquals("en", service.toLanguage(Locale.FRANCE).getCode());
+		verify(repository, times(1)).findAll();
+
+		languages.add(fr);
+		service.save(fr);
+
+		assertSame(fr, service.getByCode("fr"));
+		assertSame(fr, service.toLanguage(Locale.FRANCE));
+		verify(repository, times(2)).findAll();
+		verify(cache).removeFromCache(anyString());
+	}
+
+}
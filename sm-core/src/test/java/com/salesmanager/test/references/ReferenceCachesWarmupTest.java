@@ -0,0 +1,117 @@
+package com.salesmanager.test.references;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.reference.country.CountryService;
+import com.salesmanager.core.business.services.reference.init.ReferenceCachesWarmup;
+import com.salesmanager.core.business.services.reference.language.LanguageService;
+import com.salesmanager.core.business.services.reference.zone.ZoneService;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Warm up on an executor running the tasks on the calling thread, a failing
+ * warm up does not fail the context refresh
+ */
+public class ReferenceCachesWarmupTest {
+
+	private ReferenceCachesWarmup warmup;
+	private LanguageService languageService;
+	private CountryService countryService;
+	private ZoneService zoneService;
+
+	private final Language en = new Language("en");
+	private final Language fr = new Language("fr");
+
+	@Before
+	public void setUp() throws Exception {
+		en.setId(1);
+		fr.setId(2);
+		languageService = mock(LanguageService.class);
+		countryService = mock(CountryService.class);
+		zoneService = mock(ZoneService.class);
+		when(languageService.getLanguages()).thenReturn(Arrays.asList(en, fr));
+
+		warmup = new ReferenceCachesWarmup();
+		ReflectionTestUtils.setField(warmup, "enabled", true);
+		ReflectionTestUtils.setField(warmup, "languageService", languageService);
+		ReflectionTestUtils.setField(warmup, "countryService", countryService);
+		ReflectionTestUtils.setField(warmup, "zoneService", zoneService);
+		ReflectionTestUtils.setField(warmup, "executor", (TaskExecutor) Runnable::run);
+	}
+
+	@Test
+	public void testCachesOfEveryLanguageLoaded() throws Exception {
+		warmup.warmup();
+
+		verify(countryService).getCountriesMap(en);
+		verify(countryService).getCountriesMap(fr);
+		verify(zoneService).getZones(en);
+		verify(zoneService).getZones(fr);
+	}
+
+	@Test
+	public void testWarmupRunsOnce() throws Exception {
+		warmup.warmup();
+		warmup.warmup();
+
+		verify(languageService, times(1)).getLanguages();
+	}
+
+	@Test
+	public void testLanguageFailureIsLogged() throws Exception {
+		when(languageService.getLanguages()).thenThrow(new ServiceException("database unavailable"));
+
+		warmup.warmup();
+
+		verify(countryService, never()).getCountriesMap(any(Language.class));
+	}
+
+	/**
+	 * A cache which cannot be loaded does not stop the other caches
+	 */
+	@Test
+	public void testCacheFailureDoesNotStopOthers() throws Exception {
+		when(countryService.getCountriesMap(en)).thenThrow(new ServiceException("cannot load countries"));
+
+		warmup.warmup();
+
+		verify(countryService).getCountriesMap(fr);
+		verify(zoneService).getZones(en);
+		verify(zoneService).getZones(fr);
+	}
+
+	@Test
+	public void testRejectedWarmupIsLogged() throws Exception {
+		ReflectionTestUtils.setField(warmup, "executor", (TaskExecutor) task -> {
+			throw new TaskRejectedException("reference executor full");
+		});
+
+		warmup.warmup();
+
+		verify(languageService, never()).getLanguages();
+	}
+
+	@Test
+	public void testDisabledWarmup() throws Exception {
+		ReflectionTestUtils.setField(warmup, "enabled", false);
+
+		warmup.warmup();
+
+		verify(languageService, never()).getLanguages();
+	}
+
+}
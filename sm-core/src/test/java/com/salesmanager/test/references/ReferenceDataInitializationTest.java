@@ -0,0 +1,243 @@
+package com.salesmanager.test.references;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.catalog.product.manufacturer.ManufacturerService;
+import com.salesmanager.core.business.services.catalog.product.type.ProductTypeService;
+import com.salesmanager.core.business.services.merchant.MerchantStoreService;
+import com.salesmanager.core.business.services.reference.country.CountryService;
+import com.salesmanager.core.business.services.reference.currency.CurrencyService;
+import com.salesmanager.core.business.services.reference.init.InitializationDatabaseImpl;
+import com.salesmanager.core.business.services.reference.language.LanguageService;
+import com.salesmanager.core.business.services.reference.loader.IntegrationModulesLoader;
+import com.salesmanager.core.business.services.reference.loader.ZonesLoader;
+import com.salesmanager.core.business.services.reference.zone.ZoneService;
+import com.salesmanager.core.business.services.system.ModuleConfigurationService;
+import com.salesmanager.core.business.services.system.optin.OptinService;
+import com.salesmanager.core.business.services.tax.TaxClassService;
+import com.salesmanager.core.business.services.user.GroupService;
+import com.salesmanager.core.business.services.user.PermissionService;
+import com.salesmanager.core.constants.SchemaConstant;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.country.Country;
+import com.salesmanager.core.model.reference.currency.Currency;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.core.model.reference.zone.Zone;
+import com.salesmanager.core.model.system.IntegrationModule;
+
+/**
+ * Reference data created in a fresh database, the services record what is
+ * saved. Reference files are read on the reference executor while
+ * languages and countries are created
+ */
+public class ReferenceDataInitializationTest {
+
+	private InitializationDatabaseImpl initialization;
+	private InstrumentedTaskExecutor referenceExecutor;
+	private ZonesLoader zonesLoader;
+	private ModuleConfigurationService moduleConfigurationService;
+	private MerchantStoreService merchantService;
+
+	private final List<Language> languages = new ArrayList<Language>();
+	private final List<Country> countries = new ArrayList<Country>();
+	private final List<Zone> zones = new ArrayList<Zone>();
+	private final List<Currency> currencies = new ArrayList<Currency>();
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		LanguageService languageService = mock(LanguageService.class);
+		doAnswer(invocation -> languages.add(invocation.getArgument(0))).when(languageService).create(any(Language.class));
+		when(languageService.list()).thenAnswer(invocation -> new ArrayList<Language>(languages));
+
+		CountryService countryService = mock(CountryService.class);
+		doAnswer(invocation -> {
+			((Iterable<Country>) invocation.getArgument(0)).forEach(countries::add);
+			return null;
+		}).when(countryService).saveAll(anyIterable());
+		when(countryService.list()).thenAnswer(invocation -> new ArrayList<Country>(countries));
+
+		ZoneService zoneService = mock(ZoneService.class);
+		doAnswer(invocation -> {
+			((Iterable<Zone>) invocation.getArgument(0)).forEach(zones::add);
+			return null;
+		}).when(zoneService).saveAll(anyIterable());
+
+		CurrencyService currencyService = mock(CurrencyService.class);
+		doAnswer(invocation -> {
+			((Iterable<Currency>) invocation.getArgument(0)).forEach(currencies::add);
+			return null;
+		}).when(currencyService).saveAll(anyIterable());
+
+		zonesLoader = new ZonesLoader();
+		ReflectionTestUtils.setField(zonesLoader, "languageService", languageService);
+		ReflectionTestUtils.setField(zonesLoader, "countryService", countryService);
+		ReflectionTestUtils.setField(zonesLoader, "resourceResolver", new PathMatchingResourcePatternResolver());
+
+		referenceExecutor = new InstrumentedTaskExecutor("reference", 3, 3, 100, false);
+		referenceExecutor.initialize();
+
+		moduleConfigurationService = mock(ModuleConfigurationService.class);
+		merchantService = mock(MerchantStoreService.class);
+
+		initialization = new InitializationDatabaseImpl();
+		ReflectionTestUtils.setField(initialization, "languageService", languageService);
+		ReflectionTestUtils.setField(initialization, "countryService", countryService);
+		ReflectionTestUtils.setField(initialization, "zoneService", zoneService);
+		ReflectionTestUtils.setField(initialization, "currencyService", currencyService);
+		ReflectionTestUtils.setField(initialization, "zonesLoader", zonesLoader);
+		ReflectionTestUtils.setField(initialization, "modulesLoader", new IntegrationModulesLoader());
+		ReflectionTestUtils.setField(initialization, "moduleConfigurationService", moduleConfigurationService);
+		ReflectionTestUtils.setField(initialization, "merchantService", merchantService);
+		ReflectionTestUtils.setField(initialization, "productTypeService", mock(ProductTypeService.class));
+		ReflectionTestUtils.setField(initialization, "taxClassService", mock(TaxClassService.class));
+		ReflectionTestUtils.setField(initialization, "manufacturerService", mock(ManufacturerService.class));
+		ReflectionTestUtils.setField(initialization, "optinService", mock(OptinService.class));
+		ReflectionTestUtils.setField(initialization, "groupService", mock(GroupService.class));
+		ReflectionTestUtils.setField(initialization, "permissionService", mock(PermissionService.class));
+		ReflectionTestUtils.setField(initialization, "referenceExecutor", referenceExecutor);
+	}
+
+	@After
+	public void tearDown() {
+		referenceExecutor.shutdown();
+	}
+
+	@Test
+	public void testLanguagesCountriesAndCurrencies() throws Exception {
+		initialization.populate("test");
+
+		assertEquals(SchemaConstant.LANGUAGE_ISO_CODE.length, languages.size());
+		for (int i = 0; i < languages.size(); i++) {
+			assertEquals(SchemaConstant.LANGUAGE_ISO_CODE[i], languages.get(i).getCode());
+		}
+
+		int expectedCountries = 0;
+		for (String code : SchemaConstant.COUNTRY_ISO_CODE) {
+			if (SchemaConstant.LOCALES.get(code) != null) {
+				expectedCountries++;
+			}
+		}
+		assertEquals(expectedCountries, countries.size());
+		for (Country country : countries) {
+			assertEquals(languages.size(), country.getDescriptions().size());
+		}
+		Country canada = country("CA");
+		assertEquals(Locale.CANADA.getDisplayCountry(Locale.FRENCH), canada.getDescriptions().stream()
+				.filter(description -> "fr".equals(description.getLanguage().getCode())).findFirst().get().getName());
+
+		Set<String> expectedCurrencies = new HashSet<String>();
+		for (String code : SchemaConstant.CURRENCY_MAP.keySet()) {
+			try {
+				expectedCurrencies.add(java.util.Currency.getInstance(code).getCurrencyCode());
+			} catch (IllegalArgumentException e) {
+				//not a currency of this jvm
+			}
+		}
+		Set<String> created = new HashSet<String>();
+		for (Currency currency : currencies) {
+			created.add(currency.getCode());
+		}
+		assertEquals(expectedCurrencies, created);
+	}
+
+	/**
+	 * Zones read ahead on the reference executor are the zones loaded one
+	 * file after the other once languages and countries exist
+	 */
+	@Test
+	public void testZonesMatchSequentialLoad() throws Exception {
+		initialization.populate("test");
+
+		Map<String, Integer> expected = new HashMap<String, Integer>();
+		describe(expected, zonesLoader.loadZones("reference/zoneconfig.json"));
+		for (Map<String, Zone> individual : zonesLoader.loadIndividualZones()) {
+			describe(expected, individual);
+		}
+
+		Map<String, Integer> created = new HashMap<String, Integer>();
+		for (Zone zone : zones) {
+			assertNotNull(zone.getCountry());
+			created.merge(zone.getCode(), zone.getDescriptions().size(), Integer::sum);
+		}
+
+		assertFalse(created.isEmpty());
+		assertEquals(expected, created);
+		assertTrue(created.containsKey("QC"));
+		assertEquals("CA", zone("QC").getCountry().getIsoCode());
+	}
+
+	@Test
+	public void testModulesAndMerchantCreated() throws Exception {
+		initialization.populate("test");
+
+		int modules = new IntegrationModulesLoader().loadIntegrationModules("reference/integrationmodules.json").size();
+		assertTrue(modules > 0);
+		verify(moduleConfigurationService, times(modules)).create(any(IntegrationModule.class));
+		verify(merchantService).create(any(MerchantStore.class));
+	}
+
+	/**
+	 * A reference file which cannot be read stops the initialization before
+	 * the merchant is created
+	 */
+	@Test
+	public void testUnreadableZonesFail() throws Exception {
+		ZonesLoader failing = mock(ZonesLoader.class);
+		when(failing.readZones(any())).thenThrow(new ServiceException("cannot read zones"));
+		ReflectionTestUtils.setField(initialization, "zonesLoader", failing);
+
+		try {
+			initialization.populate("test");
+			fail("Initialization completed without zones");
+		} catch (ServiceException e) {
+			//expected
+		}
+		verify(merchantService, never()).create(any(MerchantStore.class));
+	}
+
+	private void describe(Map<String, Integer> descriptions, Map<String, Zone> loaded) {
+		for (Zone zone : loaded.values()) {
+			if (zone.getDescriptions() != null) {
+				descriptions.merge(zone.getCode(), zone.getDescriptions().size(), Integer::sum);
+			}
+		}
+	}
+
+	private Country country(String code) {
+		return countries.stream().filter(country -> code.equals(country.getIsoCode())).findFirst().get();
+	}
+
+	private Zone zone(String code) {
+		return zones.stream().filter(zone -> code.equals(zone.getCode())).findFirst().get();
+	}
+
+}
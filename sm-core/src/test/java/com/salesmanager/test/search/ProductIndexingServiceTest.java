@@ -0,0 +1,237 @@
+package com.salesmanager.test.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskScheduler;
+import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.search.IndexingProgress;
+import com.salesmanager.core.business.services.search.ProductIndexingServiceImpl;
+import com.salesmanager.core.business.services.search.SearchService;
+import com.salesmanager.core.business.services.system.MerchantConfigurationService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.system.MerchantConfiguration;
+
+public class ProductIndexingServiceTest {
+
+	private ProductIndexingServiceImpl indexingService;
+	private SearchService searchService;
+	private ProductService productService;
+	private MerchantConfigurationService merchantConfigurationService;
+	private InstrumentedTaskExecutor indexingExecutor;
+	private InstrumentedTaskScheduler scheduler;
+	private MerchantStore store;
+
+	@Before
+	public void setUp() {
+		searchService = mock(SearchService.class);
+		productService = mock(ProductService.class);
+		merchantConfigurationService = mock(MerchantConfigurationService.class);
+		store = new MerchantStore();
+		store.setId(1);
+		store.setCode("DEFAULT");
+
+		indexingExecutor = new InstrumentedTaskExecutor("indexing", 1, 1, 100, false);
+		indexingExecutor.setWaitForTasksToCompleteOnShutdown(false);
+		indexingExecutor.initialize();
+		scheduler = new InstrumentedTaskScheduler("scheduler", 1);
+		scheduler.initialize();
+
+		indexingService = new ProductIndexingServiceImpl();
+		ReflectionTestUtils.setField(indexingService, "searchService", searchService);
+		ReflectionTestUtils.setField(indexingService, "productService", productService);
+		ReflectionTestUtils.setField(indexingService, "merchantConfigurationService", merchantConfigurationService);
+		//long window, flush is triggered explicitly
+		ReflectionTestUtils.setField(indexingService, "coalesceWindow", 60000L);
+		ReflectionTestUtils.setField(indexingService, "batchSize", 2);
+		ReflectionTestUtils.setField(indexingService, "reindexExecutor", indexingExecutor);
+		ReflectionTestUtils.setField(indexingService, "scheduler", scheduler);
+	}
+
+	@After
+	public void tearDown() {
+		indexingService.destroy();
+		indexingExecutor.shutdown();
+		scheduler.shutdown();
+	}
+
+	/**
+	 * Several events for the same product are indexed once
+	 */
+	@Test
+	public void testEventsAreCoalescedPerProduct() throws Exception {
+		Product product = product(10L);
+		List<Product> loaded = Collections.singletonList(product);
+		when(productService.findByIds(anySet(), eq(store))).thenReturn(loaded);
+
+		indexingService.scheduleIndex(product);
+		indexingService.scheduleIndex(product);
+		indexingService.scheduleIndex(product);
+		indexingService.flush();
+
+		verify(productService, times(1)).findByIds(new HashSet<Long>(Arrays.asList(10L)), store);
+		verify(searchService, times(1)).index(store, loaded);
+	}
+
+	/**
+	 * A delete received after an index request wins
+	 */
+	@Test
+	public void testDeleteSupersedesIndex() throws Exception {
+		Product product = product(10L);
+
+		indexingService.scheduleIndex(product);
+		indexingService.scheduleDelete(product);
+		indexingService.flush();
+
+		verify(searchService, times(1)).deleteDocuments(store, Collections.singletonList(product));
+		verify(productService, never()).findByIds(anySet(), eq(store));
+	}
+
+	@Test
+	public void testProductsAreLoadedInBatches() throws Exception {
+		when(productService.findByIds(anySet(), eq(store))).thenReturn(Collections.emptyList());
+
+		indexingService.scheduleIndex(product(1L));
+		indexingService.scheduleIndex(product(2L));
+		indexingService.scheduleIndex(product(3L));
+		indexingService.flush();
+
+		verify(productService, times(2)).findByIds(anySet(), eq(store));
+		verify(searchService, times(2)).index(eq(store), anyList());
+	}
+
+	@Test
+	public void testReindexReportsProgress() throws Exception {
+		when(productService.countByStore(store)).thenReturn(3L);
+		when(productService.listIdsByStore(store, 0L, 2)).thenReturn(Arrays.asList(1L, 2L));
+		when(productService.listIdsByStore(store, 2L, 2)).thenReturn(Arrays.asList(3L));
+		when(productService.listIdsByStore(store, 3L, 2)).thenReturn(Collections.emptyList());
+		when(productService.findByIds(anySet(), eq(store))).thenReturn(Collections.emptyList());
+
+		IndexingProgress progress = indexingService.reindex(store);
+		assertEquals(3, progress.getTotal());
+
+		await(progress);
+
+		assertEquals(IndexingProgress.Status.COMPLETED, progress.getStatus());
+		assertEquals(3, progress.getIndexed());
+		assertEquals(100, progress.getPercentage());
+		assertEquals(3L, progress.getLastId());
+		//checkpoint saved after each chunk, removed once completed
+		verify(merchantConfigurationService, times(2)).saveOrUpdate(any(MerchantConfiguration.class));
+		verify(merchantConfigurationService).delete(any(MerchantConfiguration.class));
+	}
+
+	@Test
+	public void testReindexResumesFromCheckpoint() throws Exception {
+		MerchantConfiguration checkpoint = new MerchantConfiguration();
+		checkpoint.setId(5L);
+		checkpoint.setValue("{\"lastId\":2,\"indexed\":2,\"failed\":0,\"startDate\":0}");
+		when(merchantConfigurationService.getMerchantConfiguration(anyString(), eq(store))).thenReturn(checkpoint);
+		when(productService.countByStore(store)).thenReturn(3L);
+		when(productService.listIdsByStore(store, 2L, 2)).thenReturn(Arrays.asList(3L));
+		when(productService.listIdsByStore(store, 3L, 2)).thenReturn(Collections.emptyList());
+		when(productService.findByIds(anySet(), eq(store))).thenReturn(Collections.emptyList());
+
+		//interrupted job of a previous run
+		IndexingProgress interrupted = indexingService.getProgress(store);
+		assertEquals(IndexingProgress.Status.INTERRUPTED, interrupted.getStatus());
+		assertEquals(2, interrupted.getIndexed());
+
+		IndexingProgress progress = indexingService.resume(store);
+		await(progress);
+
+		assertEquals(IndexingProgress.Status.COMPLETED, progress.getStatus());
+		assertEquals(3, progress.getIndexed());
+		verify(productService, never()).listIdsByStore(store, 0L, 2);
+		verify(productService, times(1)).findByIds(new HashSet<Long>(Arrays.asList(3L)), store);
+		verify(merchantConfigurationService).delete(checkpoint);
+	}
+
+	@Test
+	public void testCancelledReindexKeepsCheckpoint() throws Exception {
+		CountDownLatch indexing = new CountDownLatch(1);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		when(productService.countByStore(store)).thenReturn(4L);
+		when(productService.listIdsByStore(store, 0L, 2)).thenReturn(Arrays.asList(1L, 2L));
+		when(productService.findByIds(anySet(), eq(store))).thenAnswer(invocation -> {
+			indexing.countDown();
+			cancelled.await(5, TimeUnit.SECONDS);
+			return Collections.emptyList();
+		});
+
+		IndexingProgress progress = indexingService.reindex(store);
+		indexing.await(5, TimeUnit.SECONDS);
+		indexingService.cancel(store);
+		cancelled.countDown();
+		await(progress);
+
+		assertEquals(IndexingProgress.Status.CANCELLED, progress.getStatus());
+		assertEquals(2, progress.getIndexed());
+		verify(productService, never()).listIdsByStore(store, 2L, 2);
+		verify(merchantConfigurationService, times(1)).saveOrUpdate(any(MerchantConfiguration.class));
+		verify(merchantConfigurationService, never()).delete(any(MerchantConfiguration.class));
+	}
+
+	/**
+	 * A job stopped before its last chunk is not reported as completed
+	 */
+	@Test
+	public void testInterruptedIndexIsNotCompleted() throws Exception {
+		ReflectionTestUtils.setField(indexingService, "reindexPause", 60000L);
+		CountDownLatch indexed = new CountDownLatch(1);
+		when(productService.findByIds(anySet(), eq(store))).thenAnswer(invocation -> {
+			indexed.countDown();
+			return Collections.emptyList();
+		});
+
+		IndexingProgress progress = indexingService.index(store, Arrays.asList(1L, 2L, 3L));
+		indexed.await(5, TimeUnit.SECONDS);
+		//shutdown interrupts the worker while it pauses after the first chunk
+		indexingExecutor.shutdown();
+		await(progress);
+
+		assertEquals(IndexingProgress.Status.INTERRUPTED, progress.getStatus());
+		assertEquals(2, progress.getIndexed());
+		assertEquals(2L, progress.getLastId());
+	}
+
+	private void await(IndexingProgress progress) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 5000;
+		while (progress.isRunning() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+	}
+
+	private Product product(Long id) {
+		Product product = new Product();
+		product.setId(id);
+		product.setMerchantStore(store);
+		return product;
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.salesmanager.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.salesmanager.core.business.cache.CacheInvalidation;
+import com.salesmanager.core.business.cache.CacheInvalidation.Kind;
+import com.salesmanager.core.business.cache.CacheInvalidationBus;
+import com.salesmanager.core.business.cache.InvalidatingCacheManager;
+import com.salesmanager.core.business.cache.LoopbackCacheInvalidationTransport;
+
+public class CacheInvalidationTest {
+
+	private static final String CHANNEL = "cache-invalidation-test";
+
+	private CacheInvalidationBus busA;
+	private CacheInvalidationBus busB;
+
+	private ConcurrentMapCacheManager localA;
+	private ConcurrentMapCacheManager localB;
+
+	private CacheManager nodeA;
+	private CacheManager nodeB;
+
+	@Before
+	public void init() {
+		busA = new CacheInvalidationBus(new LoopbackCacheInvalidationTransport(CHANNEL));
+		busB = new CacheInvalidationBus(new LoopbackCacheInvalidationTransport(CHANNEL));
+		busA.init();
+		busB.init();
+
+		localA = new ConcurrentMapCacheManager("products");
+		localB = new ConcurrentMapCacheManager("products");
+		nodeA = new InvalidatingCacheManager(localA, busA);
+		nodeB = new InvalidatingCacheManager(localB, busB);
+	}
+
+	@After
+	public void destroy() {
+		busA.destroy();
+		busB.destroy();
+	}
+
+	@Test
+	public void evictIsAppliedOnOtherNodes() {
+		nodeA.getCache("products").put(1L, "a");
+		nodeB.getCache("products").put(1L, "b");
+		nodeB.getCache("products").put(2L, "b");
+
+		nodeA.getCache("products").evict(1L);
+
+		assertNull(nodeA.getCache("products").get(1L));
+		assertNull(nodeB.getCache("products").get(1L));
+		assertNotNull(nodeB.getCache("products").get(2L));
+	}
+
+	@Test
+	public void putIsNotPublished() {
+		nodeB.getCache("products").put(1L, "b");
+
+		nodeA.getCache("products").put(1L, "a");
+
+		assertEquals("b", nodeB.getCache("products").get(1L).get());
+	}
+
+	@Test
+	public void clearIsAppliedOnOtherNodes() {
+		nodeB.getCache("products").put("1_key", "b");
+		nodeB.getCache("products").put(2L, "b");
+
+		nodeA.getCache("products").clear();
+
+		Cache cache = localB.getCache("products");
+		assertNull(cache.get("1_key"));
+		assertNull(cache.get(2L));
+	}
+
+	@Test
+	public void unsupportedKeyInvalidatesRegion() {
+		nodeB.getCache("products").put(1L, "b");
+
+		nodeA.getCache("products").evict(new Object());
+
+		assertNull(nodeB.getCache("products").get(1L));
+	}
+
+	@Test
+	public void ownMessagesAreIgnored() {
+		final int[] received = new int[2];
+		busA.register(Kind.ENTITY, i -> received[0]++);
+		busB.register(Kind.ENTITY, i -> received[1]++);
+
+		busA.publish(new CacheInvalidation(Kind.ENTITY, "com.salesmanager.core.model.catalog.product.Product", 5L));
+
+		assertEquals(0, received[0]);
+		assertEquals(1, received[1]);
+	}
+
+	@Test
+	public void encodeDecode() {
+		String message = new CacheInvalidation(Kind.COLLECTION, "Product.descriptions", 12L).encode("node");
+		assertEquals("node|COLLECTION|Product.descriptions|L12", message);
+
+		CacheInvalidation.Decoded decoded = CacheInvalidation.decode(message);
+		assertEquals("node", decoded.getNode());
+		assertEquals(Kind.COLLECTION, decoded.getInvalidation().getKind());
+		assertEquals(12L, decoded.getInvalidation().getKey());
+
+		assertEquals(7, CacheInvalidation.decode(new CacheInvalidation(Kind.ENTITY, "Language", 7).encode("n"))
+				.getInvalidation().getKey());
+		assertEquals("1_a|b", CacheInvalidation.decode(new CacheInvalidation(Kind.SERVICE, "products", "1_a|b").encode("n"))
+				.getInvalidation().getKey());
+		assertNull(CacheInvalidation.decode(new CacheInvalidation(Kind.SERVICE, "products", null).encode("n"))
+				.getInvalidation().getKey());
+	}
+
+}
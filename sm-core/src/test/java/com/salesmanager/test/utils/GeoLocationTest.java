@@ -0,0 +1,278 @@
+package com.salesmanager.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskScheduler;
+import com.salesmanager.core.business.modules.utils.GeoLocationImpl;
+import com.salesmanager.core.model.common.Address;
+
+/**
+ * Lookups against a generated ip database, addresses below 128.0.0.0 are
+ * in one country and the others in another
+ */
+public class GeoLocationTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+	private GeoLocationImpl geoLocation;
+	private InstrumentedTaskScheduler scheduler;
+
+	@Before
+	public void setUp() throws Exception {
+		file = new File(folder.getRoot(), "GeoLite2-City.mmdb");
+		writeDatabase(file, "CA", "FR");
+
+		geoLocation = new GeoLocationImpl();
+		geoLocation.setDatabasePath(file.getAbsolutePath());
+		geoLocation.setRefreshInterval(0);
+	}
+
+	@After
+	public void tearDown() {
+		geoLocation.destroy();
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testAddressResolved() throws Exception {
+		geoLocation.init();
+
+		Address address = geoLocation.getAddress("1.2.3.4");
+		assertEquals("CA", address.getCountry());
+		assertEquals("QC", address.getZone());
+		assertEquals("H2X", address.getPostalCode());
+		assertEquals("Montreal", address.getCity());
+
+		address = geoLocation.getAddress("200.1.1.1");
+		assertEquals("FR", address.getCountry());
+		assertNull(address.getCity());
+	}
+
+	/**
+	 * Addresses of the same /24 network are read once
+	 */
+	@Test
+	public void testSamePrefixIsCached() throws Exception {
+		geoLocation.init();
+
+		geoLocation.getAddress("1.2.3.4");
+		assertEquals(0, geoLocation.getCacheHits());
+		assertEquals(1, geoLocation.getCacheMisses());
+
+		Address address = geoLocation.getAddress("1.2.3.99");
+		assertEquals("CA", address.getCountry());
+		assertEquals(1, geoLocation.getCacheHits());
+		assertEquals(1, geoLocation.getCacheMisses());
+
+		geoLocation.getAddress("1.2.4.4");
+		assertEquals(1, geoLocation.getCacheHits());
+		assertEquals(2, geoLocation.getCacheMisses());
+		assertEquals(2, geoLocation.getCachedPrefixes());
+	}
+
+	/**
+	 * Cached addresses are copies, callers cannot change the cache
+	 */
+	@Test
+	public void testCachedAddressIsCopied() throws Exception {
+		geoLocation.init();
+
+		geoLocation.getAddress("1.2.3.4").setCountry("US");
+		assertEquals("CA", geoLocation.getAddress("1.2.3.4").getCountry());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedPrefixIsEvicted() throws Exception {
+		geoLocation.setCacheSize(2);
+		geoLocation.init();
+
+		geoLocation.getAddress("1.2.3.4");
+		geoLocation.getAddress("1.2.4.4");
+		//1.2.4 becomes the least recently used prefix
+		geoLocation.getAddress("1.2.3.4");
+		geoLocation.getAddress("1.2.5.4");
+		assertEquals(2, geoLocation.getCachedPrefixes());
+		assertEquals(1, geoLocation.getCacheHits());
+		assertEquals(3, geoLocation.getCacheMisses());
+
+		geoLocation.getAddress("1.2.3.4");
+		assertEquals(2, geoLocation.getCacheHits());
+
+		geoLocation.getAddress("1.2.4.4");
+		assertEquals(2, geoLocation.getCacheHits());
+		assertEquals(4, geoLocation.getCacheMisses());
+	}
+
+	/**
+	 * A file moved over the database in use is loaded by the next check,
+	 * addresses cached from the previous file are dropped
+	 */
+	@Test
+	public void testSwappedDatabaseIsLoaded() throws Exception {
+		scheduler = new InstrumentedTaskScheduler("scheduler", 1);
+		scheduler.initialize();
+		geoLocation.setScheduler(scheduler);
+		geoLocation.setRefreshInterval(1);
+		geoLocation.init();
+		assertEquals("CA", geoLocation.getAddress("1.2.3.4").getCountry());
+
+		File next = new File(folder.getRoot(), "GeoLite2-City.mmdb.tmp");
+		writeDatabase(next, "US", "FR");
+		next.setLastModified(file.lastModified() + 10000);
+		Files.move(next.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		long timeout = System.currentTimeMillis() + 5000;
+		while (!"US".equals(geoLocation.getAddress("1.2.3.4").getCountry()) && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+		}
+		assertEquals("US", geoLocation.getAddress("1.2.3.4").getCountry());
+		assertEquals("FR", geoLocation.getAddress("200.1.1.1").getCountry());
+	}
+
+	@Test
+	public void testReloadWithoutScheduler() throws Exception {
+		geoLocation.init();
+		geoLocation.getAddress("1.2.3.4");
+
+		File next = new File(folder.getRoot(), "GeoLite2-City.mmdb.tmp");
+		writeDatabase(next, "US", "FR");
+		Files.move(next.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		geoLocation.reload();
+
+		assertEquals(0, geoLocation.getCachedPrefixes());
+		assertEquals("US", geoLocation.getAddress("1.2.3.4").getCountry());
+	}
+
+	/**
+	 * MaxMind DB format with a single node of 24 bit records, the first bit of
+	 * the address selects the country
+	 */
+	private static void writeDatabase(File file, String low, String high) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		int lowOffset = data.size();
+		city(data, low);
+		int highOffset = data.size();
+		country(data, high);
+
+		int nodeCount = 1;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		record(out, nodeCount + 16 + lowOffset);
+		record(out, nodeCount + 16 + highOffset);
+		out.write(new byte[16]);
+		data.writeTo(out);
+
+		out.write(new byte[] { (byte) 0xAB, (byte) 0xCD, (byte) 0xEF });
+		out.write("MaxMind.com".getBytes(StandardCharsets.US_ASCII));
+		map(out, 9);
+		string(out, "binary_format_major_version");
+		unsigned(out, 5, 2);
+		string(out, "binary_format_minor_version");
+		unsigned(out, 5, 0);
+		string(out, "build_epoch");
+		extended(out, 9, 1);
+		out.write(1);
+		string(out, "database_type");
+		string(out, "GeoLite2-City");
+		string(out, "description");
+		map(out, 1);
+		string(out, "en");
+		string(out, "test database");
+		string(out, "ip_version");
+		unsigned(out, 5, 4);
+		string(out, "languages");
+		extended(out, 11, 1);
+		string(out, "en");
+		string(out, "node_count");
+		unsigned(out, 6, nodeCount);
+		string(out, "record_size");
+		unsigned(out, 5, 24);
+
+		Files.write(file.toPath(), out.toByteArray());
+	}
+
+	private static void city(ByteArrayOutputStream out, String country) {
+		map(out, 4);
+		string(out, "country");
+		map(out, 1);
+		string(out, "iso_code");
+		string(out, country);
+		string(out, "city");
+		map(out, 1);
+		string(out, "names");
+		map(out, 1);
+		string(out, "en");
+		string(out, "Montreal");
+		string(out, "postal");
+		map(out, 1);
+		string(out, "code");
+		string(out, "H2X");
+		string(out, "subdivisions");
+		extended(out, 11, 1);
+		map(out, 1);
+		string(out, "iso_code");
+		string(out, "QC");
+	}
+
+	private static void country(ByteArrayOutputStream out, String country) {
+		map(out, 1);
+		string(out, "country");
+		map(out, 1);
+		string(out, "iso_code");
+		string(out, country);
+	}
+
+	private static void record(ByteArrayOutputStream out, int value) {
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	private static void map(ByteArrayOutputStream out, int size) {
+		out.write(7 << 5 | size);
+	}
+
+	private static void string(ByteArrayOutputStream out, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.write(2 << 5 | bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * uint16 (type 5) or uint32 (type 6) below 256
+	 */
+	private static void unsigned(ByteArrayOutputStream out, int type, int value) {
+		if (value == 0) {
+			out.write(type << 5);
+		} else {
+			out.write(type << 5 | 1);
+			out.write(value);
+		}
+	}
+
+	/**
+	 * Control bytes of uint64 (type 9) and array (type 11)
+	 */
+	private static void extended(ByteArrayOutputStream out, int type, int size) {
+		out.write(size);
+		out.write(type - 7);
+	}
+
+}
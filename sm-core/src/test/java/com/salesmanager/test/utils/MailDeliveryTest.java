@@ -0,0 +1,233 @@
+package com.salesmanager.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+import com.salesmanager.core.business.modules.email.DefaultEmailSenderImpl;
+import com.salesmanager.core.business.modules.email.Email;
+import com.salesmanager.core.business.modules.email.EmailTemplates;
+import com.salesmanager.core.business.modules.email.MailDelivery;
+
+import freemarker.template.Configuration;
+
+/**
+ * Sends through a local SMTP stub
+ */
+public class MailDeliveryTest {
+
+	private SmtpStub smtp;
+	private EmailTemplates templates;
+	private InstrumentedTaskExecutor notificationExecutor;
+	private MailDelivery delivery;
+	private DefaultEmailSenderImpl sender;
+
+	@Before
+	public void init() throws Exception {
+		smtp = new SmtpStub();
+
+		templates = new EmailTemplates();
+		ReflectionTestUtils.setField(templates, "freemarkerMailConfiguration", new Configuration(Configuration.VERSION_2_3_0));
+		templates.init();
+
+		notificationExecutor = new InstrumentedTaskExecutor("notification", 3, 3, 10, false);
+		notificationExecutor.initialize();
+
+		delivery = new MailDelivery();
+		ReflectionTestUtils.setField(delivery, "backoff", 50L);
+		ReflectionTestUtils.setField(delivery, "notificationExecutor", notificationExecutor);
+		delivery.init();
+
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(smtp.getPort());
+
+		sender = new DefaultEmailSenderImpl();
+		sender.setMailSender(mailSender);
+		ReflectionTestUtils.setField(sender, "emailTemplates", templates);
+		ReflectionTestUtils.setField(sender, "mailDelivery", delivery);
+	}
+
+	@After
+	public void destroy() throws Exception {
+		delivery.destroy();
+		notificationExecutor.shutdown();
+		smtp.close();
+	}
+
+	@Test
+	public void templatesCompiledOnce() throws Exception {
+		assertTrue(templates.getTemplate("email_template_contact.ftl") == templates.getTemplate("email_template_contact.ftl"));
+		assertTrue(templates.render("email_template_contact.ftl", tokens()).contains("Hello"));
+	}
+
+	@Test
+	public void messagesShareConnections() throws Exception {
+		for (int i = 0; i < 30; i++) {
+			sender.send(email("customer" + i + "@shopizer.com"));
+		}
+
+		smtp.awaitMessages(30);
+
+		assertEquals(30, smtp.getMessages().size());
+		assertTrue(smtp.getMessages().get(0).contains("Hello"));
+		//one connection per delivery thread
+		assertTrue(smtp.getConnections() <= 2);
+	}
+
+	@Test
+	public void temporaryFailureIsRetried() throws Exception {
+		smtp.deferNext(2);
+
+		sender.send(email("customer@shopizer.com"));
+
+		smtp.awaitMessages(1);
+
+		assertEquals(1, smtp.getMessages().size());
+	}
+
+	private Email email(String to) {
+		Email email = new Email();
+		email.setFrom("Default store");
+		email.setFromEmail("test@shopizer.com");
+		email.setSubject("Contact");
+		email.setTo(to);
+		email.setTemplateName("email_template_contact.ftl");
+		email.setTemplateTokens(tokens());
+		return email;
+	}
+
+	private Map<String, String> tokens() {
+		Map<String, String> templateTokens = new HashMap<String, String>();
+		templateTokens.put("EMAIL_STORE_NAME", "");
+		templateTokens.put("EMAIL_FOOTER_COPYRIGHT", "");
+		templateTokens.put("EMAIL_DISCLAIMER", "");
+		templateTokens.put("EMAIL_SPAM_DISCLAIMER", "");
+		templateTokens.put("LOGOPATH", "");
+		templateTokens.put("EMAIL_CONTACT_NAME", "Test");
+		templateTokens.put("EMAIL_CONTACT_EMAIL", "test@gmail.com");
+		templateTokens.put("EMAIL_CONTACT_CONTENT", "Hello");
+		templateTokens.put("EMAIL_CUSTOMER_CONTACT", "Contact");
+		templateTokens.put("EMAIL_CONTACT_NAME_LABEL", "Name");
+		templateTokens.put("EMAIL_CONTACT_EMAIL_LABEL", "Email");
+		return templateTokens;
+	}
+
+	/**
+	 * Minimal SMTP server recording the messages
+	 */
+	private static class SmtpStub {
+
+		private final ServerSocket server;
+		private final AtomicInteger connections = new AtomicInteger();
+		private final AtomicInteger deferred = new AtomicInteger();
+		private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+
+		SmtpStub() throws IOException {
+			server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+			Thread acceptor = new Thread(this::accept, "smtp-stub");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int getPort() {
+			return server.getLocalPort();
+		}
+
+		int getConnections() {
+			return connections.get();
+		}
+
+		List<String> getMessages() {
+			return messages;
+		}
+
+		void deferNext(int count) {
+			deferred.set(count);
+		}
+
+		void awaitMessages(int count) throws InterruptedException {
+			long end = System.currentTimeMillis() + 10000;
+			while (messages.size() < count && System.currentTimeMillis() < end) {
+				Thread.sleep(20);
+			}
+		}
+
+		void close() throws IOException {
+			server.close();
+		}
+
+		private void accept() {
+			while (!server.isClosed()) {
+				try {
+					Socket socket = server.accept();
+					connections.incrementAndGet();
+					Thread session = new Thread(() -> session(socket), "smtp-stub-session");
+					session.setDaemon(true);
+					session.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void session(Socket socket) {
+			try (Socket s = socket) {
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+				OutputStream out = s.getOutputStream();
+				reply(out, "220 localhost");
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase();
+					if ("DATA".equals(command)) {
+						if (deferred.getAndDecrement() > 0) {
+							reply(out, "451 try again later");
+							continue;
+						}
+						reply(out, "354 end with .");
+						StringBuilder message = new StringBuilder();
+						while ((line = in.readLine()) != null && !".".equals(line)) {
+							message.append(line).append('\n');
+						}
+						messages.add(message.toString());
+						reply(out, "250 queued");
+					} else if ("QUIT".equals(command)) {
+						reply(out, "221 bye");
+						return;
+					} else {
+						reply(out, "250 ok");
+					}
+				}
+			} catch (IOException e) {
+				//connection closed
+			}
+		}
+
+		private void reply(OutputStream out, String reply) throws IOException {
+			out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.salesmanager.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import javax.mail.MessagingException;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.modules.email.Email;
+import com.salesmanager.core.business.modules.email.HtmlEmailSender;
+import com.salesmanager.core.business.repositories.system.OutboxEmailRepository;
+import com.salesmanager.core.business.services.system.EmailService;
+import com.salesmanager.core.business.services.system.OutboxEmailDispatcher;
+import com.salesmanager.core.business.services.system.OutboxEmailService;
+import com.salesmanager.core.business.services.system.OutboxEmailServiceImpl;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.system.email.OutboxEmail;
+import com.salesmanager.core.model.system.email.OutboxEmailStatus;
+
+public class OutboxEmailTest {
+
+	@Test
+	public void emailWrittenAndRead() throws Exception {
+		OutboxEmailRepository repository = mock(OutboxEmailRepository.class);
+		OutboxEmailServiceImpl service = new OutboxEmailServiceImpl(repository);
+
+		Map<String, String> tokens = new HashMap<String, String>();
+		tokens.put("EMAIL_CONTACT_NAME", "Test");
+		Email email = new Email();
+		email.setFrom("Default store");
+		email.setFromEmail("store@shopizer.com");
+		email.setTo("customer@shopizer.com");
+		email.setSubject("Order");
+		email.setTemplateName("email_template_checkout.ftl");
+		email.setTemplateTokens(tokens);
+
+		MerchantStore store = new MerchantStore();
+		service.queue(store, email);
+
+		org.mockito.ArgumentCaptor<OutboxEmail> saved = org.mockito.ArgumentCaptor.forClass(OutboxEmail.class);
+		verify(repository).save(saved.capture());
+		OutboxEmail outboxEmail = saved.getValue();
+		assertEquals(OutboxEmailStatus.PENDING, outboxEmail.getStatus());
+		assertTrue(outboxEmail.getNextAttempt() != null);
+		assertTrue(store == outboxEmail.getMerchantStore());
+
+		Email read = service.getEmail(outboxEmail);
+		assertEquals("customer@shopizer.com", read.getTo());
+		assertEquals("email_template_checkout.ftl", read.getTemplateName());
+		assertEquals(tokens, read.getTemplateTokens());
+	}
+
+	@Test
+	public void failedEmailRetriedThenDead() throws Exception {
+		OutboxEmailRepository repository = mock(OutboxEmailRepository.class);
+		OutboxEmailServiceImpl service = new OutboxEmailServiceImpl(repository);
+		ReflectionTestUtils.setField(service, "maxAttempts", 3);
+		ReflectionTestUtils.setField(service, "backoff", 1000L);
+
+		OutboxEmail email = outboxEmail(1L);
+		when(repository.findById(1L)).thenReturn(Optional.of(email));
+
+		email.setAttempts(1);
+		long now = System.currentTimeMillis();
+		assertFalse(service.failed(1L, "timeout"));
+		assertEquals(OutboxEmailStatus.PENDING, email.getStatus());
+		assertTrue(email.getNextAttempt().getTime() >= now + 1000);
+
+		email.setAttempts(2);
+		assertFalse(service.failed(1L, "timeout"));
+		assertTrue(email.getNextAttempt().getTime() >= now + 2000);
+
+		email.setAttempts(3);
+		assertTrue(service.failed(1L, "timeout"));
+		assertEquals(OutboxEmailStatus.DEAD, email.getStatus());
+		assertEquals("timeout", email.getLastError());
+	}
+
+	@Test
+	public void batchMarksSentAndFailed() throws Exception {
+		OutboxEmailService outboxEmailService = mock(OutboxEmailService.class);
+		EmailService emailService = mock(EmailService.class);
+		HtmlEmailSender sender = mock(HtmlEmailSender.class);
+
+		OutboxEmail sentEmail = outboxEmail(1L);
+		OutboxEmail failedEmail = outboxEmail(2L);
+		when(outboxEmailService.claim(anyInt(), anyLong()))
+				.thenReturn(Arrays.asList(sentEmail, failedEmail))
+				.thenReturn(Collections.<OutboxEmail>emptyList());
+		Email email = new Email();
+		when(outboxEmailService.getEmail(any(OutboxEmail.class))).thenReturn(email);
+
+		CompletableFuture<Void> failure = new CompletableFuture<Void>();
+		failure.completeExceptionally(new MessagingException("451 try again later"));
+		when(sender.deliver(eq(email), any()))
+				.thenReturn(CompletableFuture.<Void>completedFuture(null))
+				.thenReturn(failure);
+
+		OutboxEmailDispatcher dispatcher = new OutboxEmailDispatcher();
+		ReflectionTestUtils.setField(dispatcher, "outboxEmailService", outboxEmailService);
+		ReflectionTestUtils.setField(dispatcher, "emailService", emailService);
+		ReflectionTestUtils.setField(dispatcher, "htmlEmailSender", sender);
+		ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+
+		dispatcher.dispatch();
+
+		verify(outboxEmailService).sent(1L);
+		verify(outboxEmailService, never()).sent(2L);
+		verify(outboxEmailService).failed(eq(2L), anyString());
+		//a full batch, the outbox is polled again
+		verify(outboxEmailService, times(2)).claim(anyInt(), anyLong());
+		//email configuration read once per store
+		verify(emailService, times(1)).getEmailConfiguration(any(MerchantStore.class));
+		assertEquals(1, dispatcher.getSent());
+		assertEquals(1, dispatcher.getFailed());
+	}
+
+	private OutboxEmail outboxEmail(Long id) {
+		MerchantStore store = new MerchantStore();
+		store.setId(1);
+		OutboxEmail email = new OutboxEmail();
+		email.setId(id);
+		email.setMerchantStore(store);
+		email.setTo("customer@shopizer.com");
+		return email;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.salesmanager.shop.model.catalog.product.product;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk product import
+ */
+public class ReadableProductImport implements Serializable {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private long total;
+	private long created;
+	private long failed;
+	private long duration;
+	private List<ReadableProductImportError> errors = new ArrayList<ReadableProductImportError>();
+
+	public long getTotal() {
+		return total;
+	}
+	public void setTotal(long total) {
+		this.total = total;
+	}
+	public long getCreated() {
+		return created;
+	}
+	public void setCreated(long created) {
+		this.created = created;
+	}
+	public long getFailed() {
+		return failed;
+	}
+	public void setFailed(long failed) {
+		this.failed = failed;
+	}
+	public long getDuration() {
+		return duration;
+	}
+	public void setDuration(long duration) {
+		this.duration = duration;
+	}
+	public List<ReadableProductImportError> getErrors() {
+		return errors;
+	}
+	public void setErrors(List<ReadableProductImportError> errors) {
+		this.errors = errors;
+	}
+
+}
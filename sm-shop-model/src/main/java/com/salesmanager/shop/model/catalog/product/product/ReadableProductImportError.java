@@ -0,0 +1,47 @@
+package com.salesmanager.shop.model.catalog.product.product;
+
+import java.io.Serializable;
+
+/**
+ * Row of a bulk product import that could not be created
+ */
+public class ReadableProductImportError implements Serializable {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private long line;
+	private String sku;
+	private String message;
+
+	public ReadableProductImportError() {
+	}
+
+	public ReadableProductImportError(long line, String sku, String message) {
+		this.line = line;
+		this.sku = sku;
+		this.message = message;
+	}
+
+	public long getLine() {
+		return line;
+	}
+	public void setLine(long line) {
+		this.line = line;
+	}
+	public String getSku() {
+		return sku;
+	}
+	public void setSku(String sku) {
+		this.sku = sku;
+	}
+	public String getMessage() {
+		return message;
+	}
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
@@ -13,9 +13,26 @@ public class ReadableOrderList extends ReadableList implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 	private List<ReadableOrder> orders;
+	/**
+	 * Keyset pagination, cursor to pass to get the next page. Null on last page
+	 */
+	private String nextCursor;
+	private boolean approximateCount;
 	
 	
 	
+	public String getNextCursor() {
+		return nextCursor;
+	}
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+	public boolean isApproximateCount() {
+		return approximateCount;
+	}
+	public void setApproximateCount(boolean approximateCount) {
+		this.approximateCount = approximateCount;
+	}
 	public List<ReadableOrder> getOrders() {
 		return orders;
 	}
@@ -0,0 +1,69 @@
+package com.salesmanager.shop.model.order.v1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.salesmanager.shop.model.order.history.ReadableOrderStatusHistory;
+
+/**
+ * Order as written by the bulk order export, one per line
+ */
+public class ReadableOrderExport extends ReadableOrder {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private String datePurchased;
+	private String orderStatus;
+	private Long customerId;
+	private String emailAddress;
+	private String paymentModule;
+	private String shippingModule;
+	private List<ReadableOrderStatusHistory> history = new ArrayList<ReadableOrderStatusHistory>();
+
+	public String getDatePurchased() {
+		return datePurchased;
+	}
+	public void setDatePurchased(String datePurchased) {
+		this.datePurchased = datePurchased;
+	}
+	public String getOrderStatus() {
+		return orderStatus;
+	}
+	public void setOrderStatus(String orderStatus) {
+		this.orderStatus = orderStatus;
+	}
+	public Long getCustomerId() {
+		return customerId;
+	}
+	public void setCustomerId(Long customerId) {
+		this.customerId = customerId;
+	}
+	public String getEmailAddress() {
+		return emailAddress;
+	}
+	public void setEmailAddress(String emailAddress) {
+		this.emailAddress = emailAddress;
+	}
+	public String getPaymentModule() {
+		return paymentModule;
+	}
+	public void setPaymentModule(String paymentModule) {
+		this.paymentModule = paymentModule;
+	}
+	public String getShippingModule() {
+		return shippingModule;
+	}
+	public void setShippingModule(String shippingModule) {
+		this.shippingModule = shippingModule;
+	}
+	public List<ReadableOrderStatusHistory> getHistory() {
+		return history;
+	}
+	public void setHistory(List<ReadableOrderStatusHistory> history) {
+		this.history = history;
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.salesmanager.shop.model.system;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Status of a full store reindex
+ */
+public class ReadableIndexingProgress implements Serializable {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	private String store;
+	private String status;
+	private long total;
+	private long indexed;
+	private long failed;
+	private int percentage;
+	private Date startDate;
+	private Date endDate;
+	private long lastId;
+	private double throughput;
+	private Date estimatedEndDate;
+	
+	public String getStore() {
+		return store;
+	}
+	public void setStore(String store) {
+		this.store = store;
+	}
+	public String getStatus() {
+		return status;
+	}
+	public void setStatus(String status) {
+		this.status = status;
+	}
+	public long getTotal() {
+		return total;
+	}
+	public void setTotal(long total) {
+		this.total = total;
+	}
+	public long getIndexed() {
+		return indexed;
+	}
+	public void setIndexed(long indexed) {
+		this.indexed = indexed;
+	}
+	public long getFailed() {
+		return failed;
+	}
+	public void setFailed(long failed) {
+		this.failed = failed;
+	}
+	public int getPercentage() {
+		return percentage;
+	}
+	public void setPercentage(int percentage) {
+		this.percentage = percentage;
+	}
+	public Date getStartDate() {
+		return startDate;
+	}
+	public void setStartDate(Date startDate) {
+		this.startDate = startDate;
+	}
+	public Date getEndDate() {
+		return endDate;
+	}
+	public void setEndDate(Date endDate) {
+		this.endDate = endDate;
+	}
+	public long getLastId() {
+		return lastId;
+	}
+	public void setLastId(long lastId) {
+		this.lastId = lastId;
+	}
+	public double getThroughput() {
+		return throughput;
+	}
+	public void setThroughput(double throughput) {
+		this.throughput = throughput;
+	}
+	public Date getEstimatedEndDate() {
+		return estimatedEndDate;
+	}
+	public void setEstimatedEndDate(Date estimatedEndDate) {
+		this.estimatedEndDate = estimatedEndDate;
+	}
+
+}
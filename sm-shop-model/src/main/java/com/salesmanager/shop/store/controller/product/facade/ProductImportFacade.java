@@ -0,0 +1,31 @@
+package com.salesmanager.shop.store.controller.product.facade;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.catalog.product.product.ReadableProductImport;
+
+/**
+ * Bulk creation of products from a supplier feed
+ */
+public interface ProductImportFacade {
+
+	/**
+	 * Creates the products read from the stream. ndjson expects one
+	 * PersistableProduct per line, csv expects a header line followed by one
+	 * product per line. Reference data is resolved from lookup maps loaded once,
+	 * products are persisted in chunks and indexed in bulk once the import
+	 * completes. Invalid rows are reported and do not stop the import
+	 * @param in
+	 * @param format ndjson or csv
+	 * @param store
+	 * @param language default language of csv rows
+	 * @return
+	 * @throws IOException
+	 */
+	ReadableProductImport importProducts(InputStream in, String format, MerchantStore store, Language language)
+			throws IOException;
+
+}
@@ -1,28 +1,70 @@
 package com.salesmanager.shop.application.config;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+
+/**
+ * Named, bounded executors of the web application. @Async methods run on the
+ * maintenance executor, spring mvc asynchronous responses on the web executor.
+ * Core workloads have their own executors, see ExecutorsConfiguration
+ *
+ * Each executor is configured with async.[name].corePoolSize, maxPoolSize,
+ * queueCapacity, callerRuns and virtualThreads
+ */
 @Configuration
 @EnableScheduling
 @EnableAsync
 public class AsyncConfig implements AsyncConfigurer {
 
-  private static final int EXECUTOR_SERVICE_NUMBER_THREADS = 5;
+  public static final String MAINTENANCE_EXECUTOR = "maintenanceExecutor";
+
+  @Autowired
+  private Environment env;
+
+  @Bean(name = MAINTENANCE_EXECUTOR)
+  public InstrumentedTaskExecutor maintenanceExecutor() {
+    return executor("maintenance", 1, 2, 100, false);
+  }
+
+  /**
+   * Spring MVC asynchronous and streamed responses, replaces the executor
+   * spring boot configures when no other executor is declared
+   */
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public InstrumentedTaskExecutor applicationTaskExecutor() {
+    return executor("web", 8, 16, 1000, false);
+  }
 
   @Override
   public Executor getAsyncExecutor() {
-    return Executors.newFixedThreadPool(EXECUTOR_SERVICE_NUMBER_THREADS);
+    return maintenanceExecutor();
   }
 
   @Override
   public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
     return new SimpleAsyncUncaughtExceptionHandler();
   }
+
+  private InstrumentedTaskExecutor executor(String name, int corePoolSize, int maxPoolSize,
+      int queueCapacity, boolean callerRuns) {
+    String prefix = "async." + name + ".";
+    InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor(name,
+        env.getProperty(prefix + "corePoolSize", Integer.class, corePoolSize),
+        env.getProperty(prefix + "maxPoolSize", Integer.class, maxPoolSize),
+        env.getProperty(prefix + "queueCapacity", Integer.class, queueCapacity),
+        env.getProperty(prefix + "callerRuns", Boolean.class, callerRuns));
+    executor.setVirtualThreads(env.getProperty(prefix + "virtualThreads", Boolean.class, false));
+    return executor;
+  }
 }
@@ -0,0 +1,54 @@
+package com.salesmanager.shop.application.config;
+
+import javax.inject.Inject;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.EhCache2Metrics;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.statistics.StatisticsGateway;
+
+/**
+ * Binds every ehcache region, service cache and hibernate second level cache,
+ * with cache.gets, cache.puts, cache.evictions and cache.size, plus
+ * cache.hit.ratio as reported by the cache api. The service cache manager is
+ * wrapped to invalidate the other instances so it is not bound by spring boot
+ */
+@Component
+public class CacheMetrics {
+
+  @Inject
+  private MeterRegistry registry;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void bind() {
+    for (CacheManager cacheManager : CacheManager.ALL_CACHE_MANAGERS) {
+      for (String name : cacheManager.getCacheNames()) {
+        Ehcache region = cacheManager.getEhcache(name);
+        if (region == null) {
+          continue;
+        }
+        Tags tags = Tags.of("cacheManager", cacheManager.getName());
+        new EhCache2Metrics(region, tags).bindTo(registry);
+        Gauge.builder("cache.hit.ratio", region, CacheMetrics::hitRatio)
+            .tags(tags).tag("cache", name)
+            .description("Hits over gets since startup")
+            .register(registry);
+      }
+    }
+  }
+
+  static double hitRatio(Ehcache region) {
+    StatisticsGateway gateway = region.getStatistics();
+    long hits = gateway.cacheHitCount();
+    long requests = hits + gateway.cacheMissCount();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+}
@@ -0,0 +1,30 @@
+package com.salesmanager.shop.application.config;
+
+import javax.inject.Inject;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.db.PoolMetricsTrackerFactory;
+import com.salesmanager.core.business.configuration.db.PoolStatistics;
+
+/**
+ * Connection pools in /actuator/health, a pool is saturated when threads
+ * are waiting for a connection
+ */
+@Component("connectionPools")
+public class ConnectionPoolHealthIndicator extends AbstractHealthIndicator {
+
+  @Inject
+  private PoolMetricsTrackerFactory poolMetrics;
+
+  @Override
+  protected void doHealthCheck(Health.Builder builder) {
+    builder.up();
+    for (PoolStatistics statistics : poolMetrics.getStatistics()) {
+      builder.withDetail(statistics.getName(), statistics);
+    }
+  }
+
+}
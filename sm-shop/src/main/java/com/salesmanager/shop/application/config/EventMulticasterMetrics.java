@@ -0,0 +1,34 @@
+package com.salesmanager.shop.application.config;
+
+import javax.inject.Inject;
+
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.events.EventMulticasterStatistics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports the asynchronous events as events.pending, dispatched and not
+ * completed yet, and events.dispatched
+ */
+@Component
+public class EventMulticasterMetrics implements MeterBinder {
+
+  @Inject
+  private EventMulticasterStatistics statistics;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("events.pending", statistics, EventMulticasterStatistics::getPending)
+        .description("Events dispatched to a listener thread and not completed")
+        .register(registry);
+    FunctionCounter.builder("events.dispatched", statistics, EventMulticasterStatistics::getDispatched)
+        .description("Events completed since startup")
+        .register(registry);
+  }
+
+}
@@ -0,0 +1,162 @@
+package com.salesmanager.shop.application.config;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.image.ProductImage;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.payments.Payment;
+import com.salesmanager.core.model.shipping.ShippingQuote;
+import com.salesmanager.core.model.shoppingcart.ShoppingCart;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers on the service boundaries, tagged with the merchant store, the
+ * integration module (payment, shipping or cms method) and the outcome
+ *
+ * <pre>
+ * order.process     OrderService.processOrder
+ * shipping.quote    ShippingService.getShippingQuote
+ * payment.process   PaymentService.processPayment
+ * search.query      SearchService.search
+ * search.index      SearchService.index
+ * cart.save         ShoppingCartService.saveOrUpdate
+ * cms.read          product images and content files reads
+ * cms.write         product images and content files writes
+ * </pre>
+ */
+@Component
+@Aspect
+public class ServiceMetricsAspect {
+
+  static final String NONE = "none";
+
+  @Inject
+  private MeterRegistry registry;
+
+  @Value("${config.cms.method:default}")
+  private String cmsMethod;
+
+  @Around("execution(* com.salesmanager.core.business.services.order.OrderService.processOrder(..))")
+  public Object processOrder(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("order.process", joinPoint, null);
+  }
+
+  @Around("execution(* com.salesmanager.core.business.services.shipping.ShippingService.getShippingQuote(..))")
+  public Object shippingQuote(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("shipping.quote", joinPoint, null);
+  }
+
+  @Around("execution(* com.salesmanager.core.business.services.payments.PaymentService.processPayment(..))")
+  public Object processPayment(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("payment.process", joinPoint, null);
+  }
+
+  @Around("execution(* com.salesmanager.core.business.services.search.SearchService.search(..))")
+  public Object search(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("search.query", joinPoint, null);
+  }
+
+  @Around("execution(* com.salesmanager.core.business.services.search.SearchService.index(..))")
+  public Object index(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("search.index", joinPoint, null);
+  }
+
+  @Around("execution(* com.salesmanager.core.business.services.shoppingcart.ShoppingCartService.saveOrUpdate(..))")
+  public Object saveCart(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("cart.save", joinPoint, null);
+  }
+
+  @Around("(bean(productFileManager) && (execution(* getProductImage(..)) || execution(* getImages(..))))"
+      + " || (bean(contentFileManager) && (execution(* getFile(..)) || execution(* getFiles(..))))")
+  public Object cmsRead(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("cms.read", joinPoint, cmsMethod);
+  }
+
+  @Around("(bean(productFileManager) && execution(* addProductImage(..)))"
+      + " || (bean(contentFileManager) && (execution(* addFile(..)) || execution(* addFiles(..))))")
+  public Object cmsWrite(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("cms.write", joinPoint, cmsMethod);
+  }
+
+  private Object time(String name, ProceedingJoinPoint joinPoint, String module) throws Throwable {
+    long start = System.nanoTime();
+    Object result = null;
+    String outcome = "error";
+    try {
+      result = joinPoint.proceed();
+      outcome = "success";
+      return result;
+    } finally {
+      Object[] args = joinPoint.getArgs();
+      Timer.builder(name)
+          .tag("store", store(args))
+          .tag("module", module != null ? module : module(args, result))
+          .tag("outcome", outcome)
+          .register(registry)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Store code from the arguments, the store itself or else an entity of the
+   * store, the first string argument of the cms methods
+   */
+  static String store(Object[] args) {
+    for (Object arg : args) {
+      if (arg instanceof MerchantStore) {
+        return code((MerchantStore) arg);
+      }
+    }
+    for (Object arg : args) {
+      MerchantStore store = null;
+      if (arg instanceof ShoppingCart) {
+        store = ((ShoppingCart) arg).getMerchantStore();
+      } else if (arg instanceof Order) {
+        store = ((Order) arg).getMerchant();
+      } else if (arg instanceof Product) {
+        store = ((Product) arg).getMerchantStore();
+      } else if (arg instanceof ProductImage && ((ProductImage) arg).getProduct() != null) {
+        store = ((ProductImage) arg).getProduct().getMerchantStore();
+      }
+      if (store != null) {
+        return code(store);
+      }
+    }
+    if (args.length > 0 && args[0] instanceof String) {
+      return (String) args[0];
+    }
+    return NONE;
+  }
+
+  private static String code(MerchantStore store) {
+    return store.getCode() != null ? store.getCode() : NONE;
+  }
+
+  /**
+   * Payment module of the payment argument, or shipping module of the quote
+   */
+  static String module(Object[] args, Object result) {
+    for (Object arg : args) {
+      if (arg instanceof Payment && ((Payment) arg).getModuleName() != null) {
+        return ((Payment) arg).getModuleName();
+      }
+    }
+    if (result instanceof ShippingQuote && ((ShippingQuote) result).getShippingModuleCode() != null) {
+      return ((ShippingQuote) result).getShippingModuleCode();
+    }
+    return NONE;
+  }
+
+}
@@ -0,0 +1,47 @@
+package com.salesmanager.shop.application.config;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.db.SqlMonitor;
+import com.salesmanager.core.business.configuration.db.SqlStatistics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Exports request and service method sql statistics as sql.statements,
+ * sql.rows and sql.time, tagged with scope (request or service) and name
+ */
+@Component
+public class SqlStatisticsMetrics implements SqlMonitor.Listener {
+
+  @Inject
+  private MeterRegistry registry;
+
+  @PostConstruct
+  public void register() {
+    SqlMonitor.addListener(this);
+  }
+
+  @PreDestroy
+  public void unregister() {
+    SqlMonitor.removeListener(this);
+  }
+
+  @Override
+  public void completed(SqlStatistics statistics) {
+    Tags tags = Tags.of("scope", statistics.getScope().name().toLowerCase(), "name", statistics.getName());
+    DistributionSummary.builder("sql.statements").tags(tags).register(registry).record(statistics.getStatements());
+    DistributionSummary.builder("sql.rows").tags(tags).register(registry).record(statistics.getRows());
+    Timer.builder("sql.time").tags(tags).register(registry).record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+  }
+
+}
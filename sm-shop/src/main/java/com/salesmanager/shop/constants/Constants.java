@@ -111,6 +111,8 @@ public class Constants {
 	public final static String CATEGORY_LINEAGE_DELIMITER = "/";
 	public final static int MAX_REVIEW_RATING_SCORE = 5;
 	public final static int MAX_ORDERS_PAGE = 5;
+	public final static String DATA_FORMAT_NDJSON = "ndjson";
+	public final static String DATA_FORMAT_CSV = "csv";
 	public final static String SUCCESS = "success";
 	public final static String CANCEL = "cancel";
 	
@@ -0,0 +1,36 @@
+package com.salesmanager.shop.filter;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.salesmanager.core.business.configuration.db.ReplicaRoutingDataSource;
+
+/**
+ * Reads following a write are sent to the primary database until the end of
+ * the request, the next request handled by the thread starts without writes
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaRoutingFilter implements Filter {
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain)
+			throws IOException, ServletException {
+		ReplicaRoutingDataSource.clear();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReplicaRoutingDataSource.clear();
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.salesmanager.shop.filter;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.salesmanager.core.business.configuration.db.SqlMonitor;
+import com.salesmanager.core.business.configuration.db.SqlStatistics;
+
+/**
+ * Sql statistics of each request, tagged with the request method and the
+ * mapped path pattern (GET /api/v1/products/{id}). Only registered with
+ * sql.statistics.enabled
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "sql.statistics.enabled", havingValue = "true")
+public class SqlStatisticsFilter implements Filter {
+
+	/** requests not mapped to a controller **/
+	static final String UNMAPPED = "UNMAPPED";
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain)
+			throws IOException, ServletException {
+		if (SqlMonitor.current() != null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+		SqlStatistics statistics = SqlMonitor.start(SqlStatistics.Scope.REQUEST, UNMAPPED);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			Object pattern = httpRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			statistics.setName(httpRequest.getMethod() + " " + (pattern != null ? pattern : UNMAPPED));
+			SqlMonitor.stop(statistics);
+		}
+	}
+
+}
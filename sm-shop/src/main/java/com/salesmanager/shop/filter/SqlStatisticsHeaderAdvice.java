@@ -0,0 +1,47 @@
+package com.salesmanager.shop.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.salesmanager.core.business.configuration.db.SqlMonitor;
+import com.salesmanager.core.business.configuration.db.SqlStatistics;
+
+/**
+ * Adds the sql statistics of the request to api responses, for development
+ * and tests only
+ */
+@ControllerAdvice
+public class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+	public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+	public static final String ROWS_HEADER = "X-SQL-Rows";
+	public static final String TIME_HEADER = "X-SQL-Time";
+
+	@Value("${sql.statistics.headers:false}")
+	private boolean enabled;
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return enabled;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		SqlStatistics statistics = SqlMonitor.current();
+		if (statistics != null) {
+			response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+			response.getHeaders().set(ROWS_HEADER, String.valueOf(statistics.getRows()));
+			response.getHeaders().set(TIME_HEADER, String.valueOf(statistics.getJdbcMillis()));
+		}
+		return body;
+	}
+
+}
@@ -1,5 +1,8 @@
 package com.salesmanager.shop.filter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
@@ -12,6 +15,12 @@ import com.salesmanager.shop.utils.SanitizeUtils;
  */
 public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+	/**
+	 * Values already sanitized in this request, headers and parameters
+	 * are read several times while a request is processed
+	 */
+	private Map<String, String> sanitized;
+
 	public XssHttpServletRequestWrapper(HttpServletRequest request) {
 		super(request);	
 		
@@ -51,8 +60,19 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 	    }
 
 	    private String cleanXSS(String value) {
-	        // You'll need to remove the spaces from the html entities below
-	    	return SanitizeUtils.getSafeString(value);
+	    	//most values have nothing to clean
+	    	if (!SanitizeUtils.requiresSanitizing(value)) {
+	    		return value;
+	    	}
+	    	if (sanitized == null) {
+	    		sanitized = new HashMap<String, String>();
+	    	}
+	    	String safe = sanitized.get(value);
+	    	if (safe == null) {
+	    		safe = SanitizeUtils.getSafeString(value);
+	    		sanitized.put(value, safe);
+	    	}
+	    	return safe;
 	    }
 
 }
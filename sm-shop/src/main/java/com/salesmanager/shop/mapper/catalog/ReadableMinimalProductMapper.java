@@ -1,5 +1,6 @@
 package com.salesmanager.shop.mapper.catalog;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -11,10 +12,12 @@ import org.springframework.stereotype.Component;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.catalog.pricing.PricingService;
+import com.salesmanager.core.business.services.catalog.product.review.ProductReviewStatisticsService;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.description.ProductDescription;
 import com.salesmanager.core.model.catalog.product.image.ProductImage;
 import com.salesmanager.core.model.catalog.product.price.FinalPrice;
+import com.salesmanager.core.model.catalog.product.review.ProductReviewStatistics;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.shop.mapper.Mapper;
@@ -32,6 +35,9 @@ public class ReadableMinimalProductMapper implements Mapper<Product, ReadableMin
 	@Autowired
 	private PricingService pricingService;
 
+	@Autowired
+	private ProductReviewStatisticsService productReviewStatisticsService;
+
 	
 	@Autowired
 	@Qualifier("img")
@@ -79,15 +85,20 @@ public class ReadableMinimalProductMapper implements Mapper<Product, ReadableMin
 			destination.setDateAvailable(DateUtil.formatDate(source.getDateAvailable()));
 		}
 		
-		if(source.getProductReviewAvg()!=null) {
-			double avg = source.getProductReviewAvg().doubleValue();
+		//rating from the review statistics, the product columns are refreshed periodically
+		ProductReviewStatistics reviewStatistics = productReviewStatisticsService.getByProduct(source.getId());
+		BigDecimal reviewAvg = reviewStatistics != null ? reviewStatistics.getReviewAvg() : source.getProductReviewAvg();
+		Integer reviewCount = reviewStatistics != null ? Integer.valueOf(reviewStatistics.getReviewCount()) : source.getProductReviewCount();
+		
+		if(reviewAvg!=null) {
+			double avg = reviewAvg.doubleValue();
 			double rating = Math.round(avg * 2) / 2.0f;
 			destination.setRating(rating);
 		}
 		
 		destination.setProductVirtual(source.getProductVirtual());
-		if(source.getProductReviewCount()!=null) {
-			destination.setRatingCount(source.getProductReviewCount().intValue());
+		if(reviewCount!=null) {
+			destination.setRatingCount(reviewCount.intValue());
 		}
 
 		//price
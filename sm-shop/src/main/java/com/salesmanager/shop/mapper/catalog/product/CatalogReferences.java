@@ -0,0 +1,26 @@
+package com.salesmanager.shop.mapper.catalog.product;
+
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.model.catalog.category.Category;
+import com.salesmanager.core.model.catalog.product.manufacturer.Manufacturer;
+import com.salesmanager.core.model.catalog.product.type.ProductType;
+import com.salesmanager.core.model.reference.language.Language;
+
+/**
+ * Reference data resolved when a PersistableProduct is mapped to a Product.
+ * Single product operations resolve them from the services, bulk operations
+ * can serve them from lookup maps loaded once
+ */
+public interface CatalogReferences {
+
+	Category category(String code) throws ServiceException;
+
+	Category category(Long id) throws ServiceException;
+
+	Manufacturer manufacturer(String code) throws ServiceException;
+
+	ProductType productType(String code) throws ServiceException;
+
+	Language language(String code) throws ServiceException;
+
+}
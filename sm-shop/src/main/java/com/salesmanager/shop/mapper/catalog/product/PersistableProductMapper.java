@@ -18,6 +18,7 @@ import org.springframework.stereotype.Component;
 
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.core.business.exception.ConversionException;
+import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.catalog.category.CategoryService;
 import com.salesmanager.core.business.services.catalog.product.manufacturer.ManufacturerService;
 import com.salesmanager.core.business.services.catalog.product.type.ProductTypeService;
@@ -88,6 +89,21 @@ public class PersistableProductMapper implements Mapper<PersistableProduct, Prod
 
 	@Override
 	public Product merge(PersistableProduct source, Product destination, MerchantStore store, Language language) {
+		return merge(source, destination, store, language, new ServiceReferences(store, language));
+	}
+
+	/**
+	 * Merge resolving categories, manufacturer, product type and languages
+	 * through the given references
+	 * @param source
+	 * @param destination
+	 * @param store
+	 * @param language
+	 * @param references
+	 * @return
+	 */
+	public Product merge(PersistableProduct source, Product destination, MerchantStore store, Language language,
+			CatalogReferences references) {
 
 		  
 	    Validate.notNull(destination,"Product must not be null");
@@ -125,7 +141,7 @@ public class PersistableProductMapper implements Mapper<PersistableProduct, Prod
 
     	         if(source.getProductSpecifications().getManufacturer()!=null) {
     	        	 
-    					Manufacturer manufacturer = manufacturerService.getByCode(store, source.getProductSpecifications().getManufacturer());
+    					Manufacturer manufacturer = references.manufacturer(source.getProductSpecifications().getManufacturer());
     					if(manufacturer == null) {
     						throw new ConversionException("Manufacturer [" + source.getProductSpecifications().getManufacturer() + "] does not exist");
     					}
@@ -136,7 +152,7 @@ public class PersistableProductMapper implements Mapper<PersistableProduct, Prod
 			
 			//PRODUCT TYPE
 			if(!StringUtils.isBlank(source.getType())) {
-				ProductType type = productTypeService.getByCode(source.getType(), store, language);
+				ProductType type = references.productType(source.getType());
 				if(type == null) {
 					throw new ConversionException("Product type [" + source.getType() + "] does not exist");
 				}
@@ -159,7 +175,7 @@ public class PersistableProductMapper implements Mapper<PersistableProduct, Prod
 				for(com.salesmanager.shop.model.catalog.product.ProductDescription description : source.getDescriptions()) {
 					
 				  ProductDescription productDescription = new ProductDescription();
-				  Language lang = languageService.getByCode(description.getLanguage());
+				  Language lang = references.language(description.getLanguage());
 	              if(lang==null) {
 	                    throw new ConversionException("Language code " + description.getLanguage() + " is invalid, use ISO code (en, fr ...)");
 	               }
@@ -212,10 +228,10 @@ public class PersistableProductMapper implements Mapper<PersistableProduct, Prod
 					
 					Category c = null;
 					if(!StringUtils.isBlank(categ.getCode())) {
-						c = categoryService.getByCode(store, categ.getCode());
+						c = references.category(categ.getCode());
 					} else {
 						Validate.notNull(categ.getId(), "Category id nust not be null");
-						c = categoryService.getById(categ.getId(), store.getId());
+						c = references.category(categ.getId());
 					}
 					
 					if(c==null) {
@@ -305,6 +321,45 @@ public class PersistableProductMapper implements Mapper<PersistableProduct, Prod
 	private ProductAvailability defaultAvailability(List <ProductAvailability> availabilityList) {
 		return availabilityList.stream().filter(a -> a.getRegion() != null && a.getRegion().equals(Constants.ALL_REGIONS)).findFirst().get();
 	}
+
+	/**
+	 * Resolves references with one query per lookup
+	 */
+	private class ServiceReferences implements CatalogReferences {
+
+		private final MerchantStore store;
+		private final Language language;
+
+		ServiceReferences(MerchantStore store, Language language) {
+			this.store = store;
+			this.language = language;
+		}
+
+		@Override
+		public Category category(String code) throws ServiceException {
+			return categoryService.getByCode(store, code);
+		}
+
+		@Override
+		public Category category(Long id) throws ServiceException {
+			return categoryService.getById(id, store.getId());
+		}
+
+		@Override
+		public Manufacturer manufacturer(String code) throws ServiceException {
+			return manufacturerService.getByCode(store, code);
+		}
+
+		@Override
+		public ProductType productType(String code) throws ServiceException {
+			return productTypeService.getByCode(code, store, language);
+		}
+
+		@Override
+		public Language language(String code) throws ServiceException {
+			return languageService.getByCode(code);
+		}
+	}
 	
 
 
@@ -1,5 +1,6 @@
 package com.salesmanager.shop.mapper.catalog.product;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Component;
 
 import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.catalog.pricing.PricingService;
+import com.salesmanager.core.business.services.catalog.product.review.ProductReviewStatisticsService;
 import com.salesmanager.core.model.catalog.category.Category;
 import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.attribute.ProductAttribute;
@@ -29,6 +31,7 @@ import com.salesmanager.core.model.catalog.product.image.ProductImage;
 import com.salesmanager.core.model.catalog.product.price.FinalPrice;
 import com.salesmanager.core.model.catalog.product.price.ProductPrice;
 import com.salesmanager.core.model.catalog.product.price.ProductPriceDescription;
+import com.salesmanager.core.model.catalog.product.review.ProductReviewStatistics;
 import com.salesmanager.core.model.catalog.product.variant.ProductVariant;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
@@ -85,6 +88,9 @@ public class ReadableProductMapper implements Mapper<Product, ReadableProduct> {
 	@Autowired
 	private PricingService pricingService;
 
+	@Autowired
+	private ProductReviewStatisticsService productReviewStatisticsService;
+
 	@Override
 	public ReadableProduct convert(Product source, MerchantStore store, Language language) {
 		ReadableProduct product = new ReadableProduct();
@@ -140,10 +146,6 @@ public class ReadableProductMapper implements Mapper<Product, ReadableProduct> {
 
 		destination.setProductVirtual(source.getProductVirtual());
 
-		if (source.getProductReviewCount() != null) {
-			destination.setRatingCount(source.getProductReviewCount().intValue());
-		}
-
 		if (source.getManufacturer() != null) {
 			ReadableManufacturer manufacturer = readableManufacturerMapper.convert(source.getManufacturer(), store,
 					language);
@@ -422,14 +424,19 @@ public class ReadableProductMapper implements Mapper<Product, ReadableProduct> {
 			throw new ConversionRuntimeException("An error while converting product price", e);
 		}
 
-		if (source.getProductReviewAvg() != null) {
-			double avg = source.getProductReviewAvg().doubleValue();
+		//rating from the review statistics, the product columns are refreshed periodically
+		ProductReviewStatistics reviewStatistics = productReviewStatisticsService.getByProduct(source.getId());
+		BigDecimal reviewAvg = reviewStatistics != null ? reviewStatistics.getReviewAvg() : source.getProductReviewAvg();
+		Integer reviewCount = reviewStatistics != null ? Integer.valueOf(reviewStatistics.getReviewCount()) : source.getProductReviewCount();
+
+		if (reviewAvg != null) {
+			double avg = reviewAvg.doubleValue();
 			double rating = Math.round(avg * 2) / 2.0f;
 			destination.setRating(rating);
 		}
 
-		if (source.getProductReviewCount() != null) {
-			destination.setRatingCount(source.getProductReviewCount().intValue());
+		if (reviewCount != null) {
+			destination.setRatingCount(reviewCount.intValue());
 		}
 
 		if (description != null) {
@@ -0,0 +1,10 @@
+package com.salesmanager.shop.populator;
+
+/**
+ * Populator bean converting api objects to {@link com.salesmanager.core.model.common.audit.Auditable}
+ * entities, the audit section of the entity returned by populate is set by
+ * {@link PersistableAuditAspect}
+ */
+public interface Audited {
+
+}
@@ -16,7 +16,8 @@ import com.salesmanager.core.model.common.audit.AuditSection;
 import com.salesmanager.core.model.common.audit.Auditable;
 
 /**
- * Create audit section
+ * Create audit section of the entities returned by the populators
+ * implementing {@link Audited}. Readable populators are not proxied
  * @author carlsamson
  *
  */
@@ -27,7 +28,7 @@ public class PersistableAuditAspect {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(PersistableAuditAspect.class);
 
-    @AfterReturning(value = "execution(* populate(..))",
+    @AfterReturning(value = "execution(* populate(..)) && target(com.salesmanager.shop.populator.Audited)",
             returning = "result")
         public void afterReturning(JoinPoint joinPoint, Object result) {
     	
@@ -16,10 +16,11 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.shop.model.catalog.category.CategoryDescription;
 import com.salesmanager.shop.model.catalog.category.PersistableCategory;
+import com.salesmanager.shop.populator.Audited;
 
 @Component
 public class PersistableCategoryPopulator extends
-		AbstractDataPopulator<PersistableCategory, Category> {
+		AbstractDataPopulator<PersistableCategory, Category> implements Audited {
 
 	@Inject
 	private CategoryService categoryService;
@@ -29,10 +29,11 @@ import com.salesmanager.core.model.reference.zone.Zone;
 import com.salesmanager.shop.model.customer.PersistableCustomer;
 import com.salesmanager.shop.model.customer.address.Address;
 import com.salesmanager.shop.model.customer.attribute.PersistableCustomerAttribute;
+import com.salesmanager.shop.populator.Audited;
 
 @Component
 public class CustomerPopulator extends
-		AbstractDataPopulator<PersistableCustomer, Customer> {
+		AbstractDataPopulator<PersistableCustomer, Customer> implements Audited {
 	
 	protected static final Logger LOG=LoggerFactory.getLogger( CustomerPopulator.class );
     @Autowired
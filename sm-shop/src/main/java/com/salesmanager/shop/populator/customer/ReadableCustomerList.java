@@ -13,6 +13,11 @@ public class ReadableCustomerList extends ReadableList {
 	private static final long serialVersionUID = 1L;
 	
 	private List<ReadableCustomer> customers = new ArrayList<ReadableCustomer>();
+	/**
+	 * Keyset pagination, cursor to pass to get the next page. Null on last page
+	 */
+	private String nextCursor;
+	private boolean approximateCount;
 
 	public List<ReadableCustomer> getCustomers() {
 		return customers;
@@ -22,4 +27,20 @@ public class ReadableCustomerList extends ReadableList {
 		this.customers = customers;
 	}
 
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public boolean isApproximateCount() {
+		return approximateCount;
+	}
+
+	public void setApproximateCount(boolean approximateCount) {
+		this.approximateCount = approximateCount;
+	}
+
 }
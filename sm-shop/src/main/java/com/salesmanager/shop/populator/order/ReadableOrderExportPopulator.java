@@ -0,0 +1,189 @@
+package com.salesmanager.shop.populator.order;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.salesmanager.core.business.exception.ConversionException;
+import com.salesmanager.core.business.utils.AbstractDataPopulator;
+import com.salesmanager.core.model.common.Billing;
+import com.salesmanager.core.model.common.Delivery;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.order.Order;
+import com.salesmanager.core.model.order.OrderTotal;
+import com.salesmanager.core.model.order.attributes.OrderAttribute;
+import com.salesmanager.core.model.order.orderproduct.OrderProduct;
+import com.salesmanager.core.model.order.orderproduct.OrderProductAttribute;
+import com.salesmanager.core.model.order.orderstatus.OrderStatusHistory;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.customer.ReadableBilling;
+import com.salesmanager.shop.model.customer.ReadableDelivery;
+import com.salesmanager.shop.model.customer.address.Address;
+import com.salesmanager.shop.model.order.ReadableOrderProduct;
+import com.salesmanager.shop.model.order.ReadableOrderProductAttribute;
+import com.salesmanager.shop.model.order.history.ReadableOrderStatusHistory;
+import com.salesmanager.shop.model.order.total.ReadableOrderTotal;
+import com.salesmanager.shop.model.order.total.ReadableTotal;
+import com.salesmanager.shop.model.order.v1.ReadableOrderExport;
+import com.salesmanager.shop.utils.DateUtil;
+
+/**
+ * Maps an order for the bulk export. Only uses what has been loaded with
+ * the order (no product, store or customer lookup) and writes amounts
+ * as plain numbers so the output can be consumed by other systems
+ */
+public class ReadableOrderExportPopulator extends AbstractDataPopulator<Order, ReadableOrderExport> {
+
+	@Override
+	public ReadableOrderExport populate(Order source, ReadableOrderExport target, MerchantStore store,
+			Language language) throws ConversionException {
+
+		if (target == null) {
+			target = new ReadableOrderExport();
+		}
+
+		target.setId(source.getId());
+		target.setDatePurchased(DateUtil.formatDate(source.getDatePurchased()));
+		if (source.getStatus() != null) {
+			target.setOrderStatus(source.getStatus().name());
+		}
+		target.setCustomerId(source.getCustomerId());
+		target.setEmailAddress(source.getCustomerEmailAddress());
+		target.setPaymentModule(source.getPaymentModuleCode());
+		target.setShippingModule(source.getShippingModuleCode());
+		if (source.getCurrency() != null) {
+			target.setCurrency(source.getCurrency().getCode());
+		}
+		if (source.getCustomerAgreement() != null) {
+			target.setCustomerAgreement(source.getCustomerAgreement());
+		}
+
+		if (source.getBilling() != null) {
+			ReadableBilling billing = new ReadableBilling();
+			billing.setEmail(source.getCustomerEmailAddress());
+			address(source.getBilling(), billing);
+			target.setBilling(billing);
+		}
+
+		if (source.getDelivery() != null) {
+			ReadableDelivery delivery = new ReadableDelivery();
+			address(source.getDelivery(), delivery);
+			target.setDelivery(delivery);
+		}
+
+		for (OrderAttribute attr : source.getOrderAttributes()) {
+			com.salesmanager.shop.model.order.OrderAttribute a = new com.salesmanager.shop.model.order.OrderAttribute();
+			a.setKey(attr.getKey());
+			a.setValue(attr.getValue());
+			target.getAttributes().add(a);
+		}
+
+		List<ReadableOrderProduct> products = new ArrayList<ReadableOrderProduct>();
+		for (OrderProduct p : source.getOrderProducts()) {
+			ReadableOrderProduct product = new ReadableOrderProduct();
+			product.setId(p.getId());
+			product.setSku(p.getSku());
+			product.setProductName(p.getProductName());
+			product.setOrderedQuantity(p.getProductQuantity());
+			if (p.getOneTimeCharge() != null) {
+				product.setPrice(p.getOneTimeCharge().toPlainString());
+				product.setSubTotal(
+						p.getOneTimeCharge().multiply(new BigDecimal(p.getProductQuantity())).toPlainString());
+			}
+			List<ReadableOrderProductAttribute> attributes = new ArrayList<ReadableOrderProductAttribute>();
+			for (OrderProductAttribute attr : p.getOrderAttributes()) {
+				ReadableOrderProductAttribute attribute = new ReadableOrderProductAttribute();
+				attribute.setId(attr.getId());
+				attribute.setAttributeName(attr.getProductAttributeName());
+				attribute.setAttributeValue(attr.getProductAttributeValueName());
+				if (attr.getProductAttributePrice() != null) {
+					attribute.setAttributePrice(attr.getProductAttributePrice().toPlainString());
+				}
+				attributes.add(attribute);
+			}
+			product.setAttributes(attributes);
+			products.add(product);
+		}
+		target.setProducts(products);
+
+		ReadableTotal total = new ReadableTotal();
+		List<ReadableOrderTotal> totals = new ArrayList<ReadableOrderTotal>();
+		for (OrderTotal t : source.getOrderTotal()) {
+			ReadableOrderTotal orderTotal = new ReadableOrderTotal();
+			orderTotal.setId(t.getId());
+			orderTotal.setCode(t.getOrderTotalCode());
+			orderTotal.setModule(t.getModule());
+			orderTotal.setOrder(t.getSortOrder());
+			orderTotal.setTitle(t.getTitle());
+			orderTotal.setText(t.getText());
+			orderTotal.setValue(t.getValue());
+			if (t.getValue() != null) {
+				orderTotal.setTotal(t.getValue().toPlainString());
+			}
+			totals.add(orderTotal);
+		}
+		total.setTotals(totals);
+		if (source.getTotal() != null) {
+			total.setGrandTotal(source.getTotal().toPlainString());
+		}
+		target.setTotal(total);
+
+		List<OrderStatusHistory> history = new ArrayList<OrderStatusHistory>(source.getOrderHistory());
+		history.sort(Comparator.comparing(OrderStatusHistory::getDateAdded,
+				Comparator.nullsFirst(Comparator.naturalOrder())));
+		for (OrderStatusHistory h : history) {
+			ReadableOrderStatusHistory readable = new ReadableOrderStatusHistory();
+			readable.setId(h.getId());
+			readable.setOrderId(source.getId());
+			readable.setComments(h.getComments());
+			readable.setDate(DateUtil.formatLongDate(h.getDateAdded()));
+			if (h.getStatus() != null) {
+				readable.setOrderStatus(h.getStatus().name());
+			}
+			target.getHistory().add(readable);
+		}
+
+		return target;
+	}
+
+	private void address(Billing source, Address target) {
+		target.setFirstName(source.getFirstName());
+		target.setLastName(source.getLastName());
+		target.setCompany(source.getCompany());
+		target.setAddress(source.getAddress());
+		target.setCity(source.getCity());
+		target.setPostalCode(source.getPostalCode());
+		target.setPhone(source.getTelephone());
+		target.setStateProvince(source.getState());
+		if (source.getCountry() != null) {
+			target.setCountry(source.getCountry().getIsoCode());
+		}
+		if (source.getZone() != null) {
+			target.setZone(source.getZone().getCode());
+		}
+	}
+
+	private void address(Delivery source, Address target) {
+		target.setFirstName(source.getFirstName());
+		target.setLastName(source.getLastName());
+		target.setCompany(source.getCompany());
+		target.setAddress(source.getAddress());
+		target.setCity(source.getCity());
+		target.setPostalCode(source.getPostalCode());
+		target.setPhone(source.getTelephone());
+		target.setStateProvince(source.getState());
+		if (source.getCountry() != null) {
+			target.setCountry(source.getCountry().getIsoCode());
+		}
+		if (source.getZone() != null) {
+			target.setZone(source.getZone().getCode());
+		}
+	}
+
+	@Override
+	protected ReadableOrderExport createTarget() {
+		return new ReadableOrderExport();
+	}
+
+}
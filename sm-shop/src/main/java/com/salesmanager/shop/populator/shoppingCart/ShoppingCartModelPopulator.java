@@ -28,6 +28,7 @@ import com.salesmanager.core.model.shoppingcart.ShoppingCart;
 import com.salesmanager.shop.model.shoppingcart.ShoppingCartAttribute;
 import com.salesmanager.shop.model.shoppingcart.ShoppingCartData;
 import com.salesmanager.shop.model.shoppingcart.ShoppingCartItem;
+import com.salesmanager.shop.populator.Audited;
 
 /**
  * @author Umesh A
@@ -36,6 +37,7 @@ import com.salesmanager.shop.model.shoppingcart.ShoppingCartItem;
 @Service(value="shoppingCartModelPopulator")
 public class ShoppingCartModelPopulator
     extends AbstractDataPopulator<ShoppingCartData,ShoppingCart>
+    implements Audited
 {
 
 	private static final Logger LOG = LoggerFactory.getLogger(ShoppingCartModelPopulator.class);
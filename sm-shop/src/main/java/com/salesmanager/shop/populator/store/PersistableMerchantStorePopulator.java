@@ -27,9 +27,10 @@ import com.salesmanager.core.model.reference.zone.Zone;
 import com.salesmanager.shop.model.references.PersistableAddress;
 import com.salesmanager.shop.model.store.PersistableMerchantStore;
 import com.salesmanager.shop.utils.DateUtil;
+import com.salesmanager.shop.populator.Audited;
 
 @Component
-public class PersistableMerchantStorePopulator extends AbstractDataPopulator<PersistableMerchantStore, MerchantStore> {
+public class PersistableMerchantStorePopulator extends AbstractDataPopulator<PersistableMerchantStore, MerchantStore> implements Audited {
 
 	@Inject
 	private CountryService countryService;
@@ -23,10 +23,11 @@ import com.salesmanager.core.model.user.Group;
 import com.salesmanager.core.model.user.User;
 import com.salesmanager.shop.model.security.PersistableGroup;
 import com.salesmanager.shop.model.user.PersistableUser;
+import com.salesmanager.shop.populator.Audited;
 
 
 @Component
-public class PersistableUserPopulator extends AbstractDataPopulator<PersistableUser, User> {
+public class PersistableUserPopulator extends AbstractDataPopulator<PersistableUser, User> implements Audited {
 
   @Inject
   private LanguageService languageService;
@@ -1,5 +1,9 @@
 package com.salesmanager.shop.store.api.v1.configurations;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import javax.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -7,15 +11,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import com.salesmanager.core.business.utils.CacheStatistics;
 import com.salesmanager.core.business.utils.CacheUtils;
 import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.shop.constants.Constants;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.controller.store.facade.StoreFacade;
+import com.salesmanager.shop.utils.AuthorizationUtils;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import springfox.documentation.annotations.ApiIgnore;
 
 /**
  *
@@ -33,6 +45,9 @@ public class CacheApi {
   @Inject
   private CacheUtils cache;
 
+  @Inject
+  private AuthorizationUtils authorizationUtils;
+
   @DeleteMapping(value = "/auth/cache/store/{storeId}/clear")
   public @ResponseBody ResponseEntity<String> clearCache(@PathVariable("storeId") String storeCode,
       @RequestParam(name = "cacheKey", required = false) String cacheKey) {
@@ -55,4 +70,20 @@ public class CacheApi {
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
+  /**
+   * Size, hits, misses and evictions of the service caches and of the
+   * hibernate second level cache regions since startup
+   */
+  @GetMapping("/private/system/cache")
+  @ApiOperation(httpMethod = "GET", value = "Cache statistics per region", notes = "Requires superadmin access", produces = "application/json", response = List.class)
+  @ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT") })
+  public List<CacheStatistics> statistics(@ApiIgnore MerchantStore merchantStore) {
+
+    String user = authorizationUtils.authenticatedUser();
+    authorizationUtils.authorizeUser(user,
+        Stream.of(Constants.GROUP_SUPERADMIN).collect(Collectors.toList()), merchantStore);
+
+    return cache.getStatistics();
+  }
+
 }
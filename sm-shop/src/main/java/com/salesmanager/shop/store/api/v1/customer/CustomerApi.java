@@ -117,8 +117,34 @@ public class CustomerApi {
 	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT"),
 			@ApiImplicitParam(name = "lang", dataType = "string", defaultValue = "en") })
 	public ReadableCustomerList list(@RequestParam(value = "page", required = false) Integer page,
-			@RequestParam(value = "count", required = false) Integer count, @ApiIgnore MerchantStore merchantStore,
+			@RequestParam(value = "count", required = false) Integer count,
+			@RequestParam(value = "name", required = false) String name,
+			@RequestParam(value = "email", required = false) String email,
+			@RequestParam(value = "country", required = false) String country,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "approximateCount", required = false, defaultValue = "false") boolean approximateCount,
+			@ApiIgnore MerchantStore merchantStore,
 			@ApiIgnore Language language) {
+
+		/**
+		 * Searches and pages requested with a cursor return customer summaries
+		 * with keyset pagination on the listing columns, an empty cursor is the
+		 * first page. Offset pages and unbounded lists of full customers
+		 * otherwise
+		 */
+		if (cursor != null || name != null || email != null || country != null) {
+			if (count != null && count < 1) {
+				throw new ServiceRuntimeException("Count must be greater than 0");
+			}
+			CustomerCriteria customerCriteria = new CustomerCriteria();
+			Optional.ofNullable(count).ifPresent(customerCriteria::setPageSize);
+			customerCriteria.setName(name);
+			customerCriteria.setEmail(email);
+			customerCriteria.setCountry(country);
+			customerCriteria.setApproximateCount(approximateCount);
+			return customerFacade.getCustomerSummaries(merchantStore, customerCriteria, cursor);
+		}
+
 		CustomerCriteria customerCriteria = createCustomerCriteria(page, count);
 		return customerFacade.getListByStore(merchantStore, customerCriteria, language);
 	}
@@ -1,6 +1,9 @@
 package com.salesmanager.shop.store.api.v1.order;
 
 import java.security.Principal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
@@ -19,7 +22,11 @@ import org.jsoup.helper.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,6 +35,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.salesmanager.core.business.services.customer.CustomerService;
 import com.salesmanager.core.business.services.shoppingcart.ShoppingCartService;
@@ -100,6 +108,8 @@ public class OrderApi {
 
 	private static final String DEFAULT_ORDER_LIST_COUNT = "25";
 
+	private static final String INVOICE_CONTENT_TYPE = "application/vnd.oasis.opendocument.spreadsheet";
+
 	/**
 	 * Get a list of orders for a given customer accept request parameter
 	 * 'start' start index for count accept request parameter 'max' maximum
@@ -168,7 +178,8 @@ public class OrderApi {
 	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT"),
 			@ApiImplicitParam(name = "lang", dataType = "string", defaultValue = "en") })
 	public ReadableOrderList list(@RequestParam(value = "page", required = false) Integer page,
-			@RequestParam(value = "count", required = false) Integer count, @ApiIgnore MerchantStore merchantStore,
+			@RequestParam(value = "count", required = false) Integer count,
+			@RequestParam(value = "cursor", required = false) String cursor, @ApiIgnore MerchantStore merchantStore,
 			@ApiIgnore Language language, HttpServletRequest request, HttpServletResponse response) throws Exception {
 
 		Principal principal = request.getUserPrincipal();
@@ -187,12 +198,24 @@ public class OrderApi {
 		if (count == null) {
 			count = new Integer(100);
 		}
+		if (count < 1) {
+			throw new ServiceRuntimeException("Count must be greater than 0");
+		}
 
 		ReadableCustomer readableCustomer = new ReadableCustomer();
 		ReadableCustomerPopulator customerPopulator = new ReadableCustomerPopulator();
 		customerPopulator.populate(customer, readableCustomer, merchantStore, language);
 
-		ReadableOrderList returnList = orderFacade.getReadableOrderList(merchantStore, customer, page, count, language);
+		ReadableOrderList returnList = null;
+		if (cursor != null) {
+			// keyset pagination, an empty cursor is the first page
+			OrderCriteria criteria = new OrderCriteria();
+			criteria.setPageSize(count);
+			criteria.setCustomerId(customer.getId());
+			returnList = orderFacade.getReadableOrderSummaries(criteria, cursor, merchantStore, language);
+		} else {
+			returnList = orderFacade.getReadableOrderList(merchantStore, customer, page, count, language);
+		}
 
 		if (returnList == null) {
 			returnList = new ReadableOrderList();
@@ -228,9 +251,15 @@ public class OrderApi {
 			@RequestParam(value = "status", required = false) String status,
 			@RequestParam(value = "phone", required = false) String phone,
 			@RequestParam(value = "email", required = false) String email,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "approximateCount", required = false, defaultValue = "false") boolean approximateCount,
 			@ApiIgnore MerchantStore merchantStore,
 			@ApiIgnore Language language) {
 
+		if (count < 1) {
+			throw new ServiceRuntimeException("Count must be greater than 0");
+		}
+
 		OrderCriteria orderCriteria = new OrderCriteria();
 		orderCriteria.setPageSize(count);
 		orderCriteria.setStartPage(page);
@@ -246,6 +275,16 @@ public class OrderApi {
 		authorizationUtils.authorizeUser(user, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
 				Constants.GROUP_ADMIN_ORDER, Constants.GROUP_ADMIN_RETAIL).collect(Collectors.toList()), merchantStore);
 
+		/**
+		 * Order summaries with keyset pagination on date purchased when a cursor
+		 * is passed, an empty cursor is the first page. Offset pages of full
+		 * orders otherwise
+		 */
+		if (cursor != null) {
+			orderCriteria.setApproximateCount(approximateCount);
+			return orderFacade.getReadableOrderSummaries(orderCriteria, cursor, merchantStore, language);
+		}
+
 		ReadableOrderList orders = orderFacade.getReadableOrderList(orderCriteria, merchantStore);
 
 
@@ -253,6 +292,150 @@ public class OrderApi {
 
 	}
 
+	/**
+	 * Streams all orders purchased between startDate and endDate (inclusive)
+	 * for synchronization with external systems. Orders are written as they
+	 * are read from the database either as ndjson, one order per line with
+	 * products, totals, attributes and status history, or as csv, one line
+	 * per ordered product
+	 * @param startDate
+	 * @param endDate
+	 * @param status
+	 * @param format ndjson (default) or csv
+	 * @param merchantStore
+	 * @param language
+	 * @return
+	 */
+	@RequestMapping(value = { "/private/orders/export" }, method = RequestMethod.GET)
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "string", defaultValue = "en") })
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestParam(value = "format", required = false, defaultValue = Constants.DATA_FORMAT_NDJSON) String format,
+			@ApiIgnore MerchantStore merchantStore,
+			@ApiIgnore Language language) {
+
+		String user = authorizationUtils.authenticatedUser();
+		authorizationUtils.authorizeUser(user, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
+				Constants.GROUP_ADMIN_ORDER, Constants.GROUP_ADMIN_RETAIL).collect(Collectors.toList()), merchantStore);
+
+		if (!Constants.DATA_FORMAT_NDJSON.equals(format) && !Constants.DATA_FORMAT_CSV.equals(format)) {
+			throw new ServiceRuntimeException("Unsupported export format [" + format + "]");
+		}
+
+		if (status != null) {
+			try {
+				OrderStatus.valueOf(status.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new ServiceRuntimeException("Unknown order status [" + status + "]");
+			}
+		}
+
+		OrderCriteria orderCriteria = new OrderCriteria();
+		orderCriteria.setStatus(status);
+		if (startDate != null) {
+			orderCriteria.setStartDate(Date.from(startDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+		}
+		if (endDate != null) {
+			orderCriteria.setEndDate(Date.from(endDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+		}
+
+		StreamingResponseBody body = out -> orderFacade.exportOrders(orderCriteria, format, merchantStore, language,
+				out);
+
+		boolean csv = Constants.DATA_FORMAT_CSV.equals(format);
+		String fileName = "orders-" + merchantStore.getCode() + (csv ? ".csv" : ".ndjson");
+
+		return ResponseEntity.ok()
+				.contentType(csv ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+						: MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(body);
+	}
+
+	/**
+	 * Invoice of an order as an OpenDocument spreadsheet
+	 * @param id
+	 * @param merchantStore
+	 * @param language
+	 * @return
+	 */
+	@RequestMapping(value = { "/private/orders/{id}/invoice" }, method = RequestMethod.GET)
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "string", defaultValue = "en") })
+	public ResponseEntity<StreamingResponseBody> invoice(
+			@PathVariable final Long id,
+			@ApiIgnore MerchantStore merchantStore,
+			@ApiIgnore Language language) {
+
+		String user = authorizationUtils.authenticatedUser();
+		authorizationUtils.authorizeUser(user, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
+				Constants.GROUP_ADMIN_ORDER, Constants.GROUP_ADMIN_RETAIL).collect(Collectors.toList()), merchantStore);
+
+		//products and totals are fetched with the order
+		Order order = orderService.getOrder(id, merchantStore);
+		if (order == null) {
+			throw new ResourceNotFoundException("Order not found [" + id + "]");
+		}
+
+		StreamingResponseBody body = out -> orderFacade.writeInvoice(order, merchantStore, language, out);
+
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(INVOICE_CONTENT_TYPE))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"invoice-" + id + ".ods\"")
+				.body(body);
+	}
+
+	/**
+	 * Invoices of all orders purchased between startDate and endDate
+	 * (inclusive), for month end, as a zip of OpenDocument spreadsheets
+	 * written as orders are read from the database
+	 * @param startDate
+	 * @param endDate
+	 * @param status
+	 * @param merchantStore
+	 * @param language
+	 * @return
+	 */
+	@RequestMapping(value = { "/private/orders/invoices" }, method = RequestMethod.GET)
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "string", defaultValue = "en") })
+	public ResponseEntity<StreamingResponseBody> invoices(
+			@RequestParam(value = "startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(value = "endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(value = "status", required = false) String status,
+			@ApiIgnore MerchantStore merchantStore,
+			@ApiIgnore Language language) {
+
+		String user = authorizationUtils.authenticatedUser();
+		authorizationUtils.authorizeUser(user, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
+				Constants.GROUP_ADMIN_ORDER, Constants.GROUP_ADMIN_RETAIL).collect(Collectors.toList()), merchantStore);
+
+		if (status != null) {
+			try {
+				OrderStatus.valueOf(status.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new ServiceRuntimeException("Unknown order status [" + status + "]");
+			}
+		}
+
+		OrderCriteria orderCriteria = new OrderCriteria();
+		orderCriteria.setStatus(status);
+		orderCriteria.setStartDate(Date.from(startDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+		orderCriteria.setEndDate(Date.from(endDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+
+		StreamingResponseBody body = out -> orderFacade.writeInvoices(orderCriteria, merchantStore, language, out);
+
+		String fileName = "invoices-" + merchantStore.getCode() + "-" + startDate + "-" + endDate + ".zip";
+
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType("application/zip"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(body);
+	}
+
 	/**
 	 * Order details
 	 * @param id
@@ -3,6 +3,7 @@ package com.salesmanager.shop.store.api.v1.payment;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,15 +16,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.payments.GatewayStatistics;
+import com.salesmanager.core.business.services.payments.PaymentGatewayExecutor;
 import com.salesmanager.core.business.services.payments.PaymentService;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.core.model.system.IntegrationConfiguration;
 import com.salesmanager.core.model.system.IntegrationModule;
+import com.salesmanager.shop.constants.Constants;
 import com.salesmanager.shop.model.system.IntegrationModuleConfiguration;
 import com.salesmanager.shop.model.system.IntegrationModuleSummaryEntity;
 import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
+import com.salesmanager.shop.utils.AuthorizationUtils;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -51,6 +56,12 @@ public class PaymentApi {
 	@Autowired
 	private PaymentService paymentService;
 
+	@Autowired
+	private PaymentGatewayExecutor paymentGatewayExecutor;
+
+	@Autowired
+	private AuthorizationUtils authorizationUtils;
+
 	/**
 	 * Get available payment modules
 	 * 
@@ -181,6 +192,25 @@ public class PaymentApi {
 
 	}
 
+	/**
+	 * Latency, outcome and circuit state of the payment gateways called since
+	 * startup
+	 * 
+	 * @param merchantStore
+	 * @return
+	 */
+	@GetMapping("/private/modules/payment/gateways")
+	@ApiOperation(httpMethod = "GET", value = "Payment gateway call statistics", notes = "Requires superadmin access", produces = "application/json", response = List.class)
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT") })
+	public List<GatewayStatistics> gatewayStatistics(@ApiIgnore MerchantStore merchantStore) {
+
+		String user = authorizationUtils.authenticatedUser();
+		authorizationUtils.authorizeUser(user,
+				Stream.of(Constants.GROUP_SUPERADMIN).collect(Collectors.toList()), merchantStore);
+
+		return paymentGatewayExecutor.statistics();
+	}
+
 	private IntegrationModuleSummaryEntity integrationModule(IntegrationModule module,
 			Map<String, IntegrationConfiguration> configuredModules) {
 
@@ -5,6 +5,8 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -38,10 +40,12 @@ import com.salesmanager.core.model.catalog.product.Product;
 import com.salesmanager.core.model.catalog.product.ProductCriteria;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.constants.Constants;
 import com.salesmanager.shop.model.catalog.product.LightPersistableProduct;
 import com.salesmanager.shop.model.catalog.product.ReadableProduct;
 import com.salesmanager.shop.model.catalog.product.ReadableProductList;
 import com.salesmanager.shop.model.catalog.product.product.PersistableProduct;
+import com.salesmanager.shop.model.catalog.product.product.ReadableProductImport;
 import com.salesmanager.shop.model.entity.Entity;
 import com.salesmanager.shop.model.entity.EntityExists;
 import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
@@ -49,6 +53,8 @@ import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.api.exception.UnauthorizedException;
 import com.salesmanager.shop.store.controller.product.facade.ProductCommonFacade;
 import com.salesmanager.shop.store.controller.product.facade.ProductFacade;
+import com.salesmanager.shop.store.controller.product.facade.ProductImportFacade;
+import com.salesmanager.shop.utils.AuthorizationUtils;
 import com.salesmanager.shop.utils.ImageFilePath;
 
 import io.swagger.annotations.Api;
@@ -86,6 +92,12 @@ public class ProductApi {
 	@Inject
 	private ProductCommonFacade productCommonFacade;
 
+	@Inject
+	private ProductImportFacade productImportFacade;
+
+	@Inject
+	private AuthorizationUtils authorizationUtils;
+
 	@Inject
 	@Qualifier("img")
 	private ImageFilePath imageUtils;
@@ -117,6 +129,39 @@ public class ProductApi {
 
 	}
 
+	/**
+	 * Bulk product creation. The request body is streamed, either one
+	 * PersistableProduct json document per line (ndjson) or a csv file with a
+	 * header line. Rows in error are reported in the response and do not
+	 * stop the import
+	 * @param format ndjson or csv
+	 * @param merchantStore
+	 * @param language
+	 * @param request
+	 * @return
+	 * @throws IOException
+	 */
+	@ResponseStatus(HttpStatus.OK)
+	@RequestMapping(value = { "/private/products/import" }, method = RequestMethod.POST)
+	@ApiOperation(httpMethod = "POST", value = "Import products", notes = "Creates products from a ndjson or csv feed", produces = "application/json", response = ReadableProductImport.class)
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "String", defaultValue = "en") })
+	public @ResponseBody ReadableProductImport importProducts(
+			@RequestParam(value = "format", required = false, defaultValue = Constants.DATA_FORMAT_NDJSON) String format,
+			@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language,
+			HttpServletRequest request) throws IOException {
+
+		String user = authorizationUtils.authenticatedUser();
+		authorizationUtils.authorizeUser(user, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
+				Constants.GROUP_ADMIN_CATALOGUE, Constants.GROUP_ADMIN_RETAIL).collect(Collectors.toList()), merchantStore);
+
+		if (!Constants.DATA_FORMAT_NDJSON.equals(format) && !Constants.DATA_FORMAT_CSV.equals(format)) {
+			throw new ServiceRuntimeException("Unsupported import format [" + format + "]");
+		}
+
+		return productImportFacade.importProducts(request.getInputStream(), format, merchantStore, language);
+	}
+
 	@ResponseStatus(HttpStatus.OK)
 	@RequestMapping(value = { "/private/product/{id}", "/auth/product/{id}" }, method = RequestMethod.PUT)
 	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
@@ -0,0 +1,49 @@
+package com.salesmanager.shop.store.api.v1.system;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.salesmanager.core.business.configuration.db.PoolMetricsTrackerFactory;
+import com.salesmanager.core.business.configuration.db.PoolStatistics;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.shop.constants.Constants;
+import com.salesmanager.shop.utils.AuthorizationUtils;
+
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import springfox.documentation.annotations.ApiIgnore;
+
+@RestController
+@RequestMapping("/api/v1")
+public class ConnectionPoolApi {
+
+  @Inject
+  private PoolMetricsTrackerFactory poolMetrics;
+
+  @Inject
+  private AuthorizationUtils authorizationUtils;
+
+  /**
+   * Usage, wait time and timeouts of the database connection pools
+   */
+  @GetMapping("/private/system/pools")
+  @ApiOperation(httpMethod = "GET", value = "Database connection pool statistics", notes = "Requires superadmin access", produces = "application/json", response = List.class)
+  @ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT") })
+  public List<PoolStatistics> statistics(@ApiIgnore MerchantStore merchantStore) {
+
+    String user = authorizationUtils.authenticatedUser();
+    authorizationUtils.authorizeUser(user,
+        Stream.of(Constants.GROUP_SUPERADMIN).collect(Collectors.toList()), merchantStore);
+
+    return poolMetrics.getStatistics();
+  }
+
+}
@@ -0,0 +1,55 @@
+package com.salesmanager.shop.store.api.v1.system;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.salesmanager.core.business.configuration.executors.ExecutorStatistics;
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskExecutor;
+import com.salesmanager.core.business.configuration.executors.InstrumentedTaskScheduler;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.shop.constants.Constants;
+import com.salesmanager.shop.utils.AuthorizationUtils;
+
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import springfox.documentation.annotations.ApiIgnore;
+
+@RestController
+@RequestMapping("/api/v1")
+public class ExecutorApi {
+
+  @Inject
+  private List<InstrumentedTaskExecutor> executors;
+
+  @Inject
+  private List<InstrumentedTaskScheduler> schedulers;
+
+  @Inject
+  private AuthorizationUtils authorizationUtils;
+
+  /**
+   * Active, queued, completed and rejected tasks of the async executors and
+   * schedulers
+   */
+  @GetMapping("/private/system/executors")
+  @ApiOperation(httpMethod = "GET", value = "Async executor statistics", notes = "Requires superadmin access", produces = "application/json", response = List.class)
+  @ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "string", defaultValue = "DEFAULT") })
+  public List<ExecutorStatistics> statistics(@ApiIgnore MerchantStore merchantStore) {
+
+    String user = authorizationUtils.authenticatedUser();
+    authorizationUtils.authorizeUser(user,
+        Stream.of(Constants.GROUP_SUPERADMIN).collect(Collectors.toList()), merchantStore);
+
+    return Stream.concat(executors.stream().map(InstrumentedTaskExecutor::statistics),
+        schedulers.stream().map(InstrumentedTaskScheduler::statistics)).collect(Collectors.toList());
+  }
+
+}
@@ -12,13 +12,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.shop.constants.Constants;
+import com.salesmanager.shop.model.system.ReadableIndexingProgress;
 import com.salesmanager.shop.model.user.ReadableUser;
+import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
 import com.salesmanager.shop.store.api.exception.RestApiException;
 import com.salesmanager.shop.store.api.exception.UnauthorizedException;
 import com.salesmanager.shop.store.controller.search.facade.SearchFacade;
@@ -83,4 +87,65 @@ public class SearchToolsApi {
 		return new ResponseEntity<Void>(HttpStatus.CREATED);
 	}
 
+	@GetMapping("/private/system/search/index")
+	@ApiOperation(httpMethod = "GET", value = "Progress of products indexing", notes = "", produces = "application/json")
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "String", defaultValue = "en") })
+	public ResponseEntity<ReadableIndexingProgress> progress(@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language, HttpServletRequest request) {
+
+		authorizeIndexing();
+
+		ReadableIndexingProgress progress = searchFacade.indexingProgress(merchantStore);
+		if (progress == null) {
+			throw new ResourceNotFoundException("No indexing started for store [" + merchantStore.getCode() + "]");
+		}
+		return new ResponseEntity<ReadableIndexingProgress>(progress, HttpStatus.OK);
+	}
+
+	@PostMapping("/private/system/search/index/resume")
+	@ApiOperation(httpMethod = "POST", value = "Resumes a cancelled or interrupted products indexing from its last checkpoint", notes = "", produces = "application/json")
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "String", defaultValue = "en") })
+	public ResponseEntity<ReadableIndexingProgress> resume(@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language, HttpServletRequest request) {
+
+		authorizeIndexing();
+
+		ReadableIndexingProgress progress = null;
+		try {
+			progress = searchFacade.resumeIndexing(merchantStore);
+		} catch (Exception e) {
+			throw new RestApiException("Exception while resuming store indexing", e);
+		}
+		if (progress == null) {
+			throw new ResourceNotFoundException("No indexing to resume for store [" + merchantStore.getCode() + "]");
+		}
+		return new ResponseEntity<ReadableIndexingProgress>(progress, HttpStatus.OK);
+	}
+
+	@DeleteMapping("/private/system/search/index")
+	@ApiOperation(httpMethod = "DELETE", value = "Cancels the running products indexing", notes = "", produces = "application/json")
+	@ApiImplicitParams({ @ApiImplicitParam(name = "store", dataType = "String", defaultValue = "DEFAULT"),
+			@ApiImplicitParam(name = "lang", dataType = "String", defaultValue = "en") })
+	public ResponseEntity<ReadableIndexingProgress> cancel(@ApiIgnore MerchantStore merchantStore, @ApiIgnore Language language, HttpServletRequest request) {
+
+		authorizeIndexing();
+
+		ReadableIndexingProgress progress = searchFacade.cancelIndexing(merchantStore);
+		if (progress == null) {
+			throw new ResourceNotFoundException("No indexing started for store [" + merchantStore.getCode() + "]");
+		}
+		return new ResponseEntity<ReadableIndexingProgress>(progress, HttpStatus.OK);
+	}
+
+	private void authorizeIndexing() {
+		String authenticatedUser = userFacade.authenticatedUser();
+		if (authenticatedUser == null) {
+			throw new UnauthorizedException();
+		}
+
+		userFacade.authorizedGroup(authenticatedUser, Stream.of(Constants.GROUP_SUPERADMIN, Constants.GROUP_ADMIN,
+				Constants.GROUP_ADMIN_CATALOGUE, Constants.GROUP_ADMIN_RETAIL)
+				.collect(Collectors.toList()));
+	}
+
 }
@@ -177,6 +177,17 @@ public interface CustomerFacade
 
 	ReadableCustomerList getListByStore(MerchantStore store, CustomerCriteria criteria, Language language);
 
+	/**
+	 * Customer grid columns using keyset pagination. The first page is
+	 * requested with a null cursor, next pages with the nextCursor of the
+	 * previous response. Attributes and groups are not returned
+	 * @param store
+	 * @param criteria
+	 * @param cursor
+	 * @return ReadableCustomerList
+	 */
+	ReadableCustomerList getCustomerSummaries(MerchantStore store, CustomerCriteria criteria, String cursor);
+
 	PersistableCustomerReview createCustomerReview(
       Long customerId,
       PersistableCustomerReview review,
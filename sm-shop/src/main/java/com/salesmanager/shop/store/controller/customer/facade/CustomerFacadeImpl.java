@@ -20,7 +20,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -47,6 +46,8 @@ import com.salesmanager.core.business.utils.CoreConfiguration;
 import com.salesmanager.core.model.customer.Customer;
 import com.salesmanager.core.model.customer.CustomerCriteria;
 import com.salesmanager.core.model.customer.CustomerList;
+import com.salesmanager.core.model.customer.CustomerListItem;
+import com.salesmanager.core.model.customer.CustomerListPage;
 import com.salesmanager.core.model.customer.review.CustomerReview;
 import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.reference.country.Country;
@@ -655,7 +656,6 @@ public class CustomerFacadeImpl implements CustomerFacade {
 
   }
 
-  @Async
   private void notifyNewCustomer(PersistableCustomer customer, MerchantStore store, Language lang) {
 		System.out.println("Customer notification");
 		long startTime = System.nanoTime();
@@ -952,6 +952,60 @@ public class CustomerFacadeImpl implements CustomerFacade {
     return convertCustomerListToReadableCustomerList(customerList, store, language);
   }
 
+  @Override
+  public ReadableCustomerList getCustomerSummaries(MerchantStore store, CustomerCriteria criteria,
+      String cursor) {
+    Validate.notNull(store, "MerchantStore cannot be null");
+    Validate.notNull(criteria, "CustomerCriteria cannot be null");
+
+    if (!StringUtils.isBlank(cursor)) {
+      try {
+        criteria.setLastId(Long.parseLong(cursor));
+      } catch (NumberFormatException e) {
+        throw new ServiceRuntimeException("Invalid cursor [" + cursor + "]");
+      }
+    }
+
+    CustomerListPage page = customerService.listCustomerItems(store, criteria);
+
+    List<ReadableCustomer> readableCustomers = page.getItems()
+        .stream()
+        .map(item -> readableCustomerSummary(item, store))
+        .collect(Collectors.toList());
+
+    ReadableCustomerList readableCustomerList = new ReadableCustomerList();
+    readableCustomerList.setCustomers(readableCustomers);
+    readableCustomerList.setRecordsTotal(page.getTotalCount());
+    readableCustomerList.setTotalPages(page.getTotalPages());
+    readableCustomerList.setNumber(readableCustomers.size());
+    readableCustomerList.setRecordsFiltered(readableCustomers.size());
+    readableCustomerList.setApproximateCount(page.isApproximateCount());
+    if (!page.isLast()) {
+      readableCustomerList.setNextCursor(String.valueOf(page.getNextId()));
+    }
+    return readableCustomerList;
+  }
+
+  private ReadableCustomer readableCustomerSummary(CustomerListItem item, MerchantStore store) {
+    ReadableCustomer customer = new ReadableCustomer();
+    customer.setId(item.getId());
+    customer.setEmailAddress(item.getEmailAddress());
+    customer.setUserName(item.getNick());
+    customer.setStoreCode(store.getCode());
+    customer.setFirstName(item.getBillingFirstName());
+    customer.setLastName(item.getBillingLastName());
+
+    Address billing = new Address();
+    billing.setBillingAddress(true);
+    billing.setFirstName(item.getBillingFirstName());
+    billing.setLastName(item.getBillingLastName());
+    billing.setCompany(item.getBillingCompany());
+    billing.setPhone(item.getBillingTelephone());
+    billing.setCountry(item.getBillingCountry());
+    customer.setBilling(billing);
+    return customer;
+  }
+
   private ReadableCustomerList convertCustomerListToReadableCustomerList(
       CustomerList customerList, MerchantStore store, Language language) {
     List<ReadableCustomer> readableCustomers = customerList.getCustomers()
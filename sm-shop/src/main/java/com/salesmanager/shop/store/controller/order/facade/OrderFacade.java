@@ -1,5 +1,7 @@
 package com.salesmanager.shop.store.controller.order.facade;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -137,6 +139,58 @@ public interface OrderFacade {
 
 	com.salesmanager.shop.model.order.v0.ReadableOrderList getReadableOrderList(OrderCriteria criteria, MerchantStore store);
 
+	/**
+	 * Order summaries using keyset pagination. The first page is requested
+	 * with a null cursor, next pages with the nextCursor of the previous
+	 * response. Only summary columns and line items are returned
+	 * @param criteria
+	 * @param cursor
+	 * @param store
+	 * @param language
+	 * @return ReadableOrderList
+	 */
+	com.salesmanager.shop.model.order.v0.ReadableOrderList getReadableOrderSummaries(OrderCriteria criteria, String cursor,
+			MerchantStore store, Language language);
+
+	/**
+	 * Writes all orders matching the criteria to the stream as they are read
+	 * from the database. ndjson writes one order per line with its products,
+	 * totals, attributes and status history, csv writes one line per
+	 * ordered product
+	 * @param criteria
+	 * @param format ndjson or csv
+	 * @param store
+	 * @param language
+	 * @param out
+	 * @return number of orders written
+	 * @throws IOException
+	 */
+	long exportOrders(OrderCriteria criteria, String format, MerchantStore store, Language language,
+			OutputStream out) throws IOException;
+
+	/**
+	 * Writes the .ods invoice of an order to the stream
+	 * @param order
+	 * @param store
+	 * @param language
+	 * @param out
+	 * @throws IOException
+	 */
+	void writeInvoice(Order order, MerchantStore store, Language language, OutputStream out) throws IOException;
+
+	/**
+	 * Writes the invoices of all orders matching the criteria to the stream
+	 * as a zip, one .ods entry per order
+	 * @param criteria
+	 * @param store
+	 * @param language
+	 * @param out
+	 * @return number of invoices written
+	 * @throws IOException
+	 */
+	long writeInvoices(OrderCriteria criteria, MerchantStore store, Language language, OutputStream out)
+			throws IOException;
+
 
 	/**
 	 * Get a list of Order on which payment capture must be done
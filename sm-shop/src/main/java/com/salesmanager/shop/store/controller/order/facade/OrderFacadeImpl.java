@@ -1,6 +1,13 @@
 package com.salesmanager.shop.store.controller.order.facade;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -20,6 +27,8 @@ import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -27,7 +36,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -60,6 +68,8 @@ import com.salesmanager.core.model.merchant.MerchantStore;
 import com.salesmanager.core.model.order.Order;
 import com.salesmanager.core.model.order.OrderCriteria;
 import com.salesmanager.core.model.order.OrderList;
+import com.salesmanager.core.model.order.OrderListItem;
+import com.salesmanager.core.model.order.OrderListPage;
 import com.salesmanager.core.model.order.OrderSummary;
 import com.salesmanager.core.model.order.OrderTotalSummary;
 import com.salesmanager.core.model.order.attributes.OrderAttribute;
@@ -81,11 +91,13 @@ import com.salesmanager.core.model.shipping.ShippingSummary;
 import com.salesmanager.core.model.shoppingcart.ShoppingCart;
 import com.salesmanager.core.model.shoppingcart.ShoppingCartItem;
 import com.salesmanager.shop.model.customer.PersistableCustomer;
+import com.salesmanager.shop.model.customer.ReadableBilling;
 import com.salesmanager.shop.model.customer.ReadableCustomer;
 import com.salesmanager.shop.model.customer.address.Address;
 import com.salesmanager.shop.model.order.OrderEntity;
 import com.salesmanager.shop.model.order.PersistableOrderProduct;
 import com.salesmanager.shop.model.order.ReadableOrderProduct;
+import com.salesmanager.shop.model.order.v1.ReadableOrderExport;
 import com.salesmanager.shop.model.order.ShopOrder;
 import com.salesmanager.shop.model.order.history.PersistableOrderStatusHistory;
 import com.salesmanager.shop.model.order.history.ReadableOrderStatusHistory;
@@ -95,11 +107,13 @@ import com.salesmanager.shop.populator.customer.CustomerPopulator;
 import com.salesmanager.shop.populator.customer.PersistableCustomerPopulator;
 import com.salesmanager.shop.populator.order.OrderProductPopulator;
 import com.salesmanager.shop.populator.order.PersistableOrderApiPopulator;
+import com.salesmanager.shop.populator.order.ReadableOrderExportPopulator;
 import com.salesmanager.shop.populator.order.ReadableOrderPopulator;
 import com.salesmanager.shop.populator.order.ReadableOrderProductPopulator;
 import com.salesmanager.shop.populator.order.ShoppingCartItemPopulator;
 import com.salesmanager.shop.populator.order.transaction.PersistablePaymentPopulator;
 import com.salesmanager.shop.populator.order.transaction.ReadableTransactionPopulator;
+import com.salesmanager.shop.store.api.exception.ConversionRuntimeException;
 import com.salesmanager.shop.store.api.exception.ResourceNotFoundException;
 import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
 import com.salesmanager.shop.store.controller.customer.facade.CustomerFacade;
@@ -115,6 +129,12 @@ public class OrderFacadeImpl implements OrderFacade {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(OrderFacadeImpl.class);
 
+	private static final String CURSOR_DELIMITER = "_";
+
+	private static final String[] EXPORT_CSV_HEADER = { "order_id", "date_purchased", "status", "customer_id",
+			"email", "billing_first_name", "billing_last_name", "currency", "order_total", "payment_module",
+			"shipping_module", "line_id", "sku", "product_name", "quantity", "price", "sub_total" };
+
 	@Inject
 	private OrderService orderService;
 	@Inject
@@ -154,6 +174,9 @@ public class OrderFacadeImpl implements OrderFacade {
 	@Autowired
 	private CustomerPopulator customerPopulator;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	@Autowired
 	private TransactionService transactionService;
 
@@ -971,6 +994,204 @@ public class OrderFacadeImpl implements OrderFacade {
 
 	}
 
+	@Override
+	public com.salesmanager.shop.model.order.v0.ReadableOrderList getReadableOrderSummaries(OrderCriteria criteria,
+			String cursor, MerchantStore store, Language language) {
+
+		Validate.notNull(criteria, "OrderCriteria cannot be null");
+		Validate.notNull(store, "MerchantStore cannot be null");
+
+		if (!StringUtils.isBlank(cursor)) {
+			String[] keys = cursor.split(CURSOR_DELIMITER);
+			try {
+				criteria.setLastDatePurchased(new Date(Long.parseLong(keys[0])));
+				criteria.setLastId(Long.parseLong(keys[1]));
+			} catch (RuntimeException e) {
+				throw new ServiceRuntimeException("Invalid cursor [" + cursor + "]");
+			}
+		}
+
+		OrderListPage page = orderService.listOrderItems(store, criteria);
+
+		Locale locale = LocaleUtils.getLocale(language);
+		List<com.salesmanager.shop.model.order.v0.ReadableOrder> readableOrders = new ArrayList<com.salesmanager.shop.model.order.v0.ReadableOrder>();
+		try {
+			for (OrderListItem item : page.getItems()) {
+				readableOrders.add(readableOrderSummary(item, locale, store, language));
+			}
+		} catch (ConversionException e) {
+			throw new ConversionRuntimeException("Error while converting orders", e);
+		}
+
+		com.salesmanager.shop.model.order.v0.ReadableOrderList returnList = new com.salesmanager.shop.model.order.v0.ReadableOrderList();
+		returnList.setOrders(readableOrders);
+		returnList.setRecordsTotal(page.getTotalCount());
+		returnList.setTotalPages(page.getTotalPages());
+		returnList.setNumber(readableOrders.size());
+		returnList.setRecordsFiltered(readableOrders.size());
+		returnList.setApproximateCount(page.isApproximateCount());
+		if (!page.isLast()) {
+			returnList.setNextCursor(page.getNextDatePurchased().getTime() + CURSOR_DELIMITER + page.getNextId());
+		}
+
+		return returnList;
+	}
+
+	@Override
+	public long exportOrders(OrderCriteria criteria, String format, MerchantStore store, Language language,
+			OutputStream out) throws IOException {
+		Validate.notNull(criteria, "OrderCriteria cannot be null");
+		Validate.notNull(store, "MerchantStore cannot be null");
+		Validate.notNull(out, "OutputStream cannot be null");
+
+		boolean csv = com.salesmanager.shop.constants.Constants.DATA_FORMAT_CSV.equals(format);
+		ReadableOrderExportPopulator populator = new ReadableOrderExportPopulator();
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+		if (csv) {
+			writeCsvLine(writer, EXPORT_CSV_HEADER);
+		}
+
+		long count;
+		try {
+			count = orderService.exportOrders(store, criteria, order -> {
+				try {
+					ReadableOrderExport readable = populator.populate(order, new ReadableOrderExport(), store, language);
+					if (csv) {
+						writeCsv(writer, readable);
+					} else {
+						writer.write(objectMapper.writeValueAsString(readable));
+						writer.write('\n');
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} catch (ConversionException e) {
+					throw new ConversionRuntimeException("Cannot export order [" + order.getId() + "]", e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			//client went away
+			throw e.getCause();
+		}
+
+		writer.flush();
+		return count;
+	}
+
+	@Override
+	public void writeInvoice(Order order, MerchantStore store, Language language, OutputStream out)
+			throws IOException {
+		Validate.notNull(order, "Order cannot be null");
+		try {
+			orderService.writeInvoice(store, order, language, out);
+		} catch (ServiceException e) {
+			if (e.getCause() instanceof IOException) {
+				//client went away
+				throw (IOException) e.getCause();
+			}
+			throw new ServiceRuntimeException("Cannot create invoice of order [" + order.getId() + "]", e);
+		}
+	}
+
+	@Override
+	public long writeInvoices(OrderCriteria criteria, MerchantStore store, Language language, OutputStream out)
+			throws IOException {
+		Validate.notNull(criteria, "OrderCriteria cannot be null");
+		Validate.notNull(store, "MerchantStore cannot be null");
+		try {
+			return orderService.writeInvoices(store, criteria, language, out);
+		} catch (ServiceException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new ServiceRuntimeException("Cannot create invoices of store [" + store.getCode() + "]", e);
+		}
+	}
+
+	/**
+	 * One line per ordered product, order columns are repeated
+	 */
+	private void writeCsv(Writer writer, ReadableOrderExport order) throws IOException {
+		String email = order.getEmailAddress();
+		String firstName = order.getBilling() != null ? order.getBilling().getFirstName() : null;
+		String lastName = order.getBilling() != null ? order.getBilling().getLastName() : null;
+		String total = order.getTotal() != null ? order.getTotal().getGrandTotal() : null;
+
+		List<ReadableOrderProduct> products = order.getProducts();
+		if (CollectionUtils.isEmpty(products)) {
+			products = Collections.singletonList(new ReadableOrderProduct());
+		}
+
+		for (ReadableOrderProduct product : products) {
+			writeCsvLine(writer, new String[] { String.valueOf(order.getId()), order.getDatePurchased(),
+					order.getOrderStatus(), order.getCustomerId() != null ? String.valueOf(order.getCustomerId()) : null,
+					email, firstName, lastName, order.getCurrency(), total, order.getPaymentModule(),
+					order.getShippingModule(), product.getId() != null ? String.valueOf(product.getId()) : null,
+					product.getSku(), product.getProductName(),
+					product.getId() != null ? String.valueOf(product.getOrderedQuantity()) : null, product.getPrice(),
+					product.getSubTotal() });
+		}
+	}
+
+	private void writeCsvLine(Writer writer, String[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			String value = values[i];
+			if (value == null) {
+				continue;
+			}
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+					|| value.indexOf('\r') >= 0) {
+				writer.write('"');
+				writer.write(value.replace("\"", "\"\""));
+				writer.write('"');
+			} else {
+				writer.write(value);
+			}
+		}
+		writer.write("\r\n");
+	}
+
+	private com.salesmanager.shop.model.order.v0.ReadableOrder readableOrderSummary(OrderListItem item, Locale locale,
+			MerchantStore store, Language language) throws ConversionException {
+
+		com.salesmanager.shop.model.order.v0.ReadableOrder readableOrder = new com.salesmanager.shop.model.order.v0.ReadableOrder();
+		readableOrder.setId(item.getId());
+		readableOrder.setDatePurchased(item.getDatePurchased());
+		readableOrder.setOrderStatus(item.getStatus());
+		readableOrder.setCurrency(item.getCurrency());
+		readableOrder.setPaymentModule(item.getPaymentModuleCode());
+		readableOrder.setShippingModule(item.getShippingModuleCode());
+
+		ReadableBilling billing = new ReadableBilling();
+		billing.setEmail(item.getCustomerEmailAddress());
+		billing.setFirstName(item.getBillingFirstName());
+		billing.setLastName(item.getBillingLastName());
+		readableOrder.setBilling(billing);
+
+		OrderTotal total = new OrderTotal();
+		total.setCode(Constants.OT_TOTAL_MODULE_CODE);
+		total.setValue(item.getTotal());
+		readableOrder.setTotal(total);
+
+		List<ReadableOrderProduct> orderProducts = new ArrayList<ReadableOrderProduct>();
+		for (OrderProduct p : item.getOrderProducts()) {
+			ReadableOrderProductPopulator orderProductPopulator = new ReadableOrderProductPopulator();
+			orderProductPopulator.setLocale(locale);
+			orderProductPopulator.setProductService(productService);
+			orderProductPopulator.setPricingService(pricingService);
+			orderProductPopulator.setimageUtils(imageUtils);
+			ReadableOrderProduct orderProduct = new ReadableOrderProduct();
+			orderProductPopulator.populate(p, orderProduct, store, language);
+			orderProducts.add(orderProduct);
+		}
+		readableOrder.setProducts(orderProducts);
+
+		return readableOrder;
+	}
+
 	@Override
 	public ShippingQuote getShippingQuote(Customer customer, ShoppingCart cart,
 			com.salesmanager.shop.model.order.v0.PersistableOrder order, MerchantStore store, Language language)
@@ -1358,7 +1579,6 @@ public class OrderFacadeImpl implements OrderFacade {
 
 	}
 
-	@Async
 	private void notify(Order order, Customer customer, MerchantStore store, Language language, Locale locale) throws Exception {
 
 		// send order confirmation email to customer
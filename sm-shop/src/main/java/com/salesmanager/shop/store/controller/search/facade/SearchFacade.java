@@ -7,6 +7,7 @@ import com.salesmanager.core.model.reference.language.Language;
 import com.salesmanager.shop.model.catalog.SearchProductList;
 import com.salesmanager.shop.model.catalog.SearchProductRequest;
 import com.salesmanager.shop.model.entity.ValueList;
+import com.salesmanager.shop.model.system.ReadableIndexingProgress;
 
 import modules.commons.search.request.SearchItem;
 import modules.commons.search.request.SearchResponse;
@@ -25,6 +26,28 @@ public interface SearchFacade {
 	 * @throws Exception
 	 */
 	public void indexAllData(MerchantStore store) throws Exception;
+
+	/**
+	 * Progress of the last re-index started for a store
+	 * @param store
+	 * @return progress or null if the store was never re-indexed
+	 */
+	ReadableIndexingProgress indexingProgress(MerchantStore store);
+
+	/**
+	 * Continues a cancelled or interrupted re-index from its last checkpoint
+	 * @param store
+	 * @return progress or null if there is nothing to resume
+	 * @throws Exception
+	 */
+	ReadableIndexingProgress resumeIndexing(MerchantStore store) throws Exception;
+
+	/**
+	 * Stops the running re-index of a store
+	 * @param store
+	 * @return progress or null if the store was never re-indexed
+	 */
+	ReadableIndexingProgress cancelIndexing(MerchantStore store);
 	
 	/**
 	 * Produces a search request against elastic search
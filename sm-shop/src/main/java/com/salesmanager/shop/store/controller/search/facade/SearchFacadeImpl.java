@@ -10,7 +10,6 @@ import org.jsoup.helper.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import com.salesmanager.core.business.exception.ConversionException;
@@ -18,6 +17,8 @@ import com.salesmanager.core.business.exception.ServiceException;
 import com.salesmanager.core.business.services.catalog.category.CategoryService;
 import com.salesmanager.core.business.services.catalog.pricing.PricingService;
 import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.search.IndexingProgress;
+import com.salesmanager.core.business.services.search.ProductIndexingService;
 import com.salesmanager.core.business.services.search.SearchService;
 import com.salesmanager.core.model.catalog.category.Category;
 import com.salesmanager.core.model.catalog.product.Product;
@@ -27,6 +28,7 @@ import com.salesmanager.shop.model.catalog.SearchProductRequest;
 import com.salesmanager.shop.model.catalog.category.ReadableCategory;
 import com.salesmanager.shop.model.catalog.product.ReadableProduct;
 import com.salesmanager.shop.model.entity.ValueList;
+import com.salesmanager.shop.model.system.ReadableIndexingProgress;
 import com.salesmanager.shop.populator.catalog.ReadableCategoryPopulator;
 import com.salesmanager.shop.populator.catalog.ReadableProductPopulator;
 import com.salesmanager.shop.store.api.exception.ConversionRuntimeException;
@@ -49,6 +51,9 @@ public class SearchFacadeImpl implements SearchFacade {
 	@Inject
 	private ProductService productService;
 
+	@Inject
+	private ProductIndexingService productIndexingService;
+
 	@Inject
 	private CategoryService categoryService;
 
@@ -66,20 +71,48 @@ public class SearchFacadeImpl implements SearchFacade {
 	/**
 	 * Index all products from the catalogue Better stop the system, remove ES
 	 * indexex manually restart ES and run this query
+	 * 
+	 * Products are indexed in batches on a background thread, use
+	 * indexingProgress to follow the job
 	 */
 	@Override
-	@Async
 	public void indexAllData(MerchantStore store) throws Exception {
-		List<Product> products = productService.listByStore(store);
+		productIndexingService.reindex(store);
+	}
 
-		products.stream().forEach(p -> {
-			try {
-				searchService.index(store, p);
-			} catch (ServiceException e) {
-				throw new RuntimeException("Exception while indexing products", e);
-			}
-		});
+	@Override
+	public ReadableIndexingProgress indexingProgress(MerchantStore store) {
+		return readableProgress(productIndexingService.getProgress(store));
+	}
+
+	@Override
+	public ReadableIndexingProgress resumeIndexing(MerchantStore store) throws Exception {
+		return readableProgress(productIndexingService.resume(store));
+	}
+
+	@Override
+	public ReadableIndexingProgress cancelIndexing(MerchantStore store) {
+		return readableProgress(productIndexingService.cancel(store));
+	}
+
+	private ReadableIndexingProgress readableProgress(IndexingProgress progress) {
+		if (progress == null) {
+			return null;
+		}
 
+		ReadableIndexingProgress readable = new ReadableIndexingProgress();
+		readable.setStore(progress.getStore());
+		readable.setStatus(progress.getStatus().name());
+		readable.setTotal(progress.getTotal());
+		readable.setIndexed(progress.getIndexed());
+		readable.setFailed(progress.getFailed());
+		readable.setPercentage(progress.getPercentage());
+		readable.setStartDate(progress.getStartDate());
+		readable.setEndDate(progress.getEndDate());
+		readable.setLastId(progress.getLastId());
+		readable.setThroughput(progress.getThroughput());
+		readable.setEstimatedEndDate(progress.getEstimatedEndDate());
+		return readable;
 	}
 
 	@Override
@@ -12,7 +12,6 @@ import javax.inject.Inject;
 import org.jsoup.helper.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -160,7 +159,6 @@ public class CustomerFacadeImpl implements CustomerFacade {
 
 	}
 
-	@Async
 	private void resetPasswordRequest(Customer customer, String resetLink, MerchantStore store, Locale locale)
 			throws Exception {
 		try {
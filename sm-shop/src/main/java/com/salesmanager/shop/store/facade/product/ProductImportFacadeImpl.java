@@ -0,0 +1,532 @@
+package com.salesmanager.shop.store.facade.product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesmanager.core.business.exception.ServiceException;
+import com.salesmanager.core.business.services.catalog.category.CategoryService;
+import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.catalog.product.manufacturer.ManufacturerService;
+import com.salesmanager.core.business.services.catalog.product.type.ProductTypeService;
+import com.salesmanager.core.business.services.reference.language.LanguageService;
+import com.salesmanager.core.business.services.search.ProductIndexingService;
+import com.salesmanager.core.model.catalog.category.Category;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.catalog.product.manufacturer.Manufacturer;
+import com.salesmanager.core.model.catalog.product.type.ProductType;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.constants.Constants;
+import com.salesmanager.shop.mapper.catalog.product.CatalogReferences;
+import com.salesmanager.shop.mapper.catalog.product.PersistableProductMapper;
+import com.salesmanager.shop.model.catalog.product.PersistableProductPrice;
+import com.salesmanager.shop.model.catalog.product.ProductDescription;
+import com.salesmanager.shop.model.catalog.product.product.PersistableProduct;
+import com.salesmanager.shop.model.catalog.product.product.PersistableProductInventory;
+import com.salesmanager.shop.model.catalog.product.product.ProductSpecification;
+import com.salesmanager.shop.model.catalog.product.product.ReadableProductImport;
+import com.salesmanager.shop.model.catalog.product.product.ReadableProductImportError;
+import com.salesmanager.shop.store.api.exception.ServiceRuntimeException;
+import com.salesmanager.shop.store.controller.product.facade.ProductImportFacade;
+
+/**
+ * Bulk product import. The input is read one row at a time, rows are mapped
+ * with reference data loaded once for the whole import and persisted in
+ * chunks of product.import.chunkSize products per transaction. When a chunk
+ * fails its rows are retried one by one so a single bad row is reported
+ * without losing the rest of the chunk
+ */
+@Service("productImportFacade")
+public class ProductImportFacadeImpl implements ProductImportFacade {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProductImportFacadeImpl.class);
+
+	/**
+	 * Columns of the csv format
+	 */
+	public static final String CSV_SKU = "sku";
+	public static final String CSV_REF_SKU = "refSku";
+	public static final String CSV_NAME = "name";
+	public static final String CSV_DESCRIPTION = "description";
+	public static final String CSV_FRIENDLY_URL = "friendlyUrl";
+	public static final String CSV_LANGUAGE = "language";
+	public static final String CSV_PRICE = "price";
+	public static final String CSV_QUANTITY = "quantity";
+	public static final String CSV_CATEGORIES = "categories";
+	public static final String CSV_MANUFACTURER = "manufacturer";
+	public static final String CSV_TYPE = "type";
+	public static final String CSV_VISIBLE = "visible";
+	public static final String CSV_SHIPPABLE = "shippable";
+
+	/**
+	 * Separates category codes in the categories column
+	 */
+	private static final String CATEGORY_DELIMITER = "|";
+
+	@Inject
+	private ProductService productService;
+
+	@Inject
+	private CategoryService categoryService;
+
+	@Inject
+	private ManufacturerService manufacturerService;
+
+	@Inject
+	private ProductTypeService productTypeService;
+
+	@Inject
+	private LanguageService languageService;
+
+	@Inject
+	private ProductIndexingService productIndexingService;
+
+	@Autowired
+	private PersistableProductMapper persistableProductMapper;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${product.import.chunkSize:200}")
+	private int chunkSize;
+
+	/**
+	 * Maximum number of row errors returned, counts are always complete
+	 */
+	@Value("${product.import.maxErrors:1000}")
+	private int maxErrors;
+
+	@Override
+	public ReadableProductImport importProducts(InputStream in, String format, MerchantStore store,
+			Language language) throws IOException {
+		Validate.notNull(in, "InputStream cannot be null");
+		Validate.notNull(store, "MerchantStore cannot be null");
+
+		long start = System.currentTimeMillis();
+
+		ImportJob job;
+		try {
+			job = new ImportJob(store, language);
+		} catch (ServiceException e) {
+			throw new ServiceRuntimeException("Cannot load reference data for import", e);
+		}
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		RowReader rows = Constants.DATA_FORMAT_CSV.equals(format) ? new CsvRowReader(reader, language)
+				: new JsonRowReader(reader);
+
+		Row row;
+		while ((row = rows.next()) != null) {
+			job.result.setTotal(job.result.getTotal() + 1);
+			job.add(row);
+		}
+		job.persist();
+
+		if (!job.created.isEmpty()) {
+			productIndexingService.index(store, job.created);
+		}
+
+		job.result.setCreated(job.created.size());
+		job.result.setDuration(System.currentTimeMillis() - start);
+
+		LOGGER.info("Imported " + job.result.getCreated() + " of " + job.result.getTotal() + " products for store ["
+				+ store.getCode() + "] in " + job.result.getDuration() + " ms");
+
+		return job.result;
+	}
+
+	/**
+	 * State of a single import
+	 */
+	private class ImportJob implements CatalogReferences {
+
+		private final MerchantStore store;
+		private final Language language;
+
+		private final Map<String, Category> categoriesByCode = new HashMap<String, Category>();
+		private final Map<Long, Category> categoriesById = new HashMap<Long, Category>();
+		private final Map<String, Manufacturer> manufacturers = new HashMap<String, Manufacturer>();
+		private final Map<String, ProductType> productTypes = new HashMap<String, ProductType>();
+		private final Map<String, Language> languages;
+		private final Set<String> skus;
+
+		private final List<Row> chunk = new ArrayList<Row>();
+		private final List<Long> created = new ArrayList<Long>();
+		private final ReadableProductImport result = new ReadableProductImport();
+
+		ImportJob(MerchantStore store, Language language) throws ServiceException {
+			this.store = store;
+			this.language = language;
+
+			for (Category category : categoryService.listByStore(store)) {
+				categoriesByCode.put(category.getCode(), category);
+				categoriesById.put(category.getId(), category);
+			}
+			for (Manufacturer manufacturer : manufacturerService.listByStore(store)) {
+				manufacturers.put(manufacturer.getCode(), manufacturer);
+			}
+			languages = languageService.getLanguagesMap();
+			skus = new HashSet<String>(productService.listSkusByStore(store));
+		}
+
+		void add(Row row) {
+			if (row.error != null) {
+				error(row, row.error);
+				return;
+			}
+
+			PersistableProduct product = row.product;
+			if (StringUtils.isBlank(product.getSku())) {
+				error(row, "sku is required");
+				return;
+			}
+			if (!CollectionUtils.isEmpty(product.getImages())) {
+				error(row, "images are not supported by the import");
+				return;
+			}
+			if (!skus.add(product.getSku())) {
+				error(row, "product with sku [" + product.getSku() + "] already exists");
+				return;
+			}
+
+			chunk.add(row);
+			if (chunk.size() >= chunkSize) {
+				persist();
+			}
+		}
+
+		void persist() {
+			if (chunk.isEmpty()) {
+				return;
+			}
+
+			List<Row> rows = new ArrayList<Row>();
+			List<Product> products = new ArrayList<Product>();
+			for (Row row : chunk) {
+				Product product = map(row);
+				if (product != null) {
+					rows.add(row);
+					products.add(product);
+				}
+			}
+			chunk.clear();
+
+			if (products.isEmpty()) {
+				return;
+			}
+
+			try {
+				productService.createProducts(products);
+				for (Product product : products) {
+					created.add(product.getId());
+				}
+			} catch (Exception e) {
+				LOGGER.warn("Cannot create chunk of " + products.size() + " products, retrying one by one", e);
+				for (Row row : rows) {
+					Product product = map(row);
+					if (product == null) {
+						continue;
+					}
+					try {
+						productService.createProducts(Collections.singletonList(product));
+						created.add(product.getId());
+					} catch (Exception ex) {
+						skus.remove(row.product.getSku());
+						error(row, ExceptionUtils.getRootCauseMessage(ex));
+					}
+				}
+			}
+		}
+
+		private Product map(Row row) {
+			row.product.setId(null);
+			try {
+				return persistableProductMapper.merge(row.product, new Product(), store, language, this);
+			} catch (Exception e) {
+				skus.remove(row.product.getSku());
+				error(row, ExceptionUtils.getRootCauseMessage(e));
+				return null;
+			}
+		}
+
+		private void error(Row row, String message) {
+			result.setFailed(result.getFailed() + 1);
+			if (result.getErrors().size() < maxErrors) {
+				String sku = row.product != null ? row.product.getSku() : null;
+				result.getErrors().add(new ReadableProductImportError(row.line, sku, message));
+			}
+		}
+
+		@Override
+		public Category category(String code) {
+			return categoriesByCode.get(code);
+		}
+
+		@Override
+		public Category category(Long id) {
+			return categoriesById.get(id);
+		}
+
+		@Override
+		public Manufacturer manufacturer(String code) {
+			return manufacturers.get(code);
+		}
+
+		@Override
+		public ProductType productType(String code) throws ServiceException {
+			//few types per store, resolved on first use
+			if (!productTypes.containsKey(code)) {
+				productTypes.put(code, productTypeService.getByCode(code, store, language));
+			}
+			return productTypes.get(code);
+		}
+
+		@Override
+		public Language language(String code) {
+			return languages.get(code);
+		}
+	}
+
+	private static class Row {
+
+		private final long line;
+		private final PersistableProduct product;
+		private final String error;
+
+		Row(long line, PersistableProduct product, String error) {
+			this.line = line;
+			this.product = product;
+			this.error = error;
+		}
+	}
+
+	private interface RowReader {
+
+		/**
+		 * @return next row or null at the end of the input
+		 */
+		Row next() throws IOException;
+	}
+
+	/**
+	 * One PersistableProduct json document per line
+	 */
+	private class JsonRowReader implements RowReader {
+
+		private final BufferedReader reader;
+		private long line = 0;
+
+		JsonRowReader(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public Row next() throws IOException {
+			String value;
+			while ((value = reader.readLine()) != null) {
+				line++;
+				if (StringUtils.isBlank(value)) {
+					continue;
+				}
+				try {
+					return new Row(line, objectMapper.readValue(value, PersistableProduct.class), null);
+				} catch (JsonProcessingException e) {
+					return new Row(line, null, "invalid json " + e.getOriginalMessage());
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Header line naming the columns followed by one product per line.
+	 * Values containing a comma, a quote or a line break are enclosed in
+	 * double quotes, quotes are escaped by doubling them
+	 */
+	private static class CsvRowReader implements RowReader {
+
+		private final BufferedReader reader;
+		private final Language language;
+		private long line = 0;
+		private Map<String, Integer> columns;
+
+		CsvRowReader(BufferedReader reader, Language language) {
+			this.reader = reader;
+			this.language = language;
+		}
+
+		@Override
+		public Row next() throws IOException {
+			if (columns == null) {
+				List<String> header = record();
+				if (header == null) {
+					return null;
+				}
+				columns = new HashMap<String, Integer>();
+				for (int i = 0; i < header.size(); i++) {
+					columns.put(header.get(i).trim(), i);
+				}
+			}
+
+			List<String> values;
+			do {
+				values = record();
+				if (values == null) {
+					return null;
+				}
+			} while (values.size() == 1 && StringUtils.isBlank(values.get(0)));
+
+			long recordLine = line;
+			try {
+				return new Row(recordLine, product(values), null);
+			} catch (IllegalArgumentException e) {
+				PersistableProduct partial = new PersistableProduct();
+				partial.setSku(value(values, CSV_SKU));
+				return new Row(recordLine, partial, e.getMessage());
+			}
+		}
+
+		private PersistableProduct product(List<String> values) {
+			PersistableProduct product = new PersistableProduct();
+			product.setSku(value(values, CSV_SKU));
+			product.setRefSku(value(values, CSV_REF_SKU));
+			if (value(values, CSV_VISIBLE) != null) {
+				product.setVisible(Boolean.parseBoolean(value(values, CSV_VISIBLE)));
+			}
+			if (value(values, CSV_SHIPPABLE) != null) {
+				product.setProductShipeable(Boolean.parseBoolean(value(values, CSV_SHIPPABLE)));
+			}
+			product.setType(value(values, CSV_TYPE));
+
+			ProductDescription description = new ProductDescription();
+			description.setName(value(values, CSV_NAME));
+			description.setDescription(value(values, CSV_DESCRIPTION));
+			description.setFriendlyUrl(value(values, CSV_FRIENDLY_URL));
+			String lang = value(values, CSV_LANGUAGE);
+			description.setLanguage(lang != null ? lang : language.getCode());
+			product.getDescriptions().add(description);
+
+			if (value(values, CSV_MANUFACTURER) != null) {
+				ProductSpecification specifications = new ProductSpecification();
+				specifications.setManufacturer(value(values, CSV_MANUFACTURER));
+				product.setProductSpecifications(specifications);
+			}
+
+			String categories = value(values, CSV_CATEGORIES);
+			if (categories != null) {
+				for (String code : StringUtils.split(categories, CATEGORY_DELIMITER)) {
+					com.salesmanager.shop.model.catalog.category.Category category = new com.salesmanager.shop.model.catalog.category.Category();
+					category.setCode(code.trim());
+					product.getCategories().add(category);
+				}
+			}
+
+			PersistableProductInventory inventory = new PersistableProductInventory();
+			String quantity = value(values, CSV_QUANTITY);
+			String price = value(values, CSV_PRICE);
+			try {
+				if (quantity != null) {
+					inventory.setQuantity(Integer.parseInt(quantity));
+				}
+				if (price != null) {
+					PersistableProductPrice productPrice = new PersistableProductPrice();
+					productPrice.setDefaultPrice(true);
+					productPrice.setPrice(new BigDecimal(price));
+					inventory.setPrice(productPrice);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("invalid number in price [" + price + "] or quantity [" + quantity + "]");
+			}
+			product.setInventory(inventory);
+
+			return product;
+		}
+
+		private String value(List<String> values, String column) {
+			Integer index = columns.get(column);
+			if (index == null || index >= values.size()) {
+				return null;
+			}
+			return StringUtils.trimToNull(values.get(index));
+		}
+
+		/**
+		 * Reads a record which can span several lines when a quoted value
+		 * contains line breaks
+		 */
+		private List<String> record() throws IOException {
+			String current = reader.readLine();
+			if (current == null) {
+				return null;
+			}
+			line++;
+
+			List<String> values = new ArrayList<String>();
+			StringBuilder value = new StringBuilder();
+			boolean quoted = false;
+			int i = 0;
+			while (true) {
+				if (i >= current.length()) {
+					if (quoted) {
+						String next = reader.readLine();
+						if (next != null) {
+							line++;
+							value.append('\n');
+							current = next;
+							i = 0;
+							continue;
+						}
+					}
+					values.add(value.toString());
+					return values;
+				}
+				char c = current.charAt(i++);
+				if (quoted) {
+					if (c == '"') {
+						if (i < current.length() && current.charAt(i) == '"') {
+							value.append('"');
+							i++;
+						} else {
+							quoted = false;
+						}
+					} else {
+						value.append(c);
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					values.add(value.toString());
+					value.setLength(0);
+				} else {
+					value.append(c);
+				}
+			}
+		}
+	}
+
+}
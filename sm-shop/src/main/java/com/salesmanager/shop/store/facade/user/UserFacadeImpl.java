@@ -19,7 +19,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -893,7 +892,6 @@ public class UserFacadeImpl implements UserFacade {
 	}
 	
 
-	@Async
 	private void resetPasswordRequest(User user, String resetLink, MerchantStore store, Locale locale)
 			throws Exception {
 		try {
@@ -24,7 +24,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
@@ -85,7 +84,6 @@ public class EmailTemplatesUtils {
 	 * @param merchantStore
 	 * @param contextPath
 	 */
-	@Async
 	public void sendOrderEmail(String toEmail, Customer customer, Order order, Locale customerLocale, Language language, MerchantStore merchantStore, String contextPath) {
 			   /** issue with putting that elsewhere **/ 
 		       LOGGER.info( "Sending welcome email to customer" );
@@ -265,7 +263,6 @@ public class EmailTemplatesUtils {
 	 * @param merchantStore
 	 * @param customerLocale
 	 */
-	@Async
 	public void sendRegistrationEmail(
 		PersistableCustomer customer, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -307,7 +304,6 @@ public class EmailTemplatesUtils {
 		
 	}
 	
-	@Async
 	public void sendContactEmail(
 			ContactForm contact, MerchantStore merchantStore,
 				Locale storeLocale, String contextPath) {
@@ -356,7 +352,6 @@ public class EmailTemplatesUtils {
 	 * @param merchantStore
 	 * @param customerLocale
 	 */
-	@Async
 	public void sendUpdateOrderStatusEmail(
 			Customer customer, Order order, OrderStatusHistory lastHistory, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -411,7 +406,6 @@ public class EmailTemplatesUtils {
 	 * @param customerLocale
 	 * @param contextPath
 	 */
-	@Async
 	public void sendOrderDownloadEmail(
 			Customer customer, Order order, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -458,7 +452,6 @@ public class EmailTemplatesUtils {
 	 * @param customerLocale
 	 * @param contextPath
 	 */
-	@Async
 	public void changePasswordNotificationEmail(
 			Customer customer, MerchantStore merchantStore,
 			Locale customerLocale, String contextPath) {
@@ -21,8 +21,13 @@ public class GeoLocationUtils {
 	public static String getClientIpAddress(HttpServletRequest request) {
 	    for (String header : HEADERS_TO_TRY) {
 	        String ip = request.getHeader(header);
-	        if (ip != null && ip.length() != 0 && !"unknown".equalsIgnoreCase(ip)) {
-	            return ip;
+	        if (ip != null) {
+	            //X-Forwarded-For: client, proxy1, proxy2
+	            int separator = ip.indexOf(',');
+	            String client = (separator >= 0 ? ip.substring(0, separator) : ip).trim();
+	            if (client.length() != 0 && !"unknown".equalsIgnoreCase(client)) {
+	                return client;
+	            }
 	        }
 	    }
 	    return request.getRemoteAddr();
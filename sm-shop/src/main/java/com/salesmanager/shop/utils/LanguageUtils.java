@@ -44,7 +44,7 @@ public class LanguageUtils {
     Language l = null;
     if (!StringUtils.isBlank(lang)) {
       try {
-        l = languageService.getByCode(lang);
+        l = languageService.getLanguageRegistry().get(lang);
       } catch (ServiceException e) {
         logger.error("Cannot retrieve language " + lang, e);
       }
@@ -168,7 +168,7 @@ public class LanguageUtils {
         }
       } else {
         if(!ALL_LANGUALES.equals(lang)) {
-          language = languageService.getByCode(lang);
+          language = languageService.getLanguageRegistry().get(lang);
           if (language == null) {
             language = languageService.defaultLanguage();
           }
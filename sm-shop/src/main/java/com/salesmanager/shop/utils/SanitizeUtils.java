@@ -25,6 +25,12 @@ public class SanitizeUtils {
     
     private static Policy policy = null;
     
+    /**
+     * AntiSamy holds no scan state (a scanner is created for each scan)
+     * and can be shared between threads
+     */
+    private static final AntiSamy antiSamy = new AntiSamy();
+    
     static { 
 		try {
 			ClassLoader loader = Policy.class.getClassLoader();
@@ -40,15 +46,41 @@ public class SanitizeUtils {
         //Utility class
     }
     
+    /**
+     * Returns true when the value contains characters having a meaning in
+     * html (markup, entities, attribute quotes) or control characters, in
+     * which case it has to be sanitized. Scans the value without allocating
+     * @param value
+     * @return
+     */
+    public static boolean requiresSanitizing(String value) {
+    	for(int i=0; i<value.length(); i++) {
+    		char c = value.charAt(i);
+    		if(c < ' ' || c == '<' || c == '>' || c == '&' || c == '"') {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+    
+    /**
+     * Html sanitizing of a value. Values without html significant characters
+     * are returned as is, others are cleaned against the AntiSamy policy
+     * @param value
+     * @return
+     */
     public static String getSafeString(String value) {
 
+		if(value == null || !requiresSanitizing(value)) {
+			return value;
+		}
+
 		try {
 
 			if(policy == null) {
 				throw new ServiceRuntimeException("Error in " + SanitizeUtils.class.getName() + " html sanitize utils is null");		}
 
-	        AntiSamy as = new AntiSamy();
-	        CleanResults cr = as.scan(value, policy);
+	        CleanResults cr = antiSamy.scan(value, policy);
 	        
 	        return cr.getCleanHTML();
 	        
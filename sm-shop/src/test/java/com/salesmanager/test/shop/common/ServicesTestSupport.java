@@ -3,6 +3,7 @@ package com.salesmanager.test.shop.common;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -21,10 +22,12 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.salesmanager.core.business.constants.Constants;
 import com.salesmanager.shop.application.ShopApplication;
+import com.salesmanager.shop.filter.SqlStatisticsHeaderAdvice;
 import com.salesmanager.shop.model.catalog.category.Category;
 import com.salesmanager.shop.model.catalog.category.CategoryDescription;
 import com.salesmanager.shop.model.catalog.category.PersistableCategory;
@@ -46,6 +49,7 @@ import com.salesmanager.shop.store.security.AuthenticationResponse;
 
 @SpringBootTest(classes = ShopApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT)
 @ExtendWith(SpringExtension.class)
+@TestPropertySource(properties = { "sql.statistics.enabled=true", "sql.statistics.headers=true" })
 public class ServicesTestSupport {
 
 	@Autowired
@@ -64,6 +68,17 @@ public class ServicesTestSupport {
 		return headers;
 	}
 
+	/**
+	 * Fails when the request ran more sql statements than its budget, catches
+	 * n+1 selects added to populators and services
+	 */
+	protected void assertSqlStatements(final ResponseEntity<?> response, final int budget) {
+		final String statements = response.getHeaders().getFirst(SqlStatisticsHeaderAdvice.STATEMENTS_HEADER);
+		assertNotNull("No sql statistics in the response", statements);
+		assertTrue("Request ran " + statements + " sql statements, budget is " + budget,
+				Integer.parseInt(statements) <= budget);
+	}
+
 	public ReadableMerchantStore fetchStore() {
 		final HttpEntity<String> httpEntity = new HttpEntity<>(getHeader());
 		return testRestTemplate.exchange(String.format("/api/v1/store/%s", Constants.DEFAULT_STORE), HttpMethod.GET,
@@ -0,0 +1,250 @@
+package com.salesmanager.test.shop.facade;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesmanager.core.business.services.catalog.category.CategoryService;
+import com.salesmanager.core.business.services.catalog.product.ProductService;
+import com.salesmanager.core.business.services.catalog.product.manufacturer.ManufacturerService;
+import com.salesmanager.core.business.services.catalog.product.type.ProductTypeService;
+import com.salesmanager.core.business.services.reference.language.LanguageService;
+import com.salesmanager.core.business.services.search.ProductIndexingService;
+import com.salesmanager.core.model.catalog.product.Product;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.mapper.catalog.product.CatalogReferences;
+import com.salesmanager.shop.mapper.catalog.product.PersistableProductMapper;
+import com.salesmanager.shop.model.catalog.product.ProductDescription;
+import com.salesmanager.shop.model.catalog.product.product.PersistableProduct;
+import com.salesmanager.shop.model.catalog.product.product.ReadableProductImport;
+import com.salesmanager.shop.model.catalog.product.product.ReadableProductImportError;
+import com.salesmanager.shop.store.facade.product.ProductImportFacadeImpl;
+
+/**
+ * Import parsing, chunk retries and error report with the services mocked
+ */
+public class ProductImportFacadeTest {
+
+  private static final String HEADER = "sku,name,description,price,quantity,categories\n";
+
+  /** sku rejected by the database **/
+  private static final String BAD_SKU = "bad";
+
+  private ProductImportFacadeImpl facade;
+  private ProductService productService;
+  private ProductIndexingService productIndexingService;
+
+  private final MerchantStore store = new MerchantStore();
+  private final Language language = new Language("en");
+
+  /** products read from the input, in mapping order **/
+  private final List<PersistableProduct> mapped = new ArrayList<PersistableProduct>();
+  /** skus of each createProducts call **/
+  private final List<List<String>> chunks = new ArrayList<List<String>>();
+  private long ids;
+
+  @Before
+  public void setUp() throws Exception {
+    store.setCode("DEFAULT");
+
+    productService = mock(ProductService.class);
+    productIndexingService = mock(ProductIndexingService.class);
+    PersistableProductMapper mapper = mock(PersistableProductMapper.class);
+
+    facade = new ProductImportFacadeImpl();
+    ReflectionTestUtils.setField(facade, "productService", productService);
+    ReflectionTestUtils.setField(facade, "categoryService", mock(CategoryService.class));
+    ReflectionTestUtils.setField(facade, "manufacturerService", mock(ManufacturerService.class));
+    ReflectionTestUtils.setField(facade, "productTypeService", mock(ProductTypeService.class));
+    ReflectionTestUtils.setField(facade, "languageService", mock(LanguageService.class));
+    ReflectionTestUtils.setField(facade, "productIndexingService", productIndexingService);
+    ReflectionTestUtils.setField(facade, "persistableProductMapper", mapper);
+    ReflectionTestUtils.setField(facade, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(facade, "chunkSize", 200);
+    ReflectionTestUtils.setField(facade, "maxErrors", 1000);
+
+    when(mapper.merge(any(PersistableProduct.class), any(Product.class), eq(store), eq(language),
+        any(CatalogReferences.class))).thenAnswer(invocation -> {
+          PersistableProduct source = invocation.getArgument(0);
+          Product product = invocation.getArgument(1);
+          mapped.add(source);
+          product.setSku(source.getSku());
+          return product;
+        });
+
+    doAnswer(invocation -> {
+      List<Product> products = invocation.getArgument(0);
+      List<String> skus = new ArrayList<String>();
+      for (Product product : products) {
+        skus.add(product.getSku());
+      }
+      chunks.add(skus);
+      if (skus.contains(BAD_SKU)) {
+        throw new IllegalStateException("could not execute batch",
+            new SQLIntegrityConstraintViolationException("Duplicate entry 'bad-url'"));
+      }
+      for (Product product : products) {
+        product.setId(++ids);
+      }
+      return null;
+    }).when(productService).createProducts(anyList());
+  }
+
+  @Test
+  public void quotedValues() throws Exception {
+    ReadableProductImport result = importCsv(HEADER
+        + "a1,\"Shirt, blue\",\"He said \"\"hi\"\"\",10.50,3,\"c1|c2\"\n");
+
+    assertEquals(1, result.getCreated());
+    assertEquals(0, result.getFailed());
+
+    PersistableProduct product = mapped.get(0);
+    ProductDescription description = product.getDescriptions().get(0);
+    assertEquals("a1", product.getSku());
+    assertEquals("Shirt, blue", description.getName());
+    assertEquals("He said \"hi\"", description.getDescription());
+    assertEquals("en", description.getLanguage());
+    assertEquals(new BigDecimal("10.50"), product.getInventory().getPrice().getPrice());
+    assertEquals(3, product.getInventory().getQuantity());
+    assertEquals(2, product.getCategories().size());
+    assertEquals("c1", product.getCategories().get(0).getCode());
+    assertEquals("c2", product.getCategories().get(1).getCode());
+  }
+
+  @Test
+  public void embeddedNewlines() throws Exception {
+    ReadableProductImport result = importCsv(HEADER
+        + "a1,Shirt,\"line one\nline two\",10,1,\n"
+        + "\n"
+        + "a2,Pants,,abc,1,\n"
+        + "a3,Hat,\"\",5,1,\n");
+
+    assertEquals(3, result.getTotal());
+    assertEquals(2, result.getCreated());
+    assertEquals("line one\nline two", mapped.get(0).getDescriptions().get(0).getDescription());
+    assertNull(mapped.get(1).getDescriptions().get(0).getDescription());
+
+    //header line 1, a1 lines 2 and 3, blank line 4
+    ReadableProductImportError error = result.getErrors().get(0);
+    assertEquals(5, error.getLine());
+    assertEquals("a2", error.getSku());
+  }
+
+  /**
+   * A chunk rejected by the database is retried row by row, only the bad
+   * row is reported
+   */
+  @Test
+  public void failingChunkRetriedRowByRow() throws Exception {
+    ReflectionTestUtils.setField(facade, "chunkSize", 3);
+
+    ReadableProductImport result = importCsv(HEADER
+        + "a1,Shirt,,10,1,\n"
+        + BAD_SKU + ",Pants,,10,1,\n"
+        + "a3,Hat,,10,1,\n"
+        + "a4,Socks,,10,1,\n");
+
+    assertEquals(Arrays.asList(
+        Arrays.asList("a1", BAD_SKU, "a3"),
+        Collections.singletonList("a1"),
+        Collections.singletonList(BAD_SKU),
+        Collections.singletonList("a3"),
+        Collections.singletonList("a4")), chunks);
+
+    assertEquals(4, result.getTotal());
+    assertEquals(3, result.getCreated());
+    assertEquals(1, result.getFailed());
+    ReadableProductImportError error = result.getErrors().get(0);
+    assertEquals(3, error.getLine());
+    assertEquals(BAD_SKU, error.getSku());
+    assertEquals("SQLIntegrityConstraintViolationException: Duplicate entry 'bad-url'", error.getMessage());
+
+    verify(productIndexingService).index(store, Arrays.asList(1L, 2L, 3L));
+  }
+
+  /**
+   * Each rejected row is reported with its line, sku and reason, the
+   * number of reported errors is capped but the count is complete
+   */
+  @Test
+  public void errorReport() throws Exception {
+    ReflectionTestUtils.setField(facade, "maxErrors", 3);
+    when(productService.listSkusByStore(store)).thenReturn(Collections.singletonList("dup"));
+
+    ReadableProductImport result = importCsv(HEADER
+        + "dup,Shirt,,10,1,\n"
+        + ",Pants,,10,1,\n"
+        + "p1,Hat,,abc,1,\n"
+        + "p2,Socks,,10,1,\n"
+        + "p2,Socks,,10,1,\n");
+
+    assertEquals(5, result.getTotal());
+    assertEquals(1, result.getCreated());
+    assertEquals(4, result.getFailed());
+    assertEquals(3, result.getErrors().size());
+
+    assertError(result.getErrors().get(0), 2, "dup", "product with sku [dup] already exists");
+    assertError(result.getErrors().get(1), 3, null, "sku is required");
+    assertError(result.getErrors().get(2), 4, "p1", "invalid number in price [abc] or quantity [1]");
+  }
+
+  @Test
+  public void invalidJsonLine() throws Exception {
+    ReadableProductImport result = facade.importProducts(input("{\"sku\":\"j1\"}\n{not json\n\n{\"sku\":\"j2\"}\n"),
+        "json", store, language);
+
+    assertEquals(3, result.getTotal());
+    assertEquals(2, result.getCreated());
+    ReadableProductImportError error = result.getErrors().get(0);
+    assertEquals(2, error.getLine());
+    assertNull(error.getSku());
+    assertTrue(error.getMessage().startsWith("invalid json"));
+  }
+
+  @Test
+  public void nothingIndexedWhenNothingCreated() throws Exception {
+    ReadableProductImport result = importCsv(HEADER + BAD_SKU + ",Pants,,10,1,\n");
+
+    assertEquals(0, result.getCreated());
+    assertEquals(1, result.getFailed());
+    verify(productIndexingService, never()).index(any(MerchantStore.class), anyList());
+  }
+
+  private ReadableProductImport importCsv(String csv) throws Exception {
+    return facade.importProducts(input(csv), "csv", store, language);
+  }
+
+  private static ByteArrayInputStream input(String value) {
+    return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void assertError(ReadableProductImportError error, long line, String sku, String message) {
+    assertEquals(line, error.getLine());
+    assertEquals(sku, error.getSku());
+    assertEquals(message, error.getMessage());
+  }
+
+}
@@ -95,6 +95,7 @@ public class ShoppingCartAPIIntegrationTest extends ServicesTestSupport {
         assertNotNull(response);
         assertThat(response.getStatusCode(), is(CREATED));
         assertEquals(response.getBody().getQuantity(), 2);
+        assertSqlStatements(response, 60);
     }
 
     /**
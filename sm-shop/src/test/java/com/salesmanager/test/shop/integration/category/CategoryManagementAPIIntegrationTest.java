@@ -59,6 +59,7 @@ public class CategoryManagementAPIIntegrationTest extends ServicesTestSupport {
         } else {
             final List<ReadableCategory> categories = response.getBody().getCategories();
             assertNotNull(categories);
+            assertSqlStatements(response, 40);
         }
     }
 
@@ -0,0 +1,109 @@
+package com.salesmanager.test.shop.populator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.salesmanager.core.business.exception.ConversionException;
+import com.salesmanager.core.business.services.reference.country.CountryService;
+import com.salesmanager.core.business.services.reference.zone.ZoneService;
+import com.salesmanager.core.business.utils.AbstractDataPopulator;
+import com.salesmanager.core.model.customer.Customer;
+import com.salesmanager.core.model.merchant.MerchantStore;
+import com.salesmanager.core.model.reference.language.Language;
+import com.salesmanager.shop.model.customer.PersistableCustomer;
+import com.salesmanager.shop.populator.PersistableAuditAspect;
+import com.salesmanager.shop.populator.customer.CustomerPopulator;
+import com.salesmanager.shop.store.security.user.JWTUser;
+
+public class PersistableAuditAspectTest {
+
+  private final MerchantStore store = new MerchantStore();
+  private final Language language = new Language();
+
+  @Before
+  public void setUp() {
+    JWTUser user = new JWTUser(1L, "admin@shopizer.com", "Admin", "User", "admin@shopizer.com", "password",
+        Collections.emptyList(), true, new Date());
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+  }
+
+  @After
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void auditedPopulatorSetsAuditSection() throws Exception {
+    CustomerPopulator populator = advise(customerPopulator());
+
+    Customer customer = populator.populate(customer(), new Customer(), store, language);
+    assertNotNull(customer.getAuditSection().getDateModified());
+    assertEquals("admin@shopizer.com", customer.getAuditSection().getModifiedBy());
+  }
+
+  @Test
+  public void inheritedPopulateIsAudited() throws Exception {
+    CustomerPopulator populator = advise(customerPopulator());
+
+    Customer customer = populator.populate(customer(), store, language);
+    assertNotNull(customer.getAuditSection().getDateModified());
+    assertEquals("admin@shopizer.com", customer.getAuditSection().getModifiedBy());
+  }
+
+  @Test
+  public void populatorNotAuditedIsNotAdvised() throws Exception {
+    AbstractDataPopulator<PersistableCustomer, Customer> populator = advise(
+        new AbstractDataPopulator<PersistableCustomer, Customer>() {
+
+          @Override
+          public Customer populate(PersistableCustomer source, Customer target, MerchantStore store,
+              Language language) throws ConversionException {
+            return target;
+          }
+
+          @Override
+          protected Customer createTarget() {
+            return new Customer();
+          }
+        });
+
+    Customer customer = populator.populate(customer(), store, language);
+    assertNull(customer.getAuditSection().getDateModified());
+    assertNull(customer.getAuditSection().getModifiedBy());
+  }
+
+  private CustomerPopulator customerPopulator() {
+    CustomerPopulator populator = new CustomerPopulator();
+    ReflectionTestUtils.setField(populator, "countryService", mock(CountryService.class));
+    ReflectionTestUtils.setField(populator, "zoneService", mock(ZoneService.class));
+    return populator;
+  }
+
+  private PersistableCustomer customer() {
+    PersistableCustomer customer = new PersistableCustomer();
+    customer.setEmailAddress("customer@shopizer.com");
+    return customer;
+  }
+
+  private static <T> T advise(T populator) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(populator);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new PersistableAuditAspect());
+    return factory.getProxy();
+  }
+
+}
@@ -0,0 +1,60 @@
+package com.salesmanager.test.shop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.salesmanager.shop.utils.GeoLocationUtils;
+
+public class GeoLocationUtilsTest {
+
+	@Test
+	public void testFirstForwardedEntryIsTheClient() {
+		MockHttpServletRequest request = request();
+		request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1, 10.0.0.2");
+		assertEquals("203.0.113.7", GeoLocationUtils.getClientIpAddress(request));
+	}
+
+	@Test
+	public void testSingleForwardedEntryIsTrimmed() {
+		MockHttpServletRequest request = request();
+		request.addHeader("X-Forwarded-For", " 203.0.113.7 ");
+		assertEquals("203.0.113.7", GeoLocationUtils.getClientIpAddress(request));
+	}
+
+	@Test
+	public void testIpv6ForwardedEntry() {
+		MockHttpServletRequest request = request();
+		request.addHeader("X-Forwarded-For", "2001:db8::1,10.0.0.1");
+		assertEquals("2001:db8::1", GeoLocationUtils.getClientIpAddress(request));
+	}
+
+	/**
+	 * A proxy which does not know the client leaves an empty or unknown
+	 * first entry, the next header is used
+	 */
+	@Test
+	public void testUnknownClientUsesNextHeader() {
+		MockHttpServletRequest request = request();
+		request.addHeader("X-Forwarded-For", "unknown, 10.0.0.1");
+		request.addHeader("Proxy-Client-IP", "198.51.100.4");
+		assertEquals("198.51.100.4", GeoLocationUtils.getClientIpAddress(request));
+
+		request = request();
+		request.addHeader("X-Forwarded-For", ", 10.0.0.1");
+		assertEquals("192.0.2.1", GeoLocationUtils.getClientIpAddress(request));
+	}
+
+	@Test
+	public void testRemoteAddressWithoutHeaders() {
+		assertEquals("192.0.2.1", GeoLocationUtils.getClientIpAddress(request()));
+	}
+
+	private MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr("192.0.2.1");
+		return request;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.salesmanager.test.shop.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.salesmanager.shop.filter.XssHttpServletRequestWrapper;
+import com.salesmanager.shop.utils.SanitizeUtils;
+
+public class XssSanitizeTest {
+
+	private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/96.0.4664.110 Safari/537.36";
+
+	@Test
+	public void testPlainValuesAreReturnedAsIs() {
+		String[] values = { "hello world", "it's", USER_AGENT, "text/html,application/xhtml+xml;q=0.9,*/*;q=0.8",
+				"Bearer eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJhZG1pbiJ9.abc-_", "%3Cscript%3E", "" };
+		for (String value : values) {
+			assertFalse(SanitizeUtils.requiresSanitizing(value));
+			assertSame(value, SanitizeUtils.getSafeString(value));
+		}
+		assertNull(SanitizeUtils.getSafeString(null));
+	}
+
+	@Test
+	public void testMarkupIsCleaned() {
+		assertTrue(SanitizeUtils.requiresSanitizing("<script>alert(1)</script>"));
+		assertEquals("", SanitizeUtils.getSafeString("<script>alert(1)</script>"));
+		assertEquals("a&amp;b", SanitizeUtils.getSafeString("a&b"));
+		assertEquals("a&quot;b", SanitizeUtils.getSafeString("a\"b"));
+		assertEquals("a&gt;b", SanitizeUtils.getSafeString("a>b"));
+		assertEquals("new line", SanitizeUtils.getSafeString("new\nline"));
+	}
+
+	@Test
+	public void testWrapperSanitizesHeadersAndParameters() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("User-Agent", USER_AGENT);
+		request.addHeader("X-Comment", "<script>alert(1)</script>nice");
+		request.addParameter("q", "shoes");
+		request.addParameter("tags", "a&b", "<b>c</b>");
+
+		XssHttpServletRequestWrapper wrapper = new XssHttpServletRequestWrapper(request);
+
+		assertSame(USER_AGENT, wrapper.getHeader("User-Agent"));
+		String comment = wrapper.getHeader("X-Comment");
+		assertEquals("nice", comment);
+		//cleaned once per request
+		assertSame(comment, wrapper.getHeader("X-Comment"));
+		assertEquals("shoes", wrapper.getParameter("q"));
+		assertArrayEquals(new String[] { "a&amp;b", "<b>c</b>" }, wrapper.getParameterValues("tags"));
+		assertNull(wrapper.getHeader("missing"));
+	}
+
+}